@@ -65,6 +65,7 @@ public class IOException extends RuntimeException {
     public static final String CannotGetTiffImageColor = "Cannot get TIFF image color.";
     public static final String CannotHandleBoxSizesHigherThan2_32 = "Cannot handle box sizes higher than 2^32.";
     public static final String CannotInflateTiffImage = "Cannot inflate TIFF image.";
+    public static final String CannotReadTemporaryFile = "Cannot read the content of the temporary file.";
     public static final String CannotReadTiffImage = "Cannot read TIFF image.";
     public static final String CannotWriteByte = "Cannot write byte.";
     public static final String CannotWriteBytes = "Cannot write bytes.";
@@ -56,6 +56,23 @@ public final class ByteUtils {
     private static final byte[] one = new byte[]{49};
     private static final byte[] negOne = new byte[]{(byte) '-', 49};
 
+    private static final byte[] DIGIT_TENS = new byte[100];
+    private static final byte[] DIGIT_ONES = new byte[100];
+
+    private static final int HIGH_PRECISION_FRACTION_DIGITS = 6;
+    private static final long HIGH_PRECISION_SCALE = 1000000;
+    // the scaled values stay below 2^50, so that their ulp does not exceed 1/8
+    private static final double HIGH_PRECISION_FAST_LIMIT = 1e9;
+    // '-', 9 integer digits, '.', 6 fraction digits
+    private static final int HIGH_PRECISION_MAX_LENGTH = 17;
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = bytes[i / 10];
+            DIGIT_ONES[i] = bytes[i % 10];
+        }
+    }
+
     public static byte[] getIsoBytes(String text) {
         if (text == null)
             return null;
@@ -110,10 +127,7 @@ public final class ByteUtils {
         }
         int intLen = intSize(n);
         ByteBuffer buf = buffer == null ? new ByteBuffer(intLen + (negative ? 1 : 0)) : buffer;
-        for (int i = 0; i < intLen; i++) {
-            buf.prepend(bytes[n % 10]);
-            n /= 10;
-        }
+        prependDigits(buf, n, intLen);
         if (negative)
             buf.prepend((byte) '-');
 
@@ -134,13 +148,22 @@ public final class ByteUtils {
                     return zero;
                 }
             }
-            byte[] result = DecimalFormatUtil.formatNumber(d, "0.######").getBytes(StandardCharsets.ISO_8859_1);
+            ByteBuffer buf = buffer != null ? buffer : new ByteBuffer(HIGH_PRECISION_MAX_LENGTH);
+            if (!prependHighPrecision(d, buf)) {
+                byte[] result = DecimalFormatUtil.formatNumber(d, "0.######").getBytes(StandardCharsets.ISO_8859_1);
+                if (buffer != null) {
+                    buffer.prepend(result);
+                    return null;
+                } else {
+                    return result;
+                }
+            }
             if (buffer != null) {
-                buffer.prepend(result);
                 return null;
-            } else {
-                return result;
             }
+            byte[] result = new byte[buf.size()];
+            System.arraycopy(buf.getInternalBuffer(), buf.capacity() - buf.size(), result, 0, result.length);
+            return result;
         }
         boolean negative = false;
         if (Math.abs(d) < 0.000015) {
@@ -179,10 +202,7 @@ public final class ByteUtils {
                 v /= 10;
             }
             buf = buffer != null ? buffer : new ByteBuffer(negative ? len + 3 : len + 2);
-            for (int i = 0; i < len; i++) {
-                buf.prepend(bytes[v % 10]);
-                v /= 10;
-            }
+            prependDigits(buf, v, len);
             buf.prepend((byte) '.').prepend((byte) '0');
             if (negative) {
                 buf.prepend((byte) '-');
@@ -214,17 +234,12 @@ public final class ByteUtils {
                 v /= 100;
             }
             buf = buffer != null ? buffer : new ByteBuffer(intLen + fracLen + (negative ? 1 : 0));
-            for (int i = 0; i < fracLen - 1; i++) {     //-1 because fracLen include '.'
-                buf.prepend(bytes[v % 10]);
-                v /= 10;
-            }
             if (fracLen > 0) {
+                prependDigits(buf, v, fracLen - 1);     //-1 because fracLen include '.'
+                v /= fracLen == 3 ? 100 : 10;
                 buf.prepend((byte) '.');
             }
-            for (int i = 0; i < intLen; i++) {
-                buf.prepend(bytes[v % 10]);
-                v /= 10;
-            }
+            prependDigits(buf, v, intLen);
             if (negative) {
                 buf.prepend((byte) '-');
             }
@@ -239,10 +254,7 @@ public final class ByteUtils {
             }
             int intLen = longSize(v);
             buf = buffer == null ? new ByteBuffer(intLen + (negative ? 1 : 0)) : buffer;
-            for (int i = 0; i < intLen; i++) {
-                buf.prepend(bytes[(int) (v % 10)]);
-                v /= 10;
-            }
+            prependDigits(buf, v, intLen);
             if (negative) {
                 buf.prepend((byte) '-');
             }
@@ -251,6 +263,68 @@ public final class ByteUtils {
         return buffer == null ? buf.getInternalBuffer() : null;
     }
 
+    /**
+     * Formats the number the same way as {@link DecimalFormatUtil#formatNumber(double, String)} with
+     * {@code "0.######"} pattern does, without intermediate allocations.
+     * <br>
+     * {@link java.text.DecimalFormat} rounds half-even the exact binary value of the number. The scaled value
+     * computed here may differ from the exact one by half an ulp, so the numbers which are too close to a tie,
+     * as well as too big numbers, are not formatted and shall be processed by {@link java.text.DecimalFormat}.
+     *
+     * @param d the number to format, its absolute value shall not be less than 0.000001
+     * @param buf the buffer to prepend the formatted number to
+     * @return {@code true} if the number has been formatted, {@code false} otherwise
+     */
+    private static boolean prependHighPrecision(double d, ByteBuffer buf) {
+        double abs = Math.abs(d);
+        if (!(abs < HIGH_PRECISION_FAST_LIMIT)) {
+            // NaN and infinities are processed by DecimalFormat too
+            return false;
+        }
+        double scaled = abs * HIGH_PRECISION_SCALE;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) <= Math.ulp(scaled)) {
+            return false;
+        }
+        long v = (long) floor + (fraction > 0.5 ? 1 : 0);
+        if (v == 0) {
+            return false;
+        }
+        long intPart = v / HIGH_PRECISION_SCALE;
+        int fracPart = (int) (v - intPart * HIGH_PRECISION_SCALE);
+        if (fracPart != 0) {
+            int fracLen = HIGH_PRECISION_FRACTION_DIGITS;
+            while (fracPart % 10 == 0) {
+                fracPart /= 10;
+                fracLen--;
+            }
+            prependDigits(buf, fracPart, fracLen);
+            buf.prepend((byte) '.');
+        }
+        prependDigits(buf, intPart, longSize(intPart));
+        if (d < 0) {
+            buf.prepend((byte) '-');
+        }
+        return true;
+    }
+
+    /**
+     * Prepends exactly {@code len} least significant decimal digits of the non-negative value,
+     * two digits at a time.
+     */
+    private static void prependDigits(ByteBuffer buf, long v, int len) {
+        while (len > 1) {
+            int pair = (int) (v % 100);
+            v /= 100;
+            buf.prepend(DIGIT_ONES[pair]).prepend(DIGIT_TENS[pair]);
+            len -= 2;
+        }
+        if (len == 1) {
+            buf.prepend(bytes[(int) (v % 10)]);
+        }
+    }
+
     private static int longSize(long l) {
         long m = 10;
         for (int i = 1; i < 19; i++) {
@@ -43,14 +43,21 @@
  */
 package com.itextpdf.io.source;
 
+import com.itextpdf.io.util.ZlibPool;
+
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.zip.Deflater;
 
+/**
+ * Deflates the data written to it. The {@link java.util.zip.Deflater} is taken from the pool
+ * and returned there once the stream is finished, so no data can be written to the stream after that.
+ */
 public class DeflaterOutputStream extends java.util.zip.DeflaterOutputStream {
 
+    private boolean deflaterReleased = false;
+
     public DeflaterOutputStream(OutputStream out, int level, int size) {
-        super(out, new Deflater(level), size);
+        super(out, ZlibPool.acquireDeflater(level), size);
     }
 
     public DeflaterOutputStream(OutputStream out, int level) {
@@ -61,6 +68,18 @@ public class DeflaterOutputStream extends java.util.zip.DeflaterOutputStream {
         this(out, -1);
     }
 
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureNotFinished();
+        super.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureNotFinished();
+        super.flush();
+    }
+
     @Override
     public void close() throws IOException {
         finish();
@@ -69,7 +88,18 @@ public class DeflaterOutputStream extends java.util.zip.DeflaterOutputStream {
 
     @Override
     public void finish() throws IOException {
+        if (deflaterReleased) {
+            return;
+        }
         super.finish();
-        def.end();
+        deflaterReleased = true;
+        ZlibPool.releaseDeflater(def);
+        def = null;
+    }
+
+    private void ensureNotFinished() throws IOException {
+        if (deflaterReleased) {
+            throw new IOException("Stream finished");
+        }
     }
 }
@@ -0,0 +1,175 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link ByteArrayOutputStream} which keeps the written bytes outside of the Java heap,
+ * in the direct buffers taken from a {@link DirectByteBufferPool}.
+ * <br>
+ * The buffers are returned to the pool when the stream is {@link #reset() reset} or {@link #close() closed},
+ * so the content of the stream is discarded on closing unlike the content of the regular {@link ByteArrayOutputStream}.
+ * Note that the {@code buf} and {@code count} fields of the parent class are not used by this stream.
+ */
+public class DirectByteBufferOutputStream extends ByteArrayOutputStream {
+
+    private final DirectByteBufferPool pool;
+    private final List<java.nio.ByteBuffer> buffers = new ArrayList<>();
+    private int size;
+
+    /**
+     * Creates a stream which takes the buffers from the specified pool.
+     *
+     * @param pool the pool of the direct buffers
+     */
+    public DirectByteBufferOutputStream(DirectByteBufferPool pool) {
+        super(0);
+        this.pool = pool;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        getWritableBuffer().put((byte) b);
+        size++;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            java.nio.ByteBuffer buffer = getWritableBuffer();
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    @Override
+    public synchronized void writeTo(java.io.OutputStream out) throws java.io.IOException {
+        byte[] chunk = new byte[Math.min(size, pool.getBufferSize())];
+        for (java.nio.ByteBuffer buffer : buffers) {
+            java.nio.ByteBuffer content = buffer.duplicate();
+            content.flip();
+            while (content.hasRemaining()) {
+                int n = Math.min(content.remaining(), chunk.length);
+                content.get(chunk, 0, n);
+                out.write(chunk, 0, n);
+            }
+        }
+    }
+
+    @Override
+    public synchronized byte[] toByteArray() {
+        byte[] bytes = new byte[size];
+        int pos = 0;
+        for (java.nio.ByteBuffer buffer : buffers) {
+            java.nio.ByteBuffer content = buffer.duplicate();
+            content.flip();
+            int n = content.remaining();
+            content.get(bytes, pos, n);
+            pos += n;
+        }
+        return bytes;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void reset() {
+        for (java.nio.ByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+        buffers.clear();
+        size = 0;
+    }
+
+    @Override
+    public ByteArrayOutputStream assignBytes(byte[] bytes, int count) {
+        reset();
+        write(bytes, 0, count);
+        return this;
+    }
+
+    @Override
+    public ByteArrayOutputStream assignBytes(byte[] bytes) {
+        return assignBytes(bytes, bytes.length);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new String(toByteArray());
+    }
+
+    @Override
+    public synchronized String toString(String charsetName) throws UnsupportedEncodingException {
+        return new String(toByteArray(), charsetName);
+    }
+
+    /**
+     * Releases the buffers of this stream to the pool. The content of the stream is discarded.
+     */
+    @Override
+    public void close() {
+        reset();
+    }
+
+    private java.nio.ByteBuffer getWritableBuffer() {
+        java.nio.ByteBuffer buffer = buffers.isEmpty() ? null : buffers.get(buffers.size() - 1);
+        if (buffer == null || !buffer.hasRemaining()) {
+            buffer = pool.acquire();
+            buffers.add(buffer);
+        }
+        return buffer;
+    }
+}
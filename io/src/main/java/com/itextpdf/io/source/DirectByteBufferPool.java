@@ -0,0 +1,127 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A pool of direct {@link java.nio.ByteBuffer} instances of the same size.
+ * <br>
+ * Allocation of direct buffers is expensive and their memory is released only when the buffer is garbage collected,
+ * so the buffers which are not used anymore are kept in the pool and handed out again instead of allocating new ones.
+ * The pool is thread-safe.
+ */
+public class DirectByteBufferPool {
+
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+    private final Deque<java.nio.ByteBuffer> pooledBuffers = new ArrayDeque<>();
+
+    /**
+     * Creates a pool of direct buffers.
+     *
+     * @param bufferSize       the size of each buffer in bytes, must be positive
+     * @param maxPooledBuffers the maximum number of unused buffers which are kept in the pool, must not be negative
+     */
+    public DirectByteBufferPool(int bufferSize, int maxPooledBuffers) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        if (maxPooledBuffers < 0) {
+            throw new IllegalArgumentException("Max pooled buffers number must not be negative");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * Gets the size of the buffers of this pool.
+     *
+     * @return the size of a buffer in bytes
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Gets the number of unused buffers which are currently kept in the pool.
+     *
+     * @return the number of pooled buffers
+     */
+    public synchronized int getPooledBufferCount() {
+        return pooledBuffers.size();
+    }
+
+    /**
+     * Takes a buffer from the pool or allocates a new one if the pool is empty.
+     * The returned buffer is cleared.
+     *
+     * @return a direct buffer of {@link #getBufferSize()} bytes
+     */
+    public java.nio.ByteBuffer acquire() {
+        java.nio.ByteBuffer buffer;
+        synchronized (this) {
+            buffer = pooledBuffers.pollLast();
+        }
+        if (buffer == null) {
+            buffer = java.nio.ByteBuffer.allocateDirect(bufferSize);
+        } else {
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the pool. The buffer shall not be used by the caller afterwards.
+     * If the pool is full, the buffer is left to the garbage collector.
+     *
+     * @param buffer the buffer previously obtained by {@link #acquire()}
+     */
+    public synchronized void release(java.nio.ByteBuffer buffer) {
+        if (pooledBuffers.size() < maxPooledBuffers) {
+            pooledBuffers.addLast(buffer);
+        }
+    }
+}
@@ -102,6 +102,22 @@ class MappedChannelRandomAccessSource implements IRandomAccessSource {
         source = new ByteBufferRandomAccessSource(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
     }
 
+    /**
+     * Checks whether the region of the channel is currently mapped
+     * @return true if the region is mapped, false otherwise
+     */
+    boolean isOpen() {
+        return source != null;
+    }
+
+    /**
+     * Gets the offset into the channel that this source maps to
+     * @return the offset of the map
+     */
+    long getOffset() {
+        return offset;
+    }
+
 
 
     /**
@@ -0,0 +1,158 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.Serializable;
+
+/**
+ * Defines how a file is mapped into memory by the sources created with
+ * {@link RandomAccessSourceFactory#createBestSource(String)}.
+ * <br>
+ * The file is mapped in pages of {@link #getPageSize()} bytes. At most {@link #getMaxMappedPages()} pages are kept mapped
+ * at the same time, when another page is needed the least recently used page is explicitly unmapped.
+ * The numbers of mapped and unmapped pages as well as page hits and misses are collected in
+ * the {@link #getStatistics() statistics}, which allows to tune these values for a specific workload.
+ * The same instance may be used for several sources, in which case the statistics are summed up.
+ */
+public class MappedSourceProperties implements Serializable {
+
+    private static final long serialVersionUID = -4521787014264315713L;
+
+    private int pageSize = PagedChannelRandomAccessSource.DEFAULT_TOTAL_BUFSIZE / PagedChannelRandomAccessSource.DEFAULT_MAX_OPEN_BUFFERS;
+    private int maxMappedPages = PagedChannelRandomAccessSource.DEFAULT_MAX_OPEN_BUFFERS + 1;
+    private int readAheadPages = 0;
+
+    private final MappedSourceStatistics statistics = new MappedSourceStatistics();
+
+    /**
+     * Creates the properties with the default configuration: pages of 4 MB, at most 17 mapped pages
+     * and no read-ahead, which corresponds to the paging used for big files by default.
+     */
+    public MappedSourceProperties() {
+    }
+
+    /**
+     * Gets the size of a mapped page in bytes.
+     *
+     * @return the size of a mapped page
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Sets the size of a mapped page in bytes. Bigger pages mean fewer mappings for sequential reading, while
+     * smaller pages allow to keep mapped more distinct regions of a file for the same amount of address space.
+     *
+     * @param pageSize the size of a mapped page, must be positive
+     * @return this {@link MappedSourceProperties} instance
+     */
+    public MappedSourceProperties setPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of the pages which are mapped at the same time.
+     *
+     * @return the maximum number of the mapped pages
+     */
+    public int getMaxMappedPages() {
+        return maxMappedPages;
+    }
+
+    /**
+     * Sets the maximum number of the pages which are mapped at the same time, including the page which is being read.
+     * When the limit is exceeded, the least recently used page is unmapped.
+     *
+     * @param maxMappedPages the maximum number of the mapped pages, must be positive
+     * @return this {@link MappedSourceProperties} instance
+     */
+    public MappedSourceProperties setMaxMappedPages(int maxMappedPages) {
+        if (maxMappedPages <= 0) {
+            throw new IllegalArgumentException("Max mapped pages number must be positive");
+        }
+        this.maxMappedPages = maxMappedPages;
+        return this;
+    }
+
+    /**
+     * Gets the number of the pages which are mapped in advance when the file is read sequentially.
+     *
+     * @return the number of the read-ahead pages
+     */
+    public int getReadAheadPages() {
+        return readAheadPages;
+    }
+
+    /**
+     * Sets the number of the pages which are mapped in advance when the file is read sequentially, i.e. when reading
+     * moves from a page to the next one. The read-ahead pages are subject to the {@link #getMaxMappedPages()} limit,
+     * so the value shall be less than that limit.
+     * <br>
+     * Default value is {@code 0}, i.e. pages are mapped only on demand.
+     *
+     * @param readAheadPages the number of the read-ahead pages, must not be negative
+     * @return this {@link MappedSourceProperties} instance
+     */
+    public MappedSourceProperties setReadAheadPages(int readAheadPages) {
+        if (readAheadPages < 0) {
+            throw new IllegalArgumentException("Read-ahead pages number must not be negative");
+        }
+        this.readAheadPages = readAheadPages;
+        return this;
+    }
+
+    /**
+     * Gets the statistics of the sources which use these properties.
+     *
+     * @return the statistics of the mappings
+     */
+    public MappedSourceStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of the page mappings of the sources created with {@link MappedSourceProperties}.
+ * <br>
+ * A page hit means that the page, which reading has moved to, was already mapped. A page miss means
+ * that the page had to be mapped. The pages mapped in advance because of read-ahead are counted as mapped
+ * pages and as read-ahead pages, but not as misses.
+ */
+public class MappedSourceStatistics implements Serializable {
+
+    private static final long serialVersionUID = 2983649722458374640L;
+
+    private final AtomicLong mappedPages = new AtomicLong();
+    private final AtomicLong unmappedPages = new AtomicLong();
+    private final AtomicLong pageHits = new AtomicLong();
+    private final AtomicLong pageMisses = new AtomicLong();
+    private final AtomicLong readAheadPages = new AtomicLong();
+
+    MappedSourceStatistics() {
+    }
+
+    /**
+     * Gets the number of the page mappings.
+     *
+     * @return the number of the mapped pages
+     */
+    public long getMappedPagesCount() {
+        return mappedPages.get();
+    }
+
+    /**
+     * Gets the number of the pages which were explicitly unmapped, either after being evicted or when the source was closed.
+     *
+     * @return the number of the unmapped pages
+     */
+    public long getUnmappedPagesCount() {
+        return unmappedPages.get();
+    }
+
+    /**
+     * Gets the number of the pages which are currently mapped.
+     *
+     * @return the number of the currently mapped pages
+     */
+    public long getCurrentlyMappedPagesCount() {
+        return mappedPages.get() - unmappedPages.get();
+    }
+
+    /**
+     * Gets the number of times the page, which reading has moved to, was already mapped.
+     *
+     * @return the number of the page hits
+     */
+    public long getPageHitsCount() {
+        return pageHits.get();
+    }
+
+    /**
+     * Gets the number of times the page, which reading has moved to, had to be mapped.
+     *
+     * @return the number of the page misses
+     */
+    public long getPageMissesCount() {
+        return pageMisses.get();
+    }
+
+    /**
+     * Gets the number of the pages mapped in advance because of read-ahead.
+     *
+     * @return the number of the read-ahead pages
+     */
+    public long getReadAheadPagesCount() {
+        return readAheadPages.get();
+    }
+
+    /**
+     * Gets the share of the page hits among all the page switches.
+     *
+     * @return the hit rate in the range from 0 to 1, or 0 if no page was accessed yet
+     */
+    public double getHitRate() {
+        long hits = pageHits.get();
+        long total = hits + pageMisses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Resets all the counters except the number of currently mapped pages,
+     * which allows to collect the statistics for a specific part of the processing.
+     */
+    public void reset() {
+        long currentlyMapped = getCurrentlyMappedPagesCount();
+        mappedPages.set(currentlyMapped);
+        unmappedPages.set(0);
+        pageHits.set(0);
+        pageMisses.set(0);
+        readAheadPages.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "MappedSourceStatistics{mapped=" + getMappedPagesCount() + ", unmapped=" + getUnmappedPagesCount()
+                + ", hits=" + getPageHitsCount() + ", misses=" + getPageMissesCount()
+                + ", readAhead=" + getReadAheadPagesCount() + "}";
+    }
+
+    void pageMapped(boolean readAhead) {
+        mappedPages.incrementAndGet();
+        if (readAhead) {
+            readAheadPages.incrementAndGet();
+        } else {
+            pageMisses.incrementAndGet();
+        }
+    }
+
+    void pageUnmapped() {
+        unmappedPages.incrementAndGet();
+    }
+
+    void pageHit() {
+        pageHits.incrementAndGet();
+    }
+}
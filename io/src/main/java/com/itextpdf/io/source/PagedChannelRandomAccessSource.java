@@ -51,14 +51,14 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.nio.channels.FileChannel;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A RandomAccessSource that is based on an underlying {@link java.nio.channels.FileChannel}.  The channel is mapped into memory using a paging scheme to allow for efficient reads of very large files.
  * As an implementation detail, we use {@link GroupedRandomAccessSource} functionality, but override to make determination of the underlying
- * mapped page more efficient - and to close each page as another is opened
+ * mapped page more efficient - and to unmap the least recently used page when too many pages are mapped
  */
 class PagedChannelRandomAccessSource extends GroupedRandomAccessSource implements IRandomAccessSource {
     // these values were selected based on parametric testing with extracting text content from a 2.3GB file.  These settings resulted in the best improvement over
@@ -78,9 +78,31 @@ class PagedChannelRandomAccessSource extends GroupedRandomAccessSource implement
     private final FileChannel channel;
 
     /**
-     * Most recently used list used to hold a number of mapped pages open at a time
+     * The pages of the channel, the page with index i starts at offset i * bufferSize
      */
-    private final MRU<IRandomAccessSource> mru;
+    private final MappedChannelRandomAccessSource[] pages;
+
+    /**
+     * The maximum number of the mapped pages, including the page in use
+     */
+    private final int maxMappedPages;
+
+    /**
+     * The number of the pages to map in advance when the pages are read sequentially
+     */
+    private final int readAheadPages;
+
+    /**
+     * Mapped pages which are not in use, from the least recently used to the most recently used one
+     */
+    private final LinkedHashMap<MappedChannelRandomAccessSource, Boolean> releasedPages;
+
+    private final MappedSourceStatistics statistics;
+
+    /**
+     * The index of the page in use
+     */
+    private int currentPageIndex;
 
     /**
      * Constructs a new {@link PagedChannelRandomAccessSource} based on the specified FileChannel, with a default buffer configuration.
@@ -101,10 +123,33 @@ class PagedChannelRandomAccessSource extends GroupedRandomAccessSource implement
      * @throws java.io.IOException if the channel cannot be opened or mapped
      */
     public PagedChannelRandomAccessSource(FileChannel channel, int totalBufferSize, int maxOpenBuffers) throws java.io.IOException {
-        super(buildSources(channel, totalBufferSize/maxOpenBuffers));
+        // the page in use is kept mapped in addition to maxOpenBuffers released pages
+        this(channel, new MappedSourceProperties().setPageSize(totalBufferSize / maxOpenBuffers).setMaxMappedPages(maxOpenBuffers + 1));
+    }
+
+    /**
+     * Constructs a new {@link PagedChannelRandomAccessSource} based on the specified FileChannel, with the paging
+     * configuration defined by the {@link MappedSourceProperties}
+     * @param channel the channel to use as the backing store
+     * @param properties the paging configuration, the mapping statistics are collected in its {@link MappedSourceProperties#getStatistics()}
+     * @throws java.io.IOException if the channel cannot be opened or mapped
+     */
+    public PagedChannelRandomAccessSource(FileChannel channel, MappedSourceProperties properties) throws java.io.IOException {
+        this(channel, buildSources(channel, properties.getPageSize()), properties);
+    }
+
+    private PagedChannelRandomAccessSource(FileChannel channel, MappedChannelRandomAccessSource[] pages, MappedSourceProperties properties) throws java.io.IOException {
+        super(pages);
         this.channel = channel;
-        this.bufferSize = totalBufferSize/maxOpenBuffers;
-        this.mru = new MRU<IRandomAccessSource>(maxOpenBuffers);
+        this.pages = pages;
+        this.bufferSize = properties.getPageSize();
+        this.maxMappedPages = properties.getMaxMappedPages();
+        this.readAheadPages = Math.min(properties.getReadAheadPages(), maxMappedPages - 1);
+        this.releasedPages = new LinkedHashMap<>(16, 0.75f, true);
+        this.statistics = properties.getStatistics();
+        // the last page has already been mapped by the GroupedRandomAccessSource constructor
+        this.currentPageIndex = pages.length - 1;
+        statistics.pageMapped(false);
     }
 
     /**
@@ -114,7 +159,7 @@ class PagedChannelRandomAccessSource extends GroupedRandomAccessSource implement
      * @return a list of sources that represent the pages of the channel
      * @throws java.io.IOException if IO fails for any reason
      */
-    private static IRandomAccessSource[] buildSources(FileChannel channel, int bufferSize) throws java.io.IOException{
+    private static MappedChannelRandomAccessSource[] buildSources(FileChannel channel, int bufferSize) throws java.io.IOException{
         long size = channel.size();
         if (size <= 0)
             throw new java.io.IOException("File size must be greater than zero");
@@ -140,22 +185,38 @@ class PagedChannelRandomAccessSource extends GroupedRandomAccessSource implement
 
     /**
      * {@inheritDoc}
-     * For now, close the source that is no longer being used.  In the future, we may implement an MRU that allows multiple pages to be opened at a time
+     * The released page stays mapped until it becomes the least recently used one and the number of mapped pages exceeds the limit.
      */
     @Override
     protected void sourceReleased(IRandomAccessSource source) throws java.io.IOException {
-        IRandomAccessSource old = mru.enqueue(source);
-        if (old != null)
-            old.close();
+        releasedPages.put((MappedChannelRandomAccessSource) source, Boolean.TRUE);
+        unmapLeastRecentlyUsedPages();
     }
 
     /**
      * {@inheritDoc}
-     * Ensure that the source is mapped.  In the future, we may implement an MRU that allows multiple pages to be opened at a time
+     * Ensure that the source is mapped, and map the following pages in advance if the pages are read sequentially.
      */
     @Override
     protected void sourceInUse(IRandomAccessSource source) throws java.io.IOException {
-        ((MappedChannelRandomAccessSource)source).open();
+        MappedChannelRandomAccessSource page = (MappedChannelRandomAccessSource) source;
+        if (statistics == null) {
+            // called from the GroupedRandomAccessSource constructor
+            page.open();
+            return;
+        }
+        releasedPages.remove(page);
+        if (page.isOpen()) {
+            statistics.pageHit();
+        } else {
+            page.open();
+            statistics.pageMapped(false);
+        }
+        int pageIndex = (int) (page.getOffset() / bufferSize);
+        if (readAheadPages > 0 && pageIndex == currentPageIndex + 1) {
+            readAhead(pageIndex);
+        }
+        currentPageIndex = pageIndex;
     }
 
     /**
@@ -165,6 +226,12 @@ class PagedChannelRandomAccessSource extends GroupedRandomAccessSource implement
     @Override
     public void close() throws java.io.IOException {
         try {
+            for (MappedChannelRandomAccessSource page : pages) {
+                if (page.isOpen()) {
+                    statistics.pageUnmapped();
+                }
+            }
+            releasedPages.clear();
             super.close();
         } finally {
             try {
@@ -176,6 +243,30 @@ class PagedChannelRandomAccessSource extends GroupedRandomAccessSource implement
         }
     }
 
+    private void readAhead(int pageIndex) throws java.io.IOException {
+        int lastPageIndex = Math.min(pageIndex + readAheadPages, pages.length - 1);
+        for (int i = pageIndex + 1; i <= lastPageIndex; i++) {
+            MappedChannelRandomAccessSource page = pages[i];
+            if (!page.isOpen()) {
+                page.open();
+                statistics.pageMapped(true);
+            }
+            releasedPages.put(page, Boolean.TRUE);
+        }
+        unmapLeastRecentlyUsedPages();
+    }
+
+    private void unmapLeastRecentlyUsedPages() throws java.io.IOException {
+        // the page in use is mapped as well, so at most maxMappedPages - 1 released pages are kept mapped
+        Iterator<MappedChannelRandomAccessSource> iterator = releasedPages.keySet().iterator();
+        while (releasedPages.size() > maxMappedPages - 1) {
+            MappedChannelRandomAccessSource page = iterator.next();
+            iterator.remove();
+            page.close();
+            statistics.pageUnmapped();
+        }
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         throw new NotSerializableException(getClass().toString());
     }
@@ -183,51 +274,4 @@ class PagedChannelRandomAccessSource extends GroupedRandomAccessSource implement
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         throw new NotSerializableException(getClass().toString());
     }
-
-    private static class MRU<E> {
-        /**
-         * The maximum number of entries held by this MRU
-         */
-        private final int limit;
-
-        /**
-         * Backing list for managing the MRU
-         */
-        private LinkedList<E> queue = new LinkedList<>();
-
-        /**
-         * Constructs an MRU with the specified size
-         * @param limit the limit
-         */
-        public MRU(int limit) {
-            this.limit = limit;
-        }
-
-        /**
-         * Adds an element to the MRU.  If the element is already in the MRU, it is moved to the top.
-         * @param newElement the element to add
-         * @return the element that was removed from the MRU to make room for the new element, or null if no element needed to be removed
-         */
-        public E enqueue(E newElement){
-            // TODO: this check may not be an effective optimization - the GroupedRandomAccessSource already tracks the 'current' source, so it seems unlikely that we would ever hit this code branch
-            if (queue.size() > 0 && queue.getFirst() == newElement)
-                return null;
-
-            for(Iterator<E> it = queue.iterator(); it.hasNext();){
-                E element = it.next();
-                if (newElement == element){
-                    it.remove();
-                    queue.addFirst(newElement);
-                    return null;
-                }
-            }
-            queue.addFirst(newElement);
-
-            if (queue.size() > limit)
-                return queue.removeLast();
-
-            return null;
-        }
-    }
 }
-
@@ -183,6 +183,34 @@ public class PdfTokenizer implements Closeable, Serializable {
         return outBuf.toByteArray();
     }
 
+    /**
+     * Appends the content of the current token to the buffer.
+     * Unlike {@link #getByteContent()} this method doesn't create a new array for every token.
+     *
+     * @param buffer the buffer to append the token content to
+     * @return the length of the token content
+     */
+    public int appendByteContent(ByteBuffer buffer) {
+        buffer.append(outBuf.getInternalBuffer(), 0, outBuf.size());
+        return outBuf.size();
+    }
+
+    /**
+     * Calculates the hash code of the content of the current token without copying it.
+     * The result is the same as {@code java.util.Arrays.hashCode(getByteContent())}.
+     *
+     * @return the hash code of the current token content
+     */
+    public int getByteContentHashCode() {
+        byte[] content = outBuf.getInternalBuffer();
+        int size = outBuf.size();
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + content[i];
+        }
+        return hash;
+    }
+
     public String getStringValue() {
         return new String(outBuf.getInternalBuffer(), 0, outBuf.size());
     }
@@ -524,6 +552,16 @@ public class PdfTokenizer implements Closeable, Serializable {
         return file.createView();
     }
 
+    /**
+     * Makes the underlying file safe to be read through several {@link #getSafeFile() views} from different threads
+     * simultaneously. It shall be called from a single thread before the views are used concurrently.
+     *
+     * @see RandomAccessFileOrArray#ensureByteSourceIsThreadSafe()
+     */
+    public void ensureFileIsThreadSafe() {
+        file.ensureByteSourceIsThreadSafe();
+    }
+
     /**
      * Resolve escape symbols or hexadecimal symbols.
      * <br>
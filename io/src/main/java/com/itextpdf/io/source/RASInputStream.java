@@ -43,11 +43,15 @@
  */
 package com.itextpdf.io.source;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
  * An input stream that uses a {@link IRandomAccessSource} as
  * its underlying source.
+ * <br>
+ * The stream supports {@link #mark(int)} and {@link #reset()} regardless of the read limit,
+ * since the data is read again from the source after resetting, and is never kept in memory.
  */
 public class RASInputStream extends InputStream {
 
@@ -57,16 +61,45 @@ public class RASInputStream extends InputStream {
     private final IRandomAccessSource source;
 
     /**
-     * The current position in the source.
+     * The position in the source of the byte following the buffered ones.
      */
     private long position = 0;
 
+    /**
+     * The buffer of the bytes read ahead, or {@code null} if the stream is not buffered.
+     */
+    private final byte[] buffer;
+
+    private int bufferPos = 0;
+
+    private int bufferCount = 0;
+
+    /**
+     * The marked position in the source, or -1 if the stream is not marked.
+     */
+    private long markPosition = -1;
+
     /**
      * Creates an input stream based on the source.
      * @param source The source.
      */
     public RASInputStream(IRandomAccessSource source){
         this.source = source;
+        this.buffer = null;
+    }
+
+    /**
+     * Creates an input stream based on the source, which reads the source ahead in blocks of the given size,
+     * so that reading of single bytes doesn't require a request to the source for each byte.
+     * @param source The source.
+     * @param bufferSize The size of the read ahead buffer.
+     */
+    public RASInputStream(IRandomAccessSource source, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size <= 0");
+        }
+        this.source = source;
+        this.buffer = new byte[bufferSize];
     }
 
     /**
@@ -74,9 +107,34 @@ public class RASInputStream extends InputStream {
      */
     @Override
     public int read(byte[] b, int off, int len) throws java.io.IOException {
-        int count = source.get(position, b, off, len);
-        position += count;
-        return count;
+        if (len == 0) {
+            return 0;
+        }
+        if (buffer != null) {
+            int total = 0;
+            while (total < len) {
+                if (bufferPos == bufferCount) {
+                    if (len - total >= buffer.length) {
+                        int n = readFromSource(b, off + total, len - total);
+                        if (n <= 0) {
+                            break;
+                        }
+                        total += n;
+                        continue;
+                    }
+                    fillBuffer();
+                    if (bufferCount == 0) {
+                        break;
+                    }
+                }
+                int n = Math.min(len - total, bufferCount - bufferPos);
+                System.arraycopy(buffer, bufferPos, b, off + total, n);
+                bufferPos += n;
+                total += n;
+            }
+            return total == 0 ? -1 : total;
+        }
+        return readFromSource(b, off, len);
     }
 
     /**
@@ -84,6 +142,64 @@ public class RASInputStream extends InputStream {
      */
     @Override
     public int read() throws java.io.IOException {
-        return source.get(position++);
+        if (buffer != null) {
+            if (bufferPos == bufferCount) {
+                fillBuffer();
+                if (bufferCount == 0) {
+                    return -1;
+                }
+            }
+            return buffer[bufferPos++] & 0xff;
+        }
+        int b = source.get(position);
+        if (b >= 0) {
+            position++;
+        }
+        return b;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /**
+     * Marks the current position in the stream. The read limit is ignored, the stream can be
+     * reset to the marked position at any time.
+     *
+     * @param readlimit ignored
+     */
+    @Override
+    public synchronized void mark(int readlimit) {
+        markPosition = position - (bufferCount - bufferPos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void reset() throws IOException {
+        if (markPosition < 0) {
+            throw new IOException("Resetting to invalid mark");
+        }
+        position = markPosition;
+        bufferPos = 0;
+        bufferCount = 0;
+    }
+
+    private int readFromSource(byte[] b, int off, int len) throws java.io.IOException {
+        int count = source.get(position, b, off, len);
+        if (count > 0) {
+            position += count;
+        }
+        return count;
+    }
+
+    private void fillBuffer() throws java.io.IOException {
+        bufferPos = 0;
+        bufferCount = Math.max(readFromSource(buffer, 0, buffer.length), 0);
     }
 }
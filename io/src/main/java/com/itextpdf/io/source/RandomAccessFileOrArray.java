@@ -603,7 +603,15 @@ public class RandomAccessFileOrArray implements DataInput, Serializable {
         return new String(buf, encoding);
     }
 
-    private void ensureByteSourceIsThreadSafe() {
+    /**
+     * Wraps the byte source of this object so that it can be read through several views from different threads
+     * simultaneously. Does nothing if the byte source is already thread safe.
+     * <br>
+     * The views created by {@link #createView()} and {@link #createSourceView()} make the byte source thread safe
+     * as well, but this shall be done before the views are used concurrently, so it shall be called
+     * from a single thread, before any view is passed to another thread.
+     */
+    public void ensureByteSourceIsThreadSafe() {
         if (!(byteSource instanceof ThreadSafeRandomAccessSource)) {
             byteSource = new ThreadSafeRandomAccessSource(byteSource);
         }
@@ -78,6 +78,11 @@ public final class RandomAccessSourceFactory implements Serializable {
      */
     private boolean exclusivelyLockFile = false;
 
+    /**
+     * The paging configuration of memory mapped files, or null if the default paging shall be used
+     */
+    private MappedSourceProperties mappedSourceProperties;
+
     /**
      * Creates a factory that will give preference to accessing the underling data source using memory mapped files
      */
@@ -109,6 +114,18 @@ public final class RandomAccessSourceFactory implements Serializable {
         return this;
     }
 
+    /**
+     * Defines how files are mapped into memory by {@link #createBestSource(String)} and {@link #createBestSource(FileChannel)}.
+     * If the properties are set, files of any size are mapped using the paging scheme they define, otherwise
+     * small files are mapped at once and big files are mapped using the default paging scheme.
+     * @param mappedSourceProperties the paging configuration of memory mapped files, or null to use the default behaviour
+     * @return this object (this allows chaining of method calls)
+     */
+    public RandomAccessSourceFactory setMappedSourceProperties(MappedSourceProperties mappedSourceProperties) {
+        this.mappedSourceProperties = mappedSourceProperties;
+        return this;
+    }
+
     /**
      * Creates a {@link IRandomAccessSource} based on a byte array
      * @param data the byte array
@@ -216,11 +233,14 @@ public final class RandomAccessSourceFactory implements Serializable {
      * Creates a {@link IRandomAccessSource} based on memory mapping a file channel.
      * Unless you are explicitly working with a {@code FileChannel} already, it is better to use
      * {@link RandomAccessSourceFactory#createBestSource(String)}.
-     * If the file is large, it will be opened using a paging strategy.
+     * If the file is large or {@link MappedSourceProperties} are set, it will be opened using a paging strategy.
      * @param channel the name of the file or resource to create the {@link IRandomAccessSource} for
      * @return the newly created {@link IRandomAccessSource}
      */
     public IRandomAccessSource createBestSource(FileChannel channel) throws java.io.IOException {
+        if (mappedSourceProperties != null) {
+            return new GetBufferedRandomAccessSource(new PagedChannelRandomAccessSource(channel, mappedSourceProperties));
+        }
         if (channel.size() <= PagedChannelRandomAccessSource.DEFAULT_TOTAL_BUFSIZE){ // if less than the fully mapped usage of PagedFileChannelRandomAccessSource, just map the whole thing and be done with it
             return new GetBufferedRandomAccessSource(new FileChannelRandomAccessSource(channel));
         } else {
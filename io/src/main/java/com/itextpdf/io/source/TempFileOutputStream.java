@@ -0,0 +1,255 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.io.IOException;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+
+/**
+ * A {@link ByteArrayOutputStream} which keeps the written bytes in memory until their number exceeds
+ * the threshold, after which all the content is moved to a temporary file and the following bytes are
+ * written to that file.
+ * <br>
+ * The temporary file is deleted when the stream is {@link #reset() reset} or {@link #close() closed},
+ * so the content of the stream is discarded on closing unlike the content of the regular {@link ByteArrayOutputStream}.
+ * As the methods of {@link java.io.ByteArrayOutputStream} cannot throw checked exceptions,
+ * the failures of writing to the temporary file are reported by {@link IOException}.
+ */
+public class TempFileOutputStream extends ByteArrayOutputStream {
+
+    private static final int FILE_BUFFER_SIZE = 0x8000;
+
+    private final int threshold;
+    private final File directory;
+    private File file;
+    private java.io.OutputStream fileStream;
+    private int fileSize;
+
+    /**
+     * Creates a stream which spills its content to a file in the default temporary-file directory.
+     *
+     * @param threshold the maximum number of bytes which are kept in memory
+     */
+    public TempFileOutputStream(int threshold) {
+        this(threshold, null);
+    }
+
+    /**
+     * Creates a stream which spills its content to a file in the specified directory.
+     *
+     * @param threshold the maximum number of bytes which are kept in memory
+     * @param directory the directory in which the temporary file is created,
+     *                  or {@code null} to use the default temporary-file directory
+     */
+    public TempFileOutputStream(int threshold, File directory) {
+        super();
+        this.threshold = Math.max(threshold, 0);
+        this.directory = directory;
+    }
+
+    /**
+     * Checks whether the content of the stream was moved to a temporary file.
+     *
+     * @return true if the content is kept in a temporary file, false if it is kept in memory
+     */
+    public synchronized boolean isSpilled() {
+        return file != null;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        if (file == null && count + 1 > threshold) {
+            spill();
+        }
+        if (file == null) {
+            super.write(b);
+        } else {
+            try {
+                fileStream.write(b);
+            } catch (java.io.IOException e) {
+                throw new IOException(IOException.CannotWriteByte, e);
+            }
+            fileSize++;
+        }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        if (file == null && count + len > threshold) {
+            spill();
+        }
+        if (file == null) {
+            super.write(b, off, len);
+        } else {
+            try {
+                fileStream.write(b, off, len);
+            } catch (java.io.IOException e) {
+                throw new IOException(IOException.CannotWriteBytes, e);
+            }
+            fileSize += len;
+        }
+    }
+
+    @Override
+    public synchronized void writeTo(java.io.OutputStream out) throws java.io.IOException {
+        if (file == null) {
+            super.writeTo(out);
+            return;
+        }
+        fileStream.flush();
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] chunk = new byte[FILE_BUFFER_SIZE];
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                out.write(chunk, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    public synchronized byte[] toByteArray() {
+        if (file == null) {
+            return super.toByteArray();
+        }
+        byte[] bytes = new byte[fileSize];
+        try {
+            fileStream.flush();
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                raf.readFully(bytes);
+            } finally {
+                raf.close();
+            }
+        } catch (java.io.IOException e) {
+            throw new IOException(IOException.CannotReadTemporaryFile, e);
+        }
+        return bytes;
+    }
+
+    @Override
+    public synchronized int size() {
+        return file == null ? count : fileSize;
+    }
+
+    @Override
+    public synchronized void reset() {
+        deleteFile();
+        super.reset();
+    }
+
+    @Override
+    public synchronized ByteArrayOutputStream assignBytes(byte[] bytes, int count) {
+        deleteFile();
+        if (count > threshold) {
+            super.reset();
+            write(bytes, 0, count);
+            return this;
+        }
+        return super.assignBytes(bytes, count);
+    }
+
+    @Override
+    public ByteArrayOutputStream assignBytes(byte[] bytes) {
+        return assignBytes(bytes, bytes.length);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new String(toByteArray());
+    }
+
+    @Override
+    public synchronized String toString(String charsetName) throws UnsupportedEncodingException {
+        return new String(toByteArray(), charsetName);
+    }
+
+    /**
+     * Deletes the temporary file if it was created. The content of the stream is discarded.
+     */
+    @Override
+    public void close() {
+        reset();
+    }
+
+    private void spill() {
+        try {
+            file = File.createTempFile("itext", ".tmp", directory);
+            fileStream = new BufferedOutputStream(new FileOutputStream(file), FILE_BUFFER_SIZE);
+            super.writeTo(fileStream);
+        } catch (java.io.IOException e) {
+            deleteFile();
+            throw new IOException(IOException.CannotWriteBytes, e);
+        }
+        fileSize = count;
+        count = 0;
+        buf = new byte[32];
+    }
+
+    private void deleteFile() {
+        if (file == null) {
+            return;
+        }
+        try {
+            if (fileStream != null) {
+                fileStream.close();
+            }
+        } catch (java.io.IOException ignored) {
+            // the content is discarded anyway
+        }
+        file.delete();
+        file = null;
+        fileStream = null;
+        fileSize = 0;
+    }
+}
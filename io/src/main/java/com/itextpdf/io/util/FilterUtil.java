@@ -44,12 +44,9 @@
 package com.itextpdf.io.util;
 
 import com.itextpdf.io.IOException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
@@ -60,8 +57,13 @@ import java.util.zip.InflaterInputStream;
  */
 public final class FilterUtil {
 
-    /** The Logger instance. */
-    private static final Logger LOGGER = LoggerFactory.getLogger(FilterUtil.class);
+    private static final int FLATE_PROBE_SIZE = 4096;
+    /**
+     * Limits the output of a single inflate call, which in its turn limits the amount of data
+     * decoded byte by byte when a corrupted stream is recovered.
+     */
+    private static final int FLATE_CHUNK_SIZE = 8192;
+    private static final int MAX_INITIAL_BUFFER_SIZE = 64 * 1024 * 1024;
 
     private FilterUtil() {
     }
@@ -75,28 +77,62 @@ public final class FilterUtil {
      * @return the decoded data
      */
     public static byte[] flateDecode(byte[] input, boolean strict) {
-        ByteArrayInputStream stream = new ByteArrayInputStream(input);
-        InflaterInputStream zip = new InflaterInputStream(stream);
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        byte[] b = new byte[strict ? 4092 : 1];
+        return flateDecode(input, strict, -1);
+    }
+
+    /**
+     * A helper to FlateDecode.
+     * <br>
+     * In non-strict mode a corrupted or truncated stream is decoded up to the point where the corruption
+     * is detected.
+     *
+     * @param input              the input data
+     * @param strict             <CODE>true</CODE> to read a correct stream. <CODE>false</CODE>
+     *                           to try to read a corrupted stream
+     * @param decodedLengthHint  expected length of the decoded data, e.g. the value of the /DL key of the stream
+     *                           dictionary, or -1 if unknown. If the hint is exact, the decoded data is not copied
+     * @return the decoded data, or <CODE>null</CODE> if the stream is corrupted and strict mode is used
+     */
+    public static byte[] flateDecode(byte[] input, boolean strict, int decodedLengthHint) {
+        Inflater inflater = ZlibPool.acquireInflater();
         try {
-            int n;
-            while ((n = zip.read(b)) >= 0) {
-                output.write(b, 0, n);
-            }
-            zip.close();
-            output.close();
-            return output.toByteArray();
-        } catch (Exception e) {
-            return strict ? null : output.toByteArray();
-        }finally {
+            inflater.setInput(input);
+            byte[] output = new byte[getInitialBufferSize(input.length, decodedLengthHint)];
+            int length = 0;
             try {
-                zip.close();
-                output.close();
-            }catch(Exception e){
-                //Log the error
-                LOGGER.error(e.getMessage(),e);
+                while (true) {
+                    if (length == output.length) {
+                        // the buffer may be exactly of the decoded data length, check that before growing it
+                        byte[] probe = new byte[FLATE_PROBE_SIZE];
+                        int n = inflater.inflate(probe);
+                        if (n == 0 && isInflationStopped(inflater)) {
+                            break;
+                        }
+                        output = Arrays.copyOf(output, Math.max(output.length * 2, output.length + n));
+                        System.arraycopy(probe, 0, output, length, n);
+                        length += n;
+                        continue;
+                    }
+                    int n = inflater.inflate(output, length, Math.min(output.length - length, FLATE_CHUNK_SIZE));
+                    length += n;
+                    if (n == 0 && isInflationStopped(inflater)) {
+                        break;
+                    }
+                }
+            } catch (DataFormatException e) {
+                if (strict) {
+                    return null;
+                }
+                output = recoverCorruptedFlateData(input, output, length);
+                length = output.length;
             }
+            if (strict && !inflater.finished()) {
+                // truncated stream or dictionary is required
+                return null;
+            }
+            return length == output.length ? output : Arrays.copyOf(output, length);
+        } finally {
+            ZlibPool.releaseInflater(inflater);
         }
     }
 
@@ -120,16 +156,66 @@ public final class FilterUtil {
      * @param inflated the buffer for the uncompressed data
      */
     public static void inflateData(byte[] deflated, byte[] inflated) {
-        Inflater inflater = new Inflater();
+        Inflater inflater = ZlibPool.acquireInflater();
         inflater.setInput(deflated);
         try {
             inflater.inflate(inflated);
         } catch (DataFormatException dfe) {
             throw new IOException(IOException.CannotInflateTiffImage);
+        } finally {
+            ZlibPool.releaseInflater(inflater);
         }
     }
 
     public static InputStream getInflaterInputStream(InputStream input) {
         return new InflaterInputStream(input, new Inflater());
     }
+
+    private static int getInitialBufferSize(int inputLength, int decodedLengthHint) {
+        if (decodedLengthHint >= 0) {
+            // a deflated stream can't be expanded more than about 1032 times, so the hint can't be trusted blindly
+            return (int) Math.min(decodedLengthHint, Math.min((long) inputLength * 1032 + FLATE_PROBE_SIZE,
+                    MAX_INITIAL_BUFFER_SIZE));
+        }
+        return (int) Math.min(Math.max((long) inputLength * 4, FLATE_PROBE_SIZE), MAX_INITIAL_BUFFER_SIZE);
+    }
+
+    private static boolean isInflationStopped(Inflater inflater) {
+        return inflater.finished() || inflater.needsInput() || inflater.needsDictionary();
+    }
+
+    /**
+     * Decodes the corrupted data up to the point of corruption. The output of the inflate call which detects
+     * the corruption is lost, so the data is inflated again: quickly up to the length known to be correct
+     * and then byte by byte, which is limited by {@link #FLATE_CHUNK_SIZE}.
+     */
+    private static byte[] recoverCorruptedFlateData(byte[] input, byte[] output, int correctLength) {
+        Inflater inflater = ZlibPool.acquireInflater();
+        int length = 0;
+        try {
+            inflater.setInput(input);
+            while (length < correctLength) {
+                int n = inflater.inflate(output, length, Math.min(correctLength - length, FLATE_CHUNK_SIZE));
+                if (n == 0 && isInflationStopped(inflater)) {
+                    break;
+                }
+                length += n;
+            }
+            while (true) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length + FLATE_PROBE_SIZE);
+                }
+                int n = inflater.inflate(output, length, 1);
+                if (n == 0 && isInflationStopped(inflater)) {
+                    break;
+                }
+                length += n;
+            }
+        } catch (DataFormatException ignored) {
+            // the corruption point is reached
+        } finally {
+            ZlibPool.releaseInflater(inflater);
+        }
+        return Arrays.copyOf(output, length);
+    }
 }
@@ -51,4 +51,9 @@ public class IdelOutputStream extends OutputStream {
     public void write(int b) throws IOException {
 
     }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+
+    }
 }
@@ -0,0 +1,154 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.util;
+
+import java.util.ArrayDeque;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Keeps {@link Inflater} and {@link Deflater} instances for reuse, so that their native resources
+ * are not allocated and released for every compressed stream.
+ * <br>
+ * The pool is shared by all the threads and holds only a few instances, no thread local state is kept, so the pool
+ * doesn't prevent the class loader from being unloaded. An acquired instance is owned by the caller until it is
+ * released. Instances which are not released are freed by the garbage collector as usual. The native resources of
+ * the pooled instances can be freed explicitly with {@link #clear()}.
+ * <br>
+ * This file is a helper class for internal usage only.
+ * Be aware that its API and functionality may be changed in future.
+ */
+public final class ZlibPool {
+
+    private static final int MAX_POOLED_INFLATERS = 16;
+    private static final int MAX_POOLED_DEFLATERS = 8;
+
+    private static final ArrayDeque<Inflater> inflaters = new ArrayDeque<>(MAX_POOLED_INFLATERS);
+    private static final ArrayDeque<Deflater> deflaters = new ArrayDeque<>(MAX_POOLED_DEFLATERS);
+
+    private ZlibPool() {
+    }
+
+    /**
+     * Gets an inflater which expects zlib header, either from the pool or a new one.
+     *
+     * @return the inflater ready for use
+     */
+    public static Inflater acquireInflater() {
+        Inflater inflater;
+        synchronized (inflaters) {
+            inflater = inflaters.pollLast();
+        }
+        return inflater != null ? inflater : new Inflater();
+    }
+
+    /**
+     * Returns the inflater to the pool. The inflater shall not be used after this call.
+     *
+     * @param inflater the inflater previously acquired with {@link #acquireInflater()}
+     */
+    public static void releaseInflater(Inflater inflater) {
+        inflater.reset();
+        synchronized (inflaters) {
+            if (inflaters.size() < MAX_POOLED_INFLATERS) {
+                inflaters.addLast(inflater);
+                return;
+            }
+        }
+        inflater.end();
+    }
+
+    /**
+     * Gets a deflater with the given compression level, either from the pool or a new one.
+     *
+     * @param level the compression level, from -1 to 9, see {@link Deflater}
+     * @return the deflater ready for use
+     */
+    public static Deflater acquireDeflater(int level) {
+        Deflater deflater;
+        synchronized (deflaters) {
+            deflater = deflaters.pollLast();
+        }
+        if (deflater == null) {
+            return new Deflater(level);
+        }
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    /**
+     * Returns the deflater to the pool. The deflater shall not be used after this call.
+     *
+     * @param deflater the deflater previously acquired with {@link #acquireDeflater(int)}
+     */
+    public static void releaseDeflater(Deflater deflater) {
+        deflater.reset();
+        synchronized (deflaters) {
+            if (deflaters.size() < MAX_POOLED_DEFLATERS) {
+                deflaters.addLast(deflater);
+                return;
+            }
+        }
+        deflater.end();
+    }
+
+    /**
+     * Frees the native resources of the pooled instances and empties the pool, e.g. before the application
+     * is stopped. The instances which are acquired at the moment are not affected.
+     */
+    public static void clear() {
+        synchronized (inflaters) {
+            for (Inflater inflater : inflaters) {
+                inflater.end();
+            }
+            inflaters.clear();
+        }
+        synchronized (deflaters) {
+            for (Deflater deflater : deflaters) {
+                deflater.end();
+            }
+            deflaters.clear();
+        }
+    }
+}
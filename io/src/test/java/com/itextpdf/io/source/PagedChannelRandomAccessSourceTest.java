@@ -0,0 +1,163 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+@Category(UnitTest.class)
+public class PagedChannelRandomAccessSourceTest extends ExtendedITextTest {
+
+    private static final String destinationFolder = "./target/test/com/itextpdf/io/source/PagedChannelRandomAccessSourceTest/";
+
+    private static final int PAGE_SIZE = 4096;
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void randomReadingTest() throws IOException {
+        byte[] content = createContent(10 * PAGE_SIZE + 100);
+        String filename = writeFile("randomReading.bin", content);
+        MappedSourceProperties properties = new MappedSourceProperties().setPageSize(PAGE_SIZE).setMaxMappedPages(3);
+        IRandomAccessSource source = new RandomAccessSourceFactory().setMappedSourceProperties(properties).createBestSource(filename);
+
+        Assert.assertEquals(content.length, source.length());
+        Random random = new Random(42);
+        byte[] buffer = new byte[3 * PAGE_SIZE];
+        for (int i = 0; i < 1000; i++) {
+            int position = random.nextInt(content.length);
+            Assert.assertEquals(content[position] & 0xff, source.get(position));
+            int length = random.nextInt(buffer.length);
+            int read = source.get(position, buffer, 0, length);
+            Assert.assertEquals(Math.min(length, content.length - position), read);
+            for (int j = 0; j < read; j++) {
+                Assert.assertEquals(content[position + j], buffer[j]);
+            }
+            Assert.assertTrue(properties.getStatistics().getCurrentlyMappedPagesCount() <= 3);
+        }
+        Assert.assertEquals(-1, source.get(content.length));
+
+        MappedSourceStatistics statistics = properties.getStatistics();
+        Assert.assertTrue(statistics.getPageHitsCount() > 0);
+        Assert.assertTrue(statistics.getPageMissesCount() > 0);
+        Assert.assertTrue(statistics.getUnmappedPagesCount() > 0);
+        Assert.assertEquals(0, statistics.getReadAheadPagesCount());
+        Assert.assertEquals(statistics.getMappedPagesCount(), statistics.getPageMissesCount());
+
+        source.close();
+        Assert.assertEquals(0, statistics.getCurrentlyMappedPagesCount());
+    }
+
+    @Test
+    public void sequentialReadingWithReadAheadTest() throws IOException {
+        byte[] content = createContent(20 * PAGE_SIZE);
+        String filename = writeFile("sequentialReading.bin", content);
+        MappedSourceProperties properties = new MappedSourceProperties().setPageSize(PAGE_SIZE)
+                .setMaxMappedPages(4).setReadAheadPages(2);
+        IRandomAccessSource source = new RandomAccessSourceFactory().setMappedSourceProperties(properties).createBestSource(filename);
+
+        for (int position = 0; position < content.length; position++) {
+            Assert.assertEquals(content[position] & 0xff, source.get(position));
+        }
+
+        MappedSourceStatistics statistics = properties.getStatistics();
+        // the last page is mapped on opening, the first two pages are mapped on demand,
+        // all the following pages are mapped in advance and then read without mapping
+        Assert.assertEquals(3, statistics.getPageMissesCount());
+        Assert.assertEquals(18, statistics.getReadAheadPagesCount());
+        Assert.assertEquals(18, statistics.getPageHitsCount());
+        Assert.assertTrue(statistics.getCurrentlyMappedPagesCount() <= 4);
+        Assert.assertTrue(statistics.getHitRate() > 0.8);
+
+        statistics.reset();
+        Assert.assertEquals(0, statistics.getPageHitsCount());
+        Assert.assertEquals(statistics.getCurrentlyMappedPagesCount(), statistics.getMappedPagesCount());
+
+        source.close();
+        Assert.assertEquals(0, statistics.getCurrentlyMappedPagesCount());
+    }
+
+    @Test
+    public void defaultPagingTest() throws IOException {
+        byte[] content = createContent(3 * PAGE_SIZE);
+        String filename = writeFile("defaultPaging.bin", content);
+        IRandomAccessSource source = new RandomAccessSourceFactory().createBestSource(filename);
+        byte[] buffer = new byte[content.length];
+        Assert.assertEquals(content.length, source.get(0, buffer, 0, buffer.length));
+        Assert.assertArrayEquals(content, buffer);
+        source.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPageSizeTest() {
+        new MappedSourceProperties().setPageSize(0);
+    }
+
+    private static byte[] createContent(int length) {
+        byte[] content = new byte[length];
+        new Random(length).nextBytes(content);
+        return content;
+    }
+
+    private static String writeFile(String name, byte[] content) throws IOException {
+        String filename = destinationFolder + name;
+        FileOutputStream fos = new FileOutputStream(filename);
+        try {
+            fos.write(content);
+        } finally {
+            fos.close();
+        }
+        return filename;
+    }
+}
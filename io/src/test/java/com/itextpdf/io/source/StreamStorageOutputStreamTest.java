@@ -0,0 +1,138 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+
+@Category(UnitTest.class)
+public class StreamStorageOutputStreamTest {
+
+    @Test
+    public void directBufferStreamContentTest() throws IOException {
+        DirectByteBufferPool pool = new DirectByteBufferPool(16, 10);
+        DirectByteBufferOutputStream stream = new DirectByteBufferOutputStream(pool);
+        byte[] expected = writeContent(stream);
+
+        Assert.assertEquals(expected.length, stream.size());
+        Assert.assertArrayEquals(expected, stream.toByteArray());
+        java.io.ByteArrayOutputStream copy = new java.io.ByteArrayOutputStream();
+        stream.writeTo(copy);
+        Assert.assertArrayEquals(expected, copy.toByteArray());
+    }
+
+    @Test
+    public void directBufferStreamReleasesBuffersTest() throws IOException {
+        DirectByteBufferPool pool = new DirectByteBufferPool(16, 3);
+        DirectByteBufferOutputStream stream = new DirectByteBufferOutputStream(pool);
+        writeContent(stream);
+        stream.close();
+
+        Assert.assertEquals(0, stream.size());
+        Assert.assertEquals(3, pool.getPooledBufferCount());
+
+        stream.assignBytes(new byte[] {1, 2, 3});
+        Assert.assertEquals(2, pool.getPooledBufferCount());
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, stream.toByteArray());
+    }
+
+    @Test
+    public void tempFileStreamKeepsSmallContentInMemoryTest() throws IOException {
+        TempFileOutputStream stream = new TempFileOutputStream(1000);
+        byte[] expected = writeContent(stream);
+
+        Assert.assertFalse(stream.isSpilled());
+        Assert.assertArrayEquals(expected, stream.toByteArray());
+    }
+
+    @Test
+    public void tempFileStreamSpillsBigContentTest() throws IOException {
+        TempFileOutputStream stream = new TempFileOutputStream(10);
+        byte[] expected = writeContent(stream);
+
+        Assert.assertTrue(stream.isSpilled());
+        Assert.assertEquals(expected.length, stream.size());
+        Assert.assertArrayEquals(expected, stream.toByteArray());
+        java.io.ByteArrayOutputStream copy = new java.io.ByteArrayOutputStream();
+        stream.writeTo(copy);
+        Assert.assertArrayEquals(expected, copy.toByteArray());
+
+        stream.close();
+        Assert.assertFalse(stream.isSpilled());
+        Assert.assertEquals(0, stream.size());
+    }
+
+    @Test
+    public void tempFileStreamAssignBytesTest() {
+        TempFileOutputStream stream = new TempFileOutputStream(4);
+        stream.assignBytes(new byte[] {1, 2, 3, 4, 5, 6});
+        Assert.assertTrue(stream.isSpilled());
+        Assert.assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6}, stream.toByteArray());
+
+        stream.assignBytes(new byte[] {7, 8});
+        Assert.assertFalse(stream.isSpilled());
+        Assert.assertArrayEquals(new byte[] {7, 8}, stream.toByteArray());
+    }
+
+    private static byte[] writeContent(ByteArrayOutputStream stream) throws IOException {
+        java.io.ByteArrayOutputStream expected = new java.io.ByteArrayOutputStream();
+        for (int i = 0; i < 10; i++) {
+            stream.write(i);
+            expected.write(i);
+        }
+        byte[] bytes = new byte[25];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (100 + i);
+        }
+        stream.write(bytes);
+        expected.write(bytes);
+        stream.write(bytes, 5, 7);
+        expected.write(bytes, 5, 7);
+        return expected.toByteArray();
+    }
+}
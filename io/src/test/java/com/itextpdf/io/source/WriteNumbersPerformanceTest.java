@@ -0,0 +1,105 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.source;
+
+import com.itextpdf.io.util.DecimalFormatUtil;
+import com.itextpdf.io.util.IdelOutputStream;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Benchmarks writing numbers with {@link OutputStream#writeDouble(double, boolean)} and with the previous
+ * {@link DecimalFormatUtil} based formatting of the high precision numbers. Each way of writing is a separate test,
+ * so that their running times can be compared in the test reports. The correctness is checked by {@link WriteNumbersTest}.
+ */
+@Category(PerformanceTest.class)
+public class WriteNumbersPerformanceTest extends ExtendedITextTest {
+
+    private static final int NUMBERS_COUNT = 1000000;
+    private static final int ITERATIONS_COUNT = 5;
+
+    @Test
+    public void writeNumbersWithDecimalFormatTest() {
+        double[] numbers = createNumbers();
+        OutputStream<IdelOutputStream> stream = new OutputStream<>(new IdelOutputStream());
+        for (int i = 0; i < ITERATIONS_COUNT; i++) {
+            for (double number : numbers) {
+                stream.writeBytes(DecimalFormatUtil.formatNumber(number, "0.######").getBytes(StandardCharsets.ISO_8859_1));
+            }
+        }
+    }
+
+    @Test
+    public void writeHighPrecisionNumbersTest() {
+        writeNumbers(true);
+    }
+
+    @Test
+    public void writeDefaultPrecisionNumbersTest() {
+        writeNumbers(false);
+    }
+
+    private static void writeNumbers(boolean highPrecision) {
+        double[] numbers = createNumbers();
+        OutputStream<IdelOutputStream> stream = new OutputStream<>(new IdelOutputStream());
+        for (int i = 0; i < ITERATIONS_COUNT; i++) {
+            for (double number : numbers) {
+                stream.writeDouble(number, highPrecision);
+            }
+        }
+    }
+
+    private static double[] createNumbers() {
+        double[] numbers = new double[NUMBERS_COUNT];
+        Random rnd = new Random(42);
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = (rnd.nextDouble() - 0.5) * 2000;
+        }
+        return numbers;
+    }
+}
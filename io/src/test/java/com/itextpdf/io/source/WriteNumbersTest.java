@@ -102,4 +102,57 @@ public class WriteNumbersTest {
             Assert.assertArrayEquals(message, expecteds, actuals);
         }
     }
+
+    @Test
+    public void WriteHighPrecisionNumberTest() {
+        Random rnd = new Random();
+        for (int i = 0; i < 100000; i++) {
+            double d = (rnd.nextDouble() - 0.5) * Math.pow(10, rnd.nextInt(16) - 6);
+            assertHighPrecisionNumber(d);
+        }
+    }
+
+    @Test
+    public void WriteHighPrecisionTiesTest() {
+        double[] values = {0.0078125, -0.0078125, 0.0000005, 0.0000015, 0.0000025, 1.0000005, 2.5, 0.5,
+                1234.5678905, 999999999.9999995, 1e9, -1e9, 1e15, 123456789012.5, 1e20, Double.MIN_VALUE,
+                0.000001, -0.000001, 0.0000009999, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (double d : values) {
+            assertHighPrecisionNumber(d);
+        }
+        Random rnd = new Random();
+        for (int i = 0; i < 100000; i++) {
+            // values with exactly 7 fraction digits with the last one equal to 5
+            double d = (rnd.nextInt(2000000000) * 10 + 5) / 1e7 - 100;
+            assertHighPrecisionNumber(d);
+        }
+    }
+
+    @Test
+    public void WriteHighPrecisionNumberToStreamTest() {
+        java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
+        OutputStream<java.io.ByteArrayOutputStream> stream = new OutputStream<>(baos);
+        stream.writeDouble(12.3456789, true);
+        stream.writeSpace();
+        stream.writeDouble(-0.5, true);
+        stream.writeSpace();
+        stream.writeFloat(100, true);
+        stream.writeSpace();
+        stream.writeDouble(0.00000001, true);
+        Assert.assertEquals("12.345679 -0.5 100 0", new String(baos.toByteArray(), StandardCharsets.ISO_8859_1));
+    }
+
+    private static void assertHighPrecisionNumber(double d) {
+        byte[] expecteds = Math.abs(d) < 0.000001 ? new byte[] {'0'}
+                : DecimalFormatUtil.formatNumber(d, "0.######").getBytes(StandardCharsets.ISO_8859_1);
+        byte[] actuals = ByteUtils.getIsoBytes(d, null, true);
+        String message = "Expects: " + new String(expecteds) + ", actual: " + new String(actuals) + " \\\\ " + d;
+        Assert.assertArrayEquals(message, expecteds, actuals);
+
+        ByteBuffer buffer = new ByteBuffer(32);
+        ByteUtils.getIsoBytes(d, buffer, true);
+        byte[] prepended = new byte[buffer.size()];
+        System.arraycopy(buffer.getInternalBuffer(), buffer.capacity() - buffer.size(), prepended, 0, prepended.length);
+        Assert.assertArrayEquals(message, expecteds, prepended);
+    }
 }
@@ -0,0 +1,228 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.util;
+
+import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(UnitTest.class)
+public class FilterUtilTest {
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @Test
+    public void flateDecodeTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] encoded = deflate(data);
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(encoded, true));
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(encoded, false));
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(encoded));
+    }
+
+    @Test
+    public void flateDecodeWithLengthHintTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] encoded = deflate(data);
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(encoded, true, data.length));
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(encoded, true, 0));
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(encoded, true, 10));
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(encoded, true, data.length - 1));
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(encoded, true, data.length + 1));
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(encoded, true, Integer.MAX_VALUE));
+        Assert.assertArrayEquals(new byte[0], FilterUtil.flateDecode(deflate(new byte[0]), true, 0));
+    }
+
+    @Test
+    public void flateDecodeTruncatedStreamTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] encoded = deflate(data);
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+        Assert.assertNull(FilterUtil.flateDecode(truncated, true));
+        byte[] decoded = FilterUtil.flateDecode(truncated, false);
+        Assert.assertArrayEquals(decodeByteByByte(truncated), decoded);
+        Assert.assertTrue(decoded.length > 0);
+        Assert.assertArrayEquals(Arrays.copyOf(data, decoded.length), decoded);
+    }
+
+    @Test
+    public void flateDecodeCorruptedStreamTest() throws IOException {
+        byte[] data = createData(100000);
+        byte[] encoded = deflate(data);
+        for (int position : new int[] {2, encoded.length / 3, encoded.length / 2, encoded.length - 10}) {
+            byte[] corrupted = encoded.clone();
+            Arrays.fill(corrupted, position, position + 4, (byte) 0xff);
+            byte[] expected = decodeByteByByte(corrupted);
+            Assert.assertArrayEquals(expected, FilterUtil.flateDecode(corrupted, false));
+            Assert.assertArrayEquals(expected, FilterUtil.flateDecode(corrupted, false, data.length));
+        }
+    }
+
+    @Test
+    public void inflateDataTest() throws IOException {
+        byte[] data = createData(10000);
+        byte[] inflated = new byte[data.length];
+        FilterUtil.inflateData(deflate(data), inflated);
+        Assert.assertArrayEquals(data, inflated);
+    }
+
+    @Test
+    public void pooledInflaterIsReusedTest() {
+        Inflater inflater = ZlibPool.acquireInflater();
+        ZlibPool.releaseInflater(inflater);
+        Assert.assertSame(inflater, ZlibPool.acquireInflater());
+        Assert.assertNotSame(inflater, ZlibPool.acquireInflater());
+    }
+
+    @Test
+    public void pooledDeflaterIsReusedWithNewLevelTest() throws IOException {
+        byte[] data = createData(100000);
+        Deflater deflater = ZlibPool.acquireDeflater(Deflater.BEST_COMPRESSION);
+        ZlibPool.releaseDeflater(deflater);
+        Deflater reused = ZlibPool.acquireDeflater(Deflater.NO_COMPRESSION);
+        Assert.assertSame(deflater, reused);
+        ZlibPool.releaseDeflater(reused);
+
+        byte[] notCompressed = deflate(data, Deflater.NO_COMPRESSION);
+        byte[] compressed = deflate(data, Deflater.BEST_COMPRESSION);
+        Assert.assertTrue(notCompressed.length > data.length);
+        Assert.assertTrue(compressed.length < data.length);
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(notCompressed, true));
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(compressed, true));
+    }
+
+    @Test
+    public void deflaterOutputStreamRepeatedFinishTest() throws IOException {
+        byte[] data = createData(1000);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(baos);
+        zip.write(data);
+        zip.finish();
+        zip.finish();
+        zip.close();
+        zip.close();
+        Assert.assertArrayEquals(data, FilterUtil.flateDecode(baos.toByteArray(), true));
+    }
+
+    @Test
+    public void deflaterOutputStreamWriteAfterFinishTest() throws IOException {
+        DeflaterOutputStream zip = new DeflaterOutputStream(new ByteArrayOutputStream());
+        zip.write(createData(1000));
+        zip.finish();
+
+        junitExpectedException.expect(IOException.class);
+        junitExpectedException.expectMessage("Stream finished");
+        zip.write(createData(1000));
+    }
+
+    @Test
+    public void deflaterOutputStreamFlushAfterCloseTest() throws IOException {
+        DeflaterOutputStream zip = new DeflaterOutputStream(new ByteArrayOutputStream());
+        zip.write(createData(1000));
+        zip.close();
+
+        junitExpectedException.expect(IOException.class);
+        junitExpectedException.expectMessage("Stream finished");
+        zip.flush();
+    }
+
+    @Test
+    public void clearedPoolDoesNotReuseInstancesTest() {
+        Inflater inflater = ZlibPool.acquireInflater();
+        Deflater deflater = ZlibPool.acquireDeflater(Deflater.DEFAULT_COMPRESSION);
+        ZlibPool.releaseInflater(inflater);
+        ZlibPool.releaseDeflater(deflater);
+        ZlibPool.clear();
+        Assert.assertNotSame(inflater, ZlibPool.acquireInflater());
+        Assert.assertNotSame(deflater, ZlibPool.acquireDeflater(Deflater.DEFAULT_COMPRESSION));
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ((i * 31) ^ (i >> 7));
+        }
+        return data;
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        return deflate(data, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    private static byte[] deflate(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(baos, level);
+        zip.write(data);
+        zip.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] decodeByteByByte(byte[] encoded) {
+        InflaterInputStream zip = new InflaterInputStream(new ByteArrayInputStream(encoded));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] b = new byte[1];
+        try {
+            int n;
+            while ((n = zip.read(b)) >= 0) {
+                out.write(b, 0, n);
+            }
+        } catch (IOException ignored) {
+            // corruption point is reached
+        }
+        return out.toByteArray();
+    }
+}
@@ -91,6 +91,7 @@ public class PdfException extends RuntimeException {
     public static final String CannotCreatePdfImageXObjectByWmfImage = "Cannot create PdfImageXObject instance by WmfImage. Use PdfFormXObject constructor instead.";
     public static final String CannotCreatePdfStreamByInputStreamWithoutPdfDocument = "Cannot create pdfstream by InputStream without PdfDocument.";
     public static final String CannotDrawElementsOnAlreadyFlushedPages = "Cannot draw elements on already flushed pages.";
+    public static final String CannotExtractTextFromPage1 = "Cannot extract text from page {0}.";
     public static final String CannotGetContentBytes = "Cannot get content bytes.";
     public static final String CannotGetPdfStreamBytes = "Cannot get PdfStream bytes.";
     public static final String CannotOperateWithFlushedPdfStream = "Cannot operate with the flushed PdfStream.";
@@ -98,6 +99,7 @@ public class PdfException extends RuntimeException {
     public static final String CannotFindImageDataOrEI = "Cannot find image data or EI.";
     public static final String CannotFlushDocumentRootTagBeforeDocumentIsClosed = "Cannot flush document root tag before document is closed.";
     public static final String CannotFlushObject = "Cannot flush object.";
+    public static final String CannotMergeSourceDocument1 = "Cannot merge source document {0}.";
     public static final String CannotMoveFlushedTag = "Cannot move flushed tag";
     public static final String CannotMoveToFlushedKid = "Cannot move to flushed kid.";
     public static final String CannotMoveToMarkedContentReference = "Cannot move to marked content reference.";
@@ -130,6 +132,7 @@ public class PdfException extends RuntimeException {
     public static final String CodabarMustHaveAtLeastStartAndStopCharacter = "Codabar must have at least start and stop character.";
     public static final String CodabarMustHaveOneAbcdAsStartStopCharacter = "Codabar must have one of 'ABCD' as start/stop character.";
     public static final String ColorSpaceNotFound = "ColorSpace not found.";
+    public static final String ConcurrentReadingIsSupportedInReadingModeOnly = "Concurrent reading is supported in reading mode only.";
     public static final String ContentStreamMustNotInvokeOperatorsThatSpecifyColorsOrOtherColorRelatedParameters = "Content stream must not invoke operators that specify colors or other color related parameters in the graphics state.";
     public static final String DecodeParameterType1IsNotSupported = "Decode parameter type {0} is not supported.";
     public static final String DefaultAppearanceNotFound = "DefaultAppearance is required but not found";
@@ -226,6 +229,7 @@ public class PdfException extends RuntimeException {
     public static final String PageIsNotSetForThePdfTagStructure = "Page is not set for the pdf tag structure.";
     public static final String PageAlreadyFlushed = "The page has been already flushed.";
     public static final String PageAlreadyFlushedUseAddFieldAppearanceToPageMethodBeforePageFlushing = "The page has been already flushed. Use PdfAcroForm#addFieldAppearanceToPage() method before page flushing.";
+    public static final String ParallelLayoutWasInterrupted = "Parallel layout was interrupted.";
     public static final String PdfEncodings = "PdfEncodings exception.";
     public static final String PdfEncryption = "PdfEncryption exception.";
     public static final String PdfDecryption = "Exception occurred with PDF document decryption. One of the possible reasons is wrong password or wrong public key certificate and private key.";
@@ -247,6 +251,7 @@ public class PdfException extends RuntimeException {
     public static final String RoleInNamespaceIsNotMappedToAnyStandardRole = "Role \"{0}\" in namespace {1} is not mapped to any standard role.";
     public static final String ShadingTypeNotFound = "Shading type not found.";
     public static final String SignatureWithName1IsNotTheLastItDoesntCoverWholeDocument = "Signature with name {0} is not the last. It doesn't cover the whole document.";
+    public static final String SplittingWasInterrupted = "Splitting of the document was interrupted.";
     public static final String StdcfNotFoundEncryption = "/StdCF not found (encryption)";
     public static final String StructParentIndexNotFoundInTaggedObject = "StructParent index not found in tagged object.";
     public static final String StructureElementInStructureDestinationShallBeAnIndirectObject = "Structure element referenced by a structure destination shall be an indirect object.";
@@ -299,6 +304,7 @@ public class PdfException extends RuntimeException {
     @Deprecated
     public static final String WrongMediaBoxSize1= "Wrong media box size: {0}.";
     public static final String WRONGMEDIABOXSIZETOOFEWARGUMENTS = "Wrong media box size: {0}. Need at least 4 arguments";
+    public static final String XrefRebuildingWasCancelled = "Rebuilding of the cross-reference table was cancelled.";
     public static final String XrefSubsectionNotFound = "xref subsection not found.";
     public static final String YouHaveToDefineABooleanArrayForThisCollectionSortDictionary = "You have to define a boolean array for this collection sort dictionary.";
     public static final String YouMustSetAValueBeforeAddingAPrefix = "You must set a value before adding a prefix.";
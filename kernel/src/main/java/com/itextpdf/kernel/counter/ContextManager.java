@@ -57,6 +57,8 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class ContextManager {
 
+    private static final IContext NO_CONTEXT = new GenericContext(Collections.<String>emptyList());
+
     private static final ContextManager instance = new ContextManager();
 
     private static final long SECURITY_ERROR_LOGGING_INTERVAL = 60000;
@@ -64,6 +66,10 @@ public class ContextManager {
 
     private final Map<String, IContext> contextMappings = new ConcurrentHashMap<>();
 
+    // Contexts resolved by class names. The classes with unknown context are mapped to NO_CONTEXT,
+    // as the concurrent map doesn't support null values.
+    private final Map<String, IContext> resolvedContexts = new ConcurrentHashMap<>();
+
     private ContextManager() {
         registerGenericContext(Arrays.asList(
                 NamespaceConstant.CORE_IO,
@@ -109,14 +115,23 @@ public class ContextManager {
      * @return the {@link IContext} associated with the class, or {@code null} if the class is unknown.
      */
     public IContext getContext(String className) {
-        return getNamespaceMapping(getRecognisedNamespace(className));
+        if (className == null) {
+            return null;
+        }
+        IContext context = resolvedContexts.get(className);
+        if (context == null) {
+            context = getNamespaceMapping(getRecognisedNamespace(className));
+            resolvedContexts.put(className, context != null ? context : NO_CONTEXT);
+        }
+        return context != NO_CONTEXT ? context : null;
     }
 
     private String getRecognisedNamespace(String className) {
         if (className != null) {
+            //Conversion to lowercase is done to be compatible with possible changes in case of packages/namespaces
+            String lowerCaseClassName = className.toLowerCase();
             for (String namespace : contextMappings.keySet()) {
-                //Conversion to lowercase is done to be compatible with possible changes in case of packages/namespaces
-                if (className.toLowerCase().startsWith(namespace)) {
+                if (lowerCaseClassName.startsWith(namespace)) {
                     return namespace;
                 }
             }
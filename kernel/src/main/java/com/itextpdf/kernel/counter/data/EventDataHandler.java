@@ -43,40 +43,85 @@
  */
 package com.itextpdf.kernel.counter.data;
 
+import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.util.SystemUtil;
 import com.itextpdf.kernel.counter.event.IEvent;
 import com.itextpdf.kernel.counter.event.IMetaInfo;
+import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class is intended for some heavy concurrent event operations
  * (like writing to database or file).
  *
- * On registration of new {@link IEvent} the instance of {@link EventData} is created with
- * the {@link IEventDataFactory} that can add some additional information like system info
- * or version.
- * This data instance is immediately cached with {@link IEventDataCache} that can for example
+ * On registration of new {@link IEvent} it is put to the lock-free queue of registered events, so that registration
+ * doesn't block the threads which produce the events.
+ * The registered events are moved to the cache in batches by the processing thread: for each event the instance
+ * of {@link EventData} is created with the {@link IEventDataFactory} that can add some additional information
+ * like system info or version, and the data is cached with {@link IEventDataCache} that can for example
  * merge data with the same signature by summing there count.
  * If the previous processing operation is finished and the wait time is passed then the next event is retrieved from cache
  * (it may be for example based on some comparator like the biggest count, if {@link EventDataCacheComparatorBased}
  * is used, or just queue based if the {@link EventDataCacheQueueBased} is used or any other order determined by
- * custom cache) and the processing is started asynchronously
+ * custom cache) and the processing is started asynchronously. At most one processing operation is scheduled
+ * at a time, see {@link #tryProcessNextAsync(Boolean)} for the threads the processing is started on.
  *
  * This class can be considered thread-safe if the cache and factory instances aren't used anywhere else in the code.
+ * The factory and the cache are never called concurrently, so they don't need to be thread-safe themselves.
  *
  * @param <T> data signature type
  * @param <V> data type
  */
 public abstract class EventDataHandler<T, V extends EventData<T>> {
+    private static final long MIN_TIMED_PROCESSING_INTERVAL = 1;
+    private static final int REGISTERED_EVENTS_BATCH_SIZE = 1024;
+    private static final long PROCESSING_THREAD_KEEP_ALIVE_TIME = 60;
+    private static final String PROCESSING_THREAD_NAME = "iText event data processing";
+
     private final Object processLock = new Object();
 
     private final IEventDataCache<T, V> cache;
     private final IEventDataFactory<T, V> factory;
     private final AtomicLong lastProcessedTime = new AtomicLong();
 
+    private final Queue<RegisteredEvent> registeredEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger registeredEventsCount = new AtomicInteger();
+    private final AtomicBoolean cachingScheduled = new AtomicBoolean();
+    private final AtomicBoolean processingScheduled = new AtomicBoolean();
+    private final Object executorLock = new Object();
+    private final Runnable cacheRegisteredEventsTask = new Runnable() {
+        @Override
+        public void run() {
+            cachingScheduled.set(false);
+            synchronized (cache) {
+                moveRegisteredEventsToCache();
+            }
+        }
+    };
+    private final Runnable processNextTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                tryProcessNext();
+            } finally {
+                processingScheduled.set(false);
+            }
+        }
+    };
+    private volatile ScheduledExecutorService processingExecutor;
+
     private volatile WaitTime waitTime;
 
     public EventDataHandler(IEventDataCache<T, V> cache, IEventDataFactory<T, V> factory, long initialWaitTimeMillis, long maxWaitTimeMillis) {
@@ -88,6 +133,7 @@ public abstract class EventDataHandler<T, V extends EventData<T>> {
     public List<V> clear() {
         List<V> all;
         synchronized (cache) {
+            moveRegisteredEventsToCache();
             all = cache.clear();
         }
         lastProcessedTime.set(0);
@@ -95,18 +141,29 @@ public abstract class EventDataHandler<T, V extends EventData<T>> {
         return all != null ? all : Collections.<V>emptyList();
     }
 
+    /**
+     * Registers the event. The event data is created and cached later by the processing thread,
+     * so this method doesn't wait for any locks.
+     * <br>
+     * Note, that {@link IEventDataFactory#create(IEvent, IMetaInfo)} is called after this method returns and
+     * not on the registering thread, so the event and the meta info shall not be changed after the registration
+     * and the factory shall not depend on the state of the registering thread (like thread locals).
+     *
+     * @param event    the event to register
+     * @param metaInfo the meta info of the event
+     */
     public void register(IEvent event, IMetaInfo metaInfo) {
-        V data;
-        //Synchronization is left here mostly in consistency with cache and process, but factories are usually not thread safe anyway.
-        synchronized (factory) {
-            data = factory.create(event, metaInfo);
-        }
-        if (data != null) {
-            synchronized (cache) {
-                cache.put(data);
+        registeredEvents.offer(new RegisteredEvent(event, metaInfo));
+        // the events are moved to the cache in batches even if the processing is postponed by the wait time,
+        // so that the queue doesn't grow unboundedly
+        if (registeredEventsCount.incrementAndGet() >= REGISTERED_EVENTS_BATCH_SIZE && cachingScheduled.compareAndSet(false, true)) {
+            try {
+                getProcessingExecutor().execute(cacheRegisteredEventsTask);
+            } catch (RejectedExecutionException e) {
+                cachingScheduled.set(false);
             }
-            tryProcessNextAsync();
         }
+        tryProcessNextAsync();
     }
 
     public void tryProcessNext() {
@@ -114,43 +171,68 @@ public abstract class EventDataHandler<T, V extends EventData<T>> {
         if (currentTime - lastProcessedTime.get() > waitTime.getTime()) {
             lastProcessedTime.set(SystemUtil.getRelativeTimeMillis());
             V data;
-            synchronized (cache) {
-                data = cache.retrieveNext();
-            }
-            if (data != null) {
-                boolean successful;
-                synchronized (processLock) {
+            boolean successful = false;
+            // the data is retrieved under the process lock, so that tryProcessRest waits for the data being processed
+            synchronized (processLock) {
+                synchronized (cache) {
+                    moveRegisteredEventsToCache();
+                    data = cache.retrieveNext();
+                }
+                if (data != null) {
                     successful = tryProcess(data);
+                    if (!successful) {
+                        synchronized (cache) {
+                            cache.put(data);
+                        }
+                    }
                 }
+            }
+            if (data != null) {
                 if (successful) {
                     onSuccess(data);
                 } else {
-                    synchronized (cache) {
-                        cache.put(data);
-                    }
                     onFailure(data);
                 }
             }
         }
     }
 
+    /**
+     * Schedules processing of the next event on a separate thread, see {@link #tryProcessNextAsync(Boolean)}.
+     * The thread inherits the daemon status of the calling thread.
+     */
     public void tryProcessNextAsync() {
         tryProcessNextAsync(null);
     }
 
+    /**
+     * Schedules processing of the next event, if the wait time is passed.
+     * If the processing is already scheduled, nothing is done, so that the events registered meanwhile are
+     * processed in a single batch.
+     *
+     * @param daemon if {@code true}, the event is processed on the daemon processing thread of the handler, so
+     *               the processing may be interrupted by the JVM exit; the events which are left unprocessed on exit
+     *               are handled by the hook registered with
+     *               {@link EventDataHandlerUtil#registerProcessAllShutdownHook(EventDataHandler)}.
+     *               Otherwise the event is processed on a separate thread, which is non-daemon if {@code false}
+     *               is passed or inherits the daemon status of the calling thread if {@code null} is passed
+     */
     public void tryProcessNextAsync(Boolean daemon) {
         long currentTime = SystemUtil.getRelativeTimeMillis();
-        if (currentTime - lastProcessedTime.get() > waitTime.getTime()) {
-            Thread thread = new Thread() {
-                @Override
-                public void run() {
-                    tryProcessNext();
+        if (currentTime - lastProcessedTime.get() > waitTime.getTime() && processingScheduled.compareAndSet(false, true)) {
+            try {
+                if (Boolean.TRUE.equals(daemon)) {
+                    getProcessingExecutor().execute(processNextTask);
+                } else {
+                    Thread thread = new Thread(processNextTask, PROCESSING_THREAD_NAME);
+                    if (daemon != null) {
+                        thread.setDaemon(false);
+                    }
+                    thread.start();
                 }
-            };
-            if (daemon != null) {
-                thread.setDaemon((boolean) daemon);
+            } catch (RejectedExecutionException e) {
+                processingScheduled.set(false);
             }
-            thread.start();
         }
     }
 
@@ -158,13 +240,11 @@ public abstract class EventDataHandler<T, V extends EventData<T>> {
      * Method that will try to immediately process all cashed data, ignoring the usual error fallback procedures.
      */
     public void tryProcessRest() {
-        List<V> unprocessedEvents = clear();
-        if (!unprocessedEvents.isEmpty()) {
+        synchronized (processLock) {
+            List<V> unprocessedEvents = clear();
             try {
-                synchronized (processLock) {
-                    for (V data : unprocessedEvents) {
-                        process(data);
-                    }
+                for (V data : unprocessedEvents) {
+                    process(data);
                 }
             } catch (Exception ignored) {
             }
@@ -210,6 +290,69 @@ public abstract class EventDataHandler<T, V extends EventData<T>> {
 
     protected abstract boolean process(V data);
 
+    /**
+     * Periodically triggers event processing with the interval equal to the current wait time. The timer runs on
+     * the daemon processing thread of the handler, but the processing itself is started on a non-daemon thread,
+     * so that the JVM doesn't exit before the started processing is finished.
+     */
+    void scheduleTimedProcessing() {
+        try {
+            getProcessingExecutor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        tryProcessNextAsync(false);
+                    } catch (Exception any) {
+                        LoggerFactory.getLogger(EventDataHandler.class).error(LogMessageConstant.UNEXPECTED_EVENT_HANDLER_SERVICE_THREAD_EXCEPTION, any);
+                        return;
+                    }
+                    scheduleTimedProcessing();
+                }
+            }, Math.max(waitTime.getTime(), MIN_TIMED_PROCESSING_INTERVAL), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // the executor is shut down, so there is nothing to schedule
+        }
+    }
+
+    /**
+     * Creates the data for the registered events and puts it to the cache. Shall be called while holding the cache lock.
+     */
+    private void moveRegisteredEventsToCache() {
+        RegisteredEvent registered;
+        while ((registered = registeredEvents.poll()) != null) {
+            registeredEventsCount.decrementAndGet();
+            V data = factory.create(registered.event, registered.metaInfo);
+            if (data != null) {
+                cache.put(data);
+            }
+        }
+    }
+
+    private ScheduledExecutorService getProcessingExecutor() {
+        ScheduledExecutorService executor = processingExecutor;
+        if (executor == null) {
+            synchronized (executorLock) {
+                executor = processingExecutor;
+                if (executor == null) {
+                    ScheduledThreadPoolExecutor threadPool = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, PROCESSING_THREAD_NAME);
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                    // the processing thread is stopped when idle and started again on the next event
+                    threadPool.setKeepAliveTime(PROCESSING_THREAD_KEEP_ALIVE_TIME, TimeUnit.SECONDS);
+                    threadPool.allowCoreThreadTimeOut(true);
+                    executor = threadPool;
+                    processingExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
     private boolean tryProcess(V data) {
         try {
             return process(data);
@@ -217,4 +360,14 @@ public abstract class EventDataHandler<T, V extends EventData<T>> {
             return onProcessException(any);
         }
     }
+
+    private static class RegisteredEvent {
+        final IEvent event;
+        final IMetaInfo metaInfo;
+
+        RegisteredEvent(IEvent event, IMetaInfo metaInfo) {
+            this.event = event;
+            this.metaInfo = metaInfo;
+        }
+    }
 }
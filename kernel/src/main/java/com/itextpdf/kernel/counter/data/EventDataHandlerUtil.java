@@ -82,31 +82,15 @@ public final class EventDataHandlerUtil {
     }
 
     /**
-     * Creates thread that will try to trigger event processing with time interval from specified {@link EventDataHandler}
+     * Schedules periodic triggering of event processing with time interval from specified {@link EventDataHandler}.
+     * The processing is triggered on the processing thread of the handler, no additional threads are created.
      *
      * @param dataHandler the {@link EventDataHandler} for which the thread will be registered
      * @param <T> the data signature type
      * @param <V> the data type
      */
     public static <T, V extends EventData<T>> void registerTimedProcessing(final EventDataHandler<T, V> dataHandler) {
-        Thread thread = new Thread() {
-            @Override
-            public void run() {
-                while (true) {
-                    try {
-                        Thread.sleep(dataHandler.getWaitTime().getTime());
-                        dataHandler.tryProcessNextAsync(false);
-                    } catch (InterruptedException e) {
-                        break;
-                    } catch (Exception any) {
-                        LoggerFactory.getLogger(EventDataHandlerUtil.class).error(LogMessageConstant.UNEXPECTED_EVENT_HANDLER_SERVICE_THREAD_EXCEPTION, any);
-                        break;
-                    }
-                }
-            }
-        };
-        thread.setDaemon(true);
-        thread.start();
+        dataHandler.scheduleTimedProcessing();
     }
 
     /**
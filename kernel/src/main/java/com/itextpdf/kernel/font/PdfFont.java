@@ -59,9 +59,9 @@ import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfString;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
@@ -73,7 +73,11 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
     protected static final byte[] EMPTY_BYTES = new byte[0];
     protected static final double[] DEFAULT_FONT_MATRIX = {0.001, 0, 0, 0.001, 0, 0};
 
-    protected Map<Integer, Glyph> notdefGlyphs = new HashMap<>();
+    /**
+     * Is concurrent, since the glyphs are added lazily and the fonts of the read documents may be shared between
+     * the threads extracting text in parallel, see {@link com.itextpdf.kernel.pdf.canvas.parser.PdfDocumentTextExtractor}.
+     */
+    protected Map<Integer, Glyph> notdefGlyphs = new ConcurrentHashMap<>();
 
     /**
      * false, if the font comes from PdfDocument.
@@ -0,0 +1,177 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+
+/**
+ * Compact storage of cross-reference entries in parallel primitive arrays. It is used to keep the entries read from
+ * the document for which {@link PdfIndirectReference} instances are not created yet,
+ * see {@link ReaderProperties#setLazyObjectLoading(boolean)}, and the entries of already flushed objects,
+ * see {@link WriterProperties#useCompactXrefTable()}. An entry takes 13 bytes of memory, which is several times
+ * less than the corresponding {@link PdfIndirectReference}.
+ */
+class CompactXrefEntries implements Serializable {
+
+    private static final long serialVersionUID = -2486404617125911478L;
+
+    static final byte NONE = 0;
+    static final byte FREE = 1;
+    static final byte IN_USE = 2;
+    static final byte COMPRESSED = 3;
+    static final byte FLUSHED = 4;
+    static final byte FLUSHED_COMPRESSED = 5;
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private byte[] types;
+    /**
+     * Generation number for free and in use entries, object stream number for compressed entries.
+     */
+    private int[] generations;
+    /**
+     * Offset for in use entries, next free object number for free entries,
+     * index in the object stream for compressed entries.
+     */
+    private long[] offsets;
+    private int size = 0;
+
+    CompactXrefEntries() {
+        this(INITIAL_CAPACITY);
+    }
+
+    CompactXrefEntries(int capacity) {
+        if (capacity < 1) {
+            capacity = INITIAL_CAPACITY;
+        }
+        types = new byte[capacity];
+        generations = new int[capacity];
+        offsets = new long[capacity];
+    }
+
+    /**
+     * Stores the entry. Previously stored entry for the same object number is replaced.
+     *
+     * @param objNr the object number of the entry
+     * @param type the type of the entry: {@link #FREE}, {@link #IN_USE}, {@link #COMPRESSED}, {@link #FLUSHED}
+     *             or {@link #FLUSHED_COMPRESSED}
+     * @param generationOrObjStream generation number, or object stream number for compressed entries
+     * @param offsetOrIndex offset of the object, or its index in the object stream for compressed entries
+     */
+    void put(int objNr, byte type, int generationOrObjStream, long offsetOrIndex) {
+        ensureCapacity(objNr + 1);
+        if (types[objNr] == NONE) {
+            ++size;
+        }
+        types[objNr] = type;
+        generations[objNr] = generationOrObjStream;
+        offsets[objNr] = offsetOrIndex;
+    }
+
+    static boolean isFlushed(byte type) {
+        return type == FLUSHED || type == FLUSHED_COMPRESSED;
+    }
+
+    boolean contains(int objNr) {
+        return getType(objNr) != NONE;
+    }
+
+    byte getType(int objNr) {
+        return objNr >= 0 && objNr < types.length ? types[objNr] : NONE;
+    }
+
+    int getGenerationOrObjStream(int objNr) {
+        return generations[objNr];
+    }
+
+    long getOffsetOrIndex(int objNr) {
+        return offsets[objNr];
+    }
+
+    void setOffset(int objNr, long offset) {
+        offsets[objNr] = offset;
+    }
+
+    void remove(int objNr) {
+        if (contains(objNr)) {
+            types[objNr] = NONE;
+            generations[objNr] = 0;
+            offsets[objNr] = 0;
+            --size;
+        }
+    }
+
+    /**
+     * Gets the length of the storage, i.e. the greatest object number which may be contained plus one.
+     */
+    int capacity() {
+        return types.length;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        types = new byte[INITIAL_CAPACITY];
+        generations = new int[INITIAL_CAPACITY];
+        offsets = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > types.length) {
+            int newCapacity = Math.max(capacity, types.length << 1);
+            byte[] newTypes = new byte[newCapacity];
+            System.arraycopy(types, 0, newTypes, 0, types.length);
+            types = newTypes;
+            int[] newGenerations = new int[newCapacity];
+            System.arraycopy(generations, 0, newGenerations, 0, generations.length);
+            generations = newGenerations;
+            long[] newOffsets = new long[newCapacity];
+            System.arraycopy(offsets, 0, newOffsets, 0, offsets.length);
+            offsets = newOffsets;
+        }
+    }
+}
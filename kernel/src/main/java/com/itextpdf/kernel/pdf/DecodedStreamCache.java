@@ -0,0 +1,157 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps the decoded content of the recently read streams, so that the streams shared by several pages, like
+ * form XObjects, patterns or font programs, are not decoded each time they are requested.
+ * The total size of the cached content is limited, the least recently used content is evicted first.
+ * <br>
+ * The content is keyed by the indirect reference of the stream and is valid as long as the stream is read from
+ * the original document with the same filters. The cached arrays are never given out, the callers get the copies
+ * instead, since the decoded bytes are often modified in place.
+ * The cache is thread-safe, so it can be used in concurrent reading mode.
+ */
+class DecodedStreamCache implements Serializable {
+
+    private static final long serialVersionUID = -2452867394580251638L;
+
+    private final long maxSize;
+    private final LinkedHashMap<PdfIndirectReference, CachedContent> contents = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+    private long misses;
+    private long evictedStreams;
+    private long cachedStreams;
+    private long cachedBytes;
+
+    DecodedStreamCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the copy of the cached decoded content of the stream.
+     *
+     * @param stream the stream read from the document
+     * @return the decoded content, or null if it's not cached
+     */
+    synchronized byte[] get(PdfStream stream) {
+        PdfIndirectReference reference = stream.getIndirectReference();
+        CachedContent content = reference != null ? contents.get(reference) : null;
+        if (content != null && content.isValidFor(stream)) {
+            hits++;
+            return content.bytes.clone();
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Caches the decoded content of the stream. The content is copied, so the passed array may be modified afterwards.
+     *
+     * @param stream  the stream read from the document
+     * @param decoded the decoded content of the stream
+     */
+    synchronized void put(PdfStream stream, byte[] decoded) {
+        PdfIndirectReference reference = stream.getIndirectReference();
+        if (reference == null || decoded.length > maxSize) {
+            return;
+        }
+        CachedContent previous = contents.put(reference, new CachedContent(stream, decoded.clone()));
+        if (previous != null) {
+            cachedBytes -= previous.bytes.length;
+            cachedStreams--;
+        }
+        cachedBytes += decoded.length;
+        cachedStreams++;
+        Iterator<CachedContent> iterator = contents.values().iterator();
+        while (cachedBytes > maxSize) {
+            CachedContent eldest = iterator.next();
+            iterator.remove();
+            cachedBytes -= eldest.bytes.length;
+            cachedStreams--;
+            evictedStreams++;
+        }
+    }
+
+    synchronized void clear() {
+        contents.clear();
+        cachedBytes = 0;
+        cachedStreams = 0;
+    }
+
+    /**
+     * Gets the statistics of the cache at the moment of the call.
+     *
+     * @return the snapshot of the statistics, which is not updated afterwards
+     */
+    synchronized DecodedStreamCacheStatistics getStatistics() {
+        return new DecodedStreamCacheStatistics(hits, misses, evictedStreams, cachedStreams, cachedBytes);
+    }
+
+    private static class CachedContent implements Serializable {
+
+        private static final long serialVersionUID = 4926174834306294723L;
+
+        final byte[] bytes;
+        // the decoded content depends on these entries, so it's not valid anymore if they are changed
+        final String decodingParameters;
+
+        CachedContent(PdfStream stream, byte[] bytes) {
+            this.bytes = bytes;
+            this.decodingParameters = getDecodingParameters(stream);
+        }
+
+        boolean isValidFor(PdfStream stream) {
+            return decodingParameters.equals(getDecodingParameters(stream));
+        }
+
+        private static String getDecodingParameters(PdfStream stream) {
+            return String.valueOf(stream.get(PdfName.Filter, false)) + String.valueOf(stream.get(PdfName.DecodeParms, false));
+        }
+    }
+}
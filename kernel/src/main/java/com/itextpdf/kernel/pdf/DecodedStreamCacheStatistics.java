@@ -0,0 +1,133 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+
+/**
+ * Statistics of the cache of the decoded stream content of the {@link PdfReader}.
+ * The instance is an immutable snapshot of the statistics at the moment it was requested,
+ * so the statistics shall be requested again to see the effect of the subsequent reads.
+ *
+ * @see ReaderProperties#setDecodedStreamCacheSize(long)
+ */
+public class DecodedStreamCacheStatistics implements Serializable {
+
+    private static final long serialVersionUID = 6203581944212465283L;
+
+    private final long hits;
+    private final long misses;
+    private final long evictedStreams;
+    private final long cachedStreams;
+    private final long cachedBytes;
+
+    DecodedStreamCacheStatistics(long hits, long misses, long evictedStreams, long cachedStreams, long cachedBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictedStreams = evictedStreams;
+        this.cachedStreams = cachedStreams;
+        this.cachedBytes = cachedBytes;
+    }
+
+    /**
+     * Gets the number of the stream reads which were served from the cache, without decoding the stream.
+     *
+     * @return number of cache hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of the stream reads which required reading and decoding the stream.
+     *
+     * @return number of cache misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the ratio of the cache hits to all the decoded stream reads.
+     *
+     * @return the hit rate from 0 to 1, or 0 if no streams were read yet
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the number of the streams whose content was forgotten because the cache size limit has been reached.
+     *
+     * @return number of evicted streams
+     */
+    public long getEvictedStreams() {
+        return evictedStreams;
+    }
+
+    /**
+     * Gets the number of the streams whose decoded content is currently cached.
+     *
+     * @return number of cached streams
+     */
+    public long getCachedStreams() {
+        return cachedStreams;
+    }
+
+    /**
+     * Gets the total size of the currently cached decoded content.
+     *
+     * @return number of cached bytes
+     */
+    public long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "DecodedStreamCacheStatistics{hits=" + hits + ", misses=" + misses + ", evictedStreams=" + evictedStreams
+                + ", cachedStreams=" + cachedStreams + ", cachedBytes=" + cachedBytes + '}';
+    }
+}
@@ -0,0 +1,99 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.DirectByteBufferOutputStream;
+import com.itextpdf.io.source.DirectByteBufferPool;
+
+/**
+ * Keeps the content of the streams outside of the Java heap, in the direct buffers taken from a shared pool.
+ * <br>
+ * The buffers of a stream are returned to the pool as soon as the stream is written, so the pool allows
+ * to reuse the same off-heap memory for the streams which are created one after another.
+ */
+public class DirectBufferStreamStorageFactory implements IStreamStorageFactory {
+
+    private static final long serialVersionUID = 4113418424418418329L;
+
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+    private transient DirectByteBufferPool pool;
+
+    /**
+     * Creates a factory with buffers of 64 KB and at most 256 unused buffers kept in the pool.
+     */
+    public DirectBufferStreamStorageFactory() {
+        this(0x10000, 256);
+    }
+
+    /**
+     * Creates a factory with the specified pool configuration.
+     *
+     * @param bufferSize       the size of a direct buffer in bytes, must be positive
+     * @param maxPooledBuffers the maximum number of unused buffers which are kept in the pool, must not be negative
+     */
+    public DirectBufferStreamStorageFactory(int bufferSize, int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+        this.pool = new DirectByteBufferPool(bufferSize, maxPooledBuffers);
+    }
+
+    @Override
+    public ByteArrayOutputStream createStorage() {
+        return new DirectByteBufferOutputStream(getPool());
+    }
+
+    /**
+     * Gets the pool of the direct buffers used by this factory.
+     *
+     * @return the pool of the direct buffers
+     */
+    public synchronized DirectByteBufferPool getPool() {
+        if (pool == null) {
+            pool = new DirectByteBufferPool(bufferSize, maxPooledBuffers);
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+
+import java.io.Serializable;
+
+/**
+ * Creates the buffers in which the content of the {@link PdfStream} objects is kept until the streams are written.
+ * <br>
+ * By default the content is kept in heap byte arrays. The factory set by
+ * {@link WriterProperties#setStreamStorageFactory(IStreamStorageFactory)} allows to keep the content of the streams
+ * of a document elsewhere, e.g. in direct buffers or in temporary files, so that big images and content streams
+ * don't need to fit into the heap. The same factory is also used for the compressed and encrypted content of
+ * the streams which is prepared for writing.
+ * <br>
+ * The buffers may be created from different threads, e.g. when parallel compression is used, so
+ * the implementations shall be thread-safe.
+ */
+public interface IStreamStorageFactory extends Serializable {
+
+    /**
+     * Creates a new empty buffer for the stream content. The buffer is closed once its content is not needed anymore,
+     * which allows to release the resources held by it.
+     *
+     * @return a new buffer for the stream content
+     */
+    ByteArrayOutputStream createStorage();
+}
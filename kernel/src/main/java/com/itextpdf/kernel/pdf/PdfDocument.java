@@ -209,9 +209,17 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
 
     /**
      * Cache of already serialized objects from this document for smart mode.
+     * It is cleared by {@link #flushCopiedObjects(PdfDocument)} called for this document as a source one.
      */
     Map<PdfIndirectReference, byte[]> serializedObjectsCache = new HashMap<>();
 
+    /**
+     * Cache of digests of already serialized objects from this document for smart mode with digests.
+     * It keeps at most one digest per object of this document and is cleared by {@link #flushCopiedObjects(PdfDocument)}
+     * called for this document as a source one.
+     */
+    Map<PdfIndirectReference, byte[]> serializedObjectsDigestsCache = new HashMap<>();
+
     /**
      * Open PDF document in reading mode.
      *
@@ -365,7 +373,14 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      */
     public PdfObject getPdfObject(int objNum) {
         checkClosingStatus();
-        PdfIndirectReference reference = xref.get(objNum);
+        PdfIndirectReference reference;
+        if (reader != null && reader.isConcurrentReading()) {
+            synchronized (reader.concurrentReadingLock) {
+                reference = xref.get(objNum);
+            }
+        } else {
+            reference = xref.get(objNum);
+        }
         if (reference == null) {
             return null;
         } else {
@@ -844,7 +859,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                     }
 
                     writer.flushModifiedWaitingObjects(forbiddenToFlush);
-                    for (int i = 0; i < xref.size(); i++) {
+                    for (int i = xref.nextModified(0); i >= 0; i = xref.nextModified(i + 1)) {
                         PdfIndirectReference indirectReference = xref.get(i);
                         if (indirectReference != null && !indirectReference.isFree()
                                 && indirectReference.checkState(PdfObject.MODIFIED) && !indirectReference.checkState(PdfObject.FLUSHED)
@@ -900,6 +915,8 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
                     }
                 }
 
+                writer.flushPendingObjects();
+
                 // To avoid encryption of XrefStream and Encryption dictionary remove crypto.
                 // NOTE. No need in reverting, because it is the last operation with the document.
                 writer.crypto = null;
@@ -1265,12 +1282,15 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
     /**
      * Flush all copied objects and remove them from copied cache.
      * Note, if you will copy objects from the same document, doublicated objects will be created.
+     * The smart mode caches of the serialized objects of the source document are cleared as well.
      *
      * @param sourceDoc source document
      */
     public void flushCopiedObjects(PdfDocument sourceDoc) {
         if (getWriter() != null) {
             getWriter().flushCopiedObjects(sourceDoc.getDocumentId());
+            sourceDoc.serializedObjectsCache.clear();
+            sourceDoc.serializedObjectsDigestsCache.clear();
         }
     }
 
@@ -1672,6 +1692,15 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
      * until it will be added to {@link com.itextpdf.kernel.pdf.canvas.PdfCanvas} or {@link PdfResources}.
      */
     public PdfFont getFont(PdfDictionary dictionary) {
+        if (reader != null && reader.isConcurrentReading()) {
+            synchronized (documentFonts) {
+                return internalGetFont(dictionary);
+            }
+        }
+        return internalGetFont(dictionary);
+    }
+
+    private PdfFont internalGetFont(PdfDictionary dictionary) {
         assert dictionary.getIndirectReference() != null;
         if (documentFonts.containsKey(dictionary.getIndirectReference())) {
             return documentFonts.get(dictionary.getIndirectReference());
@@ -1811,7 +1840,13 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         try {
             EventCounterHandler.getInstance().onEvent(CoreEvent.PROCESS, properties.metaInfo, getClass());
             if (reader != null) {
+                if (reader.isConcurrentReading() && writer != null) {
+                    throw new PdfException(PdfException.ConcurrentReadingIsSupportedInReadingModeOnly);
+                }
                 reader.pdfDocument = this;
+                if (writer == null && !reader.isConcurrentReading() && reader.properties.objectCacheSize > 0) {
+                    reader.objectCache = new ResolvedObjectCache(reader.properties.objectCacheSize);
+                }
                 reader.readPdf();
                 for (ICounter counter : getCounters()) {
                     counter.onDocumentRead(reader.getFileLength());
@@ -1855,6 +1890,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
             }
             xref.initFreeReferencesList(this);
             if (writer != null) {
+                if (writer.properties.compactXrefTable) {
+                    xref.enableFlushedReferencesCompaction(this);
+                }
                 if (reader != null && reader.hasXrefStm() && writer.properties.isFullCompression == null) {
                     writer.properties.isFullCompression = true;
                 }
@@ -62,6 +62,8 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
 
     /**
      * PdfObject that current PdfIndirectReference instance refers to.
+     * If the document is read concurrently, the field is written and read under the lock of the reader,
+     * see {@link PdfReader#isConcurrentReading()}.
      */
     protected PdfObject refersTo = null;
 
@@ -123,10 +125,14 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
      */
     public PdfObject getRefersTo(boolean recursively) {
         if (!recursively) {
-            if (refersTo == null && !checkState(FLUSHED) && !checkState(MODIFIED) && !checkState(FREE) && getReader() != null) {
-                refersTo = getReader().readObject(this);
+            PdfReader reader = getReader();
+            if (reader != null && reader.isConcurrentReading()) {
+                // the object is published by the reader under its lock, so that it is seen fully built
+                synchronized (reader.concurrentReadingLock) {
+                    return getRefersToDirectly(reader);
+                }
             }
-            return refersTo;
+            return getRefersToDirectly(reader);
         } else {
             PdfObject currentRefersTo = getRefersTo(false);
             for (int i = 0; i < LENGTH_OF_INDIRECTS_CHAIN; i++) {
@@ -139,6 +145,15 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
         }
     }
 
+    private PdfObject getRefersToDirectly(PdfReader reader) {
+        if (refersTo == null && !checkState(FLUSHED) && !checkState(MODIFIED) && !checkState(FREE) && reader != null) {
+            refersTo = reader.readObject(this);
+        } else if (checkState(NOT_RECENTLY_USED)) {
+            clearState(NOT_RECENTLY_USED);
+        }
+        return refersTo;
+    }
+
     protected void setRefersTo(PdfObject refersTo) {
         this.refersTo = refersTo;
     }
@@ -297,6 +312,9 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
      * @param state special flag of current object
      */
     protected PdfObject setState(short state) {
+        if ((state & MODIFIED) == MODIFIED && pdfDocument != null && !checkState(MODIFIED)) {
+            pdfDocument.getXref().markModified(getObjNumber());
+        }
         return super.setState(state);
     }
 
@@ -45,6 +45,7 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.source.ByteBuffer;
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.PdfTokenizer;
 
 import java.util.Map;
 
@@ -65,6 +66,9 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
     private static final byte[] solidus = ByteUtils.getIsoBytes("#2f");              //  '/'
     private static final byte[] numberSign = ByteUtils.getIsoBytes("#23");           //  '#'
 
+    // shall be initialized before the name constants, which register themselves in it
+    private static final PdfNameRegistry registry = new PdfNameRegistry();
+
     public static final PdfName _3D = createDirectName("3D");
     public static final PdfName _3DA = createDirectName("3DA");
     public static final PdfName _3DB = createDirectName("3DB");
@@ -272,6 +276,7 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
     public static final PdfName Direction = createDirectName("Direction");
     public static final PdfName Disc = createDirectName("Disc");
     public static final PdfName DisplayDocTitle = createDirectName("DisplayDocTitle");
+    public static final PdfName DL = createDirectName("DL");
     public static final PdfName DocMDP = createDirectName("DocMDP");
     public static final PdfName DocOpen = createDirectName("DocOpen");
     public static final PdfName DocTimeStamp = createDirectName("DocTimeStamp");
@@ -782,7 +787,7 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
     public static final PdfName Subtype2 = createDirectName("Subtype2");
     public static final PdfName Supplement = createDirectName("Supplement");
     public static final PdfName Sy = createDirectName("Sy");
-    public static final PdfName Symbol = new PdfName("Symbol");
+    public static final PdfName Symbol = registry.register(new PdfName("Symbol"));
     public static final PdfName Synchronous = createDirectName("Synchronous");
     public static final PdfName T = createDirectName("T");
     public static final PdfName Tag = createDirectName("Tag");
@@ -904,7 +909,7 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
     public static final PdfName XStep = createDirectName("XStep");
     public static final PdfName XYZ = createDirectName("XYZ");
     public static final PdfName YStep = createDirectName("YStep");
-    public static final PdfName ZapfDingbats = new PdfName("ZapfDingbats");
+    public static final PdfName ZapfDingbats = registry.register(new PdfName("ZapfDingbats"));
     public static final PdfName zh_Latn_pinyin = createDirectName("zh-Latn-pinyin");
     public static final PdfName zh_Latn_wadegile = createDirectName("zh-Latn-wadegile");
     public static final PdfName Zoom = createDirectName("Zoom");
@@ -918,17 +923,15 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
     public static Map<String, PdfName> staticNames;
 
     /**
-     * Use reflection to cache all the public static final names so
+     * All the public static final names register themselves on creation, so
      * future <code>PdfName</code> additions don't have to be "added twice".
-     * A bit less efficient (around 50ms spent here on a 2.2ghz machine),
-     * but Much Less error prone.
      */
     static {
-        staticNames = PdfNameLoader.loadNames();
+        staticNames = registry.freeze();
     }
 
     private static PdfName createDirectName(String name) {
-        return new PdfName(name, true);
+        return registry.register(new PdfName(name, true));
     }
 
     /**
@@ -960,6 +963,18 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
         super();
     }
 
+    /**
+     * Gets the canonical instance of the predefined name, i.e. one of the public static final names,
+     * equal to the current token of the tokenizer. Unlike {@link #staticNames} lookup, no String is created
+     * from the token.
+     *
+     * @param tokenizer the tokenizer, which current token is a name
+     * @return the predefined {@link PdfName} instance, or {@code null} if the name is not a predefined one
+     */
+    public static PdfName getStaticName(PdfTokenizer tokenizer) {
+        return registry.get(tokenizer);
+    }
+
     @Override
     public byte getType() {
         return PdfObject.NAME;
@@ -980,6 +995,10 @@ public class PdfName extends PdfPrimitiveObject implements Comparable<PdfName> {
      */
     @Override
     public int compareTo(PdfName o) {
+        if (this == o) {
+            // the names parsed from documents are mostly the canonical instances of the predefined names
+            return 0;
+        }
         return getValue().compareTo(o.getValue());
     }
 
@@ -0,0 +1,123 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.PdfTokenizer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The table of the predefined {@link PdfName} constants.
+ * <br>
+ * The constants are registered while the {@link PdfName} class is initialized, so no reflection is needed to
+ * collect them. After that the table is frozen into an open addressing hash table keyed by the byte content
+ * of the names, which allows to find the canonical instance of a parsed name right in the tokenizer buffer.
+ */
+final class PdfNameRegistry {
+
+    private Map<String, PdfName> names = new HashMap<>(2048);
+
+    private PdfName[] table;
+    private byte[][] contents;
+    private int[] hashes;
+    private int mask;
+
+    PdfName register(PdfName name) {
+        names.put(name.getValue(), name);
+        return name;
+    }
+
+    /**
+     * Builds the lookup table of the registered names. No names can be registered afterwards.
+     *
+     * @return the map of the registered names by their values
+     */
+    Map<String, PdfName> freeze() {
+        // keep the load factor below 1/4, so that the probe sequences are short
+        int size = Integer.highestOneBit(names.size() * 4 - 1) << 1;
+        table = new PdfName[size];
+        contents = new byte[size][];
+        hashes = new int[size];
+        mask = size - 1;
+        for (PdfName name : names.values()) {
+            byte[] content = name.getInternalContent();
+            int hash = Arrays.hashCode(content);
+            int index = mix(hash) & mask;
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = name;
+            contents[index] = content;
+            hashes[index] = hash;
+        }
+        Map<String, PdfName> result = names;
+        names = null;
+        return result;
+    }
+
+    /**
+     * Gets the predefined name equal to the current token of the tokenizer.
+     *
+     * @param tokenizer the tokenizer, which current token is a name
+     * @return the canonical {@link PdfName} instance, or {@code null} if the name is not a predefined one
+     */
+    PdfName get(PdfTokenizer tokenizer) {
+        int hash = tokenizer.getByteContentHashCode();
+        for (int index = mix(hash) & mask; table[index] != null; index = (index + 1) & mask) {
+            if (hashes[index] == hash && tokenizer.tokenValueEqualsTo(contents[index])) {
+                return table[index];
+            }
+        }
+        return null;
+    }
+
+    private static int mix(int hash) {
+        // the lower bits of the polynomial hash of the short ASCII names are poorly distributed
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        return hash ^ (hash >>> 13);
+    }
+}
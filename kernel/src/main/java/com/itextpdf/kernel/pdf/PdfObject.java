@@ -128,6 +128,12 @@ public abstract class PdfObject implements Serializable {
      */
     protected static final short UNENCRYPTED = 1 << 9;
 
+    /**
+     * For internal usage only. Marks the indirect references whose objects haven't been requested since
+     * the last check of the resolved objects cache, so that such objects could be detached from the reference.
+     */
+    protected static final short NOT_RECENTLY_USED = 1 << 10;
+
     /**
      * If object is flushed the indirect reference is kept here.
      */
@@ -365,7 +371,7 @@ public abstract class PdfObject implements Serializable {
             logger.warn(LogMessageConstant.FORBID_RELEASE_IS_SET);
         } else {
             if (indirectReference != null && indirectReference.getReader() != null
-                    && !indirectReference.checkState(FLUSHED)) {
+                    && !indirectReference.checkState(FLUSHED) && !indirectReference.getReader().isConcurrentReading()) {
                 indirectReference.refersTo = null;
                 indirectReference = null;
                 setState(READ_ONLY);
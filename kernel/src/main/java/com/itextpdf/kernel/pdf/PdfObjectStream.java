@@ -135,7 +135,7 @@ class PdfObjectStream extends PdfStream {
         releaseContent(false);
     }
 
-    private void releaseContent(boolean close) {
+    void releaseContent(boolean close) {
         if (close) {
             outputStream = null;
             indexStream = null;
@@ -333,29 +333,20 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                     if (userDefinedCompression) {
                         bytes = decodeFlateBytes(pdfStream, bytes);
                     }
-                    pdfStream.initOutputStream(new ByteArrayOutputStream(bytes.length));
-                    pdfStream.getOutputStream().write(bytes);
+                    // the bytes which were just read are assigned to the stream without copying
+                    pdfStream.initOutputStream(new ByteArrayOutputStream());
+                    pdfStream.getOutputStream().assignBytes(bytes, bytes.length);
                 }
                 assert pdfStream.getOutputStream() != null : "PdfStream lost OutputStream";
                 ByteArrayOutputStream byteArrayStream;
                 try {
                     if (toCompress && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression)) { // compress
                         updateCompressionFilter(pdfStream);
-                        byteArrayStream = new ByteArrayOutputStream();
-                        DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, pdfStream.getCompressionLevel());
-                        if (pdfStream instanceof PdfObjectStream) {
-                            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
-                            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
-                            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        } else {
-                            assert pdfStream.getOutputStream() != null : "Error in outputStream";
-                            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
-                        }
-                        zip.finish();
+                        byteArrayStream = compressStreamContent(pdfStream);
                     } else {
                         if (pdfStream instanceof PdfObjectStream) {
                             PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
-                            byteArrayStream = new ByteArrayOutputStream();
+                            byteArrayStream = createStreamBuffer();
                             ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(byteArrayStream);
                             ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(byteArrayStream);
                         } else {
@@ -364,10 +355,14 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
                         }
                     }
                     if (checkEncryption(pdfStream)) {
-                        ByteArrayOutputStream encodedStream = new ByteArrayOutputStream();
+                        ByteArrayOutputStream encodedStream = createStreamBuffer();
                         OutputStreamEncryption ose = crypto.getEncryptionStream(encodedStream);
                         byteArrayStream.writeTo(ose);
                         ose.finish();
+                        if (byteArrayStream != pdfStream.getOutputStream().getOutputStream()) {
+                            // release the intermediate compressed content
+                            byteArrayStream.close();
+                        }
                         byteArrayStream = encodedStream;
                     }
                 } catch (IOException ioe) {
@@ -386,6 +381,95 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
     }
 
+    /**
+     * Compresses the content of the stream which is about to be written. The content is compressed
+     * with the compression level which is already set to the stream.
+     *
+     * @param pdfStream the stream which content shall be compressed
+     * @return the stream holding compressed bytes
+     * @throws IOException if compression fails
+     */
+    ByteArrayOutputStream compressStreamContent(PdfStream pdfStream) throws IOException {
+        return deflateStreamContent(pdfStream, pdfStream.getCompressionLevel(), createStreamBuffer());
+    }
+
+    /**
+     * Creates the buffer for the stream content which is prepared for writing, using the stream storage
+     * of the document if it is defined.
+     *
+     * @return a new buffer for the stream content
+     */
+    ByteArrayOutputStream createStreamBuffer() {
+        ByteArrayOutputStream storage = document != null && document.getWriter() != null
+                ? document.getWriter().createStreamStorage() : null;
+        return storage != null ? storage : new ByteArrayOutputStream();
+    }
+
+    /**
+     * Replaces the stream to which this output stream writes, e.g. to move the content of a {@link PdfStream}
+     * to another storage. The current position is preserved, so the new stream shall contain the same bytes.
+     *
+     * @param stream the new underlying stream
+     */
+    void replaceOutputStream(java.io.OutputStream stream) {
+        this.outputStream = stream;
+    }
+
+    /**
+     * Checks whether the content of the stream will be compressed with Flate filter by this output stream.
+     * Unlike writing of the stream itself this method doesn't modify the stream.
+     *
+     * @param pdfStream the stream to check
+     * @return true if the stream content will be compressed on writing, false otherwise
+     */
+    boolean isStreamContentCompressionRequired(PdfStream pdfStream) {
+        if (pdfStream.getInputStream() != null || pdfStream.getOutputStream() == null || isXRefStream(pdfStream)) {
+            return false;
+        }
+        boolean userDefinedCompression = pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION;
+        boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
+        return getStreamCompressionLevel(pdfStream) != CompressionConstants.NO_COMPRESSION
+                && !containsFlateFilter(pdfStream) && (allowCompression || userDefinedCompression);
+    }
+
+    /**
+     * Gets the compression level which will be used for the stream content, without setting it to the stream.
+     *
+     * @param pdfStream the stream to get compression level for
+     * @return the compression level of the stream if it was defined, otherwise the default compression level
+     */
+    int getStreamCompressionLevel(PdfStream pdfStream) {
+        if (pdfStream.getCompressionLevel() != CompressionConstants.UNDEFINED_COMPRESSION) {
+            return pdfStream.getCompressionLevel();
+        }
+        return document != null ? document.getWriter().getCompressionLevel() : CompressionConstants.DEFAULT_COMPRESSION;
+    }
+
+    /**
+     * Deflates the content of the stream. This method doesn't depend on the state of any output stream, so it is safe
+     * to call it from other threads as long as the stream content isn't modified meanwhile.
+     *
+     * @param pdfStream        the stream which content shall be compressed
+     * @param compressionLevel the compression level, see {@link CompressionConstants}
+     * @param byteArrayStream  the empty buffer for the compressed bytes
+     * @return the buffer holding compressed bytes
+     * @throws IOException if compression fails
+     */
+    static ByteArrayOutputStream deflateStreamContent(PdfStream pdfStream, int compressionLevel,
+            ByteArrayOutputStream byteArrayStream) throws IOException {
+        DeflaterOutputStream zip = new DeflaterOutputStream(byteArrayStream, compressionLevel);
+        if (pdfStream instanceof PdfObjectStream) {
+            PdfObjectStream objectStream = (PdfObjectStream) pdfStream;
+            ((ByteArrayOutputStream) objectStream.getIndexStream().getOutputStream()).writeTo(zip);
+            ((ByteArrayOutputStream) objectStream.getOutputStream().getOutputStream()).writeTo(zip);
+        } else {
+            assert pdfStream.getOutputStream() != null : "Error in outputStream";
+            ((ByteArrayOutputStream) pdfStream.getOutputStream().getOutputStream()).writeTo(zip);
+        }
+        zip.finish();
+        return byteArrayStream;
+    }
+
     protected boolean checkEncryption(PdfStream pdfStream) {
         if (crypto == null || crypto.isEmbeddedFilesOnly()) {
             return false;
@@ -491,9 +575,7 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
         }
 
         // decode
-        byte[] res = FlateDecodeFilter.flateDecode(bytes, true);
-        if (res == null)
-            res = FlateDecodeFilter.flateDecode(bytes, false);
+        byte[] res = FlateDecodeFilter.flateDecode(bytes, false);
         bytes = FlateDecodeFilter.decodePredictor(res, decodeParams);
 
 
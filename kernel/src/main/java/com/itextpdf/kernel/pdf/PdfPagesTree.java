@@ -104,23 +104,12 @@ class PdfPagesTree implements Serializable {
      * @return the {@see PdfPage} at the specified position in this list
      */
     public PdfPage getPage(int pageNum) {
-        if (pageNum < 1 || pageNum > getNumberOfPages()) {
-            throw new IndexOutOfBoundsException(MessageFormatUtil.format(PdfException.RequestedPageNumberIsOutOfBounds, pageNum));
-        }
-        --pageNum;
-        PdfPage pdfPage = pages.get(pageNum);
-        if (pdfPage == null) {
-            loadPage(pageNum);
-            if (pageRefs.get(pageNum) != null) {
-                int parentIndex = findPageParent(pageNum);
-                pdfPage = new PdfPage(pageRefs.get(pageNum));
-                pdfPage.parentPages = parents.get(parentIndex);
-            } else {
-                LoggerFactory.getLogger(getClass()).error(MessageFormatUtil.format(LogMessageConstant.PAGE_TREE_IS_BROKEN_FAILED_TO_RETRIEVE_PAGE, pageNum + 1));
+        if (isConcurrentReading()) {
+            synchronized (this) {
+                return internalGetPage(pageNum);
             }
-            pages.set(pageNum, pdfPage);
         }
-        return pdfPage;
+        return internalGetPage(pageNum);
     }
 
     /**
@@ -152,6 +141,11 @@ class PdfPagesTree implements Serializable {
      * in this tree, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfPage page) {
+        if (isConcurrentReading()) {
+            synchronized (this) {
+                return pages.indexOf(page) + 1;
+            }
+        }
         return pages.indexOf(page) + 1;
     }
 
@@ -160,20 +154,12 @@ class PdfPagesTree implements Serializable {
      * specified by it's PdfDictionary, or 0 if this tree does not contain the page.
      */
     public int getPageNumber(PdfDictionary pageDictionary) {
-        int pageNum = pageRefs.indexOf(pageDictionary);
-        if (pageNum >= 0) {
-            return pageNum + 1;
-        }
-        for (int i = 0; i < pageRefs.size(); i++) {
-            if (pageRefs.get(i) == null) {
-                loadPage(i);
-            }
-            if (pageRefs.get(i).equals(pageDictionary)) {
-                return i + 1;
+        if (isConcurrentReading()) {
+            synchronized (this) {
+                return internalGetPageNumber(pageDictionary);
             }
         }
-
-        return 0;
+        return internalGetPageNumber(pageDictionary);
     }
 
     /**
@@ -312,6 +298,51 @@ class PdfPagesTree implements Serializable {
         return parents.get(parentIndex);
     }
 
+    private PdfPage internalGetPage(int pageNum) {
+        if (pageNum < 1 || pageNum > getNumberOfPages()) {
+            throw new IndexOutOfBoundsException(MessageFormatUtil.format(PdfException.RequestedPageNumberIsOutOfBounds, pageNum));
+        }
+        --pageNum;
+        PdfPage pdfPage = pages.get(pageNum);
+        if (pdfPage == null) {
+            loadPage(pageNum);
+            if (pageRefs.get(pageNum) != null) {
+                int parentIndex = findPageParent(pageNum);
+                pdfPage = new PdfPage(pageRefs.get(pageNum));
+                pdfPage.parentPages = parents.get(parentIndex);
+            } else {
+                LoggerFactory.getLogger(getClass()).error(MessageFormatUtil.format(LogMessageConstant.PAGE_TREE_IS_BROKEN_FAILED_TO_RETRIEVE_PAGE, pageNum + 1));
+            }
+            pages.set(pageNum, pdfPage);
+        }
+        return pdfPage;
+    }
+
+    private int internalGetPageNumber(PdfDictionary pageDictionary) {
+        int pageNum = pageRefs.indexOf(pageDictionary);
+        if (pageNum >= 0) {
+            return pageNum + 1;
+        }
+        for (int i = 0; i < pageRefs.size(); i++) {
+            if (pageRefs.get(i) == null) {
+                loadPage(i);
+            }
+            if (pageRefs.get(i).equals(pageDictionary)) {
+                return i + 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Checks if the pages of the document may be requested from several threads at the same time,
+     * in which case the lazy loading of the tree shall be synchronized.
+     */
+    private boolean isConcurrentReading() {
+        return document.getReader() != null && document.getReader().isConcurrentReading();
+    }
+
     private void loadPage(int pageNum) {
         PdfDictionary targetPage = pageRefs.get(pageNum);
         if (targetPage != null)
@@ -48,14 +48,17 @@ import com.itextpdf.io.source.ByteBuffer;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RASInputStream;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.source.WindowRandomAccessSource;
 import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.crypto.securityhandler.UnsupportedSecurityHandlerException;
 import com.itextpdf.kernel.pdf.filters.FilterHandlers;
 import com.itextpdf.kernel.pdf.filters.IFilterHandler;
+import com.itextpdf.kernel.pdf.filters.IStreamingFilterHandler;
 
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
@@ -63,6 +66,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -81,6 +85,8 @@ public class PdfReader implements Closeable, Serializable {
     private static final String endstream4 = "\rendstream";
     private static final byte[] endstream = ByteUtils.getIsoBytes("endstream");
     private static final byte[] endobj = ByteUtils.getIsoBytes("endobj");
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final int DECODED_OBJECT_STREAMS_CACHE_SIZE = 8;
 
     protected static boolean correctStreamLength = true;
 
@@ -92,6 +98,18 @@ public class PdfReader implements Closeable, Serializable {
     // For internal usage only
     private String sourcePath;
 
+    // Used only in case of lazy object loading or limited size of the resolved objects
+    private final ObjectStreamCache decodedObjectStreams = new ObjectStreamCache(DECODED_OBJECT_STREAMS_CACHE_SIZE);
+
+    // Guards the parsing state (the tokenizer, the cross-reference table and the decryption) in concurrent reading mode
+    final Object concurrentReadingLock = new Object();
+
+    // Keeps the decoded content of the recently read streams (see ReaderProperties#setDecodedStreamCacheSize), null if disabled
+    private DecodedStreamCache decodedStreams;
+
+    // Tracks the resolved objects when their total size is limited (see ReaderProperties#setObjectCacheSize), null otherwise
+    ResolvedObjectCache objectCache;
+
     protected PdfTokenizer tokens;
     protected PdfEncryption decrypt;
 
@@ -121,6 +139,9 @@ public class PdfReader implements Closeable, Serializable {
     public PdfReader(IRandomAccessSource byteSource, ReaderProperties properties) throws IOException {
         this.properties = properties;
         this.tokens = getOffsetTokeniser(byteSource);
+        if (properties.decodedStreamCacheSize > 0) {
+            this.decodedStreams = new DecodedStreamCache(properties.decodedStreamCacheSize);
+        }
     }
 
     /**
@@ -166,7 +187,7 @@ public class PdfReader implements Closeable, Serializable {
      */
     public PdfReader(String filename, ReaderProperties properties) throws IOException {
         this(
-                new RandomAccessSourceFactory()
+                createSourceFactory(properties)
                         .setForceRead(false)
                         .createBestSource(filename),
                 properties
@@ -191,6 +212,13 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public void close() throws IOException {
+        decodedObjectStreams.clear();
+        if (decodedStreams != null) {
+            decodedStreams.clear();
+        }
+        if (objectCache != null) {
+            objectCache.clear();
+        }
         tokens.close();
     }
 
@@ -278,14 +306,36 @@ public class PdfReader implements Closeable, Serializable {
      * @throws IOException on error.
      */
     public byte[] readStreamBytes(PdfStream stream, boolean decode) throws IOException {
+        boolean useCache = decode && decodedStreams != null && !isObjectOrXrefStream(stream);
+        if (useCache) {
+            byte[] cached = decodedStreams.get(stream);
+            if (cached != null) {
+                return cached;
+            }
+        }
         byte[] b = readStreamBytesRaw(stream);
         if (decode && b != null) {
-            return decodeBytes(b, stream);
+            byte[] decoded = decodeBytes(b, stream);
+            if (useCache) {
+                decodedStreams.put(stream, decoded);
+            }
+            return decoded;
         } else {
             return b;
         }
     }
 
+    /**
+     * Gets statistics of the cache of the decoded stream content.
+     *
+     * @return {@link DecodedStreamCacheStatistics} snapshot taken at the moment of the call, which is not updated
+     * as the streams are read afterwards, or null if the cache is disabled
+     * @see ReaderProperties#setDecodedStreamCacheSize(long)
+     */
+    public DecodedStreamCacheStatistics getDecodedStreamCacheStatistics() {
+        return decodedStreams != null ? decodedStreams.getStatistics() : null;
+    }
+
     /**
      * Reads and decrypt stream bytes.
      * Note, this method doesn't store actual bytes in any internal structures.
@@ -295,8 +345,11 @@ public class PdfReader implements Closeable, Serializable {
      */
     public byte[] readStreamBytesRaw(PdfStream stream) throws IOException {
         PdfName type = stream.getAsName(PdfName.Type);
-        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type))
-            checkPdfStreamLength(stream);
+        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type)) {
+            synchronized (concurrentReadingLock) {
+                checkPdfStreamLength(stream);
+            }
+        }
         long offset = stream.getOffset();
         if (offset <= 0)
             return null;
@@ -309,24 +362,8 @@ public class PdfReader implements Closeable, Serializable {
             file.seek(stream.getOffset());
             bytes = new byte[length];
             file.readFully(bytes);
-            if (decrypt != null && !decrypt.isEmbeddedFilesOnly()) {
-                PdfObject filter = stream.get(PdfName.Filter, true);
-                boolean skip = false;
-                if (filter != null) {
-                    if (PdfName.Crypt.equals(filter)) {
-                        skip = true;
-                    } else if (filter.getType() == PdfObject.ARRAY) {
-                        PdfArray filters = (PdfArray) filter;
-                        for (int k = 0; k < filters.size(); k++) {
-                            if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
-                                skip = true;
-                                break;
-                            }
-                        }
-                    }
-                    filter.release();
-                }
-                if (!skip) {
+            if (isDecryptionRequired(stream)) {
+                synchronized (concurrentReadingLock) {
                     decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
                     bytes = decrypt.decryptByteArray(bytes);
                 }
@@ -353,6 +390,46 @@ public class PdfReader implements Closeable, Serializable {
         return bytes != null ? new ByteArrayInputStream(bytes) : null;
     }
 
+    /**
+     * Reads, decrypt and optionally decode stream bytes incrementally.
+     * Unlike {@link #readStream(PdfStream, boolean)} this method doesn't read the whole stream into memory:
+     * the returned stream reads the bytes directly from the document source and decrypts and decodes them
+     * as they are requested, so the memory consumption doesn't depend on the length of the stream.
+     * The filters which handlers don't implement {@link IStreamingFilterHandler} are still applied to
+     * the whole data at once, see {@link #decodeStream(InputStream, PdfDictionary, Map)}.
+     * <br>
+     * The returned stream stays valid until the reader is closed. User is responsible for closing returned stream.
+     *
+     * @param stream the stream which content shall be read
+     * @param decode true if to get decoded stream, false if to leave it originally encoded.
+     * @return InputStream or {@code null} if reading was failed.
+     * @throws IOException on error.
+     */
+    public InputStream openStream(PdfStream stream, boolean decode) throws IOException {
+        PdfName type = stream.getAsName(PdfName.Type);
+        if (!PdfName.XRefStm.equals(type) && !PdfName.ObjStm.equals(type)) {
+            synchronized (concurrentReadingLock) {
+                checkPdfStreamLength(stream);
+            }
+        }
+        long offset = stream.getOffset();
+        if (offset <= 0)
+            return null;
+        int length = stream.getLength();
+        if (length <= 0)
+            return new ByteArrayInputStream(new byte[0]);
+        IRandomAccessSource source = new WindowRandomAccessSource(tokens.getSafeFile().createSourceView(), offset, length);
+        // the stream is buffered, but still can be read again from the source after reset()
+        InputStream is = new RASInputStream(source, Math.min(length, STREAM_BUFFER_SIZE));
+        if (isDecryptionRequired(stream)) {
+            synchronized (concurrentReadingLock) {
+                decrypt.setHashKeyForNextObject(stream.getIndirectReference().getObjNumber(), stream.getIndirectReference().getGenNumber());
+                is = decrypt.getDecryptionStream(is);
+            }
+        }
+        return decode ? decodeStream(is, stream, FilterHandlers.getDefaultFilterHandlers()) : is;
+    }
+
     /**
      * Decode bytes applying the filters specified in the provided dictionary using default filter handlers.
      *
@@ -378,6 +455,61 @@ public class PdfReader implements Closeable, Serializable {
         if (b == null) {
             return null;
         }
+        PdfArray filters = getFilters(streamDictionary);
+        PdfArray dp = getDecodeParams(streamDictionary);
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = filterHandlers.get(filterName);
+            if (filterHandler == null)
+                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+
+            b = filterHandler.decode(b, filterName, getDecodeParams(dp, j), streamDictionary);
+        }
+        return b;
+    }
+
+    /**
+     * Wraps the stream with the chain of streams decoding it with the filters specified in the provided dictionary
+     * using the provided filter handlers. The data is decoded lazily, as the returned stream is being read, by
+     * the handlers implementing {@link IStreamingFilterHandler}. For the other handlers all the data which is
+     * passed to the filter is read into memory at once and decoded with
+     * {@link IFilterHandler#decode(byte[], PdfName, PdfObject, PdfDictionary)}.
+     *
+     * @param is               the stream of encoded bytes. It will be closed when the returned stream is closed
+     * @param streamDictionary the dictionary that contains filter information
+     * @param filterHandlers   the map used to look up a handler for each type of filter
+     * @return the stream of decoded bytes
+     * @throws IOException if the data passed to a filter which doesn't support incremental decoding can't be read
+     * @throws PdfException if there are any problems creating the decoding streams
+     */
+    public static InputStream decodeStream(InputStream is, PdfDictionary streamDictionary, Map<PdfName, IFilterHandler> filterHandlers) throws IOException {
+        PdfArray filters = getFilters(streamDictionary);
+        PdfArray dp = getDecodeParams(streamDictionary);
+        for (int j = 0; j < filters.size(); ++j) {
+            PdfName filterName = (PdfName) filters.get(j);
+            IFilterHandler filterHandler = filterHandlers.get(filterName);
+            if (filterHandler == null) {
+                is.close();
+                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+            }
+
+            PdfDictionary decodeParams = getDecodeParams(dp, j);
+            if (filterHandler instanceof IStreamingFilterHandler) {
+                is = ((IStreamingFilterHandler) filterHandler).decodeStream(is, filterName, decodeParams, streamDictionary);
+            } else {
+                byte[] b;
+                try {
+                    b = StreamUtil.inputStreamToArray(is);
+                } finally {
+                    is.close();
+                }
+                is = new ByteArrayInputStream(filterHandler.decode(b, filterName, decodeParams, streamDictionary));
+            }
+        }
+        return is;
+    }
+
+    private static PdfArray getFilters(PdfDictionary streamDictionary) {
         PdfObject filter = streamDictionary.get(PdfName.Filter);
         PdfArray filters = new PdfArray();
         if (filter != null) {
@@ -387,6 +519,10 @@ public class PdfReader implements Closeable, Serializable {
                 filters = ((PdfArray) filter);
             }
         }
+        return filters;
+    }
+
+    private static PdfArray getDecodeParams(PdfDictionary streamDictionary) {
         PdfArray dp = new PdfArray();
         PdfObject dpo = streamDictionary.get(PdfName.DecodeParms);
         if (dpo == null || (dpo.getType() != PdfObject.DICTIONARY && dpo.getType() != PdfObject.ARRAY)) {
@@ -401,28 +537,21 @@ public class PdfReader implements Closeable, Serializable {
             }
             dpo.release();
         }
-        for (int j = 0; j < filters.size(); ++j) {
-            PdfName filterName = (PdfName) filters.get(j);
-            IFilterHandler filterHandler = filterHandlers.get(filterName);
-            if (filterHandler == null)
-                throw new PdfException(PdfException.Filter1IsNotSupported).setMessageParams(filterName);
+        return dp;
+    }
 
-            PdfDictionary decodeParams;
-            if (j < dp.size()) {
-                PdfObject dpEntry = dp.get(j, true);
-                if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
-                    decodeParams = null;
-                } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
-                    decodeParams = (PdfDictionary) dpEntry;
-                } else {
-                    throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
-                }
+    private static PdfDictionary getDecodeParams(PdfArray dp, int filterIndex) {
+        if (filterIndex < dp.size()) {
+            PdfObject dpEntry = dp.get(filterIndex, true);
+            if (dpEntry == null || dpEntry.getType() == PdfObject.NULL) {
+                return null;
+            } else if (dpEntry.getType() == PdfObject.DICTIONARY) {
+                return (PdfDictionary) dpEntry;
             } else {
-                decodeParams = null;
+                throw new PdfException(PdfException.DecodeParameterType1IsNotSupported).setMessageParams(dpEntry.getClass().toString());
             }
-            b = filterHandler.decode(b, filterName, decodeParams, streamDictionary);
         }
-        return b;
+        return null;
     }
 
     /**
@@ -534,6 +663,13 @@ public class PdfReader implements Closeable, Serializable {
         } catch (IllegalArgumentException exc) {
             throw new PdfException(PdfException.PdfVersionNotValid, version);
         }
+        if (properties.lazyObjectLoading) {
+            pdfDocument.getXref().enableLazyEntries(pdfDocument);
+        }
+        if (properties.concurrentReading) {
+            // make the byte source thread safe before the stream data is read from several threads
+            tokens.ensureFileIsThreadSafe();
+        }
         try {
             readXref();
         } catch (RuntimeException ex) {
@@ -555,37 +691,9 @@ public class PdfReader implements Closeable, Serializable {
             tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
             int[] address = new int[n];
             int[] objNumber = new int[n];
-            boolean ok = true;
+            readObjectStreamOffsets(first, address, objNumber);
             for (int k = 0; k < n; ++k) {
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                objNumber[k] = tokens.getIntValue();
-                ok = tokens.nextToken();
-                if (!ok)
-                    break;
-                if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
-                    ok = false;
-                    break;
-                }
-                address[k] = tokens.getIntValue() + first;
-            }
-            if (!ok)
-                throw new PdfException(PdfException.ErrorWhileReadingObjectStream);
-            for (int k = 0; k < n; ++k) {
-                tokens.seek(address[k]);
-                tokens.nextToken();
-                PdfObject obj;
-                if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
-                    obj = new PdfNumber(tokens.getByteContent());
-                } else {
-                    tokens.seek(address[k]);
-                    obj = readObject(false, true);
-                }
+                PdfObject obj = readObjectStreamEntry(address[k]);
                 PdfIndirectReference reference = pdfDocument.getXref().get(objNumber[k]);
                 // Check if this object has no incremental updates (e.g. no append mode)
                 if (reference.getObjStreamNumber() == objectStreamNumber) {
@@ -599,8 +707,116 @@ public class PdfReader implements Closeable, Serializable {
         }
     }
 
+    /**
+     * Reads only the object of the given reference from the object stream, instead of all the objects
+     * of the stream as {@link #readObjectStream(PdfStream)} does. The decoded content of the recently used object
+     * streams is cached, so reading several objects from the same stream doesn't require decoding it each time.
+     */
+    private PdfObject readObjectFromObjectStream(PdfStream objectStream, PdfIndirectReference reference) throws IOException {
+        int objectStreamNumber = objectStream.getIndirectReference().getObjNumber();
+        ObjectStreamContent content = decodedObjectStreams.get(objectStreamNumber);
+        PdfTokenizer saveTokens = tokens;
+        try {
+            if (content == null) {
+                int first = objectStream.getAsNumber(PdfName.First).intValue();
+                int n = objectStream.getAsNumber(PdfName.N).intValue();
+                byte[] bytes = readStreamBytes(objectStream, true);
+                tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes)));
+                content = new ObjectStreamContent(bytes, new int[n], new int[n]);
+                readObjectStreamOffsets(first, content.address, content.objNumber);
+                decodedObjectStreams.put(objectStreamNumber, content);
+                objectStream.getIndirectReference().setState(PdfObject.ORIGINAL_OBJECT_STREAM);
+            } else {
+                tokens = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(content.bytes)));
+            }
+            int k = reference.getIndex();
+            if (k < 0 || k >= content.objNumber.length || content.objNumber[k] != reference.getObjNumber()) {
+                // the index from cross-reference stream is broken, look for the object number in the offsets table
+                k = -1;
+                for (int i = 0; i < content.objNumber.length; i++) {
+                    if (content.objNumber[i] == reference.getObjNumber()) {
+                        k = i;
+                        break;
+                    }
+                }
+                if (k == -1) {
+                    return null;
+                }
+            }
+            PdfObject obj = readObjectStreamEntry(content.address[k]);
+            reference.setRefersTo(obj);
+            obj.setIndirectReference(reference);
+            return obj;
+        } finally {
+            tokens = saveTokens;
+        }
+    }
+
+    private void readObjectStreamOffsets(int first, int[] address, int[] objNumber) throws IOException {
+        boolean ok = true;
+        for (int k = 0; k < address.length; ++k) {
+            ok = tokens.nextToken();
+            if (!ok)
+                break;
+            if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            objNumber[k] = tokens.getIntValue();
+            ok = tokens.nextToken();
+            if (!ok)
+                break;
+            if (tokens.getTokenType() != PdfTokenizer.TokenType.Number) {
+                ok = false;
+                break;
+            }
+            address[k] = tokens.getIntValue() + first;
+        }
+        if (!ok)
+            throw new PdfException(PdfException.ErrorWhileReadingObjectStream);
+    }
+
+    private PdfObject readObjectStreamEntry(int address) throws IOException {
+        tokens.seek(address);
+        tokens.nextToken();
+        if (tokens.getTokenType() == PdfTokenizer.TokenType.Number) {
+            return new PdfNumber(tokens.getByteContent());
+        } else {
+            tokens.seek(address);
+            return readObject(false, true);
+        }
+    }
+
     protected PdfObject readObject(PdfIndirectReference reference) {
-        return readObject(reference, true);
+        if (!properties.concurrentReading) {
+            if (objectCache == null || reference == null || reference.refersTo != null) {
+                return readObject(reference, true);
+            }
+            PdfObject object = readObject(reference, true);
+            if (object != null) {
+                reference.setRefersTo(object);
+                objectCache.add(reference, object);
+            }
+            return object;
+        }
+        synchronized (concurrentReadingLock) {
+            PdfObject object = readObject(reference, true);
+            if (reference != null && reference.refersTo == null && object != null) {
+                // publish the object before the lock is released, so that other threads don't read it once again
+                reference.setRefersTo(object);
+            }
+            return object;
+        }
+    }
+
+    /**
+     * Checks if the document may be read from several threads at the same time.
+     *
+     * @return true if concurrent reading is enabled
+     * @see ReaderProperties#setConcurrentReading(boolean)
+     */
+    public boolean isConcurrentReading() {
+        return properties.concurrentReading;
     }
 
     protected PdfObject readObject(boolean readAsDirect) throws IOException {
@@ -674,6 +890,10 @@ public class PdfReader implements Closeable, Serializable {
                 PdfString pdfString = new PdfString(tokens.getByteContent(), tokens.isHexString());
                 if (isEncrypted() && !decrypt.isEmbeddedFilesOnly() && !objStm) {
                     pdfString.setDecryption(currentIndirectReference.getObjNumber(), currentIndirectReference.getGenNumber(), decrypt);
+                    if (properties.concurrentReading) {
+                        // lazy decryption would use the shared decryption state outside of the lock
+                        pdfString.getValue();
+                    }
                 }
                 return pdfString;
             }
@@ -705,7 +925,7 @@ public class PdfReader implements Closeable, Serializable {
 
     protected PdfName readPdfName(boolean readAsDirect) {
         if (readAsDirect) {
-            PdfName cachedName = PdfName.staticNames.get(tokens.getStringValue());
+            PdfName cachedName = PdfName.getStaticName(tokens);
             if (cachedName != null)
                 return cachedName;
         }
@@ -836,6 +1056,20 @@ public class PdfReader implements Closeable, Serializable {
                     end--;
                     continue;
                 }
+                if (xref.isLazyEntriesEnabled() && !xref.isLoaded(num)) {
+                    // entries of the more recent sections take precedence
+                    if (!xref.hasLazyEntry(num)) {
+                        boolean free = tokens.tokenValueEqualsTo(PdfTokenizer.F);
+                        if (!free && !tokens.tokenValueEqualsTo(PdfTokenizer.N)) {
+                            tokens.throwError(PdfException.InvalidCrossReferenceEntryInThisXrefSubsection);
+                        }
+                        if (!free && pos == 0) {
+                            tokens.throwError(PdfException.FilePosition1CrossReferenceEntryInThisXrefSubsection);
+                        }
+                        xref.addLazyEntry(num, gen, pos, free);
+                    }
+                    continue;
+                }
                 PdfIndirectReference reference = xref.get(num);
                 boolean refReadingState = reference != null && reference.checkState(PdfObject.READING) && reference.getGenNumber() == gen;
                 boolean refFirstEncountered = reference == null
@@ -960,6 +1194,26 @@ public class PdfReader implements Closeable, Serializable {
                     field3 = (field3 << 8) + (b[bptr++] & 0xff);
                 }
                 int base = start;
+                if (xref.isLazyEntriesEnabled() && !xref.isLoaded(base)) {
+                    // entries of the more recent sections take precedence
+                    if (!xref.hasLazyEntry(base)) {
+                        switch (type) {
+                            case 0:
+                                xref.addLazyEntry(base, field3, field2, true);
+                                break;
+                            case 1:
+                                xref.addLazyEntry(base, field3, field2, false);
+                                break;
+                            case 2:
+                                xref.addLazyCompressedEntry(base, (int) field2, field3);
+                                break;
+                            default:
+                                throw new PdfException(PdfException.InvalidXrefStream);
+                        }
+                    }
+                    ++start;
+                    continue;
+                }
                 PdfIndirectReference newReference;
                 switch (type) {
                     case 0:
@@ -1011,6 +1265,10 @@ public class PdfReader implements Closeable, Serializable {
                     continue;
                 int num = obj[0];
                 int gen = obj[1];
+                if (xref.hasLazyEntry(num)) {
+                    xref.fixLazyEntryOffset(num, gen, pos);
+                    continue;
+                }
                 PdfIndirectReference reference = xref.get(num);
                 if (reference != null && reference.getGenNumber() == gen) {
                     reference.fixOffset(pos);
@@ -1025,39 +1283,25 @@ public class PdfReader implements Closeable, Serializable {
         rebuiltXref = true;
         PdfXrefTable xref = pdfDocument.getXref();
         xref.clear();
-        tokens.seek(0);
         trailer = null;
-        ByteBuffer buffer = new ByteBuffer(24);
-        PdfTokenizer lineTokeniser = new PdfTokenizer(new RandomAccessFileOrArray(new ReusableRandomAccessSource(buffer)));
-        for (; ; ) {
-            long pos = tokens.getPosition();
-            buffer.reset();
-            if (!tokens.readLineSegment(buffer, true)) // added boolean because of mailing list issue (17 Feb. 2014)
-                break;
-            if (buffer.get(0) == 't') {
-                if (!PdfTokenizer.checkTrailer(buffer))
-                    continue;
-                tokens.seek(pos);
-                tokens.nextToken();
-                pos = tokens.getPosition();
-                try {
-                    PdfDictionary dic = (PdfDictionary) readObject(false);
-                    if (dic.get(PdfName.Root, false) != null)
-                        trailer = dic;
-                    else
-                        tokens.seek(pos);
-                } catch (Exception e) {
-                    tokens.seek(pos);
-                }
-            } else if (buffer.get(0) >= '0' && buffer.get(0) <= '9') {
-                int[] obj = PdfTokenizer.checkObjectStart(lineTokeniser);
-                if (obj == null)
-                    continue;
-                int num = obj[0];
-                int gen = obj[1];
-                if (xref.get(num) == null || xref.get(num).getGenNumber() <= gen) {
-                    xref.add(new PdfIndirectReference(pdfDocument, num, gen, pos));
-                }
+        XrefRebuildScanner.ScanResult scanResult = new XrefRebuildScanner(tokens, properties.xrefRebuildThreadsCount,
+                properties.xrefRebuildListener).scan();
+        for (int i = 0; i < scanResult.getObjectsCount(); i++) {
+            int num = scanResult.getObjNumber(i);
+            int gen = scanResult.getGenNumber(i);
+            if (xref.get(num) == null || xref.get(num).getGenNumber() <= gen) {
+                xref.add(new PdfIndirectReference(pdfDocument, num, gen, scanResult.getObjOffset(i)));
+            }
+        }
+        // the last trailer which refers to the catalog wins, as the trailers of the incremental updates follow the original one
+        for (int i = 0; i < scanResult.getTrailersCount(); i++) {
+            tokens.seek(scanResult.getTrailerOffset(i));
+            tokens.nextToken();
+            try {
+                PdfDictionary dic = (PdfDictionary) readObject(false);
+                if (dic.get(PdfName.Root, false) != null)
+                    trailer = dic;
+            } catch (Exception ignored) {
             }
         }
         if (trailer == null)
@@ -1104,6 +1348,14 @@ public class PdfReader implements Closeable, Serializable {
         return tok;
     }
 
+    private static RandomAccessSourceFactory createSourceFactory(ReaderProperties properties) {
+        RandomAccessSourceFactory factory = new RandomAccessSourceFactory();
+        if (properties != null) {
+            factory.setMappedSourceProperties(properties.mappedSourceProperties);
+        }
+        return factory;
+    }
+
     private PdfObject readObject(PdfIndirectReference reference, boolean fixXref) {
         if (reference == null)
             return null;
@@ -1114,6 +1366,10 @@ public class PdfReader implements Closeable, Serializable {
             if (reference.getObjStreamNumber() > 0) {
                 PdfStream objectStream = (PdfStream) pdfDocument.getXref().
                         get(reference.getObjStreamNumber()).getRefersTo(false);
+                // reading the whole object stream would replace the objects of the stream which are still in use
+                if (properties.lazyObjectLoading || objectCache != null) {
+                    return readObjectFromObjectStream(objectStream, reference);
+                }
                 readObjectStream(objectStream);
                 return reference.refersTo;
             } else if (reference.getOffset() > 0) {
@@ -1144,6 +1400,35 @@ public class PdfReader implements Closeable, Serializable {
         }
     }
 
+    // the object streams and the cross-reference streams are decoded once, there is no need to keep their content
+    private static boolean isObjectOrXrefStream(PdfStream stream) {
+        PdfName type = stream.getAsName(PdfName.Type);
+        return PdfName.ObjStm.equals(type) || PdfName.XRef.equals(type);
+    }
+
+    private boolean isDecryptionRequired(PdfStream stream) {
+        if (decrypt == null || decrypt.isEmbeddedFilesOnly()) {
+            return false;
+        }
+        PdfObject filter = stream.get(PdfName.Filter, true);
+        boolean skip = false;
+        if (filter != null) {
+            if (PdfName.Crypt.equals(filter)) {
+                skip = true;
+            } else if (filter.getType() == PdfObject.ARRAY) {
+                PdfArray filters = (PdfArray) filter;
+                for (int k = 0; k < filters.size(); k++) {
+                    if (!filters.isEmpty() && PdfName.Crypt.equals(filters.get(k, true))) {
+                        skip = true;
+                        break;
+                    }
+                }
+            }
+            filter.release();
+        }
+        return !skip;
+    }
+
     private void checkPdfStreamLength(PdfStream pdfStream) throws IOException {
         if (!correctStreamLength)
             return;
@@ -1218,7 +1503,7 @@ public class PdfReader implements Closeable, Serializable {
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
         in.defaultReadObject();
         if (sourcePath != null && tokens == null) {
-            tokens = getOffsetTokeniser(new RandomAccessSourceFactory().setForceRead(false).createBestSource(sourcePath));
+            tokens = getOffsetTokeniser(createSourceFactory(properties).setForceRead(false).createBestSource(sourcePath));
         }
     }
 
@@ -1275,4 +1560,36 @@ public class PdfReader implements Closeable, Serializable {
             buffer = null;
         }
     }
+
+    private static class ObjectStreamContent implements Serializable {
+
+        private static final long serialVersionUID = 3618206532718154213L;
+
+        final byte[] bytes;
+        final int[] address;
+        final int[] objNumber;
+
+        ObjectStreamContent(byte[] bytes, int[] address, int[] objNumber) {
+            this.bytes = bytes;
+            this.address = address;
+            this.objNumber = objNumber;
+        }
+    }
+
+    private static class ObjectStreamCache extends LinkedHashMap<Integer, ObjectStreamContent> {
+
+        private static final long serialVersionUID = -3526376352151404447L;
+
+        private final int maxSize;
+
+        ObjectStreamCache(int maxSize) {
+            super(maxSize, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ObjectStreamContent> eldest) {
+            return size() > maxSize;
+        }
+    }
 }
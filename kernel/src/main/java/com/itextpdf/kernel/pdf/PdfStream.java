@@ -212,6 +212,22 @@ public class PdfStream extends PdfDictionary {
         return STREAM;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * If the stream storage is defined for the document by {@link WriterProperties#setStreamStorageFactory},
+     * the content of the stream is moved to that storage.
+     */
+    @Override
+    public PdfObject makeIndirect(PdfDocument document, PdfIndirectReference reference) {
+        boolean wasIndirect = getIndirectReference() != null;
+        super.makeIndirect(document, reference);
+        if (!wasIndirect && getIndirectReference() != null) {
+            moveContentToStreamStorage(document.getWriter());
+        }
+        return this;
+    }
+
     public int getLength() {
         return length;
     }
@@ -301,7 +317,12 @@ public class PdfStream extends PdfDictionary {
 
         boolean outputStreamIsUninitialized = outputStream == null;
         if (outputStreamIsUninitialized) {
-            outputStream = new PdfOutputStream(new ByteArrayOutputStream());
+            ByteArrayOutputStream storage = null;
+            if (getIndirectReference() != null && getIndirectReference().getDocument() != null
+                    && getIndirectReference().getDocument().getWriter() != null) {
+                storage = getIndirectReference().getDocument().getWriter().createStreamStorage();
+            }
+            outputStream = new PdfOutputStream(storage != null ? storage : new ByteArrayOutputStream());
         }
 
         if (append) {
@@ -391,6 +412,24 @@ public class PdfStream extends PdfDictionary {
         return inputStream;
     }
 
+    private void moveContentToStreamStorage(PdfWriter writer) {
+        // object streams manage their buffers themselves
+        if (writer == null || this instanceof PdfObjectStream || outputStream == null
+                || outputStream.getOutputStream() == null
+                || outputStream.getOutputStream().getClass() != ByteArrayOutputStream.class) {
+            return;
+        }
+        ByteArrayOutputStream storage = writer.createStreamStorage();
+        if (storage != null) {
+            try {
+                ((ByteArrayOutputStream) outputStream.getOutputStream()).writeTo(storage);
+            } catch (IOException ioe) {
+                throw new PdfException(PdfException.IoException, ioe);
+            }
+            outputStream.replaceOutputStream(storage);
+        }
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         if (inputStream == null || inputStream instanceof Serializable) {
             out.defaultWriteObject();
@@ -46,6 +46,7 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.util.FileUtil;
+import com.itextpdf.kernel.PdfException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,11 +55,19 @@ import java.io.IOException;
 import java.io.NotSerializableException;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import static com.itextpdf.io.source.ByteUtils.getIsoBytes;
 
@@ -90,7 +99,22 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     /**
      * Is used in smart mode to serialize and store serialized objects content.
      */
-    private SmartModePdfObjectsSerializer smartModeSerializer = new SmartModePdfObjectsSerializer();
+    private SmartModePdfObjectsSerializer smartModeSerializer;
+
+    /**
+     * Is used in parallel compression mode to compress stream content on worker threads.
+     */
+    private transient ExecutorService compressionExecutor;
+
+    /**
+     * Objects which were flushed in parallel compression mode, but are not written yet, in the order of flushing.
+     */
+    private transient Deque<PendingObject> pendingObjects;
+
+    /**
+     * Pending object which is currently being written.
+     */
+    private transient PendingObject writtenPendingObject;
 
     //forewarned is forearmed
     protected boolean isUserWarnedAboutAcroFormCopying;
@@ -151,6 +175,16 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         return properties.isFullCompression != null ? (boolean) properties.isFullCompression : false;
     }
 
+    /**
+     * Indicates if stream content is compressed on worker threads.
+     * See {@link WriterProperties#useParallelCompression(int)}.
+     *
+     * @return true if parallel compression is used, false otherwise.
+     */
+    public boolean isParallelCompression() {
+        return properties.compressionThreadCount > 0;
+    }
+
     /**
      * Gets default compression level for @see PdfStream.
      * For more details @see {@link java.util.zip.Deflater}.
@@ -188,6 +222,15 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         return this;
     }
 
+    /**
+     * Gets statistics of the objects reuse in smart mode.
+     *
+     * @return {@link SmartModeStatistics} instance, which is updated as the objects are copied
+     */
+    public SmartModeStatistics getSmartModeStatistics() {
+        return getSmartModeSerializer().getStatistics();
+    }
+
     /**
      * Write an integer to the underlying stream
      *
@@ -243,6 +286,10 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         try {
             super.close();
         } finally {
+            if (compressionExecutor != null) {
+                compressionExecutor.shutdownNow();
+                compressionExecutor = null;
+            }
             try {
                 if (duplicateStream != null) {
                     duplicateStream.close();
@@ -267,7 +314,9 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             objectStream = new PdfObjectStream(document);
         } else if (objectStream.getSize() == PdfObjectStream.MAX_OBJ_STREAM_SIZE) {
             objectStream.flush();
-            objectStream = new PdfObjectStream(objectStream);
+            // In parallel compression mode the content of the flushed stream may still be in use,
+            // so the buffers can't be reused.
+            objectStream = isParallelCompression() ? new PdfObjectStream(document) : new PdfObjectStream(objectStream);
         }
         return objectStream;
     }
@@ -292,35 +341,24 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     protected void flushObject(PdfObject pdfObject, boolean canBeInObjStm) throws IOException {
         PdfIndirectReference indirectReference = pdfObject.getIndirectReference();
+        boolean writingDeferred = false;
         if (isFullCompression() && canBeInObjStm) {
             PdfObjectStream objectStream = getObjectStream();
             objectStream.addObject(pdfObject);
+        } else if (isParallelCompression()) {
+            writingDeferred = deferWriting(pdfObject);
         } else {
             indirectReference.setOffset(getCurrentPos());
             writeToBody(pdfObject);
         }
         indirectReference.setState(PdfObject.FLUSHED).clearState(PdfObject.MUST_BE_FLUSHED);
-        switch (pdfObject.getType()) {
-            case PdfObject.BOOLEAN:
-            case PdfObject.NAME:
-            case PdfObject.NULL:
-            case PdfObject.NUMBER:
-            case PdfObject.STRING:
-                ((PdfPrimitiveObject) pdfObject).content = null;
-                break;
-            case PdfObject.ARRAY:
-                PdfArray array = ((PdfArray) pdfObject);
-                markArrayContentToFlush(array);
-                array.releaseContent();
-                break;
-            case PdfObject.STREAM:
-            case PdfObject.DICTIONARY:
-                PdfDictionary dictionary = ((PdfDictionary) pdfObject);
-                markDictionaryContentToFlush(dictionary);
-                dictionary.releaseContent();
-                break;
-            case PdfObject.INDIRECT_REFERENCE:
-                markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
+        markContentToFlush(pdfObject);
+        if (writingDeferred) {
+            // content is released when the object is actually written
+            writePendingObjects(false);
+        } else {
+            releaseFlushedContent(pdfObject);
+            document.getXref().compactFlushedReference(indirectReference);
         }
     }
 
@@ -352,7 +390,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
 
         SerializedObjectContent serializedContent = null;
         if (properties.smartMode && tryToFindDuplicate && !checkTypeOfPdfDictionary(obj, PdfName.Page)) {
-            serializedContent = smartModeSerializer.serializeObject(obj);
+            serializedContent = getSmartModeSerializer().serializeObject(obj);
             PdfIndirectReference objectRef = smartModeSerializer.getSavedSerializedObject(serializedContent);
             if (objectRef != null) {
                 copiedObjects.put(copiedObjectKey, objectRef);
@@ -428,6 +466,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             objectStream.flush();
             objectStream = null;
         }
+        writePendingObjects(true);
     }
 
     /**
@@ -436,7 +475,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     protected void flushModifiedWaitingObjects(Set<PdfIndirectReference> forbiddenToFlush) {
         PdfXrefTable xref = document.getXref();
-        for (int i = 1; i < xref.size(); i++) {
+        for (int i = xref.nextModified(1); i >= 0; i = xref.nextModified(i + 1)) {
             PdfIndirectReference indirectReference = xref.get(i);
             if (null != indirectReference && !indirectReference.isFree() && !forbiddenToFlush.contains(indirectReference)) {
                 boolean isModified = indirectReference.checkState(PdfObject.MODIFIED);
@@ -454,6 +493,43 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             objectStream.flush();
             objectStream = null;
         }
+        writePendingObjects(true);
+    }
+
+    /**
+     * Writes all the objects which were flushed in parallel compression mode, but are still waiting for
+     * compression of preceding streams to be finished.
+     */
+    void flushPendingObjects() {
+        writePendingObjects(true);
+    }
+
+    /**
+     * Compresses the stream content, reusing the result of parallel compression if it is available.
+     */
+    @Override
+    ByteArrayOutputStream compressStreamContent(PdfStream pdfStream) throws IOException {
+        if (writtenPendingObject != null && writtenPendingObject.object == pdfStream
+                && writtenPendingObject.compressedContent != null) {
+            try {
+                return writtenPendingObject.compressedContent.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PdfException(PdfException.CannotWriteToPdfStream, e, pdfStream);
+            } catch (ExecutionException e) {
+                throw new PdfException(PdfException.CannotWriteToPdfStream, e.getCause(), pdfStream);
+            }
+        }
+        return super.compressStreamContent(pdfStream);
+    }
+
+    /**
+     * Creates the buffer for the stream content with the factory set in {@link WriterProperties#setStreamStorageFactory}.
+     *
+     * @return a new buffer, or {@code null} if the stream content shall be kept in the heap buffers
+     */
+    ByteArrayOutputStream createStreamStorage() {
+        return properties.streamStorageFactory != null ? properties.streamStorageFactory.createStorage() : null;
     }
 
     /**
@@ -467,8 +543,9 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             if (copiedObject.getKey().docId == docId) {
                 if (copiedObject.getValue().refersTo != null) {
                     copiedObject.getValue().refersTo.flush();
-                    remove.add(copiedObject.getKey());
                 }
+                // the entries of the already flushed objects can't be reused either, so they are removed as well
+                remove.add(copiedObject.getKey());
             }
         }
         for (PdfDocument.IndirectRefDescription ird : remove) {
@@ -476,6 +553,155 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
     }
 
+    private void markContentToFlush(PdfObject pdfObject) {
+        switch (pdfObject.getType()) {
+            case PdfObject.ARRAY:
+                markArrayContentToFlush((PdfArray) pdfObject);
+                break;
+            case PdfObject.STREAM:
+            case PdfObject.DICTIONARY:
+                markDictionaryContentToFlush((PdfDictionary) pdfObject);
+                break;
+            case PdfObject.INDIRECT_REFERENCE:
+                markObjectToFlush(((PdfIndirectReference) pdfObject).getRefersTo(false));
+        }
+    }
+
+    private void releaseFlushedContent(PdfObject pdfObject) {
+        switch (pdfObject.getType()) {
+            case PdfObject.BOOLEAN:
+            case PdfObject.NAME:
+            case PdfObject.NULL:
+            case PdfObject.NUMBER:
+            case PdfObject.STRING:
+                ((PdfPrimitiveObject) pdfObject).content = null;
+                break;
+            case PdfObject.ARRAY:
+                ((PdfArray) pdfObject).releaseContent();
+                break;
+            case PdfObject.STREAM:
+            case PdfObject.DICTIONARY:
+                if (pdfObject instanceof PdfObjectStream) {
+                    // object stream buffers are not reused in parallel compression mode
+                    ((PdfObjectStream) pdfObject).releaseContent(isParallelCompression());
+                } else {
+                    ((PdfDictionary) pdfObject).releaseContent();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Either writes the object immediately or puts it to the queue of pending objects. Objects are put to the queue
+     * if their content is compressed on a worker thread or if there are other pending objects which shall be
+     * written before them.
+     *
+     * @param pdfObject the object which is being flushed
+     * @return true if writing of the object is deferred, false if the object is already written
+     */
+    private boolean deferWriting(PdfObject pdfObject) throws IOException {
+        Future<ByteArrayOutputStream> compressedContent = null;
+        if (pdfObject.getType() == PdfObject.STREAM && isStreamContentCompressionRequired((PdfStream) pdfObject)) {
+            final PdfStream pdfStream = (PdfStream) pdfObject;
+            final int compressionLevel = getStreamCompressionLevel(pdfStream);
+            final ByteArrayOutputStream compressedStream = createStreamBuffer();
+            compressedContent = getCompressionExecutor().submit(new Callable<ByteArrayOutputStream>() {
+                @Override
+                public ByteArrayOutputStream call() throws IOException {
+                    return deflateStreamContent(pdfStream, compressionLevel, compressedStream);
+                }
+            });
+        }
+        if (compressedContent == null && (pendingObjects == null || pendingObjects.isEmpty())) {
+            pdfObject.getIndirectReference().setOffset(getCurrentPos());
+            writeToBody(pdfObject);
+            return false;
+        }
+        // The indirect objects which would be created on writing are created now, so that the object numbers
+        // are the same as if the object was written immediately.
+        makeIndirectDirectContent(pdfObject);
+        if (pendingObjects == null) {
+            pendingObjects = new ArrayDeque<>();
+        }
+        pendingObjects.addLast(new PendingObject(pdfObject, compressedContent));
+        return true;
+    }
+
+    /**
+     * Writes pending objects in the order of flushing.
+     *
+     * @param waitForAll if true, all the pending objects are written, waiting for compression to finish if needed;
+     *                   otherwise only the objects which are ready are written, unless the queue is too long
+     */
+    private void writePendingObjects(boolean waitForAll) {
+        if (pendingObjects == null) {
+            return;
+        }
+        int maxPendingStreams = properties.compressionThreadCount * 4;
+        while (!pendingObjects.isEmpty()) {
+            PendingObject pendingObject = pendingObjects.peekFirst();
+            if (!waitForAll && pendingObject.compressedContent != null && !pendingObject.compressedContent.isDone()
+                    && pendingObjects.size() <= maxPendingStreams) {
+                break;
+            }
+            pendingObjects.pollFirst();
+            writtenPendingObject = pendingObject;
+            try {
+                pendingObject.object.getIndirectReference().setOffset(getCurrentPos());
+                writeToBody(pendingObject.object);
+            } catch (IOException e) {
+                throw new PdfException(PdfException.CannotFlushObject, e, pendingObject.object);
+            } finally {
+                writtenPendingObject = null;
+            }
+            releaseFlushedContent(pendingObject.object);
+            document.getXref().compactFlushedReference(pendingObject.object.getIndirectReference());
+        }
+    }
+
+    private void makeIndirectDirectContent(PdfObject pdfObject) {
+        switch (pdfObject.getType()) {
+            case PdfObject.ARRAY:
+                PdfArray array = (PdfArray) pdfObject;
+                for (int i = 0; i < array.size(); i++) {
+                    makeIndirectIfRequired(array.get(i, false));
+                }
+                break;
+            case PdfObject.STREAM:
+            case PdfObject.DICTIONARY:
+                PdfDictionary dictionary = (PdfDictionary) pdfObject;
+                for (PdfName key : dictionary.keySet()) {
+                    makeIndirectIfRequired(dictionary.get(key, false));
+                }
+                break;
+        }
+    }
+
+    private void makeIndirectIfRequired(PdfObject pdfObject) {
+        if (pdfObject == null || pdfObject.getIndirectReference() != null) {
+            return;
+        }
+        if (pdfObject.checkState(PdfObject.MUST_BE_INDIRECT)) {
+            pdfObject.makeIndirect(document);
+        } else {
+            makeIndirectDirectContent(pdfObject);
+        }
+    }
+
+    private ExecutorService getCompressionExecutor() {
+        if (compressionExecutor == null) {
+            compressionExecutor = Executors.newFixedThreadPool(properties.compressionThreadCount, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "iText-compression");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return compressionExecutor;
+    }
+
     private void markArrayContentToFlush(PdfArray array) {
         for (int i = 0; i < array.size(); i++) {
             markObjectToFlush(array.get(i, false));
@@ -523,6 +749,24 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         }
     }
 
+    private static class PendingObject {
+        final PdfObject object;
+        final Future<ByteArrayOutputStream> compressedContent;
+
+        PendingObject(PdfObject object, Future<ByteArrayOutputStream> compressedContent) {
+            this.object = object;
+            this.compressedContent = compressedContent;
+        }
+    }
+
+    private SmartModePdfObjectsSerializer getSmartModeSerializer() {
+        if (smartModeSerializer == null) {
+            smartModeSerializer = new SmartModePdfObjectsSerializer(properties.digestSmartMode,
+                    properties.smartModeCacheSize);
+        }
+        return smartModeSerializer;
+    }
+
     private static boolean checkTypeOfPdfDictionary(PdfObject dictionary, PdfName expectedType) {
         return dictionary.isDictionary() && expectedType.equals(((PdfDictionary) dictionary).getAsName(PdfName.Type));
     }
@@ -45,6 +45,7 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.util.IntHashtable;
 import com.itextpdf.io.util.MessageFormatUtil;
 import com.itextpdf.kernel.ProductInfo;
 import com.itextpdf.kernel.VersionInfo;
@@ -55,10 +56,8 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.TreeSet;
 
 class PdfXrefTable implements Serializable {
 
@@ -74,11 +73,30 @@ class PdfXrefTable implements Serializable {
     private int count = 0;
 
     /**
-     * Free references linked list is stored in a form of a map, where:
+     * Free references linked list is stored in a form of a bit set of obj numbers of the free references in the list
+     * and a map, where:
      * key - free reference obj number;
-     * value - previous item in the linked list of free references for the object denoted by the key.
+     * value - obj number of the previous item in the linked list of free references for the object denoted by the key.
+     * The value for the key 0 is the last item in the list.
      */
-    private final TreeMap<Integer, PdfIndirectReference> freeReferencesLinkedList;
+    private final BitSet freeReferencesInList;
+    private final IntHashtable freeReferencesLinkedList;
+
+    /**
+     * Object numbers of the references which were marked as modified. In append mode only such references are
+     * flushed and written to the cross-reference section, so there is no need to visit every entry of the table.
+     */
+    private final BitSet modifiedReferences;
+
+    /**
+     * Entries for which indirect references are not kept in {@link #xref}: either entries read from the document
+     * for which indirect references are not created yet, or flushed references stored in the compact form.
+     * {@code null} if neither lazy loading nor compaction of flushed references is enabled.
+     */
+    private CompactXrefEntries compactEntries;
+    private PdfDocument compactEntriesDocument;
+    private boolean lazyEntriesEnabled;
+    private boolean flushedReferencesCompaction;
 
     public PdfXrefTable() {
         this(INITIAL_CAPACITY);
@@ -89,7 +107,9 @@ class PdfXrefTable implements Serializable {
             capacity = INITIAL_CAPACITY;
         }
         xref = new PdfIndirectReference[capacity];
-        freeReferencesLinkedList = new TreeMap<>();
+        freeReferencesInList = new BitSet();
+        freeReferencesLinkedList = new IntHashtable();
+        modifiedReferences = new BitSet();
         add((PdfIndirectReference) new PdfIndirectReference(null, 0, MAX_GENERATION, 0).setState(PdfObject.FREE));
     }
 
@@ -103,9 +123,11 @@ class PdfXrefTable implements Serializable {
             return null;
         }
         int objNr = reference.getObjNumber();
-        this.count = Math.max(this.count, objNr);
-        ensureCount(objNr);
+        updateCount(objNr);
         xref[objNr] = reference;
+        if (compactEntries != null) {
+            compactEntries.remove(objNr);
+        }
         return reference;
     }
 
@@ -113,68 +135,183 @@ class PdfXrefTable implements Serializable {
         return count + 1;
     }
 
+    /**
+     * Gets the indirect reference with the given object number.
+     * <br>
+     * If the flushed references are stored in the compact form (see {@link WriterProperties#useCompactXrefTable()}),
+     * a new instance in flushed state is created for a flushed object on each call, so the returned references
+     * shall be compared with {@link PdfIndirectReference#equals(Object)} rather than by identity.
+     *
+     * @param index the object number
+     * @return the indirect reference, or {@code null} if there is no entry for the given object number
+     */
     public PdfIndirectReference get(int index) {
         if (index > count) {
             return null;
         }
-        return xref[index];
+        PdfIndirectReference reference = xref[index];
+        if (reference == null && compactEntries != null) {
+            byte type = compactEntries.getType(index);
+            if (CompactXrefEntries.isFlushed(type)) {
+                // the instance is not stored, so that the memory consumption stays bounded
+                reference = createReference(index);
+            } else if (type != CompactXrefEntries.NONE) {
+                reference = loadLazyEntry(index);
+            }
+        }
+        return reference;
+    }
+
+    /**
+     * Enables storing of the entries read from the document in the compact form. Indirect references for
+     * such entries are created only when they are requested via {@link #get(int)}.
+     *
+     * @param document the document to which the lazily created references will belong
+     */
+    void enableLazyEntries(PdfDocument document) {
+        initCompactEntries(document);
+        lazyEntriesEnabled = true;
+    }
+
+    boolean isLazyEntriesEnabled() {
+        return lazyEntriesEnabled;
+    }
+
+    /**
+     * Enables storing of the flushed references in the compact form, see {@link #compactFlushedReference}.
+     *
+     * @param document the document to which the references belong
+     */
+    void enableFlushedReferencesCompaction(PdfDocument document) {
+        initCompactEntries(document);
+        flushedReferencesCompaction = true;
+    }
+
+    /**
+     * Replaces the flushed reference in the table with its offset, generation and object stream data stored in
+     * primitive arrays, if compaction of flushed references is enabled. After that the reference instance is no longer
+     * held by the table, and {@link #get(int)} returns new instance in flushed state for this object number each time.
+     * Shall be called only when the reference has its final offset, or object stream number and index.
+     *
+     * @param reference the flushed reference
+     */
+    void compactFlushedReference(PdfIndirectReference reference) {
+        int objNr = reference.getObjNumber();
+        if (!flushedReferencesCompaction || objNr > count || xref[objNr] != reference
+                || reference.isFree() || !reference.checkState(PdfObject.FLUSHED)) {
+            return;
+        }
+        if (reference.getObjStreamNumber() == 0) {
+            compactEntries.put(objNr, CompactXrefEntries.FLUSHED, reference.getGenNumber(), reference.getOffset());
+        } else {
+            compactEntries.put(objNr, CompactXrefEntries.FLUSHED_COMPRESSED, reference.getObjStreamNumber(), reference.getIndex());
+        }
+        xref[objNr] = null;
+    }
+
+    /**
+     * Checks whether an indirect reference is already created for the given object number.
+     */
+    boolean isLoaded(int index) {
+        return index >= 0 && index <= count && xref[index] != null;
+    }
+
+    /**
+     * Checks whether the entry for the given object number is stored in the compact form.
+     */
+    boolean hasLazyEntry(int index) {
+        if (compactEntries == null) {
+            return false;
+        }
+        byte type = compactEntries.getType(index);
+        return type != CompactXrefEntries.NONE && !CompactXrefEntries.isFlushed(type);
+    }
+
+    /**
+     * Stores the free or in use entry read from the document without creating indirect reference for it.
+     * Shall be called only if {@link #isLazyEntriesEnabled()} returns {@code true}.
+     */
+    void addLazyEntry(int objNr, int genNr, long offset, boolean free) {
+        compactEntries.put(objNr, free ? CompactXrefEntries.FREE : CompactXrefEntries.IN_USE, genNr, offset);
+        updateCount(objNr);
+    }
+
+    /**
+     * Stores the entry of the object from object stream read from the document without creating indirect reference for it.
+     * Shall be called only if {@link #isLazyEntriesEnabled()} returns {@code true}.
+     */
+    void addLazyCompressedEntry(int objNr, int objStreamNumber, int index) {
+        compactEntries.put(objNr, CompactXrefEntries.COMPRESSED, objStreamNumber, index);
+        updateCount(objNr);
+    }
+
+    /**
+     * Corrects the offset of the lazily stored in use entry if its generation number is the given one.
+     */
+    void fixLazyEntryOffset(int objNr, int genNr, long offset) {
+        if (compactEntries != null && compactEntries.getType(objNr) == CompactXrefEntries.IN_USE
+                && compactEntries.getGenerationOrObjStream(objNr) == genNr) {
+            compactEntries.setOffset(objNr, offset);
+        }
     }
 
     void initFreeReferencesList(PdfDocument pdfDocument) {
-        freeReferencesLinkedList.clear();
+        clearFreeReferencesList();
+        loadLazyFreeEntries();
 
         xref[0].setState(PdfObject.FREE); // ensure zero object is free
-        TreeSet<Integer> freeReferences = new TreeSet<>();
+        BitSet freeReferences = new BitSet();
         for (int i = 1; i < size(); ++i) {
             PdfIndirectReference ref = xref[i];
-            if (ref == null || ref.isFree()) {
-                freeReferences.add(i);
+            if (ref == null && (compactEntries == null || !compactEntries.contains(i)) || ref != null && ref.isFree()) {
+                freeReferences.set(i);
             }
         }
 
         PdfIndirectReference prevFreeRef = xref[0];
-        while (!freeReferences.<Integer>isEmpty()) {
+        while (!freeReferences.isEmpty()) {
             int currFreeRefObjNr = -1;
             if (prevFreeRef.getOffset() <= Integer.MAX_VALUE) {
                 currFreeRefObjNr = (int) prevFreeRef.getOffset();
             }
-            if (!freeReferences.contains(currFreeRefObjNr) || xref[currFreeRefObjNr] == null) {
+            if (currFreeRefObjNr < 0 || !freeReferences.get(currFreeRefObjNr) || xref[currFreeRefObjNr] == null) {
                 break;
             }
 
-            freeReferencesLinkedList.put(currFreeRefObjNr, prevFreeRef);
+            putToFreeReferencesList(currFreeRefObjNr, prevFreeRef);
             prevFreeRef = xref[currFreeRefObjNr];
-            freeReferences.remove(currFreeRefObjNr);
+            freeReferences.clear(currFreeRefObjNr);
         }
 
-        while (!freeReferences.<Integer>isEmpty()) {
-            int next = freeReferences.pollFirst();
+        while (!freeReferences.isEmpty()) {
+            int next = freeReferences.nextSetBit(0);
+            freeReferences.clear(next);
             if (xref[next] == null) {
                 if (pdfDocument.properties.appendMode) {
                     continue;
                 }
-                xref[next] = (PdfIndirectReference) new PdfIndirectReference(pdfDocument, next, 0).setState(PdfObject.FREE).setState(PdfObject.MODIFIED);
+                xref[next] = setModified((PdfIndirectReference) new PdfIndirectReference(pdfDocument, next, 0).setState(PdfObject.FREE));
             } else if (xref[next].getGenNumber() == MAX_GENERATION && xref[next].getOffset() == 0) {
                 continue;
             }
             if (prevFreeRef.getOffset() != (long)next) {
-                ((PdfIndirectReference) prevFreeRef.setState(PdfObject.MODIFIED)).setOffset(next);
+                setModified(prevFreeRef).setOffset(next);
             }
-            freeReferencesLinkedList.put(next, prevFreeRef);
+            putToFreeReferencesList(next, prevFreeRef);
             prevFreeRef = xref[next];
         }
 
         if (prevFreeRef.getOffset() != 0) {
-            ((PdfIndirectReference) prevFreeRef.setState(PdfObject.MODIFIED)).setOffset(0);
+            setModified(prevFreeRef).setOffset(0);
         }
-        freeReferencesLinkedList.put(0, prevFreeRef);
+        putToFreeReferencesList(0, prevFreeRef);
     }
 
     //For Object streams
     PdfIndirectReference createNewIndirectReference(PdfDocument document) {
         PdfIndirectReference reference = new PdfIndirectReference(document, ++count);
         add(reference);
-        return (PdfIndirectReference) reference.setState(PdfObject.MODIFIED);
+        return setModified(reference);
     }
 
     /**
@@ -185,7 +322,7 @@ class PdfXrefTable implements Serializable {
     protected PdfIndirectReference createNextIndirectReference(PdfDocument document) {
         PdfIndirectReference reference = new PdfIndirectReference(document, ++count);
         add(reference);
-        return (PdfIndirectReference) reference.setState(PdfObject.MODIFIED);
+        return setModified(reference);
     }
 
     protected void freeReference(PdfIndirectReference reference) {
@@ -203,7 +340,7 @@ class PdfXrefTable implements Serializable {
             return;
         }
 
-        reference.setState(PdfObject.FREE).setState(PdfObject.MODIFIED);
+        setModified((PdfIndirectReference) reference.setState(PdfObject.FREE));
 
         appendNewRefToFreeList(reference);
 
@@ -229,7 +366,7 @@ class PdfXrefTable implements Serializable {
 
         if (!document.properties.appendMode) {
             for (int i = count; i > 0; --i) {
-                PdfIndirectReference lastRef = xref[i];
+                PdfIndirectReference lastRef = get(i);
                 if (lastRef == null || lastRef.isFree()) {
                     removeFreeRefFromList(i);
                     --count;
@@ -353,7 +490,7 @@ class PdfXrefTable implements Serializable {
                 writeLong(startxref).
                 writeString("\n%%EOF\n");
         xref = null;
-        freeReferencesLinkedList.clear();
+        clearFreeReferencesList();
     }
 
     void clear() {
@@ -364,31 +501,77 @@ class PdfXrefTable implements Serializable {
             xref[i] = null;
         }
         count = 1;
+        if (compactEntries != null) {
+            compactEntries.clear();
+        }
+        modifiedReferences.clear();
+    }
+
+    /**
+     * Remembers that the reference with the given object number was marked as modified.
+     *
+     * @param objNr object number of the modified reference.
+     */
+    void markModified(int objNr) {
+        modifiedReferences.set(objNr);
+    }
+
+    /**
+     * Gets the object number of the next reference which was marked as modified.
+     *
+     * @param objNr object number to start searching from, inclusive.
+     * @return the least object number of a modified reference which is not less than the given one,
+     * or -1 if there is no such reference.
+     */
+    int nextModified(int objNr) {
+        return modifiedReferences.nextSetBit(objNr);
+    }
+
+    /**
+     * Marks the reference of this table as modified. Unlike {@link PdfIndirectReference#setState(short)}, this also
+     * works for the references without a document, e.g. for the head of the free references list.
+     *
+     * @param reference the reference to be marked.
+     * @return the same reference.
+     */
+    private PdfIndirectReference setModified(PdfIndirectReference reference) {
+        reference.setState(PdfObject.MODIFIED);
+        markModified(reference.getObjNumber());
+        return reference;
     }
 
     private List<Integer> createSections(PdfDocument document, boolean dropObjectsFromObjectStream) {
         List<Integer> sections = new ArrayList<>();
         int first = 0;
         int len = 0;
-        for (int i = 0; i < size(); i++) {
+        // in append mode only modified references get into sections, so the rest of the table is skipped
+        boolean appendMode = document.properties.appendMode;
+        int i = appendMode ? nextModified(0) : 0;
+        for (; i >= 0 && i < size(); i = appendMode ? nextModified(i + 1) : i + 1) {
             PdfIndirectReference reference = xref[i];
-            if (document.properties.appendMode && reference != null &&
-                    (!reference.checkState(PdfObject.MODIFIED) || dropObjectsFromObjectStream && reference.getObjStreamNumber() != 0)) {
-                reference = null;
+            boolean inSection;
+            if (reference != null) {
+                inSection = !appendMode || reference.checkState(PdfObject.MODIFIED)
+                        && (!dropObjectsFromObjectStream || reference.getObjStreamNumber() == 0);
+            } else {
+                // flushed references stored in the compact form are written in any case
+                byte type = compactEntries != null ? compactEntries.getType(i) : CompactXrefEntries.NONE;
+                inSection = type == CompactXrefEntries.FLUSHED || type == CompactXrefEntries.FLUSHED_COMPRESSED
+                        && !(appendMode && dropObjectsFromObjectStream);
             }
 
-            if (reference == null) {
+            if (inSection && len > 0 && first + len == i) {
+                len++;
+            } else {
                 if (len > 0) {
                     sections.add(first);
                     sections.add(len);
                 }
-                len = 0;
-            } else {
-                if (len > 0) {
-                    len++;
-                } else {
+                if (inSection) {
                     first = i;
                     len = 1;
+                } else {
+                    len = 0;
                 }
             }
         }
@@ -443,15 +626,15 @@ class PdfXrefTable implements Serializable {
 
     private void appendNewRefToFreeList(PdfIndirectReference reference) {
         reference.setOffset(0);
-        if (freeReferencesLinkedList.<Integer, PdfIndirectReference>isEmpty()) {
+        if (freeReferencesLinkedList.isEmpty()) {
             assert false;
             // free references list is not initialized yet
             return;
         }
-        PdfIndirectReference lastFreeRef = freeReferencesLinkedList.get(0);
-        ((PdfIndirectReference) lastFreeRef.setState(PdfObject.MODIFIED)).setOffset(reference.getObjNumber());
-        freeReferencesLinkedList.put(reference.getObjNumber(), lastFreeRef);
-        freeReferencesLinkedList.put(0, reference);
+        PdfIndirectReference lastFreeRef = xref[freeReferencesLinkedList.get(0)];
+        setModified(lastFreeRef).setOffset(reference.getObjNumber());
+        putToFreeReferencesList(reference.getObjNumber(), lastFreeRef);
+        putToFreeReferencesList(0, reference);
     }
 
     /**
@@ -464,7 +647,7 @@ class PdfXrefTable implements Serializable {
      * passed as parameter. {@code null} - if given object number doesn't correspond to free reference or equals to zero.
      */
     private PdfIndirectReference removeFreeRefFromList(int freeRefObjNr) {
-        if (freeReferencesLinkedList.<Integer, PdfIndirectReference>isEmpty()) {
+        if (freeReferencesLinkedList.isEmpty()) {
             assert false;
             // free references list is not initialized yet
             return null;
@@ -473,18 +656,17 @@ class PdfXrefTable implements Serializable {
             return null;
         }
         if (freeRefObjNr < 0) {
-            Integer leastFreeRefObjNum = null;
-            for (Map.Entry<Integer, PdfIndirectReference> entry : freeReferencesLinkedList.entrySet()) {
-                if (entry.getKey() <= 0 || xref[entry.getKey()].getGenNumber() >= MAX_GENERATION) {
-                    continue;
+            int leastFreeRefObjNum = -1;
+            for (int i = freeReferencesInList.nextSetBit(1); i >= 0; i = freeReferencesInList.nextSetBit(i + 1)) {
+                if (xref[i].getGenNumber() < MAX_GENERATION) {
+                    leastFreeRefObjNum = i;
+                    break;
                 }
-                leastFreeRefObjNum = entry.getKey();
-                break;
             }
-            if (leastFreeRefObjNum == null) {
+            if (leastFreeRefObjNum == -1) {
                 return null;
             }
-            freeRefObjNr = (int)leastFreeRefObjNum;
+            freeRefObjNr = leastFreeRefObjNum;
         }
 
         PdfIndirectReference freeRef = xref[freeRefObjNr];
@@ -492,15 +674,85 @@ class PdfXrefTable implements Serializable {
             return null;
         }
 
-        PdfIndirectReference prevFreeRef = freeReferencesLinkedList.remove(freeRef.getObjNumber());
-        if (prevFreeRef != null) {
-            freeReferencesLinkedList.put((int) freeRef.getOffset(), prevFreeRef);
-            ((PdfIndirectReference) prevFreeRef.setState(PdfObject.MODIFIED)).setOffset(freeRef.getOffset());
+        if (freeReferencesInList.get(freeRefObjNr)) {
+            PdfIndirectReference prevFreeRef = xref[freeReferencesLinkedList.remove(freeRefObjNr)];
+            freeReferencesInList.clear(freeRefObjNr);
+            putToFreeReferencesList((int) freeRef.getOffset(), prevFreeRef);
+            setModified(prevFreeRef).setOffset(freeRef.getOffset());
         }
 
         return freeRef;
     }
 
+    private void putToFreeReferencesList(int freeRefObjNr, PdfIndirectReference prevFreeRef) {
+        freeReferencesInList.set(freeRefObjNr);
+        freeReferencesLinkedList.put(freeRefObjNr, prevFreeRef.getObjNumber());
+    }
+
+    private void clearFreeReferencesList() {
+        freeReferencesInList.clear();
+        freeReferencesLinkedList.clear();
+    }
+
+    private void initCompactEntries(PdfDocument document) {
+        if (compactEntries == null) {
+            compactEntries = new CompactXrefEntries(xref.length);
+        }
+        compactEntriesDocument = document;
+    }
+
+    private PdfIndirectReference loadLazyEntry(int index) {
+        PdfIndirectReference reference = createReference(index);
+        compactEntries.remove(index);
+        xref[index] = reference;
+        return reference;
+    }
+
+    private PdfIndirectReference createReference(int index) {
+        PdfIndirectReference reference;
+        int generationOrObjStream = compactEntries.getGenerationOrObjStream(index);
+        long offsetOrIndex = compactEntries.getOffsetOrIndex(index);
+        byte type = compactEntries.getType(index);
+        switch (type) {
+            case CompactXrefEntries.FREE:
+                reference = (PdfIndirectReference) new PdfIndirectReference(compactEntriesDocument, index,
+                        generationOrObjStream, offsetOrIndex).setState(PdfObject.FREE);
+                break;
+            case CompactXrefEntries.COMPRESSED:
+            case CompactXrefEntries.FLUSHED_COMPRESSED:
+                reference = new PdfIndirectReference(compactEntriesDocument, index, 0, offsetOrIndex);
+                reference.setObjStreamNumber(generationOrObjStream);
+                break;
+            default:
+                reference = new PdfIndirectReference(compactEntriesDocument, index, generationOrObjStream, offsetOrIndex);
+                break;
+        }
+        if (CompactXrefEntries.isFlushed(type)) {
+            reference.setState(PdfObject.FLUSHED);
+        }
+        return reference;
+    }
+
+    /**
+     * Free references are needed for the free references linked list, so they are always loaded.
+     */
+    private void loadLazyFreeEntries() {
+        if (compactEntries == null || compactEntries.isEmpty()) {
+            return;
+        }
+        int length = Math.min(compactEntries.capacity(), size());
+        for (int i = 0; i < length; i++) {
+            if (compactEntries.getType(i) == CompactXrefEntries.FREE) {
+                loadLazyEntry(i);
+            }
+        }
+    }
+
+    private void updateCount(int objNr) {
+        this.count = Math.max(this.count, objNr);
+        ensureCount(objNr);
+    }
+
     private void ensureCount(int count) {
         if (count >= xref.length) {
             extendXref(count << 1);
@@ -43,6 +43,7 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.MappedSourceProperties;
 import com.itextpdf.kernel.security.IExternalDecryptionProcess;
 import java.io.Serializable;
 import java.security.Key;
@@ -59,6 +60,14 @@ public class ReaderProperties implements Serializable {
     protected String certificateKeyProvider; //added by Aiken Sam for certificate decryption
     protected IExternalDecryptionProcess externalDecryptionProcess;
 
+    protected boolean lazyObjectLoading;
+    protected boolean concurrentReading;
+    protected MappedSourceProperties mappedSourceProperties;
+    protected long objectCacheSize;
+    protected long decodedStreamCacheSize;
+    protected int xrefRebuildThreadsCount = 1;
+    protected IXrefRebuildListener xrefRebuildListener;
+
     /**
      * Defines the password which will be used if the document is encrypted with standard encryption.
      * This could be either user or owner password.
@@ -94,6 +103,139 @@ public class ReaderProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Defines whether the cross-reference table shall be loaded lazily. In this mode the entries of the cross-reference
+     * table are kept in a compact form and {@link PdfIndirectReference} instances are created only for the objects which
+     * are actually requested. Also, only the requested object is parsed when the object is contained in an object stream,
+     * instead of all the objects of that stream. This significantly reduces memory consumption and opening time
+     * of documents with a huge number of objects when only a small part of them is needed, e.g. when only a few
+     * pages are read.
+     * <br>
+     * This mode is most beneficial in reading mode: in stamping mode all the references are still created
+     * when the document is closed.
+     * <br>
+     * Default value is {@code false}.
+     *
+     * @param lazyObjectLoading true to enable lazy loading of the cross-reference table and object streams
+     * @return this {@link ReaderProperties} instance
+     */
+    public ReaderProperties setLazyObjectLoading(boolean lazyObjectLoading) {
+        this.lazyObjectLoading = lazyObjectLoading;
+        return this;
+    }
+
+    /**
+     * Defines whether the document may be read from several threads at the same time, e.g. to process
+     * its pages in parallel. In this mode the objects are parsed one at a time, however the data of
+     * the streams is read and decoded by the calling threads independently.
+     * <br>
+     * The following operations are safe to call concurrently in this mode: obtaining the pages of the document,
+     * resolving the indirect objects, reading the data of the streams and obtaining the fonts via
+     * {@link PdfDocument#getFont(PdfDictionary)}. The objects obtained from the document shall not be modified,
+     * and the same page shall not be processed by several threads at once. {@link PdfObject#release()}
+     * doesn't release the objects in this mode, since they could be in use by other threads.
+     * <br>
+     * This mode is supported only when the document is opened in reading mode.
+     * Default value is {@code false}.
+     *
+     * @param concurrentReading true to allow reading the document from several threads at the same time
+     * @return this {@link ReaderProperties} instance
+     */
+    public ReaderProperties setConcurrentReading(boolean concurrentReading) {
+        this.concurrentReading = concurrentReading;
+        return this;
+    }
+
+    /**
+     * Defines how the file is mapped into memory when the document is read from a file, see
+     * {@link PdfReader#PdfReader(String, ReaderProperties)}. Tuning the size and the number of the mapped pages
+     * helps to avoid repeated mapping and unmapping of the same regions when very big files are read.
+     * The effect can be observed with {@link MappedSourceProperties#getStatistics()}.
+     * <br>
+     * By default files up to 64 MB are mapped at once and bigger files are mapped in pages of 4 MB.
+     *
+     * @param mappedSourceProperties the paging configuration, or null to use the default one
+     * @return this {@link ReaderProperties} instance
+     */
+    public ReaderProperties setMappedSourceProperties(MappedSourceProperties mappedSourceProperties) {
+        this.mappedSourceProperties = mappedSourceProperties;
+        return this;
+    }
+
+    /**
+     * Defines the maximal estimated size, in bytes, of the indirect objects which are kept resolved while the document
+     * is read. When the limit is exceeded, the least recently used objects are detached from their
+     * {@link PdfIndirectReference} instances, so they could be garbage collected, and are read from the document
+     * once again when they are requested the next time. This allows to traverse all the pages of a huge document
+     * without calling {@link PdfObject#release()} manually, so that the memory consumption doesn't depend
+     * on the size of the content and resources of the pages.
+     * <br>
+     * The objects which are in use by the high-level entities, i.e. which are wrapped by {@link PdfObjectWrapper} instances
+     * that forbid releasing (like {@link PdfPage} or {@link PdfCatalog}), are never detached. The dictionaries of
+     * the pages and of the nodes of the pages tree are not detached either, as they are kept by the pages tree
+     * of the document until it is closed, so the memory consumption still grows with the number of the traversed pages
+     * by the size of their dictionaries. Note that detached objects
+     * are not the same instances as the ones which are read again, so the objects obtained from the document shall not be
+     * modified in this mode. The size of the objects is estimated roughly, based on the number of entries and
+     * the length of the strings they contain.
+     * <br>
+     * This option is taken into account only when the document is opened in reading mode and the concurrent reading
+     * is not enabled, see {@link #setConcurrentReading(boolean)}.
+     * Default value is 0, which means that the objects are kept resolved until they are released explicitly.
+     *
+     * @param objectCacheSize the maximal estimated size of the resolved objects in bytes, or 0 to disable the limit
+     * @return this {@link ReaderProperties} instance
+     */
+    public ReaderProperties setObjectCacheSize(long objectCacheSize) {
+        this.objectCacheSize = objectCacheSize;
+        return this;
+    }
+
+    /**
+     * Defines the maximal size, in bytes, of the decoded stream content which is cached by the reader. When enabled,
+     * the content of the streams which are requested several times, like form XObjects, patterns, images or
+     * font programs shared by many pages, is read and decoded only once, as long as it's not evicted from the cache.
+     * The least recently used content is evicted first, the content of the streams which are larger than the limit
+     * is not cached at all. The efficiency of the cache can be checked with
+     * {@link PdfReader#getDecodedStreamCacheStatistics()}.
+     * <br>
+     * Default value is 0, which means that the streams are decoded each time their content is requested.
+     *
+     * @param decodedStreamCacheSize the maximal size of the cached decoded content in bytes, or 0 to disable the cache
+     * @return this {@link ReaderProperties} instance
+     */
+    public ReaderProperties setDecodedStreamCacheSize(long decodedStreamCacheSize) {
+        this.decodedStreamCacheSize = decodedStreamCacheSize;
+        return this;
+    }
+
+    /**
+     * Defines the number of threads which scan the file when the cross-reference table of a damaged document
+     * is rebuilt. Each thread scans its own region of the file, which speeds up the repairing of big files.
+     * Small files are always scanned by the calling thread.
+     * <br>
+     * Default value is 1, which means that the file is scanned by the calling thread.
+     *
+     * @param xrefRebuildThreadsCount the number of threads scanning the file
+     * @return this {@link ReaderProperties} instance
+     */
+    public ReaderProperties setXrefRebuildThreadsCount(int xrefRebuildThreadsCount) {
+        this.xrefRebuildThreadsCount = xrefRebuildThreadsCount;
+        return this;
+    }
+
+    /**
+     * Defines the listener which is notified of the progress of rebuilding the cross-reference table
+     * of a damaged document and which may cancel it, e.g. to limit the time spent on repairing the document.
+     *
+     * @param xrefRebuildListener the listener, or null if the progress is not of interest
+     * @return this {@link ReaderProperties} instance
+     */
+    public ReaderProperties setXrefRebuildListener(IXrefRebuildListener xrefRebuildListener) {
+        this.xrefRebuildListener = xrefRebuildListener;
+        return this;
+    }
+
     private void clearEncryptionParams() {
         this.password = null;
         this.certificate = null;
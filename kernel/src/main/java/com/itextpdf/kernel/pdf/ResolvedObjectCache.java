@@ -0,0 +1,214 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of the indirect objects resolved by {@link PdfReader} and detaches the least recently used ones
+ * from their references when the total estimated size of the objects exceeds the limit,
+ * see {@link ReaderProperties#setObjectCacheSize(long)}.
+ * <br>
+ * The eviction follows the CLOCK policy: when the limit is exceeded, the oldest tracked reference is marked with
+ * {@link PdfObject#NOT_RECENTLY_USED} and moved to the end of the queue. {@link PdfIndirectReference#getRefersTo(boolean)}
+ * clears this mark, so only the objects which were not requested since the previous check are detached.
+ * The objects are detached by clearing {@link PdfIndirectReference#refersTo}, which makes the reference read
+ * the object once again the next time it is requested.
+ * <br>
+ * The dictionaries of the pages tree are never detached, so the memory consumption still grows with the number of
+ * the traversed pages by the size of their dictionaries.
+ */
+class ResolvedObjectCache implements Serializable {
+
+    private static final long serialVersionUID = 3418539164318727316L;
+
+    private static final int OBJECT_SIZE = 16;
+    private static final int REFERENCE_SIZE = 8;
+    private static final int ENTRY_SIZE = 32;
+    private static final int MAX_ESTIMATION_DEPTH = 16;
+
+    private final long maxSize;
+    private final LinkedHashMap<PdfIndirectReference, Long> sizes = new LinkedHashMap<>();
+    private long currentSize;
+
+    ResolvedObjectCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Starts tracking the object which has been resolved for the reference and detaches other objects
+     * if the limit is exceeded.
+     *
+     * @param reference the reference the object has been read for
+     * @param object    the resolved object
+     */
+    void add(PdfIndirectReference reference, PdfObject object) {
+        if (reference == null || object == null) {
+            return;
+        }
+        Long previousSize = sizes.remove(reference);
+        if (previousSize != null) {
+            currentSize -= (long) previousSize;
+        }
+        long size = estimateSize(object, 0);
+        // the objects are detached before the new one is tracked, so that the requested object is never detached
+        if (currentSize + size > maxSize) {
+            evict(maxSize - size);
+        }
+        sizes.put(reference, size);
+        currentSize += size;
+    }
+
+    /**
+     * Gets the total estimated size of the tracked objects.
+     *
+     * @return the estimated size in bytes
+     */
+    long getCurrentSize() {
+        return currentSize;
+    }
+
+    /**
+     * Gets the number of the tracked objects.
+     *
+     * @return the number of the references whose objects may be detached
+     */
+    int size() {
+        return sizes.size();
+    }
+
+    void clear() {
+        sizes.clear();
+        currentSize = 0;
+    }
+
+    private void evict(long targetSize) {
+        // each entry is visited at most twice: once to mark it and once to detach its object
+        int attempts = 2 * sizes.size();
+        while (currentSize > targetSize && attempts-- > 0 && !sizes.isEmpty()) {
+            Iterator<Map.Entry<PdfIndirectReference, Long>> iterator = sizes.entrySet().iterator();
+            Map.Entry<PdfIndirectReference, Long> eldest = iterator.next();
+            PdfIndirectReference reference = eldest.getKey();
+            long size = (long) eldest.getValue();
+            iterator.remove();
+            PdfObject object = reference.refersTo;
+            if (object == null || isPinned(reference, object)) {
+                // the object has been released explicitly or is in use, it's not the cache's business anymore
+                reference.clearState(PdfObject.NOT_RECENTLY_USED);
+                currentSize -= size;
+            } else if (reference.checkState(PdfObject.NOT_RECENTLY_USED)) {
+                reference.clearState(PdfObject.NOT_RECENTLY_USED);
+                reference.setRefersTo(null);
+                currentSize -= size;
+            } else {
+                reference.setState(PdfObject.NOT_RECENTLY_USED);
+                sizes.put(reference, size);
+            }
+        }
+    }
+
+    private static boolean isPinned(PdfIndirectReference reference, PdfObject object) {
+        return object.isReleaseForbidden() || object.getIndirectReference() != reference
+                || reference.checkState(PdfObject.MODIFIED) || reference.checkState(PdfObject.FLUSHED)
+                || reference.checkState(PdfObject.FREE) || isPagesTreeNode(object);
+    }
+
+    /**
+     * The dictionaries of the pages and of the intermediate nodes are kept by {@link PdfPagesTree} once they are loaded,
+     * even before they are wrapped by {@link PdfPage}. Detaching them doesn't release any memory, but makes
+     * the reference resolve to another instance than the one used by the pages tree.
+     */
+    private static boolean isPagesTreeNode(PdfObject object) {
+        if (object.getType() != PdfObject.DICTIONARY) {
+            return false;
+        }
+        PdfObject type = ((PdfDictionary) object).get(PdfName.Type, false);
+        return PdfName.Page.equals(type) || PdfName.Pages.equals(type);
+    }
+
+    private static long estimateSize(PdfObject object, int depth) {
+        if (depth > MAX_ESTIMATION_DEPTH) {
+            return OBJECT_SIZE;
+        }
+        switch (object.getType()) {
+            case PdfObject.DICTIONARY:
+            case PdfObject.STREAM: {
+                PdfDictionary dictionary = (PdfDictionary) object;
+                long size = OBJECT_SIZE + ENTRY_SIZE;
+                for (PdfName key : dictionary.keySet()) {
+                    size += ENTRY_SIZE + estimateEntrySize(dictionary.get(key, false), depth);
+                }
+                return size;
+            }
+            case PdfObject.ARRAY: {
+                PdfArray array = (PdfArray) object;
+                long size = OBJECT_SIZE + ENTRY_SIZE;
+                for (int i = 0; i < array.size(); i++) {
+                    size += REFERENCE_SIZE + estimateEntrySize(array.get(i, false), depth);
+                }
+                return size;
+            }
+            case PdfObject.STRING:
+            case PdfObject.NAME:
+            case PdfObject.LITERAL:
+            case PdfObject.NUMBER: {
+                byte[] content = ((PdfPrimitiveObject) object).getInternalContent();
+                return OBJECT_SIZE + ENTRY_SIZE + (content != null ? content.length : 0);
+            }
+            default:
+                return OBJECT_SIZE;
+        }
+    }
+
+    private static long estimateEntrySize(PdfObject value, int depth) {
+        // the referenced objects are tracked on their own
+        if (value == null || value.isIndirectReference() || value.getIndirectReference() != null) {
+            return 0;
+        }
+        return estimateSize(value, depth + 1);
+    }
+}
@@ -47,10 +47,23 @@ import java.util.Arrays;
 class SerializedObjectContent {
     private final byte[] serializedContent;
     private final int hash;
+    private final long estimatedSize;
 
     SerializedObjectContent(byte[] serializedContent) {
+        this(serializedContent, serializedContent.length);
+    }
+
+    SerializedObjectContent(byte[] serializedContent, long estimatedSize) {
         this.serializedContent = serializedContent;
         this.hash = calculateHash(serializedContent);
+        this.estimatedSize = estimatedSize;
+    }
+
+    /**
+     * Gets estimated size of the object including the objects it refers to and the data of the streams.
+     */
+    long getEstimatedSize() {
+        return estimatedSize;
     }
 
     @Override
@@ -42,24 +42,64 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.util.IdelOutputStream;
 import com.itextpdf.kernel.PdfException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.security.DigestOutputStream;
 import java.security.MessageDigest;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 class SmartModePdfObjectsSerializer implements Serializable {
 
     private static final long serialVersionUID = 2502203520776244051L;
 
+    private static final int DIGEST_LENGTH = 32;
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     private transient MessageDigest md5;
-    private HashMap<SerializedObjectContent, PdfIndirectReference> serializedContentToObj = new HashMap<>();
+    /**
+     * Is used in digest mode instead of MD5 both for stream data and for the serialized content of the objects.
+     * The objects with the same digest are considered equal without comparing their content, as the content is not
+     * kept. It is safe, as no collisions of SHA-256 are known, and the probability of an accidental collision
+     * is negligible (about 2^-128 even for 2^64 objects).
+     */
+    private transient MessageDigest sha256;
+    private final boolean digestMode;
+    private final SerializedContentCache serializedContentToObj;
+    private final SmartModeStatistics statistics = new SmartModeStatistics();
+
+    /**
+     * Estimated size of the serialized objects which is not represented in the buffer of the currently serialized
+     * object, i.e. size of the stream data and, in digest mode, of the indirect objects represented by their digests.
+     */
+    private long notBufferedSize;
 
     SmartModePdfObjectsSerializer() {
+        this(false, 0);
+    }
+
+    /**
+     * Creates the serializer.
+     *
+     * @param digestMode if true, serialized objects are identified only by the SHA-256 digest of their content,
+     *                   and only digests are kept in the caches; otherwise the full serialized content is kept
+     * @param maxCachedObjects maximum number of serialized objects remembered for reuse, the least recently
+     *                         reused ones are forgotten first. Zero or negative value means no limit
+     */
+    SmartModePdfObjectsSerializer(boolean digestMode, int maxCachedObjects) {
+        this.digestMode = digestMode;
+        this.serializedContentToObj = new SerializedContentCache(maxCachedObjects, statistics);
         try {
             md5 = MessageDigest.getInstance("MD5");
+            if (digestMode) {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            }
         } catch (Exception e) {
             throw new PdfException(e);
         }
@@ -67,11 +107,18 @@ class SmartModePdfObjectsSerializer implements Serializable {
 
     public void saveSerializedObject(SerializedObjectContent serializedContent, PdfIndirectReference objectReference) {
         serializedContentToObj.put(serializedContent, objectReference);
+        statistics.cachedObjects = serializedContentToObj.size();
     }
 
     public PdfIndirectReference getSavedSerializedObject(SerializedObjectContent serializedContent) {
         if (serializedContent != null) {
-            return serializedContentToObj.get(serializedContent);
+            PdfIndirectReference objectReference = serializedContentToObj.get(serializedContent);
+            statistics.lookups++;
+            if (objectReference != null) {
+                statistics.hits++;
+                statistics.bytesSaved += serializedContent.getEstimatedSize();
+            }
+            return objectReference;
         }
         return null;
     }
@@ -82,20 +129,102 @@ class SmartModePdfObjectsSerializer implements Serializable {
         }
         PdfIndirectReference indRef = obj.getIndirectReference();
         assert indRef != null;
-        Map<PdfIndirectReference, byte[]> serializedCache = indRef.getDocument().serializedObjectsCache;
+        PdfDocument document = indRef.getDocument();
+        Map<PdfIndirectReference, byte[]> serializedCache = digestMode ? document.serializedObjectsDigestsCache
+                : document.serializedObjectsCache;
 
         byte[] content = serializedCache.get(indRef);
+        long estimatedSize;
         if (content == null) {
             ByteBuffer bb = new ByteBuffer();
             int level = 100;
+            notBufferedSize = 0;
             try {
                 serObject(obj, bb, level, serializedCache);
             } catch (SelfReferenceException e) {
                 return null;
             }
-            content = bb.toByteArray();
+            estimatedSize = bb.size() + notBufferedSize;
+            content = digestMode ? digestContent(bb, estimatedSize) : bb.toByteArray();
+        } else {
+            estimatedSize = digestMode ? getDigestedSize(content) : content.length;
+        }
+        return new SerializedObjectContent(content, estimatedSize);
+    }
+
+    /**
+     * Gets statistics of the reuse of the objects.
+     *
+     * @return {@link SmartModeStatistics} instance, which is updated as the objects are serialized
+     */
+    SmartModeStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Creates the digest of the serialized content followed by its estimated size. The size is used only for
+     * statistics, however it doesn't break identification of the content as it is the function of the content.
+     */
+    private byte[] digestContent(ByteBuffer bb, long estimatedSize) {
+        sha256.update(bb.getInternalBuffer(), 0, bb.size());
+        byte[] digest = sha256.digest();
+        byte[] content = new byte[DIGEST_LENGTH + 8];
+        System.arraycopy(digest, 0, content, 0, DIGEST_LENGTH);
+        for (int i = 0; i < 8; i++) {
+            content[DIGEST_LENGTH + i] = (byte) (estimatedSize >>> (56 - 8 * i));
         }
-        return new SerializedObjectContent(content);
+        return content;
+    }
+
+    private static long getDigestedSize(byte[] content) {
+        long size = 0;
+        for (int i = 0; i < 8; i++) {
+            size = (size << 8) | (content[DIGEST_LENGTH + i] & 0xff);
+        }
+        return size;
+    }
+
+    /**
+     * Updates the digest with the encoded data of the stream. The data is passed to the digest in chunks, so
+     * that the whole data isn't copied to the array like by {@link PdfStream#getBytes(boolean)}.
+     *
+     * @return the length of the stream data
+     */
+    private static long digestStreamBytes(PdfStream stream, MessageDigest digest) {
+        try {
+            PdfOutputStream outputStream = stream.getOutputStream();
+            if (outputStream != null && outputStream.getOutputStream() instanceof ByteArrayOutputStream) {
+                ByteArrayOutputStream bytes = (ByteArrayOutputStream) outputStream.getOutputStream();
+                bytes.flush();
+                bytes.writeTo(new DigestOutputStream(new IdelOutputStream(), digest));
+                return bytes.size();
+            }
+            PdfReader reader = stream.getIndirectReference() != null ? stream.getIndirectReference().getReader() : null;
+            InputStream data = outputStream == null && reader != null && !stream.isFlushed()
+                    ? reader.openStream(stream, false) : null;
+            if (data != null) {
+                long length = 0;
+                try {
+                    byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                    int n;
+                    while ((n = data.read(buffer)) > 0) {
+                        digest.update(buffer, 0, n);
+                        length += n;
+                    }
+                } finally {
+                    data.close();
+                }
+                return length;
+            }
+        } catch (IOException e) {
+            throw new PdfException(PdfException.CannotGetPdfStreamBytes, e, stream);
+        }
+        byte[] streamBytes = stream.getBytes(false);
+        if (streamBytes == null) {
+            return 0;
+        }
+        digest.update(streamBytes);
+        return streamBytes.length;
     }
 
     private static class SelfReferenceException extends Exception{}
@@ -116,6 +245,9 @@ class SmartModePdfObjectsSerializer implements Serializable {
             byte[] cached = serializedCache.get(reference);
             if (cached != null) {
                 bb.append(cached);
+                if (digestMode) {
+                    notBufferedSize += getDigestedSize(cached);
+                }
                 return;
             } else {
 
@@ -131,11 +263,14 @@ class SmartModePdfObjectsSerializer implements Serializable {
             }
         }
 
+        long notBufferedSizeBefore = notBufferedSize;
         if (obj.isStream()) {
             serDic((PdfDictionary) obj, bb, level - 1, serializedCache);
             bb.append("$B");
             if (level > 0) {
-                bb.append(md5.digest(((PdfStream) obj).getBytes(false)));
+                MessageDigest streamDigest = digestMode ? sha256 : md5;
+                notBufferedSize += digestStreamBytes((PdfStream) obj, streamDigest);
+                bb.append(streamDigest.digest());
             }
         } else if (obj.isDictionary()) {
             serDic((PdfDictionary) obj, bb, level - 1, serializedCache);
@@ -150,8 +285,16 @@ class SmartModePdfObjectsSerializer implements Serializable {
         }
 
         if (savedBb != null) {
-            serializedCache.put(reference, bb.toByteArray());
-            savedBb.append(bb.getInternalBuffer());
+            if (digestMode) {
+                long estimatedSize = bb.size() + notBufferedSize - notBufferedSizeBefore;
+                byte[] digest = digestContent(bb, estimatedSize);
+                serializedCache.put(reference, digest);
+                savedBb.append(digest);
+                notBufferedSize = notBufferedSizeBefore + estimatedSize;
+            } else {
+                serializedCache.put(reference, bb.toByteArray());
+                savedBb.append(bb.getInternalBuffer());
+            }
         }
     }
 
@@ -188,4 +331,27 @@ class SmartModePdfObjectsSerializer implements Serializable {
         return key.equals(PdfName.P) && (dic.get(key).isIndirectReference() || dic.get(key).isDictionary())
                 || key.equals(PdfName.Parent);
     }
+
+    private static class SerializedContentCache extends LinkedHashMap<SerializedObjectContent, PdfIndirectReference> {
+
+        private static final long serialVersionUID = -2817425049627513839L;
+
+        private final int maxSize;
+        private final SmartModeStatistics statistics;
+
+        SerializedContentCache(int maxSize, SmartModeStatistics statistics) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SerializedObjectContent, PdfIndirectReference> eldest) {
+            if (maxSize > 0 && size() > maxSize) {
+                statistics.evictedObjects++;
+                return true;
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,127 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import java.io.Serializable;
+
+/**
+ * Statistics of the objects reuse in smart mode of the {@link PdfWriter}.
+ * The values are updated as the objects are copied into the document.
+ */
+public class SmartModeStatistics implements Serializable {
+
+    private static final long serialVersionUID = -3702813618543390152L;
+
+    long lookups;
+    long hits;
+    long bytesSaved;
+    long cachedObjects;
+    long evictedObjects;
+
+    SmartModeStatistics() {
+    }
+
+    /**
+     * Gets the number of copied objects which were checked for an already copied duplicate.
+     *
+     * @return number of lookups in the smart mode cache
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Gets the number of copied objects which were replaced by an already copied duplicate.
+     *
+     * @return number of reused objects
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the ratio of the reused objects to all the checked ones.
+     *
+     * @return the hit rate from 0 to 1, or 0 if no objects were checked yet
+     */
+    public double getHitRate() {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets estimated number of bytes which were not written because of the objects reuse.
+     * The estimation is based on the size of the serialized objects and of their stream data,
+     * so it may differ from the actual size of the objects in the resulting document.
+     *
+     * @return estimated number of bytes saved
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    /**
+     * Gets the number of objects currently remembered for reuse.
+     *
+     * @return number of cached objects
+     */
+    public long getCachedObjects() {
+        return cachedObjects;
+    }
+
+    /**
+     * Gets the number of objects forgotten because the cache size limit has been reached.
+     *
+     * @return number of evicted objects
+     * @see WriterProperties#useDigestSmartMode(int)
+     */
+    public long getEvictedObjects() {
+        return evictedObjects;
+    }
+
+    @Override
+    public String toString() {
+        return "SmartModeStatistics{lookups=" + lookups + ", hits=" + hits + ", bytesSaved=" + bytesSaved
+                + ", cachedObjects=" + cachedObjects + ", evictedObjects=" + evictedObjects + '}';
+    }
+}
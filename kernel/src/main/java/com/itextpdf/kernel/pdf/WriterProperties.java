@@ -62,6 +62,29 @@ public class WriterProperties implements Serializable {
      * and reused if there's an object with the same content later.
      */
     protected boolean smartMode;
+
+    /**
+     * Indicates if the objects in smart mode are identified by the digests of their content instead of
+     * the full serialized content.
+     */
+    protected boolean digestSmartMode;
+
+    /**
+     * Maximum number of objects remembered for reuse in smart mode. Zero means no limit.
+     */
+    protected int smartModeCacheSize;
+
+    /**
+     * Number of worker threads used to compress stream content in parallel. Zero means that streams
+     * are compressed on the thread which flushes them.
+     */
+    protected int compressionThreadCount;
+
+    /**
+     * Creates the buffers for the content of the streams. If it is {@code null}, the content is kept in heap arrays.
+     */
+    protected IStreamStorageFactory streamStorageFactory;
+    protected boolean compactXrefTable;
     protected boolean debugMode;
     protected boolean addXmpMetadata;
     protected boolean addUAXmpMetadata;
@@ -79,9 +102,13 @@ public class WriterProperties implements Serializable {
 
     public WriterProperties() {
         smartMode = false;
+        digestSmartMode = false;
+        smartModeCacheSize = 0;
         debugMode = false;
         addUAXmpMetadata = false;
         compressionLevel = CompressionConstants.DEFAULT_COMPRESSION;
+        compressionThreadCount = 0;
+        compactXrefTable = false;
         isFullCompression = null;
         encryptionProperties = new EncryptionProperties();
     }
@@ -113,6 +140,24 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables smart mode in which the objects are identified by the SHA-256 digests of their content.
+     * <br>
+     * Unlike {@link #useSmartMode()} the full serialized content of the copied objects is not kept in memory,
+     * only the digests, so the memory consumption doesn't grow with the size of the copied resources.
+     * The number of objects remembered for reuse can be limited, in which case the least recently
+     * reused objects are forgotten first.
+     *
+     * @param maxCachedObjects maximum number of objects remembered for reuse, zero or negative value means no limit
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useDigestSmartMode(int maxCachedObjects) {
+        this.smartMode = true;
+        this.digestSmartMode = true;
+        this.smartModeCacheSize = Math.max(maxCachedObjects, 0);
+        return this;
+    }
+
     /**
      * If true, default XMPMetadata based on {@link PdfDocumentInfo} will be added.
      * For PDF 2.0 documents, metadata will be added in any case.
@@ -136,6 +181,60 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables parallel compression of stream content.
+     * <br>
+     * When enabled, the content of the streams (including object streams in full compression mode) is compressed
+     * on a pool of worker threads, while the objects are still written to the output in the order in which
+     * they were flushed. The resultant document is byte-identical to the one created without this option.
+     * Objects flushed after a stream which compression is not finished yet are kept in memory until they can be
+     * written, so the memory consumption may grow up to the number of streams being compressed simultaneously.
+     *
+     * @param threadCount number of worker threads to use for compression; 0 disables parallel compression
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useParallelCompression(int threadCount) {
+        this.compressionThreadCount = Math.max(0, threadCount);
+        return this;
+    }
+
+    /**
+     * Defines where the content of the streams of the document is kept until the streams are written.
+     * <br>
+     * By default the content of the streams is kept in heap byte arrays, which may cause big allocations and
+     * long garbage collection pauses when the document contains large images or content streams.
+     * {@link DirectBufferStreamStorageFactory} keeps the content in pooled direct buffers, while
+     * {@link TempFileStreamStorageFactory} moves the content of big streams to temporary files.
+     * The factory is applied to the streams when they are made indirect in the document, so it doesn't affect
+     * the streams which are flushed as direct objects and the internal object streams.
+     *
+     * @param streamStorageFactory the factory of the stream content buffers, {@code null} to keep the content in heap
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties setStreamStorageFactory(IStreamStorageFactory streamStorageFactory) {
+        this.streamStorageFactory = streamStorageFactory;
+        return this;
+    }
+
+    /**
+     * Enables compact storage of the cross-reference table.
+     * <br>
+     * By default an indirect reference instance is kept for every object of the document until the document is closed.
+     * In this mode the offsets, generation and object stream numbers of already flushed objects are kept
+     * in primitive arrays instead, which takes several times less memory. This is useful for documents
+     * with millions of objects which are flushed as soon as possible.
+     * <br>
+     * Note, that in this mode the same instance of {@link PdfIndirectReference} is not guaranteed to be returned
+     * for flushed objects, e.g. by {@link PdfDocument#listIndirectReferences()}, so such references shall be compared
+     * with {@link PdfIndirectReference#equals(Object)}.
+     *
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties useCompactXrefTable() {
+        this.compactXrefTable = true;
+        return this;
+    }
+
     /**
      * Defines if full compression mode is enabled. If enabled, not only the content of the pdf document will be
      * compressed, but also the pdf document inner structure.
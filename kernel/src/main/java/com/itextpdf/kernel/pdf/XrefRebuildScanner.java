@@ -0,0 +1,387 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.kernel.PdfException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans the file of a damaged document for the object headers ({@code num gen obj}) and the trailers when
+ * the cross-reference table is rebuilt, see {@link PdfReader#rebuildXref()}.
+ * <br>
+ * The file is read in big blocks which are searched for the markers directly, instead of tokenizing it line by line.
+ * The same markers are recognized as by the line based approach: the marker shall be at the beginning of a line,
+ * possibly preceded by whitespaces. Big files may be split into regions which are scanned by several threads,
+ * the results are merged in the order of the regions, so the later definitions of an object still take precedence.
+ */
+class XrefRebuildScanner {
+
+    static final int BLOCK_SIZE = 1 << 20;
+
+    // files are split into regions only if each thread gets at least this number of bytes
+    private static final int MIN_REGION_SIZE = 4 * BLOCK_SIZE;
+    // the number of bytes read around each block to check the beginning of the line and the end of the marker
+    private static final int BLOCK_OVERLAP = 64;
+    private static final int MAX_NUMBER_DIGITS = 10;
+    private static final byte[] OBJ = {'o', 'b', 'j'};
+    private static final byte[] TRAILER = {'t', 'r', 'a', 'i', 'l', 'e', 'r'};
+
+    private final PdfTokenizer tokens;
+    private final long length;
+    private final int threadsCount;
+    private final IXrefRebuildListener listener;
+
+    private long scannedBytes;
+    private volatile boolean cancelled;
+
+    XrefRebuildScanner(PdfTokenizer tokens, int threadsCount, IXrefRebuildListener listener) throws IOException {
+        this.tokens = tokens;
+        this.length = tokens.length();
+        this.threadsCount = threadsCount;
+        this.listener = listener;
+    }
+
+    /**
+     * Scans the whole file.
+     *
+     * @return the object headers and the trailers found in the file, in the order of their offsets
+     * @throws IOException on error
+     */
+    ScanResult scan() throws IOException {
+        int regionsCount = (int) Math.max(1, Math.min(threadsCount, length / MIN_REGION_SIZE));
+        ScanResult result;
+        if (regionsCount == 1) {
+            RandomAccessFileOrArray file = tokens.getSafeFile();
+            try {
+                result = scanRegion(file, 0, length);
+            } finally {
+                file.close();
+            }
+        } else {
+            result = scanRegions(regionsCount);
+        }
+        if (cancelled) {
+            throw new PdfException(PdfException.XrefRebuildingWasCancelled);
+        }
+        return result;
+    }
+
+    private ScanResult scanRegions(int regionsCount) throws IOException {
+        // the views shall be created before the workers start, since creating a view is not thread safe
+        tokens.ensureFileIsThreadSafe();
+        List<RandomAccessFileOrArray> files = new ArrayList<>(regionsCount);
+        for (int i = 0; i < regionsCount; i++) {
+            files.add(tokens.getSafeFile());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(regionsCount);
+        try {
+            long regionSize = (length + regionsCount - 1) / regionsCount;
+            List<Future<ScanResult>> futures = new ArrayList<>(regionsCount);
+            for (int i = 0; i < regionsCount; i++) {
+                final RandomAccessFileOrArray file = files.get(i);
+                final long start = i * regionSize;
+                final long end = Math.min(length, start + regionSize);
+                futures.add(executor.submit(new Callable<ScanResult>() {
+                    @Override
+                    public ScanResult call() throws IOException {
+                        return scanRegion(file, start, end);
+                    }
+                }));
+            }
+            ScanResult result = new ScanResult();
+            for (Future<ScanResult> future : futures) {
+                result.append(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.XrefRebuildingWasCancelled, e);
+        } catch (ExecutionException e) {
+            cancelled = true;
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // the views are closed here, since some of the tasks might not have been started at all
+            for (RandomAccessFileOrArray file : files) {
+                file.close();
+            }
+        }
+    }
+
+    private ScanResult scanRegion(RandomAccessFileOrArray file, long start, long end) throws IOException {
+        ScanResult result = new ScanResult();
+        byte[] buffer = new byte[BLOCK_SIZE + 2 * BLOCK_OVERLAP];
+        for (long blockStart = start; blockStart < end && !cancelled; blockStart += BLOCK_SIZE) {
+            long blockEnd = Math.min(end, blockStart + BLOCK_SIZE);
+            long readStart = Math.max(0, blockStart - BLOCK_OVERLAP);
+            long readEnd = Math.min(length, blockEnd + BLOCK_OVERLAP);
+            int readLength = (int) (readEnd - readStart);
+            file.seek(readStart);
+            file.readFully(buffer, 0, readLength);
+            scanBlock(buffer, (int) (blockStart - readStart), (int) (blockEnd - readStart), readLength,
+                    readEnd == length, readStart, result);
+            reportProgress(blockEnd - blockStart);
+        }
+        return result;
+    }
+
+    private synchronized void reportProgress(long bytes) {
+        scannedBytes += bytes;
+        if (listener != null && !cancelled && !listener.onProgress(scannedBytes, length)) {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Looks for the markers which start in {@code [from, to)} range of the buffer. The bytes before {@code from}
+     * and after {@code to} up to {@code limit} are only used as the context.
+     */
+    private static void scanBlock(byte[] buffer, int from, int to, int limit, boolean endOfFile, long offset,
+                                  ScanResult result) {
+        for (int i = from; i < to; i++) {
+            int ch = buffer[i];
+            // cheap checks go first, since the most of the bytes are neither digits nor 't'
+            if ((ch == 't' || ch >= '0' && ch <= '9') && (i == 0 || isWhitespace(buffer[i - 1])) && isLineStart(buffer, i)) {
+                if (ch == 't') {
+                    if (matches(buffer, i, limit, TRAILER)) {
+                        result.addTrailer(offset + i);
+                    }
+                } else {
+                    checkObjectHeader(buffer, i, limit, endOfFile, offset, result);
+                }
+            }
+        }
+    }
+
+    private static void checkObjectHeader(byte[] buffer, int start, int limit, boolean endOfFile, long offset,
+                                          ScanResult result) {
+        int pos = start;
+        long objNumber = 0;
+        while (pos < limit && isDigit(buffer[pos])) {
+            if (pos - start == MAX_NUMBER_DIGITS) {
+                return;
+            }
+            objNumber = objNumber * 10 + (buffer[pos++] - '0');
+        }
+        int genStart = skipInlineWhitespaces(buffer, pos, limit);
+        if (genStart == pos || objNumber > Integer.MAX_VALUE) {
+            return;
+        }
+        pos = genStart;
+        long genNumber = 0;
+        while (pos < limit && isDigit(buffer[pos])) {
+            if (pos - genStart == MAX_NUMBER_DIGITS) {
+                return;
+            }
+            genNumber = genNumber * 10 + (buffer[pos++] - '0');
+        }
+        int keywordStart = skipInlineWhitespaces(buffer, pos, limit);
+        if (pos == genStart || keywordStart == pos || genNumber > Integer.MAX_VALUE || !matches(buffer, keywordStart, limit, OBJ)) {
+            return;
+        }
+        pos = keywordStart + OBJ.length;
+        if (pos < limit ? isWhitespaceOrDelimiter(buffer[pos]) : endOfFile) {
+            result.addObject((int) objNumber, (int) genNumber, offset + start);
+        }
+    }
+
+    private static boolean isLineStart(byte[] buffer, int pos) {
+        for (int i = pos - 1; i >= 0; i--) {
+            int ch = buffer[i];
+            if (ch == '\n' || ch == '\r') {
+                return true;
+            }
+            if (!isWhitespace(ch)) {
+                return false;
+            }
+        }
+        // either the beginning of the file or a very long sequence of whitespaces
+        return true;
+    }
+
+    private static int skipInlineWhitespaces(byte[] buffer, int pos, int limit) {
+        while (pos < limit && isInlineWhitespace(buffer[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean matches(byte[] buffer, int pos, int limit, byte[] marker) {
+        if (pos + marker.length > limit) {
+            return false;
+        }
+        for (int i = 0; i < marker.length; i++) {
+            if (buffer[pos + i] != marker[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(int ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isWhitespace(int ch) {
+        return ch == '\n' || ch == '\r' || isInlineWhitespace(ch);
+    }
+
+    // the whitespaces which may separate the tokens of the same line
+    private static boolean isInlineWhitespace(int ch) {
+        return ch == ' ' || ch == '\t' || ch == '\f' || ch == 0;
+    }
+
+    private static boolean isWhitespaceOrDelimiter(int ch) {
+        switch (ch) {
+            case '(':
+            case ')':
+            case '<':
+            case '>':
+            case '[':
+            case ']':
+            case '/':
+            case '%':
+            case '{':
+            case '}':
+                return true;
+            default:
+                return isWhitespace(ch);
+        }
+    }
+
+    static class ScanResult {
+
+        private int[] objNumbers = new int[16];
+        private int[] genNumbers = new int[16];
+        private long[] objOffsets = new long[16];
+        private int objectsCount;
+        private long[] trailerOffsets = new long[4];
+        private int trailersCount;
+
+        int getObjectsCount() {
+            return objectsCount;
+        }
+
+        int getObjNumber(int index) {
+            return objNumbers[index];
+        }
+
+        int getGenNumber(int index) {
+            return genNumbers[index];
+        }
+
+        long getObjOffset(int index) {
+            return objOffsets[index];
+        }
+
+        int getTrailersCount() {
+            return trailersCount;
+        }
+
+        long getTrailerOffset(int index) {
+            return trailerOffsets[index];
+        }
+
+        void addObject(int objNumber, int genNumber, long offset) {
+            if (objectsCount == objNumbers.length) {
+                ensureObjectsCapacity(objectsCount * 2);
+            }
+            objNumbers[objectsCount] = objNumber;
+            genNumbers[objectsCount] = genNumber;
+            objOffsets[objectsCount++] = offset;
+        }
+
+        void addTrailer(long offset) {
+            if (trailersCount == trailerOffsets.length) {
+                trailerOffsets = Arrays.copyOf(trailerOffsets, trailersCount * 2);
+            }
+            trailerOffsets[trailersCount++] = offset;
+        }
+
+        void append(ScanResult other) {
+            ensureObjectsCapacity(objectsCount + other.objectsCount);
+            System.arraycopy(other.objNumbers, 0, objNumbers, objectsCount, other.objectsCount);
+            System.arraycopy(other.genNumbers, 0, genNumbers, objectsCount, other.objectsCount);
+            System.arraycopy(other.objOffsets, 0, objOffsets, objectsCount, other.objectsCount);
+            objectsCount += other.objectsCount;
+            for (int i = 0; i < other.trailersCount; i++) {
+                addTrailer(other.trailerOffsets[i]);
+            }
+        }
+
+        private void ensureObjectsCapacity(int capacity) {
+            if (capacity > objNumbers.length) {
+                objNumbers = Arrays.copyOf(objNumbers, capacity);
+                genNumbers = Arrays.copyOf(genNumbers, capacity);
+                objOffsets = Arrays.copyOf(objOffsets, capacity);
+            }
+        }
+    }
+}
@@ -86,6 +86,7 @@ import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.canvas.parser.util.ContentOperation;
 import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.kernel.pdf.colorspace.PdfCieBasedCs;
 import com.itextpdf.kernel.pdf.colorspace.PdfColorSpace;
@@ -142,6 +143,24 @@ public class PdfCanvasProcessor {
      */
     private Map<String, IContentOperator> operators;
 
+    /**
+     * The registered operators indexed by the {@link ContentOperation#getOperatorCode() operator codes}.
+     * Rebuilt lazily after an operator is registered.
+     */
+    private IContentOperator[] operatorsByCode;
+
+    /**
+     * The registered operators, which can be invoked with primitive numeric operands,
+     * indexed by the {@link ContentOperation#getOperatorCode() operator codes}.
+     */
+    private INumericOperandsOperator[] numericOperatorsByCode;
+
+    /**
+     * Indicates whether {@link #invokeOperator(PdfLiteral, List)} is overridden, in which case all the operators
+     * are processed through it and the primitive numeric operands fast path is not used.
+     */
+    private final boolean invokeOperatorOverridden;
+
     /**
      * Resources for the content stream.
      * Current resources are always at the top of the stack.
@@ -182,6 +201,7 @@ public class PdfCanvasProcessor {
     public PdfCanvasProcessor(IEventListener eventListener) {
         this.eventListener = eventListener;
         this.supportedEvents = eventListener.getSupportedEvents();
+        this.invokeOperatorOverridden = isInvokeOperatorOverridden(getClass());
         operators = new HashMap<>();
         populateOperators();
         xobjectDoHandlers = new HashMap<>();
@@ -230,6 +250,8 @@ public class PdfCanvasProcessor {
      * @return the existing registered operator, if any
      */
     public IContentOperator registerContentOperator(String operatorString, IContentOperator operator) {
+        operatorsByCode = null;
+        numericOperatorsByCode = null;
         return operators.put(operatorString, operator);
     }
 
@@ -280,9 +302,16 @@ public class PdfCanvasProcessor {
         PdfCanvasParser ps = new PdfCanvasParser(tokeniser, resources);
         List<PdfObject> operands = new ArrayList<>();
         try {
-            while (ps.parse(operands).size() > 0) {
-                PdfLiteral operator = (PdfLiteral) operands.get(operands.size() - 1);
-                invokeOperator(operator, operands);
+            if (invokeOperatorOverridden) {
+                while (ps.parse(operands).size() > 0) {
+                    PdfLiteral operator = (PdfLiteral) operands.get(operands.size() - 1);
+                    invokeOperator(operator, operands);
+                }
+            } else {
+                ContentOperation operation = new ContentOperation();
+                while (ps.parse(operation)) {
+                    invokeOperation(operation, operands);
+                }
             }
         } catch (IOException e) {
             throw new PdfException(PdfException.CannotParseContentStream, e);
@@ -457,6 +486,77 @@ public class PdfCanvasProcessor {
         op.invoke(this, operator, operands);
     }
 
+    /**
+     * Invokes the operator of the operation. Operators registered for the operations with numeric operands only
+     * are invoked directly with the primitive operand values, other operators are invoked through
+     * {@link IContentOperator#invoke(PdfCanvasProcessor, PdfLiteral, List)}.
+     *
+     * @param operation the operation to process
+     * @param operands  a list to use for the operands of the operators, which can't be invoked with
+     *                  the primitive operand values
+     */
+    private void invokeOperation(ContentOperation operation, List<PdfObject> operands) {
+        if (operatorsByCode == null) {
+            populateOperatorsByCode();
+        }
+        int code = operation.getOperatorCode();
+        IContentOperator op;
+        if (code != ContentOperation.UNKNOWN_OPERATOR) {
+            INumericOperandsOperator numericOperator = numericOperatorsByCode[code];
+            if (numericOperator != null && operation.hasNumericOperandsOnly()) {
+                int operandsCount = numericOperator.getOperandsCount();
+                if (operandsCount == -1 || operandsCount == operation.getOperandsCount()) {
+                    numericOperator.invoke(this, operation);
+                    return;
+                }
+            }
+            op = operatorsByCode[code];
+        } else {
+            op = operators.get(operation.getOperator());
+            if (op == null) {
+                op = operators.get(DEFAULT_OPERATOR);
+            }
+        }
+        operation.getOperands(operands);
+        op.invoke(this, (PdfLiteral) operands.get(operands.size() - 1), operands);
+    }
+
+    private void populateOperatorsByCode() {
+        IContentOperator[] ops = new IContentOperator[ContentOperation.KNOWN_OPERATORS_COUNT];
+        INumericOperandsOperator[] numericOps = new INumericOperandsOperator[ContentOperation.KNOWN_OPERATORS_COUNT];
+        IContentOperator defaultOperator = operators.get(DEFAULT_OPERATOR);
+        for (int i = 0; i < ops.length; i++) {
+            ops[i] = defaultOperator;
+        }
+        for (Map.Entry<String, IContentOperator> entry : operators.entrySet()) {
+            int code = ContentOperation.getOperatorCode(entry.getKey());
+            if (code != ContentOperation.UNKNOWN_OPERATOR) {
+                ops[code] = entry.getValue();
+            }
+        }
+        for (int i = 0; i < ops.length; i++) {
+            if (ops[i] instanceof INumericOperandsOperator) {
+                numericOps[i] = (INumericOperandsOperator) ops[i];
+            }
+        }
+        operatorsByCode = ops;
+        numericOperatorsByCode = numericOps;
+    }
+
+    private static boolean isInvokeOperatorOverridden(Class<?> processorClass) {
+        for (Class<?> cls = processorClass; cls != PdfCanvasProcessor.class; cls = cls.getSuperclass()) {
+            try {
+                cls.getDeclaredMethod("invokeOperator", PdfLiteral.class, List.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                // not overridden in this class
+            } catch (SecurityException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected PdfStream getXObjectStream(PdfName xobjectName) {
         PdfDictionary xobjects = getResources().getResource(PdfName.XObject);
         return xobjects.getAsStream(xobjectName);
@@ -595,16 +695,53 @@ public class PdfCanvasProcessor {
         getGraphicsState().setClippingPath(clippingPath);
     }
 
+    /**
+     * A handler for content stream operators, which can be invoked with the primitive values of numeric operands.
+     * It allows to process the operations with numeric operands only without creating {@link PdfNumber}
+     * and {@link PdfLiteral} objects for them.
+     */
+    private interface INumericOperandsOperator {
+
+        /**
+         * Gets the number of the operands the operator expects.
+         *
+         * @return the number of the operands, or -1 if any number of operands is accepted
+         */
+        int getOperandsCount();
+
+        /**
+         * Called when an operation with numeric operands only should be processed.
+         *
+         * @param processor the processor that is dealing with the PDF content stream
+         * @param operation the operation, all its operands are numbers
+         */
+        void invoke(PdfCanvasProcessor processor, ContentOperation operation);
+    }
+
     /**
      * A handler that implements operator (unregistered).
      */
-    private static class IgnoreOperator implements IContentOperator {
+    private static class IgnoreOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             // ignore the operator
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return -1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            // ignore the operator
+        }
     }
 
     /**
@@ -717,7 +854,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (T*). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveNextLineOperator implements IContentOperator {
+    private static class TextMoveNextLineOperator implements IContentOperator, INumericOperandsOperator {
         private final TextMoveStartNextLineOperator moveStartNextLine;
 
         public TextMoveNextLineOperator(TextMoveStartNextLineOperator moveStartNextLine) {
@@ -733,12 +870,26 @@ public class PdfCanvasProcessor {
             tdoperands.add(1, new PdfNumber(-processor.getGraphicsState().getLeading()));
             moveStartNextLine.invoke(processor, null, tdoperands);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            moveStartNextLine.moveStartNextLine(processor, 0, -processor.getGraphicsState().getLeading());
+        }
     }
 
     /**
      * A handler that implements operator (Tm). For more information see Table 51 ISO-32000-1
      */
-    private static class TextSetTextMatrixOperator implements IContentOperator {
+    private static class TextSetTextMatrixOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -753,12 +904,29 @@ public class PdfCanvasProcessor {
             processor.textLineMatrix = new Matrix(a, b, c, d, e, f);
             processor.textMatrix = processor.textLineMatrix;
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 6;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.textLineMatrix = new Matrix((float) operation.getNumber(0), (float) operation.getNumber(1),
+                    (float) operation.getNumber(2), (float) operation.getNumber(3),
+                    (float) operation.getNumber(4), (float) operation.getNumber(5));
+            processor.textMatrix = processor.textLineMatrix;
+        }
     }
 
     /**
      * A handler that implements operator (TD). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveStartNextLineWithLeadingOperator implements IContentOperator {
+    private static class TextMoveStartNextLineWithLeadingOperator implements IContentOperator, INumericOperandsOperator {
         private final TextMoveStartNextLineOperator moveStartNextLine;
         private final SetTextLeadingOperator setTextLeading;
 
@@ -778,23 +946,56 @@ public class PdfCanvasProcessor {
             setTextLeading.invoke(processor, null, tlOperands);
             moveStartNextLine.invoke(processor, null, operands);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 2;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            float ty = (float) operation.getNumber(1);
+            processor.getGraphicsState().setLeading(-ty);
+            moveStartNextLine.moveStartNextLine(processor, (float) operation.getNumber(0), ty);
+        }
     }
 
     /**
      * A handler that implements operator (Td). For more information see Table 51 ISO-32000-1
      */
-    private static class TextMoveStartNextLineOperator implements IContentOperator {
+    private static class TextMoveStartNextLineOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             float tx = ((PdfNumber) operands.get(0)).floatValue();
             float ty = ((PdfNumber) operands.get(1)).floatValue();
+            moveStartNextLine(processor, tx, ty);
+        }
 
+        void moveStartNextLine(PdfCanvasProcessor processor, float tx, float ty) {
             Matrix translationMatrix = new Matrix(tx, ty);
             processor.textMatrix = translationMatrix.multiply(processor.textLineMatrix);
             processor.textLineMatrix = processor.textMatrix;
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 2;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            moveStartNextLine(processor, (float) operation.getNumber(0), (float) operation.getNumber(1));
+        }
     }
 
     /**
@@ -822,7 +1023,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (Tr). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextRenderModeOperator implements IContentOperator {
+    private static class SetTextRenderModeOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -830,12 +1031,26 @@ public class PdfCanvasProcessor {
             PdfNumber render = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setTextRenderingMode(render.intValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setTextRenderingMode((int) operation.getNumber(0));
+        }
     }
 
     /**
      * A handler that implements operator (Ts). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextRiseOperator implements IContentOperator {
+    private static class SetTextRiseOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -843,12 +1058,26 @@ public class PdfCanvasProcessor {
             PdfNumber rise = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setTextRise(rise.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setTextRise((float) operation.getNumber(0));
+        }
     }
 
     /**
      * A handler that implements operator (TL). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextLeadingOperator implements IContentOperator {
+    private static class SetTextLeadingOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -856,12 +1085,26 @@ public class PdfCanvasProcessor {
             PdfNumber leading = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setLeading(leading.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setLeading((float) operation.getNumber(0));
+        }
     }
 
     /**
      * A handler that implements operator (Tz). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextHorizontalScalingOperator implements IContentOperator {
+    private static class SetTextHorizontalScalingOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -869,12 +1112,26 @@ public class PdfCanvasProcessor {
             PdfNumber scale = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setHorizontalScaling(scale.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setHorizontalScaling((float) operation.getNumber(0));
+        }
     }
 
     /**
      * A handler that implements operator (Tc). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextCharacterSpacingOperator implements IContentOperator {
+    private static class SetTextCharacterSpacingOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -882,12 +1139,26 @@ public class PdfCanvasProcessor {
             PdfNumber charSpace = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setCharSpacing(charSpace.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setCharSpacing((float) operation.getNumber(0));
+        }
     }
 
     /**
      * A handler that implements operator (Tw). For more information see Table 51 ISO-32000-1
      */
-    private static class SetTextWordSpacingOperator implements IContentOperator {
+    private static class SetTextWordSpacingOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -895,6 +1166,20 @@ public class PdfCanvasProcessor {
             PdfNumber wordSpace = (PdfNumber) operands.get(0);
             processor.getGraphicsState().setWordSpacing(wordSpace.floatValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setWordSpacing((float) operation.getNumber(0));
+        }
     }
 
     /**
@@ -930,7 +1215,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (q). For more information see Table 51 ISO-32000-1
      */
-    private static class PushGraphicsStateOperator implements IContentOperator {
+    private static class PushGraphicsStateOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -939,12 +1224,26 @@ public class PdfCanvasProcessor {
             ParserGraphicsState copy = new ParserGraphicsState(gs);
             processor.gsStack.push(copy);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            invoke(processor, null, null);
+        }
     }
 
     /**
      * A handler that implements operator (cm). For more information see Table 51 ISO-32000-1
      */
-    private static class ModifyCurrentTransformationMatrixOperator implements IContentOperator {
+    private static class ModifyCurrentTransformationMatrixOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -955,7 +1254,10 @@ public class PdfCanvasProcessor {
             float d = ((PdfNumber) operands.get(3)).floatValue();
             float e = ((PdfNumber) operands.get(4)).floatValue();
             float f = ((PdfNumber) operands.get(5)).floatValue();
-            Matrix matrix = new Matrix(a, b, c, d, e, f);
+            modifyCtm(processor, new Matrix(a, b, c, d, e, f));
+        }
+
+        private static void modifyCtm(PdfCanvasProcessor processor, Matrix matrix) {
             try {
                 processor.getGraphicsState().updateCtm(matrix);
             } catch (PdfException exception) {
@@ -967,6 +1269,22 @@ public class PdfCanvasProcessor {
                 }
             }
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 6;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            modifyCtm(processor, new Matrix((float) operation.getNumber(0), (float) operation.getNumber(1),
+                    (float) operation.getNumber(2), (float) operation.getNumber(3),
+                    (float) operation.getNumber(4), (float) operation.getNumber(5)));
+        }
     }
 
     /**
@@ -1050,6 +1368,23 @@ public class PdfCanvasProcessor {
         return null;
     }
 
+    /**
+     * Gets a color based on the numeric operands of an operation.
+     */
+    private static Color getColor(int nOperands, ContentOperation operation) {
+        switch (nOperands) {
+            case 1:
+                return new DeviceGray((float) operation.getNumber(0));
+            case 3:
+                return new DeviceRgb((float) operation.getNumber(0), (float) operation.getNumber(1),
+                        (float) operation.getNumber(2));
+            case 4:
+                return new DeviceCmyk((float) operation.getNumber(0), (float) operation.getNumber(1),
+                        (float) operation.getNumber(2), (float) operation.getNumber(3));
+        }
+        return null;
+    }
+
     private static float[] getColorants(List<PdfObject> operands) {
         float[] c = new float[operands.size() - 1];
         for (int i = 0; i < operands.size() - 1; i++) {
@@ -1061,7 +1396,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (Q). For more information see Table 51 ISO-32000-1
      */
-    protected static class PopGraphicsStateOperator implements IContentOperator {
+    protected static class PopGraphicsStateOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -1070,78 +1405,176 @@ public class PdfCanvasProcessor {
             ParserGraphicsState gs = processor.getGraphicsState();
             processor.eventOccurred(new ClippingPathInfo(gs, gs.getClippingPath(), gs.getCtm()), EventType.CLIP_PATH_CHANGED);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            invoke(processor, null, null);
+        }
     }
 
     /**
      * A handler that implements operator (g). For more information see Table 51 ISO-32000-1
      */
-    private static class SetGrayFillOperator implements IContentOperator {
+    private static class SetGrayFillOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.getGraphicsState().setFillColor(getColor(1, operands));
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setFillColor(getColor(1, operation));
+        }
     }
 
     /**
      * A handler that implements operator (G). For more information see Table 51 ISO-32000-1
      */
-    private static class SetGrayStrokeOperator implements IContentOperator {
+    private static class SetGrayStrokeOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.getGraphicsState().setStrokeColor(getColor(1, operands));
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setStrokeColor(getColor(1, operation));
+        }
     }
 
     /**
      * A handler that implements operator (rg). For more information see Table 51 ISO-32000-1
      */
-    private static class SetRGBFillOperator implements IContentOperator {
+    private static class SetRGBFillOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.getGraphicsState().setFillColor(getColor(3, operands));
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 3;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setFillColor(getColor(3, operation));
+        }
     }
 
     /**
      * A handler that implements operator (RG). For more information see Table 51 ISO-32000-1
      */
-    private static class SetRGBStrokeOperator implements IContentOperator {
+    private static class SetRGBStrokeOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.getGraphicsState().setStrokeColor(getColor(3, operands));
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 3;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setStrokeColor(getColor(3, operation));
+        }
     }
 
     /**
      * A handler that implements operator (k). For more information see Table 51 ISO-32000-1
      */
-    private static class SetCMYKFillOperator implements IContentOperator {
+    private static class SetCMYKFillOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.getGraphicsState().setFillColor(getColor(4, operands));
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 4;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setFillColor(getColor(4, operation));
+        }
     }
 
     /**
      * A handler that implements operator (K). For more information see Table 51 ISO-32000-1
      */
-    private static class SetCMYKStrokeOperator implements IContentOperator {
+    private static class SetCMYKStrokeOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.getGraphicsState().setStrokeColor(getColor(4, operands));
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 4;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setStrokeColor(getColor(4, operation));
+        }
     }
 
     /**
@@ -1211,7 +1644,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (BT). For more information see Table 51 ISO-32000-1
      */
-    private static class BeginTextOperator implements IContentOperator {
+    private static class BeginTextOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -1220,12 +1653,26 @@ public class PdfCanvasProcessor {
             processor.textLineMatrix = processor.textMatrix;
             processor.beginText();
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            invoke(processor, null, null);
+        }
     }
 
     /**
      * A handler that implements operator (ET). For more information see Table 51 ISO-32000-1
      */
-    private static class EndTextOperator implements IContentOperator {
+    private static class EndTextOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -1234,6 +1681,20 @@ public class PdfCanvasProcessor {
             processor.textLineMatrix = null;
             processor.endText();
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            invoke(processor, null, null);
+        }
     }
 
     /**
@@ -1289,7 +1750,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (EMC). For more information see Table 51 ISO-32000-1
      */
-    private static class EndMarkedContentOperator implements IContentOperator {
+    private static class EndMarkedContentOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -1297,6 +1758,20 @@ public class PdfCanvasProcessor {
                            PdfLiteral operator, List<PdfObject> operands) {
             processor.endMarkedContent();
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            invoke(processor, null, null);
+        }
     }
 
     /**
@@ -1331,7 +1806,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (w). For more information see Table 51 ISO-32000-1
      */
-    private static class SetLineWidthOperator implements IContentOperator {
+    private static class SetLineWidthOperator implements IContentOperator, INumericOperandsOperator {
         /**
          * {@inheritDoc}
          */
@@ -1339,12 +1814,26 @@ public class PdfCanvasProcessor {
             float lineWidth = ((PdfNumber) operands.get(0)).floatValue();
             processor.getGraphicsState().setLineWidth(lineWidth);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setLineWidth((float) operation.getNumber(0));
+        }
     }
 
     /**
      * A handler that implements operator (J). For more information see Table 51 ISO-32000-1
      */
-    private static class SetLineCapOperator implements IContentOperator {
+    private static class SetLineCapOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1353,12 +1842,26 @@ public class PdfCanvasProcessor {
             int lineCap = ((PdfNumber) operands.get(0)).intValue();
             processor.getGraphicsState().setLineCapStyle(lineCap);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setLineCapStyle((int) operation.getNumber(0));
+        }
     }
 
     /**
      * A handler that implements operator (j). For more information see Table 51 ISO-32000-1
      */
-    private static class SetLineJoinOperator implements IContentOperator {
+    private static class SetLineJoinOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1367,12 +1870,26 @@ public class PdfCanvasProcessor {
             int lineJoin = ((PdfNumber) operands.get(0)).intValue();
             processor.getGraphicsState().setLineJoinStyle(lineJoin);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setLineJoinStyle((int) operation.getNumber(0));
+        }
     }
 
     /**
      * A handler that implements operator (M). For more information see Table 51 ISO-32000-1
      */
-    private static class SetMiterLimitOperator implements IContentOperator {
+    private static class SetMiterLimitOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1381,6 +1898,20 @@ public class PdfCanvasProcessor {
             float miterLimit = ((PdfNumber) operands.get(0)).floatValue();
             processor.getGraphicsState().setMiterLimit(miterLimit);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.getGraphicsState().setMiterLimit((float) operation.getNumber(0));
+        }
     }
 
     /**
@@ -1459,7 +1990,7 @@ public class PdfCanvasProcessor {
     /**
      * A handler that implements operator (m). For more information see Table 51 ISO-32000-1
      */
-    private static class MoveToOperator implements IContentOperator {
+    private static class MoveToOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1469,12 +2000,26 @@ public class PdfCanvasProcessor {
             float y = ((PdfNumber) operands.get(1)).floatValue();
             processor.currentPath.moveTo(x, y);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 2;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.currentPath.moveTo((float) operation.getNumber(0), (float) operation.getNumber(1));
+        }
     }
 
     /**
      * A handler that implements operator (l). For more information see Table 51 ISO-32000-1
      */
-    private static class LineToOperator implements IContentOperator {
+    private static class LineToOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1484,12 +2029,26 @@ public class PdfCanvasProcessor {
             float y = ((PdfNumber) operands.get(1)).floatValue();
             processor.currentPath.lineTo(x, y);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 2;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.currentPath.lineTo((float) operation.getNumber(0), (float) operation.getNumber(1));
+        }
     }
 
     /**
      * A handler that implements operator (c). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveOperator implements IContentOperator {
+    private static class CurveOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1503,12 +2062,28 @@ public class PdfCanvasProcessor {
             float y3 = ((PdfNumber) operands.get(5)).floatValue();
             processor.currentPath.curveTo(x1, y1, x2, y2, x3, y3);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 6;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.currentPath.curveTo((float) operation.getNumber(0), (float) operation.getNumber(1),
+                    (float) operation.getNumber(2), (float) operation.getNumber(3),
+                    (float) operation.getNumber(4), (float) operation.getNumber(5));
+        }
     }
 
     /**
      * A handler that implements operator (v). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveFirstPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFirstPointDuplicatedOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1520,12 +2095,27 @@ public class PdfCanvasProcessor {
             float y3 = ((PdfNumber) operands.get(3)).floatValue();
             processor.currentPath.curveTo(x2, y2, x3, y3);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 4;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.currentPath.curveTo((float) operation.getNumber(0), (float) operation.getNumber(1),
+                    (float) operation.getNumber(2), (float) operation.getNumber(3));
+        }
     }
 
     /**
      * A handler that implements operator (y). For more information see Table 51 ISO-32000-1
      */
-    private static class CurveFourhPointDuplicatedOperator implements IContentOperator {
+    private static class CurveFourhPointDuplicatedOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1537,12 +2127,27 @@ public class PdfCanvasProcessor {
             float y3 = ((PdfNumber) operands.get(3)).floatValue();
             processor.currentPath.curveFromTo(x1, y1, x3, y3);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 4;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.currentPath.curveFromTo((float) operation.getNumber(0), (float) operation.getNumber(1),
+                    (float) operation.getNumber(2), (float) operation.getNumber(3));
+        }
     }
 
     /**
      * A handler that implements operator (h). For more information see Table 51 ISO-32000-1
      */
-    private static class CloseSubpathOperator implements IContentOperator {
+    private static class CloseSubpathOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1550,12 +2155,26 @@ public class PdfCanvasProcessor {
         public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
             processor.currentPath.closeSubpath();
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            invoke(processor, null, null);
+        }
     }
 
     /**
      * A handler that implements operator (re). For more information see Table 51 ISO-32000-1
      */
-    private static class RectangleOperator implements IContentOperator {
+    private static class RectangleOperator implements IContentOperator, INumericOperandsOperator {
 
         /**
          * {@inheritDoc}
@@ -1567,12 +2186,27 @@ public class PdfCanvasProcessor {
             float h = ((PdfNumber) operands.get(3)).floatValue();
             processor.currentPath.rectangle(x, y, w, h);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 4;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            processor.currentPath.rectangle((float) operation.getNumber(0), (float) operation.getNumber(1),
+                    (float) operation.getNumber(2), (float) operation.getNumber(3));
+        }
     }
 
     /**
      * A handler that implements operator (S, s, f, F, f*, B, B*, b, b*). For more information see Table 51 ISO-32000-1
      */
-    private static class PaintPathOperator implements IContentOperator {
+    private static class PaintPathOperator implements IContentOperator, INumericOperandsOperator {
 
         private int operation;
         private int rule;
@@ -1604,12 +2238,26 @@ public class PdfCanvasProcessor {
 
             processor.paintPath(operation, rule);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            invoke(processor, null, null);
+        }
     }
 
     /**
      * A handler that implements operator (W, W*). For more information see Table 51 ISO-32000-1
      */
-    private static class ClipPathOperator implements IContentOperator {
+    private static class ClipPathOperator implements IContentOperator, INumericOperandsOperator {
 
         private int rule;
 
@@ -1624,5 +2272,19 @@ public class PdfCanvasProcessor {
             processor.isClip = true;
             processor.clippingRule = rule;
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int getOperandsCount() {
+            return 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void invoke(PdfCanvasProcessor processor, ContentOperation operation) {
+            invoke(processor, null, null);
+        }
     }
 }
@@ -0,0 +1,313 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Extracts text from the pages of a {@link PdfDocument} in parallel.
+ * <br>
+ * Each page is processed by its own {@link PdfCanvasProcessor} and text extraction strategy, the fonts are parsed
+ * once and shared between the pages. The text of the pages is returned in the page order as soon as it is
+ * available, so the processing of the results can start before the last page is parsed. Only a limited number
+ * of pages is processed ahead of the page which is currently consumed.
+ * <br>
+ * The pages are processed in parallel only if the document is opened with concurrent reading enabled,
+ * see {@link ReaderProperties#setConcurrentReading(boolean)}. Otherwise the pages are processed one by one
+ * in the thread which requests the text.
+ */
+public class PdfDocumentTextExtractor implements Closeable {
+
+    private final PdfDocument pdfDocument;
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+    private final int parallelism;
+    private Map<String, IContentOperator> additionalContentOperators = Collections.<String, IContentOperator>emptyMap();
+
+    /**
+     * Creates the extractor which processes the pages using as many threads as there are available processors.
+     *
+     * @param pdfDocument the document to extract text from
+     */
+    public PdfDocumentTextExtractor(PdfDocument pdfDocument) {
+        this(pdfDocument, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates the extractor which processes the pages using the given number of threads.
+     * The threads are released when the extractor is closed.
+     *
+     * @param pdfDocument the document to extract text from
+     * @param parallelism the number of threads
+     */
+    public PdfDocumentTextExtractor(PdfDocument pdfDocument, int parallelism) {
+        this(pdfDocument, isParallelProcessingPossible(pdfDocument, parallelism) ? new ForkJoinPool(parallelism) : null,
+                parallelism, true);
+    }
+
+    /**
+     * Creates the extractor which processes the pages using the given executor.
+     * The executor is not shut down when the extractor is closed.
+     *
+     * @param pdfDocument the document to extract text from
+     * @param executor    the executor to process the pages
+     * @param parallelism the number of pages processed ahead of the page which is currently consumed
+     */
+    public PdfDocumentTextExtractor(PdfDocument pdfDocument, ExecutorService executor, int parallelism) {
+        this(pdfDocument, isParallelProcessingPossible(pdfDocument, parallelism) ? executor : null, parallelism, false);
+    }
+
+    private PdfDocumentTextExtractor(PdfDocument pdfDocument, ExecutorService executor, int parallelism, boolean ownExecutor) {
+        this.pdfDocument = pdfDocument;
+        this.executor = executor;
+        this.parallelism = Math.max(parallelism, 1);
+        this.ownExecutor = ownExecutor;
+    }
+
+    /**
+     * Sets custom {@link IContentOperator}s which are registered in the processor of each page.
+     * The operators are shared between the threads, so they shall be thread safe.
+     *
+     * @param additionalContentOperators the map of the operators
+     * @return this {@link PdfDocumentTextExtractor} instance
+     */
+    public PdfDocumentTextExtractor setAdditionalContentOperators(Map<String, IContentOperator> additionalContentOperators) {
+        this.additionalContentOperators = additionalContentOperators;
+        return this;
+    }
+
+    /**
+     * Extracts text from all the pages of the document.
+     *
+     * @param strategyFactory the factory which creates new extraction strategy for each page
+     * @return the iterator over the text of the pages in the page order
+     */
+    public Iterator<String> getTextFromPages(ITextExtractionStrategyFactory strategyFactory) {
+        return getTextFromPages(1, pdfDocument.getNumberOfPages(), strategyFactory);
+    }
+
+    /**
+     * Extracts text from the range of the pages of the document.
+     * <br>
+     * If extraction of a page fails, the exception is thrown when the text of that page is requested.
+     *
+     * @param startPage       the first page to extract text from, one-based
+     * @param endPage         the last page to extract text from, inclusive
+     * @param strategyFactory the factory which creates new extraction strategy for each page
+     * @return the iterator over the text of the pages in the page order
+     */
+    public Iterator<String> getTextFromPages(int startPage, int endPage, ITextExtractionStrategyFactory strategyFactory) {
+        if (startPage < 1 || endPage > pdfDocument.getNumberOfPages()) {
+            throw new IndexOutOfBoundsException(MessageFormatUtil.format(PdfException.RequestedPageNumberIsOutOfBounds,
+                    startPage < 1 ? startPage : endPage));
+        }
+        return new PagesTextIterator(startPage, endPage, strategyFactory, new SharedFontsCache());
+    }
+
+    /**
+     * Releases the threads of the extractor if they were created by it.
+     */
+    @Override
+    public void close() {
+        if (ownExecutor && executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static boolean isParallelProcessingPossible(PdfDocument pdfDocument, int parallelism) {
+        return parallelism > 1 && pdfDocument.getReader() != null && pdfDocument.getReader().isConcurrentReading();
+    }
+
+    /**
+     * Creates text extraction strategies for the processed pages.
+     */
+    public interface ITextExtractionStrategyFactory {
+
+        /**
+         * Creates new strategy which will be used to extract text from the given page only.
+         *
+         * @param pageNumber the number of the page
+         * @return the new strategy
+         */
+        ITextExtractionStrategy createStrategy(int pageNumber);
+    }
+
+    private class PagesTextIterator implements Iterator<String> {
+        private final ITextExtractionStrategyFactory strategyFactory;
+        private final SharedFontsCache fontsCache;
+        private final ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+        private final int endPage;
+        private int nextPageToSubmit;
+        private int nextPageToReturn;
+
+        PagesTextIterator(int startPage, int endPage, ITextExtractionStrategyFactory strategyFactory, SharedFontsCache fontsCache) {
+            this.strategyFactory = strategyFactory;
+            this.fontsCache = fontsCache;
+            this.endPage = endPage;
+            this.nextPageToSubmit = startPage;
+            this.nextPageToReturn = startPage;
+            submitPages();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextPageToReturn <= endPage;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int pageNumber = nextPageToReturn++;
+            if (executor == null) {
+                return extractText(pageNumber);
+            }
+            Future<String> result = pending.pollFirst();
+            submitPages();
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PdfException(PdfException.CannotExtractTextFromPage1, e).setMessageParams(pageNumber);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new PdfException(PdfException.CannotExtractTextFromPage1, e.getCause()).setMessageParams(pageNumber);
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void submitPages() {
+            if (executor == null) {
+                return;
+            }
+            while (pending.size() < 2 * parallelism && nextPageToSubmit <= endPage) {
+                final int pageNumber = nextPageToSubmit++;
+                pending.addLast(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return extractText(pageNumber);
+                    }
+                }));
+            }
+        }
+
+        private String extractText(int pageNumber) {
+            ITextExtractionStrategy strategy = strategyFactory.createStrategy(pageNumber);
+            PdfCanvasProcessor processor = new SharedFontsCanvasProcessor(strategy, additionalContentOperators, fontsCache);
+            processor.processPageContent(pdfDocument.getPage(pageNumber));
+            return strategy.getResultantText();
+        }
+    }
+
+    /**
+     * Keeps the fonts parsed by all the processors of the extraction. The fonts are parsed one at a time,
+     * while the lookups of already parsed ones don't block.
+     */
+    private static class SharedFontsCache {
+        private final Map<PdfIndirectReference, PdfFont> fonts = new ConcurrentHashMap<>();
+
+        PdfFont getFont(PdfDictionary fontDict) {
+            PdfIndirectReference reference = fontDict.getIndirectReference();
+            PdfFont font = fonts.get(reference);
+            if (font == null) {
+                synchronized (this) {
+                    font = fonts.get(reference);
+                    if (font == null) {
+                        font = PdfFontFactory.createFont(fontDict);
+                        fonts.put(reference, font);
+                    }
+                }
+            }
+            return font;
+        }
+    }
+
+    private static class SharedFontsCanvasProcessor extends PdfCanvasProcessor {
+        private final SharedFontsCache fontsCache;
+
+        SharedFontsCanvasProcessor(ITextExtractionStrategy strategy, Map<String, IContentOperator> additionalContentOperators,
+                SharedFontsCache fontsCache) {
+            super(strategy, additionalContentOperators);
+            this.fontsCache = fontsCache;
+        }
+
+        @Override
+        protected PdfFont getFont(PdfDictionary fontDict) {
+            if (fontDict.getIndirectReference() == null) {
+                synchronized (fontsCache) {
+                    return PdfFontFactory.createFont(fontDict);
+                }
+            }
+            return fontsCache.getFont(fontDict);
+        }
+    }
+}
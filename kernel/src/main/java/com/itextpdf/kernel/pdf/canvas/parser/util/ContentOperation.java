@@ -0,0 +1,366 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.util;
+
+import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A single content stream operation, i.e. an operator together with its operands.
+ * <br>
+ * The instance is meant to be reused for all the operations of a content stream, see
+ * {@link PdfCanvasParser#parse(ContentOperation)}. Numeric operands are kept as primitive values and are wrapped into
+ * {@link PdfNumber} objects only on request, the operator is identified by a small integer code,
+ * so that processing of the operations with numeric operands only doesn't require any object allocation.
+ */
+public class ContentOperation {
+
+    /**
+     * The code of an operator which is not defined by ISO 32000-1.
+     */
+    public static final int UNKNOWN_OPERATOR = -1;
+
+    private static final String[] KNOWN_OPERATORS = {
+            "b", "B", "b*", "B*", "BDC", "BI", "BMC", "BT", "BX", "c", "cm", "CS", "cs", "d", "d0", "d1", "Do", "DP",
+            "EI", "EMC", "ET", "EX", "f", "F", "f*", "G", "g", "gs", "h", "i", "ID", "j", "J", "K", "k", "l", "m", "M",
+            "MP", "n", "q", "Q", "re", "RG", "rg", "ri", "s", "S", "SC", "sc", "SCN", "scn", "sh", "T*", "Tc", "Td",
+            "TD", "Tf", "Tj", "TJ", "TL", "Tm", "Tr", "Ts", "Tw", "Tz", "v", "w", "W", "W*", "y", "'", "\""};
+
+    /**
+     * The number of the operators defined by ISO 32000-1. Codes of these operators are in range
+     * from {@code 0} to {@code KNOWN_OPERATORS_COUNT - 1}.
+     */
+    public static final int KNOWN_OPERATORS_COUNT = KNOWN_OPERATORS.length;
+
+    private static final int MAX_OPERATOR_LENGTH = 3;
+
+    private static final int[] SORTED_OPERATOR_KEYS;
+    private static final int[] CODES_BY_SORTED_KEY;
+
+    /**
+     * Numbers with more significant digits can not be parsed exactly with a single division.
+     */
+    private static final int MAX_EXACT_SIGNIFICANT_DIGITS = 15;
+    private static final double[] EXACT_POWERS_OF_TEN = new double[23];
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    static {
+        int[] keys = new int[KNOWN_OPERATORS_COUNT];
+        for (int i = 0; i < KNOWN_OPERATORS_COUNT; i++) {
+            keys[i] = toKey(KNOWN_OPERATORS[i]);
+        }
+        SORTED_OPERATOR_KEYS = keys.clone();
+        Arrays.sort(SORTED_OPERATOR_KEYS);
+        CODES_BY_SORTED_KEY = new int[KNOWN_OPERATORS_COUNT];
+        for (int i = 0; i < KNOWN_OPERATORS_COUNT; i++) {
+            CODES_BY_SORTED_KEY[Arrays.binarySearch(SORTED_OPERATOR_KEYS, keys[i])] = i;
+        }
+        EXACT_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < EXACT_POWERS_OF_TEN.length; i++) {
+            EXACT_POWERS_OF_TEN[i] = EXACT_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private int operatorCode = UNKNOWN_OPERATOR;
+    private final ByteBuffer operatorContent = new ByteBuffer(MAX_OPERATOR_LENGTH);
+
+    private int operandsCount;
+    private int numericOperandsCount;
+    private PdfObject[] operands = new PdfObject[INITIAL_CAPACITY];
+    private double[] numbers = new double[INITIAL_CAPACITY];
+
+    /**
+     * Raw content of the numeric operands, the content of the operand with index i
+     * starts at numbersContentOffsets[i] and ends at numbersContentOffsets[i + 1].
+     */
+    private final ByteBuffer numbersContent = new ByteBuffer();
+    private int[] numbersContentOffsets = new int[INITIAL_CAPACITY + 1];
+
+    /**
+     * Gets the code of the operator of the specified PDF syntax.
+     *
+     * @param operator the PDF syntax of the operator
+     * @return the code of the operator, or {@link #UNKNOWN_OPERATOR} if the operator is not defined by ISO 32000-1
+     */
+    public static int getOperatorCode(String operator) {
+        if (operator.length() > MAX_OPERATOR_LENGTH) {
+            return UNKNOWN_OPERATOR;
+        }
+        int index = Arrays.binarySearch(SORTED_OPERATOR_KEYS, toKey(operator));
+        return index < 0 ? UNKNOWN_OPERATOR : CODES_BY_SORTED_KEY[index];
+    }
+
+    /**
+     * Gets the code of the operator.
+     *
+     * @return the code of the operator, or {@link #UNKNOWN_OPERATOR} if the operator is not defined by ISO 32000-1
+     */
+    public int getOperatorCode() {
+        return operatorCode;
+    }
+
+    /**
+     * Gets the PDF syntax of the operator.
+     *
+     * @return the PDF syntax of the operator
+     */
+    public String getOperator() {
+        if (operatorCode != UNKNOWN_OPERATOR) {
+            return KNOWN_OPERATORS[operatorCode];
+        }
+        return new String(operatorContent.getInternalBuffer(), 0, operatorContent.size());
+    }
+
+    /**
+     * Gets the number of the operands, the operator is not counted.
+     *
+     * @return the number of the operands
+     */
+    public int getOperandsCount() {
+        return operandsCount;
+    }
+
+    /**
+     * Checks whether all the operands of the operation are numbers.
+     *
+     * @return true if all the operands are numbers, otherwise false
+     */
+    public boolean hasNumericOperandsOnly() {
+        return numericOperandsCount == operandsCount;
+    }
+
+    /**
+     * Checks whether the operand is a number.
+     *
+     * @param index the index of the operand
+     * @return true if the operand is a number, otherwise false
+     */
+    public boolean isNumber(int index) {
+        checkIndex(index);
+        return operands[index] == null;
+    }
+
+    /**
+     * Gets the value of a numeric operand without creating a {@link PdfNumber} object.
+     *
+     * @param index the index of the operand
+     * @return the value of the operand, or {@link Double#NaN} if the operand is not a number
+     */
+    public double getNumber(int index) {
+        checkIndex(index);
+        return numbers[index];
+    }
+
+    /**
+     * Gets the operand. Numeric operands are wrapped into a new {@link PdfNumber} on every call.
+     *
+     * @param index the index of the operand
+     * @return the operand
+     */
+    public PdfObject getOperand(int index) {
+        checkIndex(index);
+        if (operands[index] != null) {
+            return operands[index];
+        }
+        return new PdfNumber(numbersContent.toByteArray(numbersContentOffsets[index],
+                numbersContentOffsets[index + 1] - numbersContentOffsets[index]));
+    }
+
+    /**
+     * Gets the operation in the form accepted by {@link com.itextpdf.kernel.pdf.canvas.parser.IContentOperator}:
+     * the list of the operands with the operator literal as the last element.
+     *
+     * @param ls a list to use. It will be cleared before using. If it's <CODE>null</CODE> a new list will be created
+     * @return the same list given as argument or a new one
+     */
+    public List<PdfObject> getOperands(List<PdfObject> ls) {
+        if (ls == null) {
+            ls = new ArrayList<>(operandsCount + 1);
+        } else {
+            ls.clear();
+        }
+        for (int i = 0; i < operandsCount; i++) {
+            ls.add(getOperand(i));
+        }
+        ls.add(new PdfLiteral(getOperator()));
+        return ls;
+    }
+
+    void reset() {
+        for (int i = 0; i < operandsCount; i++) {
+            operands[i] = null;
+        }
+        operandsCount = 0;
+        numericOperandsCount = 0;
+        operatorCode = UNKNOWN_OPERATOR;
+        operatorContent.reset();
+        numbersContent.reset();
+    }
+
+    void addOperand(PdfObject operand) {
+        ensureCapacity();
+        operands[operandsCount] = operand;
+        numbers[operandsCount] = Double.NaN;
+        numbersContentOffsets[++operandsCount] = numbersContent.size();
+    }
+
+    void addNumber(PdfTokenizer tokeniser) {
+        ensureCapacity();
+        int start = numbersContent.size();
+        int length = tokeniser.appendByteContent(numbersContent);
+        numbers[operandsCount] = parseNumber(numbersContent.getInternalBuffer(), start, start + length);
+        numbersContentOffsets[++operandsCount] = numbersContent.size();
+        ++numericOperandsCount;
+    }
+
+    void setOperator(PdfTokenizer tokeniser) {
+        operatorContent.reset();
+        int length = tokeniser.appendByteContent(operatorContent);
+        operatorCode = UNKNOWN_OPERATOR;
+        if (length <= MAX_OPERATOR_LENGTH) {
+            byte[] content = operatorContent.getInternalBuffer();
+            int key = length;
+            for (int i = 0; i < MAX_OPERATOR_LENGTH; i++) {
+                key = (key << 8) | (i < length ? content[i] & 0xff : 0);
+            }
+            int index = Arrays.binarySearch(SORTED_OPERATOR_KEYS, key);
+            if (index >= 0) {
+                operatorCode = CODES_BY_SORTED_KEY[index];
+            }
+        }
+    }
+
+    void setInlineImage(PdfObject inlineImage) {
+        reset();
+        addOperand(inlineImage);
+        operatorCode = getOperatorCode("EI");
+        operatorContent.append(KNOWN_OPERATORS[operatorCode]);
+    }
+
+    /**
+     * Parses the content of a number token. The result is the same as the one of {@link Double#parseDouble(String)},
+     * but numbers with up to {@link #MAX_EXACT_SIGNIFICANT_DIGITS} significant digits are parsed without
+     * creating any objects.
+     */
+    static double parseNumber(byte[] content, int start, int end) {
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (content[pos] == '-' || content[pos] == '+')) {
+            negative = content[pos] == '-';
+            ++pos;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        boolean hasDigits = false;
+        boolean hasDot = false;
+        for (; pos < end; ++pos) {
+            int ch = content[pos];
+            if (ch >= '0' && ch <= '9') {
+                hasDigits = true;
+                if (mantissa != 0 || ch != '0') {
+                    if (++significantDigits > MAX_EXACT_SIGNIFICANT_DIGITS) {
+                        return parseNumberSlow(content, start, end);
+                    }
+                    mantissa = mantissa * 10 + (ch - '0');
+                }
+                if (hasDot) {
+                    ++fractionDigits;
+                }
+            } else if (ch == '.' && !hasDot) {
+                hasDot = true;
+            } else {
+                return parseNumberSlow(content, start, end);
+            }
+        }
+        if (!hasDigits) {
+            return Double.NaN;
+        }
+        if (fractionDigits >= EXACT_POWERS_OF_TEN.length) {
+            return parseNumberSlow(content, start, end);
+        }
+        double value = mantissa / EXACT_POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static double parseNumberSlow(byte[] content, int start, int end) {
+        try {
+            return Double.parseDouble(new String(content, start, end - start));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static int toKey(String operator) {
+        int key = operator.length();
+        for (int i = 0; i < MAX_OPERATOR_LENGTH; i++) {
+            key = (key << 8) | (i < operator.length() ? operator.charAt(i) & 0xff : 0);
+        }
+        return key;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= operandsCount) {
+            throw new IndexOutOfBoundsException(MessageFormatUtil.format("Index: {0}, Size: {1}", index, operandsCount));
+        }
+    }
+
+    private void ensureCapacity() {
+        if (operandsCount == operands.length) {
+            int newCapacity = operands.length << 1;
+            operands = Arrays.copyOf(operands, newCapacity);
+            numbers = Arrays.copyOf(numbers, newCapacity);
+            numbersContentOffsets = Arrays.copyOf(numbersContentOffsets, newCapacity + 1);
+        }
+    }
+}
@@ -65,6 +65,8 @@ import java.util.List;
  */
 public class PdfCanvasParser {
 
+    private static final int BEGIN_INLINE_IMAGE_OPERATOR = ContentOperation.getOperatorCode("BI");
+
     /**
      * Holds value of property tokeniser.
      */
@@ -127,6 +129,37 @@ public class PdfCanvasParser {
         return ls;
     }
 
+    /**
+     * Parses a single command from the content into the reusable operation. Unlike {@link #parse(List)}
+     * this method doesn't create objects for the operator and for the numeric operands.
+     * <br>
+     * Inline images are handled the same way as in {@link #parse(List)}: the operation will have the EI operator
+     * and a single operand, which is a PdfStream with the inline image dictionary and the image bytes.
+     * Operands at the end of the content which are not followed by an operator are ignored.
+     * @param operation the operation to use. It will be cleared before using
+     * @return <CODE>true</CODE> if an operation was read, <CODE>false</CODE> if the end of content was reached
+     * @throws IOException on error
+     */
+    public boolean parse(ContentOperation operation) throws IOException {
+        operation.reset();
+        while (nextValidToken()) {
+            PdfTokenizer.TokenType type = tokeniser.getTokenType();
+            if (type == PdfTokenizer.TokenType.Number) {
+                operation.addNumber(tokeniser);
+            } else if (type == PdfTokenizer.TokenType.Other) {
+                operation.setOperator(tokeniser);
+                if (operation.getOperatorCode() == BEGIN_INLINE_IMAGE_OPERATOR) {
+                    operation.setInlineImage(InlineImageParsingUtils.parse(this, currentResources.getResource(PdfName.ColorSpace)));
+                }
+                return true;
+            } else {
+                operation.addOperand(readCurrentObject());
+            }
+        }
+        operation.reset();
+        return false;
+    }
+
     /**
      * Gets the tokeniser.
      * @return the tokeniser.
@@ -157,7 +190,10 @@ public class PdfCanvasParser {
                 break;
             if (tokeniser.getTokenType() != PdfTokenizer.TokenType.Name)
                 tokeniser.throwError(PdfException.DictionaryKey1IsNotAName, tokeniser.getStringValue());
-            PdfName name = new PdfName(tokeniser.getStringValue());
+            PdfName name = PdfName.getStaticName(tokeniser);
+            if (name == null) {
+                name = new PdfName(tokeniser.getStringValue());
+            }
             PdfObject obj = readObject();
             dic.put(name, obj);
         }
@@ -190,6 +226,10 @@ public class PdfCanvasParser {
     public PdfObject readObject() throws IOException {
         if (!nextValidToken())
             return null;
+        return readCurrentObject();
+    }
+
+    private PdfObject readCurrentObject() throws IOException {
         final PdfTokenizer.TokenType type = tokeniser.getTokenType();
         switch (type) {
             case StartDic: {
@@ -202,7 +242,8 @@ public class PdfCanvasParser {
                 PdfString str = new PdfString(tokeniser.getDecodedStringContent()).setHexWriting(tokeniser.isHexString());
                 return str;
             case Name:
-                return new PdfName(tokeniser.getByteContent());
+                PdfName name = PdfName.getStaticName(tokeniser);
+                return name != null ? name : new PdfName(tokeniser.getByteContent());
             case Number:
                 //use PdfNumber(byte[]) here, as in this case number parsing won't happen until it's needed.
                 return new PdfNumber(tokeniser.getByteContent());
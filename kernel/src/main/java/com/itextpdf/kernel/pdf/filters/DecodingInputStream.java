@@ -0,0 +1,160 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Base class for the streams which decode the data of an underlying stream incrementally.
+ * Subclasses decode the next portion of data on demand and append the decoded bytes to the internal buffer.
+ */
+abstract class DecodingInputStream extends InputStream {
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
+    /**
+     * The stream of encoded bytes.
+     */
+    protected final InputStream in;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int position = 0;
+    private int count = 0;
+    private boolean finished = false;
+
+    protected DecodingInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureDecodedBytesAvailable()) {
+            return -1;
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureDecodedBytesAvailable()) {
+            return -1;
+        }
+        int n = Math.min(len, count - position);
+        System.arraycopy(buffer, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return count - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Decodes the next portion of data, writing the decoded bytes with {@link #writeByte(int)} and
+     * {@link #writeBytes(byte[], int, int)}.
+     *
+     * @return false if the end of the encoded data was reached, true otherwise
+     * @throws IOException if reading of the encoded data fails
+     */
+    protected abstract boolean decodeNext() throws IOException;
+
+    protected void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[count++] = (byte) b;
+    }
+
+    protected void writeBytes(byte[] b, int off, int len) {
+        ensureCapacity(len);
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    /**
+     * Reads bytes from the encoded stream until the requested number of bytes is read or the end of stream is reached.
+     *
+     * @return the number of bytes actually read
+     * @throws IOException if reading of the encoded data fails
+     */
+    protected int readFully(byte[] b, int off, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            int n = in.read(b, off + total, len - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private boolean ensureDecodedBytesAvailable() throws IOException {
+        while (position >= count) {
+            if (finished) {
+                return false;
+            }
+            position = 0;
+            count = 0;
+            finished = !decodeNext();
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int len) {
+        if (count + len > buffer.length) {
+            byte[] newBuffer = new byte[Math.max(buffer.length << 1, count + len)];
+            System.arraycopy(buffer, 0, newBuffer, 0, count);
+            buffer = newBuffer;
+        }
+    }
+}
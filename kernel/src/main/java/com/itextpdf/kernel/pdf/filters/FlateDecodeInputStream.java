@@ -0,0 +1,228 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import com.itextpdf.io.source.RASInputStream;
+import com.itextpdf.io.util.ZlibPool;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates Flate encoded data incrementally.
+ * <br>
+ * In non-strict mode a corrupted stream is treated as ended at the point where the corruption is detected.
+ * The inflater loses the bytes inflated by the call which detects the corruption. If the encoded stream can be
+ * read again without keeping its data in memory ({@link RASInputStream} or {@link ByteArrayInputStream}), it is
+ * reset to its start and inflated once more by a second inflater: quickly up to the number of bytes already
+ * returned and then byte by byte up to the corruption point. So the same data is recovered as by
+ * {@link FlateDecodeFilter#flateDecode(byte[], boolean)}. For other encoded streams, e.g. decrypted ones or
+ * the ones produced by other filters, the bytes inflated by the call which detects the corruption are lost.
+ */
+class FlateDecodeInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream in;
+    private final boolean strict;
+    private Inflater inflater;
+    private final byte[] inputBuffer = new byte[BUFFER_SIZE];
+    // whether the encoded stream is marked at its start and can be read again to recover the lost bytes
+    private final boolean replayable;
+    // the number of bytes returned by the inflater so far
+    private long produced;
+    private final byte[] singleByte = new byte[1];
+    private byte[] recovered;
+    private int recoveredPos;
+    private boolean ended = false;
+
+    FlateDecodeInputStream(InputStream in, boolean strict) {
+        this.in = in;
+        this.strict = strict;
+        this.inflater = ZlibPool.acquireInflater();
+        this.replayable = !strict && (in instanceof RASInputStream || in instanceof ByteArrayInputStream);
+        if (replayable) {
+            in.mark(Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(singleByte, 0, 1) == -1 ? -1 : singleByte[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (inflater == null) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (recovered != null) {
+            return readRecovered(b, off, len);
+        }
+        if (ended) {
+            return -1;
+        }
+        try {
+            while (true) {
+                int n = inflater.inflate(b, off, len);
+                if (n > 0) {
+                    produced += n;
+                    return n;
+                }
+                if (inflater.finished() || inflater.needsDictionary()) {
+                    ended = true;
+                    return -1;
+                }
+                if (inflater.needsInput() && !fill()) {
+                    if (strict) {
+                        throw new EOFException("Unexpected end of ZLIB input stream");
+                    }
+                    // everything inflated from the truncated data has already been returned
+                    ended = true;
+                    return -1;
+                }
+            }
+        } catch (DataFormatException e) {
+            if (strict) {
+                String message = e.getMessage();
+                throw new ZipException(message != null ? message : "Invalid ZLIB data format");
+            }
+            recover();
+            return readRecovered(b, off, len);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (inflater == null) {
+            return;
+        }
+        try {
+            in.close();
+        } finally {
+            ZlibPool.releaseInflater(inflater);
+            inflater = null;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(inputBuffer, 0, inputBuffer.length);
+        if (n == -1) {
+            return false;
+        }
+        // the inflater consumes the whole input before it needs the next one, so the buffer can be reused
+        inflater.setInput(inputBuffer, 0, n);
+        return true;
+    }
+
+    /**
+     * Reads the encoded stream once more from its start and inflates it with a second inflater: quickly up to
+     * the number of bytes already returned, and then the bytes lost by the main inflater one by one, the same way
+     * {@link FlateDecodeFilter#flateDecode(byte[], boolean)} does.
+     */
+    private void recover() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (replayable) {
+            in.reset();
+            Inflater replay = ZlibPool.acquireInflater();
+            try {
+                long skipped = 0;
+                // the input buffer is used by the second inflater, so the skipped bytes need another one
+                byte[] skippedBuffer = new byte[BUFFER_SIZE];
+                byte[] oneByte = new byte[1];
+                while (true) {
+                    int n;
+                    if (skipped < produced) {
+                        n = replay.inflate(skippedBuffer, 0, (int) Math.min(produced - skipped, skippedBuffer.length));
+                        skipped += n;
+                    } else {
+                        n = replay.inflate(oneByte, 0, 1);
+                        if (n == 1) {
+                            output.write(oneByte[0]);
+                        }
+                    }
+                    if (n == 0) {
+                        if (replay.finished() || replay.needsDictionary()) {
+                            break;
+                        }
+                        if (!replay.needsInput()) {
+                            continue;
+                        }
+                        int length = in.read(inputBuffer, 0, inputBuffer.length);
+                        if (length == -1) {
+                            break;
+                        }
+                        replay.setInput(inputBuffer, 0, length);
+                    }
+                }
+            } catch (DataFormatException ignored) {
+                // the corruption point is reached
+            } finally {
+                ZlibPool.releaseInflater(replay);
+            }
+        }
+        recovered = output.toByteArray();
+        recoveredPos = 0;
+        ended = true;
+    }
+
+    private int readRecovered(byte[] b, int off, int len) {
+        if (recoveredPos == recovered.length) {
+            return -1;
+        }
+        int n = Math.min(len, recovered.length - recoveredPos);
+        System.arraycopy(recovered, recoveredPos, b, off, n);
+        recoveredPos += n;
+        return n;
+    }
+}
@@ -41,29 +41,42 @@
     For more information, please contact iText Software Corp. at this
     address: sales@itextpdf.com
  */
-package com.itextpdf.kernel.pdf;
+package com.itextpdf.kernel.pdf.filters;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStream;
 
-final class PdfNameLoader {
+/**
+ * Decodes RunLength encoded data incrementally. See {@link RunLengthDecodeFilter}.
+ */
+class RunLengthDecodeInputStream extends DecodingInputStream {
+
+    private final byte[] run = new byte[128];
+
+    RunLengthDecodeInputStream(InputStream in) {
+        super(in);
+    }
 
-    static Map<String, PdfName> loadNames() {
-        Field[] fields = PdfName.class.getDeclaredFields();
-        Map<String, PdfName> staticNames = new HashMap<>(fields.length);
-        final int flags = Modifier.STATIC | Modifier.PUBLIC | Modifier.FINAL;
-        try {
-            for (Field field : fields) {
-                if ((field.getModifiers() & flags) == flags && field.getType().equals(PdfName.class)) {
-                    PdfName name = (PdfName) field.get(null);
-                    staticNames.put(name.getValue(), name);
-                }
+    @Override
+    protected boolean decodeNext() throws IOException {
+        int dupCount = in.read();
+        if (dupCount < 0 || dupCount == 0x80) { // this is implicit end of data
+            return false;
+        }
+        if ((dupCount & 0x80) == 0) {
+            int bytesToCopy = dupCount + 1;
+            int n = readFully(run, 0, bytesToCopy);
+            writeBytes(run, 0, n);
+            return n == bytesToCopy;
+        } else {                // make dupcount copies of the next byte
+            int b = in.read();
+            if (b < 0) {
+                return false;
+            }
+            for (int j = 0; j < 257 - dupCount; j++) {
+                writeByte(b);
             }
-        } catch (Exception e) {
-            return null;
+            return true;
         }
-        return staticNames;
     }
 }
@@ -43,10 +43,27 @@
  */
 package com.itextpdf.kernel.utils;
 
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 public class PdfMerger {
@@ -135,6 +152,84 @@ public class PdfMerger {
         return this;
     }
 
+    /**
+     * This method merges all the pages of the source documents to the current one, preparing the upcoming
+     * source documents in background while the pages of the current one are copied.
+     * <br><br>
+     * The source documents are opened and all the objects reachable from their pages are read by as many threads as
+     * there are available processors. See {@link #merge(Iterator, ExecutorService, int)} for the details.
+     * @param sources - readers of the documents, from which pages will be copied.
+     * @return this {@code PdfMerger} instance.
+     */
+    public PdfMerger merge(Iterator<PdfReader> sources) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            return merge(sources, executor, 2 * parallelism);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * This method merges all the pages of the source documents to the current one, preparing the upcoming
+     * source documents in background while the pages of the current one are copied.
+     * <br><br>
+     * The source documents are opened and all the objects reachable from their pages are read by the tasks
+     * submitted to the executor. At most <i>prefetchedDocuments</i> documents are prepared ahead of the one which
+     * is being copied, so the sources iterator may open the readers lazily, and the memory consumption doesn't
+     * depend on the number of the source documents. The pages are copied in the calling thread in the order of
+     * the sources, as {@link #merge(PdfDocument, int, int)} does.
+     * <br>
+     * The source documents are always closed after their pages are merged. If the current document is written
+     * to a {@link com.itextpdf.kernel.pdf.PdfWriter}, the merged pages are flushed as well, so they cannot be
+     * modified after this method returns. Unless the current document is tagged, the other objects copied from
+     * the source document are flushed together with its pages, see {@link PdfDocument#flushCopiedObjects(PdfDocument)}.
+     * <br>
+     * If a source document cannot be opened or read, {@link PdfException} is thrown when it is its turn to be merged
+     * and the documents prepared ahead of it are closed.
+     * @param sources - readers of the documents, from which pages will be copied. The iterator is used in the calling thread only.
+     * @param executor - the executor to prepare the source documents.
+     * @param prefetchedDocuments - the maximum number of the source documents prepared ahead of the one being merged.
+     * @return this {@code PdfMerger} instance.
+     */
+    public PdfMerger merge(Iterator<PdfReader> sources, ExecutorService executor, int prefetchedDocuments) {
+        ArrayDeque<Future<PdfDocument>> pending = new ArrayDeque<>();
+        int documentNumber = 0;
+        boolean merged = false;
+        try {
+            submitSources(sources, executor, Math.max(prefetchedDocuments, 1), pending);
+            while (!pending.isEmpty()) {
+                documentNumber++;
+                PdfDocument from = getPreparedDocument(pending.pollFirst(), documentNumber);
+                submitSources(sources, executor, Math.max(prefetchedDocuments, 1), pending);
+                try {
+                    int firstMergedPage = pdfDocument.getNumberOfPages() + 1;
+                    mergeAllPages(from);
+                    if (pdfDocument.getWriter() != null) {
+                        for (int pageNum = firstMergedPage; pageNum <= pdfDocument.getNumberOfPages(); pageNum++) {
+                            pdfDocument.getPage(pageNum).flush();
+                        }
+                        // the writer doesn't need to remember the objects copied from the closed source any more.
+                        // The copied structure elements are still modified when the next documents' tags are merged,
+                        // so they are flushed with the structure tree on closing of the tagged document
+                        if (!pdfDocument.isTagged()) {
+                            pdfDocument.flushCopiedObjects(from);
+                        }
+                    }
+                } finally {
+                    from.close();
+                }
+            }
+            merged = true;
+        } finally {
+            if (!merged) {
+                closePreparedDocuments(pending);
+            }
+        }
+        return this;
+    }
+
     /**
      * Closes the current document. It is a complete equivalent of calling {@code PdfDocument#close} on the PdfDocument
      * passed to the constructor of this PdfMerger instance. This means that it is enough to call <i>close</i> either on
@@ -143,4 +238,111 @@ public class PdfMerger {
     public void close() {
         pdfDocument.close();
     }
+
+    private void mergeAllPages(PdfDocument from) {
+        if (mergeTags && from.isTagged()) {
+            pdfDocument.setTagged();
+        }
+        if (mergeOutlines && from.hasOutlines()) {
+            pdfDocument.initializeOutlines();
+        }
+        from.copyPagesTo(1, from.getNumberOfPages(), pdfDocument);
+    }
+
+    private static void submitSources(Iterator<PdfReader> sources, ExecutorService executor, int prefetchedDocuments,
+            ArrayDeque<Future<PdfDocument>> pending) {
+        while (pending.size() < prefetchedDocuments && sources.hasNext()) {
+            final PdfReader reader = sources.next();
+            pending.addLast(executor.submit(new Callable<PdfDocument>() {
+                @Override
+                public PdfDocument call() throws IOException {
+                    return prepareDocument(reader);
+                }
+            }));
+        }
+    }
+
+    private static PdfDocument getPreparedDocument(Future<PdfDocument> future, int documentNumber) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.CannotMergeSourceDocument1, e).setMessageParams(documentNumber);
+        } catch (ExecutionException e) {
+            throw new PdfException(PdfException.CannotMergeSourceDocument1, e.getCause()).setMessageParams(documentNumber);
+        }
+    }
+
+    private static void closePreparedDocuments(ArrayDeque<Future<PdfDocument>> pending) {
+        for (Future<PdfDocument> future : pending) {
+            try {
+                future.get().close();
+            } catch (Exception ignored) {
+                // the document failed to open or to close, there is nothing to release
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * Opens the document and reads all the objects reachable from its pages, so that copying of the pages
+     * doesn't wait for parsing. Back references to the page tree are not followed.
+     */
+    private static PdfDocument prepareDocument(PdfReader reader) throws IOException {
+        PdfDocument document;
+        try {
+            document = new PdfDocument(reader);
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        try {
+            Set<PdfIndirectReference> visited = new HashSet<>();
+            ArrayDeque<PdfObject> objects = new ArrayDeque<>();
+            for (int pageNum = 1; pageNum <= document.getNumberOfPages(); pageNum++) {
+                PdfDictionary page = document.getPage(pageNum).getPdfObject();
+                visited.add(page.getIndirectReference());
+                objects.add(page);
+                while (!objects.isEmpty()) {
+                    PdfObject object = objects.pollLast();
+                    if (object.isDictionary() || object.isStream()) {
+                        PdfDictionary dictionary = (PdfDictionary) object;
+                        for (PdfName key : dictionary.keySet()) {
+                            if (!PdfName.Parent.equals(key) && !PdfName.P.equals(key)) {
+                                addObject(dictionary.get(key, false), visited, objects);
+                            }
+                        }
+                    } else if (object.isArray()) {
+                        PdfArray array = (PdfArray) object;
+                        for (int i = 0; i < array.size(); i++) {
+                            addObject(array.get(i, false), visited, objects);
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            document.close();
+            throw e;
+        }
+        return document;
+    }
+
+    private static void addObject(PdfObject object, Set<PdfIndirectReference> visited, ArrayDeque<PdfObject> objects) {
+        if (object == null) {
+            return;
+        }
+        if (object.isIndirectReference()) {
+            PdfIndirectReference reference = (PdfIndirectReference) object;
+            if (!visited.add(reference)) {
+                return;
+            }
+            object = reference.getRefersTo();
+            if (object == null) {
+                return;
+            }
+        }
+        if (object.isDictionary() || object.isStream() || object.isArray()) {
+            objects.add(object);
+        }
+    }
 }
@@ -151,12 +151,22 @@ public class PdfResourceCounter {
                 continue;
             }
 
-            PdfOutputStream os = new PdfOutputStream(new IdelOutputStream());
-
-            os.write(resources.get(ref).clone());
-            length += os.getCurrentPos();
+            length += getLength(resources.get(ref));
         }
 
         return length;
     }
+
+    /**
+     * Returns the number of bytes needed for the object itself, not taking into account the objects it refers to.
+     *
+     * @param obj the object to examine
+     * @return The number of bytes needed for an object.
+     */
+    static long getLength(PdfObject obj) {
+        PdfOutputStream os = new PdfOutputStream(new IdelOutputStream());
+
+        os.write(obj.clone());
+        return os.getCurrentPos();
+    }
 }
@@ -54,10 +54,18 @@ import com.itextpdf.kernel.pdf.PdfOutline;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfWriter;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class PdfSplitter {
 
@@ -65,6 +73,9 @@ public class PdfSplitter {
     private boolean preserveTagged;
     private boolean preserveOutlines;
     private IMetaInfo metaInfo;
+    private ExecutorService writingExecutor;
+    private int maxPendingDocuments;
+    private PageResourcesIndex pageResourcesIndex;
 
     /**
      * Creates a new instance of PdfSplitter class.
@@ -107,6 +118,26 @@ public class PdfSplitter {
         this.preserveOutlines = preserveOutlines;
     }
 
+    /**
+     * Makes the splitting methods, which notify {@link IDocumentReadyListener}, write the resultant documents
+     * concurrently. The pages are still copied in the calling thread, but then the listener is called and the document
+     * is closed, unless the listener has closed it, by a task submitted to the executor. So the listener shall be thread
+     * safe and the resultant documents cannot be used after the listener returns. The splitting methods return when all
+     * the resultant documents are written. If the splitting fails, the resultant documents which are not being written
+     * yet are dropped without calling the listener, and the method throws only after the ones being written are done.
+     * <br>
+     * The methods which return the list of the resultant documents are not affected.
+     *
+     * @param executor            the executor to write the resultant documents, or {@code null} to write them in
+     *                            the calling thread, which is the default
+     * @param maxPendingDocuments the maximum number of the resultant documents which are copied but not written yet.
+     *                            The copying waits for the writing if this number is reached
+     */
+    public void setConcurrentWriting(ExecutorService executor, int maxPendingDocuments) {
+        this.writingExecutor = executor;
+        this.maxPendingDocuments = Math.max(maxPendingDocuments, 1);
+    }
+
     /**
      * Splits the document basing on the given size.
      *
@@ -138,19 +169,29 @@ public class PdfSplitter {
      *                      You can close this document in this listener, for instance.
      */
     public void splitByPageNumbers(List<Integer> pageNumbers, IDocumentReadyListener documentReady) {
+        splitByPageNumbers(pageNumbers, documentReady, writingExecutor);
+    }
+
+    private void splitByPageNumbers(List<Integer> pageNumbers, IDocumentReadyListener documentReady, ExecutorService executor) {
+        ArrayDeque<DocumentWritingTask> pendingDocuments = new ArrayDeque<>();
         int currentPageNumber = 1;
 
-        for (int ind = 0; ind <= pageNumbers.size(); ind++) {
-            int nextPageNumber = ind == pageNumbers.size() ? pdfDocument.getNumberOfPages() + 1 : (int) pageNumbers.get(ind);
-            if (ind == 0 && nextPageNumber == 1)
-                continue;
+        try {
+            for (int ind = 0; ind <= pageNumbers.size(); ind++) {
+                int nextPageNumber = ind == pageNumbers.size() ? pdfDocument.getNumberOfPages() + 1 : (int) pageNumbers.get(ind);
+                if (ind == 0 && nextPageNumber == 1)
+                    continue;
 
-            PageRange currentPageRange = new PageRange().addPageSequence(currentPageNumber, nextPageNumber - 1);
-            PdfDocument currentDocument = createPdfDocument(currentPageRange);
-            pdfDocument.copyPagesTo(currentPageNumber, nextPageNumber - 1, currentDocument);
-            documentReady.documentReady(currentDocument, currentPageRange);
+                PageRange currentPageRange = new PageRange().addPageSequence(currentPageNumber, nextPageNumber - 1);
+                PdfDocument currentDocument = createPdfDocument(currentPageRange);
+                pdfDocument.copyPagesTo(currentPageNumber, nextPageNumber - 1, currentDocument);
+                notifyDocumentReady(currentDocument, currentPageRange, documentReady, executor, pendingDocuments);
 
-            currentPageNumber = nextPageNumber;
+                currentPageNumber = nextPageNumber;
+            }
+            waitForPendingDocuments(pendingDocuments, 0);
+        } finally {
+            cancelPendingDocuments(pendingDocuments);
         }
     }
 
@@ -169,7 +210,7 @@ public class PdfSplitter {
             public void documentReady(PdfDocument pdfDocument, PageRange pageRange) {
                 splitDocuments.add(pdfDocument);
             }
-        });
+        }, null);
 
         return splitDocuments;
     }
@@ -182,13 +223,23 @@ public class PdfSplitter {
      *                      You can close this document in this listener, for instance.
      */
     public void splitByPageCount(int pageCount, IDocumentReadyListener documentReady) {
-        for (int startPage = 1; startPage <= pdfDocument.getNumberOfPages(); startPage += pageCount) {
-            int endPage = Math.min(startPage + pageCount - 1, pdfDocument.getNumberOfPages());
+        splitByPageCount(pageCount, documentReady, writingExecutor);
+    }
+
+    private void splitByPageCount(int pageCount, IDocumentReadyListener documentReady, ExecutorService executor) {
+        ArrayDeque<DocumentWritingTask> pendingDocuments = new ArrayDeque<>();
+        try {
+            for (int startPage = 1; startPage <= pdfDocument.getNumberOfPages(); startPage += pageCount) {
+                int endPage = Math.min(startPage + pageCount - 1, pdfDocument.getNumberOfPages());
 
-            PageRange currentPageRange = new PageRange().addPageSequence(startPage, endPage);
-            PdfDocument currentDocument = createPdfDocument(currentPageRange);
-            pdfDocument.copyPagesTo(startPage, endPage, currentDocument);
-            documentReady.documentReady(currentDocument, currentPageRange);
+                PageRange currentPageRange = new PageRange().addPageSequence(startPage, endPage);
+                PdfDocument currentDocument = createPdfDocument(currentPageRange);
+                pdfDocument.copyPagesTo(startPage, endPage, currentDocument);
+                notifyDocumentReady(currentDocument, currentPageRange, documentReady, executor, pendingDocuments);
+            }
+            waitForPendingDocuments(pendingDocuments, 0);
+        } finally {
+            cancelPendingDocuments(pendingDocuments);
         }
     }
 
@@ -206,7 +257,7 @@ public class PdfSplitter {
             public void documentReady(PdfDocument pdfDocument, PageRange pageRange) {
                 splitDocuments.add(pdfDocument);
             }
-        });
+        }, null);
 
         return splitDocuments;
     }
@@ -265,6 +316,71 @@ public class PdfSplitter {
         return newDocument;
     }
 
+    private void notifyDocumentReady(final PdfDocument document, final PageRange pageRange,
+            final IDocumentReadyListener documentReady, ExecutorService executor,
+            ArrayDeque<DocumentWritingTask> pendingDocuments) {
+        if (executor == null) {
+            documentReady.documentReady(document, pageRange);
+            return;
+        }
+        waitForPendingDocuments(pendingDocuments, maxPendingDocuments - 1);
+        DocumentWritingTask task = new DocumentWritingTask(new Runnable() {
+            @Override
+            public void run() {
+                documentReady.documentReady(document, pageRange);
+                if (!document.isClosed()) {
+                    document.close();
+                }
+            }
+        });
+        executor.execute(task);
+        pendingDocuments.addLast(task);
+    }
+
+    private static void waitForPendingDocuments(ArrayDeque<DocumentWritingTask> pendingDocuments, int maxPendingDocuments) {
+        while (pendingDocuments.size() > maxPendingDocuments) {
+            try {
+                pendingDocuments.pollFirst().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PdfException(PdfException.SplittingWasInterrupted, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new PdfException(PdfException.CannotCloseDocument, e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Drops the pending documents which are not being written yet and waits for the ones which are, so that
+     * no document is written after the splitting has failed. Does nothing if all the documents are written.
+     */
+    private static void cancelPendingDocuments(ArrayDeque<DocumentWritingTask> pendingDocuments) {
+        boolean interrupted = false;
+        while (!pendingDocuments.isEmpty()) {
+            DocumentWritingTask task = pendingDocuments.pollFirst();
+            if (task.cancelIfNotStarted()) {
+                continue;
+            }
+            while (true) {
+                try {
+                    task.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    // the failure which is being thrown takes precedence
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public interface IDocumentReadyListener {
         void documentReady(PdfDocument pdfDocument, PageRange pageRange);
     }
@@ -371,17 +487,22 @@ public class PdfSplitter {
     }
 
     private PageRange getNextRange(int startPage, int endPage, long size) {
-        PdfResourceCounter counter = new PdfResourceCounter(pdfDocument.getTrailer());
-        Map<Integer, PdfObject> resources = counter.getResources();
-        long lengthWithoutXref = counter.getLength(null); // initialize with trailer length
+        // the index is built for the page numbers of the document when it is created, so it is rebuilt if pages
+        // have been added or removed since
+        if (pageResourcesIndex == null || pageResourcesIndex.getNumberOfPages() != pdfDocument.getNumberOfPages()) {
+            pageResourcesIndex = new PageResourcesIndex(pdfDocument);
+        }
+        Set<Integer> resources = new HashSet<>(pageResourcesIndex.getTrailerResources());
+        long lengthWithoutXref = pageResourcesIndex.getTrailerLength(); // initialize with trailer length
         int currentPage = startPage;
         boolean oversized = false;
 
         do {
-            PdfPage page = pdfDocument.getPage(currentPage++);
-            counter = new PdfResourceCounter(page.getPdfObject());
-            lengthWithoutXref += counter.getLength(resources);
-            resources.putAll(counter.getResources());
+            for (int objNumber : pageResourcesIndex.getPageResources(currentPage++)) {
+                if (resources.add(objNumber)) {
+                    lengthWithoutXref += pageResourcesIndex.getLength(objNumber);
+                }
+            }
 
             if (lengthWithoutXref + xrefLength(resources.size()) > size) {
                 oversized = true;
@@ -401,4 +522,96 @@ public class PdfSplitter {
     private long xrefLength(int size) {
         return 20L * (size + 1);
     }
+
+    /**
+     * Keeps the numbers of the indirect objects needed for each page, and the lengths of these objects, so that
+     * the object graph of each page is walked and each object is serialized only once, no matter how many times
+     * the page and the objects are taken into account when the split ranges are calculated.
+     */
+    private static class PageResourcesIndex {
+        private final PdfDocument pdfDocument;
+        private final Map<Integer, Long> lengths = new HashMap<>();
+        private final int[][] pageResources;
+        private final Set<Integer> trailerResources;
+        private final long trailerLength;
+
+        PageResourcesIndex(PdfDocument pdfDocument) {
+            this.pdfDocument = pdfDocument;
+            this.pageResources = new int[pdfDocument.getNumberOfPages() + 1][];
+            Map<Integer, PdfObject> resources = new PdfResourceCounter(pdfDocument.getTrailer()).getResources();
+            this.trailerResources = Collections.unmodifiableSet(resources.keySet());
+            this.trailerLength = addLengths(resources);
+        }
+
+        int getNumberOfPages() {
+            return pageResources.length - 1;
+        }
+
+        Set<Integer> getTrailerResources() {
+            return trailerResources;
+        }
+
+        long getTrailerLength() {
+            return trailerLength;
+        }
+
+        int[] getPageResources(int pageNumber) {
+            if (pageResources[pageNumber] == null) {
+                Map<Integer, PdfObject> resources = new PdfResourceCounter(pdfDocument.getPage(pageNumber).getPdfObject())
+                        .getResources();
+                addLengths(resources);
+                int[] objNumbers = new int[resources.size()];
+                int i = 0;
+                for (int objNumber : resources.keySet()) {
+                    objNumbers[i++] = objNumber;
+                }
+                pageResources[pageNumber] = objNumbers;
+            }
+            return pageResources[pageNumber];
+        }
+
+        long getLength(int objNumber) {
+            return (long) lengths.get(objNumber);
+        }
+
+        private long addLengths(Map<Integer, PdfObject> resources) {
+            long length = 0;
+            for (Map.Entry<Integer, PdfObject> resource : resources.entrySet()) {
+                Long objLength = lengths.get(resource.getKey());
+                if (objLength == null) {
+                    objLength = PdfResourceCounter.getLength(resource.getValue());
+                    lengths.put(resource.getKey(), objLength);
+                }
+                length += (long) objLength;
+            }
+            return length;
+        }
+    }
+
+    /**
+     * The writing of a resultant document, which can be cancelled only until it is started, so that a cancelled
+     * writing is either never started or waited for.
+     */
+    private static class DocumentWritingTask extends FutureTask<Void> {
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        DocumentWritingTask(Runnable writing) {
+            super(writing, null);
+        }
+
+        @Override
+        public void run() {
+            if (started.compareAndSet(false, true)) {
+                super.run();
+            }
+        }
+
+        boolean cancelIfNotStarted() {
+            if (started.compareAndSet(false, true)) {
+                cancel(false);
+                return true;
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,137 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.counter;
+
+import com.itextpdf.kernel.counter.data.EventData;
+import com.itextpdf.kernel.counter.data.EventDataCacheQueueBased;
+import com.itextpdf.kernel.counter.data.EventDataHandler;
+import com.itextpdf.kernel.counter.data.IEventDataFactory;
+import com.itextpdf.kernel.counter.event.CoreEvent;
+import com.itextpdf.kernel.counter.event.IEvent;
+import com.itextpdf.kernel.counter.event.IMetaInfo;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks {@link EventCounterHandler#onEvent(IEvent, IMetaInfo, Class)} with a {@link DataHandlerCounter}
+ * registered, when the events are produced by many threads simultaneously, and checks that no event is lost.
+ */
+@Category(PerformanceTest.class)
+public class EventCounterHandlerPerformanceTest extends ExtendedITextTest {
+
+    private static final int PRODUCERS_COUNT = 64;
+    private static final int EVENTS_PER_PRODUCER = 100000;
+
+    @Test
+    public void concurrentOnEventTest() throws InterruptedException {
+        CountingDataHandler dataHandler = new CountingDataHandler();
+        IEventCounterFactory counterFactory = new SimpleEventCounterFactory(new DataHandlerCounter<>(dataHandler));
+        EventCounterHandler.getInstance().register(counterFactory);
+        try {
+            produceEvents(PRODUCERS_COUNT, EVENTS_PER_PRODUCER);
+        } finally {
+            EventCounterHandler.getInstance().unregister(counterFactory);
+        }
+        dataHandler.tryProcessRest();
+        Assert.assertEquals((long) PRODUCERS_COUNT * EVENTS_PER_PRODUCER, dataHandler.processedCount.get());
+    }
+
+    private void produceEvents(int producersCount, final int eventsPerProducer) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[producersCount];
+        for (int i = 0; i < producersCount; i++) {
+            producers[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < eventsPerProducer; j++) {
+                        EventCounterHandler.getInstance().onEvent(CoreEvent.PROCESS, null, EventCounterHandlerPerformanceTest.class);
+                    }
+                }
+            };
+            producers[i].start();
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+    }
+
+    private static class SimpleData extends EventData<String> {
+
+        public SimpleData(String signature) {
+            super(signature);
+        }
+    }
+
+    private static class CountingDataHandler extends EventDataHandler<String, SimpleData> {
+
+        final AtomicLong processedCount = new AtomicLong();
+
+        public CountingDataHandler() {
+            super(new EventDataCacheQueueBased<String, SimpleData>(), new IEventDataFactory<String, SimpleData>() {
+                @Override
+                public SimpleData create(IEvent event, IMetaInfo metaInfo) {
+                    return new SimpleData(event.getEventType());
+                }
+            }, 10, 1000);
+        }
+
+        @Override
+        protected boolean process(SimpleData data) {
+            processedCount.addAndGet(data.getCount());
+            return true;
+        }
+    }
+}
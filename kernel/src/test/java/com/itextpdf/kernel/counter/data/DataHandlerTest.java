@@ -48,10 +48,17 @@ import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 @Category(UnitTest.class)
 public class DataHandlerTest extends ExtendedITextTest {
 
@@ -82,6 +89,96 @@ public class DataHandlerTest extends ExtendedITextTest {
         dataHandler.tryProcessRest();
     }
 
+    @Test
+    public void concurrentRegistrationTest() throws InterruptedException {
+        final int threadsCount = 64;
+        final int eventsPerThread = 10000;
+        final CountingDataHandler dataHandler = new CountingDataHandler();
+        Thread[] threads = new Thread[threadsCount];
+        for (int i = 0; i < threadsCount; i++) {
+            final String type = "type" + (i % 4);
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < eventsPerThread; j++) {
+                        dataHandler.register(new TestEvent(type), null);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        dataHandler.tryProcessRest();
+
+        Assert.assertEquals(4, dataHandler.processedCounts.size());
+        for (Long count : dataHandler.processedCounts.values()) {
+            Assert.assertEquals(threadsCount / 4 * eventsPerThread, (long) count);
+        }
+    }
+
+    @Test
+    public void clearReturnsRegisteredEventsTest() {
+        CountingDataHandler dataHandler = new CountingDataHandler();
+        // postpones the processing of the following events for the wait time
+        dataHandler.tryProcessNext();
+        dataHandler.register(new TestEvent("type1"), null);
+        dataHandler.register(new TestEvent("type1"), null);
+        dataHandler.register(new TestEvent("type2"), null);
+        List<SimpleData> data = dataHandler.clear();
+        long count = 0;
+        for (SimpleData item : data) {
+            count += item.getCount();
+        }
+        Assert.assertEquals(2, data.size());
+        Assert.assertEquals(3, count);
+        Assert.assertTrue(dataHandler.processedCounts.isEmpty());
+    }
+
+    @Test
+    public void nonDaemonAsyncProcessingTest() throws InterruptedException {
+        Assert.assertFalse(processAsyncFromDaemonThread(false));
+    }
+
+    @Test
+    public void daemonAsyncProcessingTest() throws InterruptedException {
+        Assert.assertTrue(processAsyncFromDaemonThread(true));
+    }
+
+    @Test
+    public void defaultAsyncProcessingTest() throws InterruptedException {
+        // the processing thread inherits the daemon status of the calling thread
+        Assert.assertTrue(processAsyncFromDaemonThread(null));
+    }
+
+    private static boolean processAsyncFromDaemonThread(final Boolean daemon) throws InterruptedException {
+        final ThreadRecordingDataHandler dataHandler = new ThreadRecordingDataHandler();
+        // postpones the processing of the following event for the wait time
+        dataHandler.tryProcessNext();
+        dataHandler.register(new TestEvent("type1"), null);
+        dataHandler.setNoWaitTime();
+        Thread caller = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    // the processing isn't started until the clock moves on from the postponing call,
+                    // so it is requested again until the event is processed
+                    do {
+                        dataHandler.tryProcessNextAsync(daemon);
+                    } while (!dataHandler.processed.await(1, TimeUnit.MILLISECONDS));
+                } catch (InterruptedException ignored) {
+                }
+            }
+        };
+        caller.setDaemon(true);
+        caller.start();
+
+        Assert.assertTrue(dataHandler.processed.await(10, TimeUnit.SECONDS));
+        caller.join();
+        return dataHandler.processedOnDaemonThread;
+    }
+
     private static class SimpleData extends EventData<String> {
 
         public SimpleData(String signature) {
@@ -124,4 +221,37 @@ public class DataHandlerTest extends ExtendedITextTest {
             return data.getCount() > SUCCESS_LIMIT;
         }
     }
+
+    private static class CountingDataHandler extends EventDataHandler<String, SimpleData> {
+
+        final Map<String, Long> processedCounts = new HashMap<>();
+
+        public CountingDataHandler() {
+            super(new EventDataCacheQueueBased<String, SimpleData>(), new SimpleDataFactory(), 60000, 60000);
+        }
+
+        @Override
+        protected synchronized boolean process(SimpleData data) {
+            Long processed = processedCounts.get(data.getSignature());
+            processedCounts.put(data.getSignature(), (processed != null ? processed : 0) + data.getCount());
+            return true;
+        }
+    }
+
+    private static class ThreadRecordingDataHandler extends EventDataHandler<String, SimpleData> {
+
+        final CountDownLatch processed = new CountDownLatch(1);
+        volatile boolean processedOnDaemonThread;
+
+        public ThreadRecordingDataHandler() {
+            super(new EventDataCacheQueueBased<String, SimpleData>(), new SimpleDataFactory(), 60000, 60000);
+        }
+
+        @Override
+        protected boolean process(SimpleData data) {
+            processedOnDaemonThread = Thread.currentThread().isDaemon();
+            processed.countDown();
+            return true;
+        }
+    }
 }
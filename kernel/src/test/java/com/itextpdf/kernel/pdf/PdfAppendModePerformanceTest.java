@@ -0,0 +1,126 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Closes a small and a large document in append mode after the same single modification and counts the lazily
+ * loaded cross-reference entries which are loaded on closing. Only the modified objects shall be visited on closing,
+ * so the count shall be small and the same for both documents, whatever their number of objects.
+ */
+@Category(PerformanceTest.class)
+public class PdfAppendModePerformanceTest extends ExtendedITextTest {
+
+    private static final int SMALL_OBJECTS_COUNT = 1000;
+    private static final int LARGE_OBJECTS_COUNT = 50000;
+
+    @Test
+    public void appendModeClosingTest() throws IOException {
+        int loadedForSmallDocument = countEntriesLoadedOnClosing(createDocument(SMALL_OBJECTS_COUNT));
+        int loadedForLargeDocument = countEntriesLoadedOnClosing(createDocument(LARGE_OBJECTS_COUNT));
+        // only the objects written in the incremental update are loaded on closing
+        Assert.assertTrue(loadedForSmallDocument < 10);
+        Assert.assertEquals(loadedForSmallDocument, loadedForLargeDocument);
+    }
+
+    private static int countEntriesLoadedOnClosing(byte[] document) throws IOException {
+        LoadedEntriesCountingWriter writer = new LoadedEntriesCountingWriter();
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setLazyObjectLoading(true)), writer, new StampingProperties().useAppendMode());
+        PdfDictionary pageDictionary = pdfDocument.getFirstPage().getPdfObject();
+        pageDictionary.put(PdfName.Rotate, new PdfNumber(90));
+        pageDictionary.setModified();
+        int loadedBeforeClosing = countLoadedEntries(pdfDocument.getXref());
+        pdfDocument.close();
+        Assert.assertTrue(writer.loadedOnClosing >= 0);
+        return writer.loadedOnClosing - loadedBeforeClosing;
+    }
+
+    private static int countLoadedEntries(PdfXrefTable xref) {
+        int count = 0;
+        for (int i = 0; i < xref.size(); i++) {
+            if (xref.isLoaded(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] createDocument(int objectsCount) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, new WriterProperties().setFullCompressionMode(true)));
+        pdfDocument.addNewPage();
+        for (int i = 0; i < objectsCount; i++) {
+            PdfDictionary dictionary = new PdfDictionary();
+            dictionary.put(PdfName.Count, new PdfNumber(i));
+            dictionary.makeIndirect(pdfDocument).flush();
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static class LoadedEntriesCountingWriter extends PdfWriter {
+
+        int loadedOnClosing = -1;
+
+        LoadedEntriesCountingWriter() {
+            super(new ByteArrayOutputStream());
+        }
+
+        @Override
+        void flushPendingObjects() {
+            super.flushPendingObjects();
+            // this is the last step of closing before the cross-reference table is written and released
+            loadedOnClosing = countLoadedEntries(document.getXref());
+        }
+    }
+}
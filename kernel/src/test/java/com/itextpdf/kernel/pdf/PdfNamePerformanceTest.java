@@ -0,0 +1,123 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Benchmarks the initialization of the {@link PdfName} class in a fresh class loader and the lookup of the predefined
+ * names by the tokenizer content compared with the previous {@link PdfName#staticNames} based lookup. Each lookup
+ * is a separate test, so that their running times can be compared in the test reports.
+ */
+@Category(PerformanceTest.class)
+public class PdfNamePerformanceTest extends ExtendedITextTest {
+
+    private static final int LOOKUPS_COUNT = 1000;
+
+    @Test
+    public void pdfNameInitializationTest() throws Exception {
+        String[] classPath = System.getProperty("java.class.path").split(File.pathSeparator);
+        URL[] urls = new URL[classPath.length];
+        for (int i = 0; i < classPath.length; i++) {
+            urls[i] = new File(classPath[i]).toURI().toURL();
+        }
+        // the parent is the bootstrap class loader, so the kernel classes are loaded and initialized anew
+        URLClassLoader classLoader = new URLClassLoader(urls, null);
+        Class<?> pdfNameClass = Class.forName(PdfName.class.getName(), true, classLoader);
+        Assert.assertNotSame(PdfName.class, pdfNameClass);
+        Assert.assertNotNull(pdfNameClass.getField("Type").get(null));
+    }
+
+    @Test
+    public void staticNameMapLookupTest() throws IOException {
+        PdfTokenizer tokenizer = createStaticNamesTokenizer();
+        for (int i = 0; i < LOOKUPS_COUNT; i++) {
+            tokenizer.seek(0);
+            while (tokenizer.nextToken()) {
+                if (tokenizer.getTokenType() == PdfTokenizer.TokenType.Name) {
+                    Assert.assertNotNull(PdfName.staticNames.get(tokenizer.getStringValue()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void staticNameTableLookupTest() throws IOException {
+        PdfTokenizer tokenizer = createStaticNamesTokenizer();
+        while (tokenizer.nextToken()) {
+            Assert.assertSame(PdfName.staticNames.get(tokenizer.getStringValue()), PdfName.getStaticName(tokenizer));
+        }
+        for (int i = 0; i < LOOKUPS_COUNT; i++) {
+            tokenizer.seek(0);
+            while (tokenizer.nextToken()) {
+                if (tokenizer.getTokenType() == PdfTokenizer.TokenType.Name) {
+                    Assert.assertNotNull(PdfName.getStaticName(tokenizer));
+                }
+            }
+        }
+    }
+
+    private static PdfTokenizer createStaticNamesTokenizer() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (String name : PdfName.staticNames.keySet()) {
+            // the string lookup doesn't decode escaped characters, so such names are not used
+            if (name.equals(new String(new PdfName(name).getInternalContent()))) {
+                content.append('/').append(name).append(' ');
+            }
+        }
+        return new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(content.toString().getBytes("ISO-8859-1"))));
+    }
+}
@@ -42,6 +42,11 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.test.ITextTest;
 import com.itextpdf.test.annotations.type.UnitTest;
 
@@ -49,6 +54,13 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
 @Category(UnitTest.class)
 public class PdfNameTest extends ITextTest {
 
@@ -100,4 +112,76 @@ public class PdfNameTest extends ITextTest {
         Assert.assertEquals(Math.signum(oneToTwo), Math.signum(oneContentToTwo), delta);
     }
 
+    @Test
+    public void staticNamesTest() throws Exception {
+        int count = 0;
+        for (Field field : PdfName.class.getDeclaredFields()) {
+            int flags = Modifier.STATIC | Modifier.PUBLIC | Modifier.FINAL;
+            if ((field.getModifiers() & flags) == flags && field.getType().equals(PdfName.class)) {
+                PdfName name = (PdfName) field.get(null);
+                Assert.assertEquals(name, PdfName.staticNames.get(name.getValue()));
+                Assert.assertSame(PdfName.staticNames.get(name.getValue()), getStaticName(name.getInternalContent()));
+                count++;
+            }
+        }
+        // ML name is declared twice
+        Assert.assertEquals(count - 1, PdfName.staticNames.size());
+    }
+
+    @Test
+    public void unknownStaticNameTest() throws IOException {
+        Assert.assertNull(getStaticName("NotAPredefinedName".getBytes()));
+        Assert.assertNull(getStaticName("Typ".getBytes()));
+        Assert.assertNull(getStaticName(new byte[0]));
+    }
+
+    @Test
+    public void parsedNamesAreCanonicalTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        pdfDocument.addNewPage().getPdfObject().put(new PdfName("CustomKey"), new PdfName("Custom#Value"));
+        pdfDocument.close();
+
+        pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        PdfDictionary page = pdfDocument.getPage(1).getPdfObject();
+        for (PdfName key : page.keySet()) {
+            if (PdfName.staticNames.containsKey(key.getValue())) {
+                Assert.assertSame(PdfName.staticNames.get(key.getValue()), key);
+            }
+        }
+        Assert.assertSame(PdfName.Page, page.getAsName(PdfName.Type));
+        Assert.assertEquals(new PdfName("Custom#Value"), page.getAsName(new PdfName("CustomKey")));
+        pdfDocument.close();
+    }
+
+    @Test
+    public void contentStreamNamesAreCanonicalTest() throws IOException {
+        byte[] content = "/Span <</ActualText (text) /MCID 0>> BDC /F1 12 Tf EMC".getBytes();
+        PdfCanvasParser parser = new PdfCanvasParser(new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(content))));
+        List<PdfObject> operands = new ArrayList<>();
+        parser.parse(operands);
+        Assert.assertSame(PdfName.Span, operands.get(0));
+        PdfDictionary properties = (PdfDictionary) operands.get(1);
+        for (PdfName key : properties.keySet()) {
+            Assert.assertSame(PdfName.staticNames.get(key.getValue()), key);
+        }
+        parser.parse(operands);
+        Assert.assertEquals(new PdfName("F1"), operands.get(0));
+    }
+
+    private static PdfName getStaticName(byte[] content) throws IOException {
+        PdfTokenizer tokenizer = new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(concat((byte) '/', content))));
+        tokenizer.nextValidToken();
+        Assert.assertEquals(PdfTokenizer.TokenType.Name, tokenizer.getTokenType());
+        return PdfName.getStaticName(tokenizer);
+    }
+
+    private static byte[] concat(byte prefix, byte[] content) {
+        byte[] result = new byte[content.length + 1];
+        result[0] = prefix;
+        System.arraycopy(content, 0, result, 1, content.length);
+        return result;
+    }
 }
@@ -45,7 +45,16 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.MappedSourceProperties;
+import com.itextpdf.io.source.MappedSourceStatistics;
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
@@ -57,12 +66,20 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import com.itextpdf.io.util.MessageFormatUtil;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Category(IntegrationTest.class)
 public class PdfReaderTest extends ExtendedITextTest {
@@ -1592,6 +1609,519 @@ public class PdfReaderTest extends ExtendedITextTest {
         return type.equals(objectType);
     }
 
+    @Test
+    public void openStreamTest() throws IOException {
+        String filename = sourceFolder + "100PagesDocumentWithFlateFilter.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename));
+        compareStreamReading(pdfDoc);
+        pdfDoc.close();
+    }
+
+    @Test
+    public void openEncryptedStreamTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        WriterProperties properties = new WriterProperties().setStandardEncryption(ByteUtils.getIsoBytes("user"),
+                ByteUtils.getIsoBytes("owner"), EncryptionConstants.ALLOW_PRINTING, EncryptionConstants.ENCRYPTION_AES_128);
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, properties));
+        for (int i = 0; i < 10; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            page.getFirstContentStream().getOutputStream().writeString("q 1 0 0 1 " + i + " 0 cm Q\n");
+        }
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray()),
+                new ReaderProperties().setPassword(ByteUtils.getIsoBytes("user"))));
+        compareStreamReading(pdfDoc);
+        pdfDoc.close();
+    }
+
+    @Test
+    public void lazyObjectLoadingTest() throws IOException {
+        String[] files = new String[] {"1000PagesDocumentWithFullCompression.pdf", "1000PagesDocumentAppended.pdf",
+                "10PagesDocumentWithFullCompressionAppended.pdf", "100PagesDocumentWithFlateFilter.pdf",
+                "10PagesDocumentAppended.pdf"};
+        for (String file : files) {
+            PdfDocument eagerDoc = new PdfDocument(new PdfReader(sourceFolder + file));
+            PdfDocument lazyDoc = new PdfDocument(new PdfReader(sourceFolder + file,
+                    new ReaderProperties().setLazyObjectLoading(true)));
+            Assert.assertEquals(file, eagerDoc.getNumberOfPdfObjects(), lazyDoc.getNumberOfPdfObjects());
+            Assert.assertEquals(file, eagerDoc.getNumberOfPages(), lazyDoc.getNumberOfPages());
+            for (int i = eagerDoc.getNumberOfPdfObjects() - 1; i > 0; i--) {
+                PdfObject eagerObj = eagerDoc.getPdfObject(i);
+                PdfObject lazyObj = lazyDoc.getPdfObject(i);
+                if (eagerObj == null) {
+                    Assert.assertNull(file, lazyObj);
+                    continue;
+                }
+                Assert.assertEquals(file, eagerObj.getType(), lazyObj.getType());
+                Assert.assertEquals(file, eagerObj.toString(), lazyObj.toString());
+                Assert.assertEquals(file, eagerObj.getIndirectReference().toString(), lazyObj.getIndirectReference().toString());
+                if (eagerObj.isStream()) {
+                    Assert.assertArrayEquals(file, ((PdfStream) eagerObj).getBytes(), ((PdfStream) lazyObj).getBytes());
+                }
+            }
+            eagerDoc.close();
+            lazyDoc.close();
+        }
+    }
+
+    @Test
+    public void lazyObjectLoadingReadsOnlyRequestedObjectsTest() throws IOException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompression.pdf";
+        PdfDocument eagerDoc = new PdfDocument(new PdfReader(filename));
+        byte[] expectedContent = eagerDoc.getPage(1).getContentBytes();
+        eagerDoc.close();
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setLazyObjectLoading(true)));
+        Assert.assertArrayEquals(expectedContent, pdfDoc.getPage(1).getContentBytes());
+
+        PdfXrefTable xref = pdfDoc.getXref();
+        int loaded = 0;
+        for (int i = 0; i < xref.size(); i++) {
+            if (xref.isLoaded(i)) {
+                loaded++;
+            }
+        }
+        Assert.assertTrue(loaded < xref.size() / 10);
+        pdfDoc.close();
+    }
+
+    @Test
+    public void lazyObjectLoadingStampingTest() throws IOException, InterruptedException {
+        String filename = sourceFolder + "1000PagesDocumentWithFullCompressionAppended.pdf";
+        String outputFile = destinationFolder + "lazyObjectLoadingStampingTest.pdf";
+        String cmpFile = destinationFolder + "cmp_lazyObjectLoadingStampingTest.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename), new PdfWriter(cmpFile));
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setLazyObjectLoading(true)),
+                new PdfWriter(outputFile));
+        pdfDoc.close();
+
+        Assert.assertNull(new CompareTool().compareByContent(outputFile, cmpFile, destinationFolder, "diff_"));
+    }
+
+    @Test
+    public void lazyObjectLoadingAppendModeTest() throws IOException {
+        String filename = sourceFolder + "10PagesDocumentWithFullCompressionAppended.pdf";
+        String outputFile = destinationFolder + "lazyObjectLoadingAppendModeTest.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(filename, new ReaderProperties().setLazyObjectLoading(true)),
+                new PdfWriter(outputFile), new StampingProperties().useAppendMode());
+        pdfDoc.getPage(1).getPdfObject().put(new PdfName("Test"), new PdfString("test"));
+        pdfDoc.getPage(1).setModified();
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(outputFile));
+        Assert.assertEquals(10, pdfDoc.getNumberOfPages());
+        Assert.assertEquals(new PdfString("test"), pdfDoc.getPage(1).getPdfObject().get(new PdfName("Test")));
+        Assert.assertFalse(pdfDoc.getReader().hasRebuiltXref());
+        pdfDoc.close();
+    }
+
+    @Test
+    public void concurrentReadingTest() throws Exception {
+        WriterProperties[] writerProperties = new WriterProperties[] {new WriterProperties(),
+                new WriterProperties().setFullCompressionMode(true),
+                new WriterProperties().setFullCompressionMode(true).setStandardEncryption(ByteUtils.getIsoBytes("user"),
+                        ByteUtils.getIsoBytes("owner"), EncryptionConstants.ALLOW_PRINTING, EncryptionConstants.ENCRYPTION_AES_128)};
+        for (WriterProperties properties : writerProperties) {
+            byte[] document = createDocumentForConcurrentReading(properties);
+            List<String> expected = readPagesConcurrently(document,
+                    new ReaderProperties().setPassword(ByteUtils.getIsoBytes("user")), 1);
+            Assert.assertEquals(200, expected.size());
+            for (ReaderProperties readerProperties : new ReaderProperties[] {new ReaderProperties(),
+                    new ReaderProperties().setLazyObjectLoading(true)}) {
+                readerProperties.setPassword(ByteUtils.getIsoBytes("user")).setConcurrentReading(true);
+                Assert.assertEquals(expected, readPagesConcurrently(document, readerProperties, 8));
+            }
+        }
+    }
+
+    @Test
+    public void concurrentReadingIsNotAllowedInStampingModeTest() throws IOException {
+        byte[] document = createDocumentForConcurrentReading(new WriterProperties());
+        try {
+            new PdfDocument(new PdfReader(new ByteArrayInputStream(document), new ReaderProperties().setConcurrentReading(true)),
+                    new PdfWriter(new ByteArrayOutputStream()));
+            Assert.fail("PdfException expected");
+        } catch (PdfException e) {
+            Assert.assertEquals(PdfException.ConcurrentReadingIsSupportedInReadingModeOnly, e.getMessage());
+        }
+    }
+
+    @Test
+    public void mappedSourcePagingTest() throws IOException {
+        String filename = sourceFolder + "100PagesDocumentWithFlateFilter.pdf";
+        MappedSourceProperties mappedSourceProperties = new MappedSourceProperties().setPageSize(1024)
+                .setMaxMappedPages(4).setReadAheadPages(1);
+        PdfDocument document = new PdfDocument(new PdfReader(filename,
+                new ReaderProperties().setMappedSourceProperties(mappedSourceProperties)));
+        Assert.assertEquals(100, document.getNumberOfPages());
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            String content = new String(document.getPage(i).getFirstContentStream().getBytes());
+            Assert.assertTrue("Page content " + i, content.contains("(" + i + ")Tj"));
+        }
+        Assert.assertFalse(document.getReader().hasRebuiltXref());
+
+        MappedSourceStatistics statistics = mappedSourceProperties.getStatistics();
+        Assert.assertTrue(statistics.getCurrentlyMappedPagesCount() <= 4);
+        Assert.assertTrue(statistics.getUnmappedPagesCount() > 0);
+        Assert.assertTrue(statistics.getPageHitsCount() > 0);
+        document.close();
+        Assert.assertEquals(0, statistics.getCurrentlyMappedPagesCount());
+    }
+
+    @Test
+    public void objectCacheSizeTest() throws IOException {
+        WriterProperties[] writerProperties = new WriterProperties[] {new WriterProperties(),
+                new WriterProperties().setFullCompressionMode(true)};
+        for (WriterProperties properties : writerProperties) {
+            byte[] document = createDocumentForConcurrentReading(properties);
+            PdfDocument expectedDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+            List<String> expected = new ArrayList<>();
+            for (int i = 1; i <= expectedDoc.getNumberOfPages(); i++) {
+                expected.add(readPage(expectedDoc, i));
+            }
+            Assert.assertNull(expectedDoc.getReader().objectCache);
+
+            PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                    new ReaderProperties().setObjectCacheSize(4096)));
+            ResolvedObjectCache cache = pdfDoc.getReader().objectCache;
+            Assert.assertNotNull(cache);
+            for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+                Assert.assertEquals(expected.get(i - 1), readPage(pdfDoc, i));
+                Assert.assertTrue(cache.getCurrentSize() <= 4096);
+            }
+            // the page dictionaries are in use by the pages tree, all the other objects shall be detached
+            Assert.assertTrue(countResolvedObjects(pdfDoc) < countResolvedObjects(expectedDoc) / 2);
+            // the detached objects are read once again
+            Assert.assertEquals(expected.get(0), readPage(pdfDoc, 1));
+            expectedDoc.close();
+            pdfDoc.close();
+        }
+    }
+
+    @Test
+    public void objectCacheTraversalKeepsOnlyPageDictionariesTest() throws IOException {
+        byte[] document = createDocumentForConcurrentReading(new WriterProperties());
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setObjectCacheSize(4096)));
+        ResolvedObjectCache cache = pdfDoc.getReader().objectCache;
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            readPage(pdfDoc, i);
+            Assert.assertTrue(cache.getCurrentSize() <= 4096);
+        }
+
+        // the pages tree keeps all the page dictionaries, so they shall stay the resolved objects of their references
+        int pagesTreeObjects = 0;
+        for (int i = 1; i < pdfDoc.getNumberOfPdfObjects(); i++) {
+            PdfIndirectReference reference = pdfDoc.getXref().get(i);
+            PdfObject object = reference != null ? reference.refersTo : null;
+            if (object instanceof PdfDictionary && (PdfName.Page.equals(((PdfDictionary) object).getAsName(PdfName.Type))
+                    || PdfName.Pages.equals(((PdfDictionary) object).getAsName(PdfName.Type)))) {
+                pagesTreeObjects++;
+            }
+        }
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            PdfDictionary pageDictionary = pdfDoc.getPage(i).getPdfObject();
+            Assert.assertSame(pageDictionary, pageDictionary.getIndirectReference().refersTo);
+        }
+        // the other objects of the pages are detached, only a few ones are left regardless of the number of pages
+        Assert.assertTrue(pagesTreeObjects > pdfDoc.getNumberOfPages());
+        Assert.assertTrue(countResolvedObjects(pdfDoc) - pagesTreeObjects < pdfDoc.getNumberOfPages() / 4);
+        pdfDoc.close();
+    }
+
+    @Test
+    public void objectCacheIsNotUsedInStampingModeTest() throws IOException {
+        byte[] document = createDocumentForConcurrentReading(new WriterProperties());
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setObjectCacheSize(4096)), new PdfWriter(new ByteArrayOutputStream()));
+        Assert.assertNull(pdfDoc.getReader().objectCache);
+        pdfDoc.close();
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR, count = 2))
+    public void xrefRebuildMultithreadedTest() throws IOException {
+        byte[] document = createDocumentWithBrokenXref(1000);
+        Assert.assertTrue(document.length > 2 * 4 * XrefRebuildScanner.BLOCK_SIZE);
+
+        PdfDocument expectedDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setXrefRebuildThreadsCount(4)));
+        Assert.assertTrue(expectedDoc.getReader().hasRebuiltXref());
+        Assert.assertTrue(pdfDoc.getReader().hasRebuiltXref());
+        Assert.assertEquals(1000, pdfDoc.getNumberOfPages());
+        Assert.assertEquals(expectedDoc.getNumberOfPdfObjects(), pdfDoc.getNumberOfPdfObjects());
+        for (int i = 1; i < expectedDoc.getNumberOfPdfObjects(); i++) {
+            Assert.assertEquals(expectedDoc.getXref().get(i).getOffset(), pdfDoc.getXref().get(i).getOffset());
+        }
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            Assert.assertArrayEquals(expectedDoc.getPage(i).getContentBytes(), pdfDoc.getPage(i).getContentBytes());
+        }
+        expectedDoc.close();
+        pdfDoc.close();
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR, count = 2))
+    public void xrefRebuildMultithreadedFromFileTest() throws IOException {
+        byte[] document = createDocumentWithBrokenXref(1000);
+        String fileName = destinationFolder + "xrefRebuildMultithreadedFromFileTest.pdf";
+        FileOutputStream fos = new FileOutputStream(fileName);
+        fos.write(document);
+        fos.close();
+
+        PdfDocument expectedDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+        // the file based byte source is not thread safe by itself, unlike the one over the byte array
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(fileName, new ReaderProperties().setXrefRebuildThreadsCount(4)));
+        Assert.assertTrue(pdfDoc.getReader().hasRebuiltXref());
+        Assert.assertEquals(1000, pdfDoc.getNumberOfPages());
+        Assert.assertEquals(expectedDoc.getNumberOfPdfObjects(), pdfDoc.getNumberOfPdfObjects());
+        for (int i = 1; i < expectedDoc.getNumberOfPdfObjects(); i++) {
+            Assert.assertEquals(expectedDoc.getXref().get(i).getOffset(), pdfDoc.getXref().get(i).getOffset());
+        }
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            Assert.assertArrayEquals(expectedDoc.getPage(i).getContentBytes(), pdfDoc.getPage(i).getContentBytes());
+        }
+        expectedDoc.close();
+        pdfDoc.close();
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR, count = 2))
+    public void xrefRebuildListenerTest() throws IOException {
+        byte[] document = createDocumentWithBrokenXref(300);
+        final List<Long> progress = new ArrayList<>();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setXrefRebuildListener(new IXrefRebuildListener() {
+                    @Override
+                    public boolean onProgress(long scannedBytes, long totalBytes) {
+                        progress.add(scannedBytes);
+                        return true;
+                    }
+                })));
+        Assert.assertTrue(pdfDoc.getReader().hasRebuiltXref());
+        Assert.assertEquals(300, pdfDoc.getNumberOfPages());
+        pdfDoc.close();
+        Assert.assertTrue(progress.size() > 1);
+        Assert.assertEquals(document.length, (long) progress.get(progress.size() - 1));
+
+        try {
+            new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                    new ReaderProperties().setXrefRebuildListener(new IXrefRebuildListener() {
+                        @Override
+                        public boolean onProgress(long scannedBytes, long totalBytes) {
+                            return false;
+                        }
+                    })));
+            Assert.fail("PdfException expected");
+        } catch (PdfException e) {
+            Assert.assertEquals(PdfException.XrefRebuildingWasCancelled, e.getMessage());
+        }
+    }
+
+    @Test
+    public void decodedStreamCacheTest() throws IOException {
+        byte[] document = createDocumentWithSharedXObject(50);
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setDecodedStreamCacheSize(1024 * 1024)));
+        DecodedStreamCacheStatistics initialStatistics = pdfDoc.getReader().getDecodedStreamCacheStatistics();
+        byte[] expected = null;
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            PdfStream xObject = pdfDoc.getPage(i).getResources().getResource(PdfName.XObject).getAsStream(new PdfName("Fm1"));
+            byte[] bytes = xObject.getBytes();
+            if (expected == null) {
+                expected = bytes.clone();
+            }
+            Assert.assertArrayEquals(expected, bytes);
+            // the cached content is not affected by the changes of the returned bytes
+            bytes[0] = 0;
+        }
+        DecodedStreamCacheStatistics statistics = pdfDoc.getReader().getDecodedStreamCacheStatistics();
+        Assert.assertEquals(pdfDoc.getNumberOfPages() - 1, statistics.getHits());
+        Assert.assertEquals(1, statistics.getMisses());
+        Assert.assertEquals(1, statistics.getCachedStreams());
+        Assert.assertEquals(expected.length, statistics.getCachedBytes());
+        Assert.assertEquals(0, statistics.getEvictedStreams());
+        // the statistics are snapshots which are not changed by the subsequent reads
+        Assert.assertEquals(0, initialStatistics.getHits());
+        Assert.assertEquals(0, initialStatistics.getMisses());
+        Assert.assertEquals(0, initialStatistics.getCachedBytes());
+
+        // the content is decoded once again if the filter is changed
+        PdfStream xObject = pdfDoc.getPage(1).getResources().getResource(PdfName.XObject).getAsStream(new PdfName("Fm1"));
+        xObject.remove(PdfName.Filter);
+        Assert.assertFalse(Arrays.equals(expected, xObject.getBytes()));
+        PdfReader reader = pdfDoc.getReader();
+        pdfDoc.close();
+        Assert.assertEquals(expected.length, statistics.getCachedBytes());
+        Assert.assertEquals(0, reader.getDecodedStreamCacheStatistics().getCachedBytes());
+
+        pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+        Assert.assertNull(pdfDoc.getReader().getDecodedStreamCacheStatistics());
+        pdfDoc.close();
+    }
+
+    @Test
+    public void decodedStreamCacheEvictionTest() throws IOException {
+        byte[] document = createDocumentWithSharedXObject(20);
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setDecodedStreamCacheSize(4096)));
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            byte[] content = pdfDoc.getPage(i).getContentBytes();
+            Assert.assertTrue(new String(content, "ISO-8859-1").contains("Page " + (i - 1) + "\\)"));
+            Assert.assertTrue(pdfDoc.getReader().getDecodedStreamCacheStatistics().getCachedBytes() <= 4096);
+        }
+        Assert.assertTrue(pdfDoc.getReader().getDecodedStreamCacheStatistics().getEvictedStreams() > 0);
+        pdfDoc.close();
+    }
+
+    private static byte[] createDocumentWithSharedXObject(int pagesCount) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        PdfFormXObject xObject = new PdfFormXObject(new Rectangle(500, 500));
+        PdfCanvas xObjectCanvas = new PdfCanvas(xObject, pdfDoc);
+        for (int i = 0; i < 100; i++) {
+            xObjectCanvas.beginText().setFontAndSize(font, 4).moveText(0, 5 * i).showText("Shared line " + i).endText();
+        }
+        for (int i = 0; i < pagesCount; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
+            for (int j = 0; j < 50; j++) {
+                canvas.beginText().setFontAndSize(font, 12).moveText(36, 800 - 12 * j).showText("(Page " + i + ")").endText();
+            }
+            canvas.addXObject(xObject, 0, 0);
+        }
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] createDocumentWithBrokenXref(int pagesCount) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos,
+                new WriterProperties().setCompressionLevel(CompressionConstants.NO_COMPRESSION)));
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        for (int i = 0; i < pagesCount; i++) {
+            PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
+            // long lines, so that object headers appear close to the boundaries of the scanned blocks
+            for (int j = 0; j < 300; j++) {
+                canvas.beginText().setFontAndSize(font, 1).moveText(0, j)
+                        .showText("Page " + i + " line " + j + " 1 0 obj trailer").endText();
+            }
+        }
+        pdfDoc.close();
+        byte[] bytes = baos.toByteArray();
+        // point startxref to the beginning of the file
+        String tail = new String(bytes, bytes.length - 64, 64, "ISO-8859-1");
+        int pos = bytes.length - 64 + tail.lastIndexOf("startxref") + "startxref".length();
+        while (bytes[pos] < '0' || bytes[pos] > '9') {
+            pos++;
+        }
+        while (bytes[pos] >= '0' && bytes[pos] <= '9') {
+            bytes[pos++] = '0';
+        }
+        return bytes;
+    }
+
+    private static byte[] createDocumentForConcurrentReading(WriterProperties properties) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, properties));
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        PdfDictionary sharedInfo = (PdfDictionary) new PdfDictionary().makeIndirect(pdfDoc);
+        sharedInfo.put(PdfName.Title, new PdfString("shared info"));
+        for (int i = 0; i < 200; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            PdfCanvas canvas = new PdfCanvas(page);
+            for (int j = 0; j < 20; j++) {
+                canvas.beginText().setFontAndSize(font, 12).moveText(36, 800 - 20 * j)
+                        .showText("Page " + i + " line " + j).endText();
+            }
+            PdfDictionary pageInfo = (PdfDictionary) new PdfDictionary().makeIndirect(pdfDoc);
+            pageInfo.put(PdfName.Title, new PdfString("page info " + i));
+            pageInfo.put(PdfName.Parent, sharedInfo);
+            page.getPdfObject().put(new PdfName("PageInfo"), pageInfo);
+        }
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    private static List<String> readPagesConcurrently(byte[] document, ReaderProperties properties, int threadsCount)
+            throws Exception {
+        final PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document), properties));
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            // the pages are requested in the reversed order to make the threads load the page tree concurrently
+            for (int i = pdfDoc.getNumberOfPages(); i > 0; i--) {
+                final int pageNum = i;
+                futures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws IOException {
+                        return readPage(pdfDoc, pageNum);
+                    }
+                }));
+            }
+            List<String> result = new ArrayList<>();
+            for (int i = futures.size() - 1; i >= 0; i--) {
+                result.add(futures.get(i).get());
+            }
+            return result;
+        } finally {
+            executor.shutdown();
+            pdfDoc.close();
+        }
+    }
+
+    private static String readPage(PdfDocument pdfDoc, int pageNum) throws IOException {
+        PdfPage page = pdfDoc.getPage(pageNum);
+        PdfDictionary pageInfo = page.getPdfObject().getAsDictionary(new PdfName("PageInfo"));
+        PdfDictionary fonts = page.getResources().getResource(PdfName.Font);
+        PdfDictionary font = fonts.getAsDictionary(fonts.keySet().iterator().next());
+        return pageInfo.getAsString(PdfName.Title).getValue() + ";"
+                + pageInfo.getAsDictionary(PdfName.Parent).getAsString(PdfName.Title).getValue() + ";"
+                + new String(page.getContentBytes(), "ISO-8859-1") + ";"
+                + pdfDoc.getFont(font).getFontProgram().getFontNames().getFontName();
+    }
+
+    private static int countResolvedObjects(PdfDocument pdfDoc) {
+        PdfXrefTable xref = pdfDoc.getXref();
+        int resolved = 0;
+        for (int i = 0; i < xref.size(); i++) {
+            if (xref.isLoaded(i) && xref.get(i) != null && xref.get(i).refersTo != null) {
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    private static void compareStreamReading(PdfDocument pdfDoc) throws IOException {
+        PdfReader reader = pdfDoc.getReader();
+        int streamsCount = 0;
+        for (int i = 1; i < pdfDoc.getNumberOfPdfObjects(); i++) {
+            PdfObject object = pdfDoc.getPdfObject(i);
+            if (object == null || !object.isStream()) {
+                continue;
+            }
+            PdfStream stream = (PdfStream) object;
+            streamsCount++;
+            Assert.assertArrayEquals(reader.readStreamBytes(stream, false), readAll(reader.openStream(stream, false)));
+            Assert.assertArrayEquals(reader.readStreamBytes(stream, true), readAll(reader.openStream(stream, true)));
+        }
+        Assert.assertTrue(streamsCount > 0);
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        try {
+            return StreamUtil.inputStreamToArray(is);
+        } finally {
+            is.close();
+        }
+    }
+
     /**
      * Returns the current memory use.
      *
@@ -1331,6 +1331,79 @@ public class PdfStampingTest extends ExtendedITextTest {
 
     }
 
+    @Test
+    public void stampingAppendModeWritesOnlyModifiedObjects() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc1 = new PdfDocument(new PdfWriter(baos));
+        for (int i = 0; i < 100; i++) {
+            PdfPage page = pdfDoc1.addNewPage();
+            page.getContentStream(0).getOutputStream().write(ByteUtils.getIsoBytes("%Page " + (i + 1) + "\n"));
+        }
+        pdfDoc1.close();
+        byte[] original = baos.toByteArray();
+
+        baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc2 = new PdfDocument(new PdfReader(new ByteArrayInputStream(original)), new PdfWriter(baos),
+                new StampingProperties().useAppendMode());
+        PdfDictionary pageDictionary = pdfDoc2.getPage(50).getPdfObject();
+        pageDictionary.put(new PdfName("Modified"), PdfBoolean.TRUE);
+        pageDictionary.setModified();
+        pdfDoc2.close();
+        byte[] result = baos.toByteArray();
+
+        String update = new String(result, original.length, result.length - original.length, "ISO-8859-1");
+        // only the modified page and the document info dictionary are written in the incremental update
+        assertEquals(2, update.split(" 0 obj").length - 1);
+        assertTrue(update.contains("\nxref\n"));
+        assertFalse(update.contains("%Page"));
+
+        PdfDocument pdfDoc3 = new PdfDocument(new PdfReader(new ByteArrayInputStream(result)));
+        assertFalse(pdfDoc3.getReader().hasRebuiltXref());
+        assertEquals(100, pdfDoc3.getNumberOfPages());
+        assertEquals(PdfBoolean.TRUE, pdfDoc3.getPage(50).getPdfObject().get(new PdfName("Modified")));
+        assertNull(pdfDoc3.getPage(49).getPdfObject().get(new PdfName("Modified")));
+        assertEquals("%Page 100\n", new String(pdfDoc3.getPage(100).getContentBytes()));
+        pdfDoc3.close();
+    }
+
+    @Test
+    public void stampingAppendModeFreeObjectWithoutZeroXrefEntry() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc1 = new PdfDocument(new PdfWriter(baos));
+        pdfDoc1.addNewPage();
+        PdfDictionary extra = new PdfDictionary();
+        extra.put(PdfName.Count, new PdfNumber(1));
+        extra.makeIndirect(pdfDoc1);
+        int extraObjNr = extra.getIndirectReference().getObjNumber();
+        extra.flush();
+        pdfDoc1.close();
+
+        // the xref of the original document is rewritten so that its section starts with object 1
+        String original = new String(baos.toByteArray(), "ISO-8859-1");
+        int xrefStart = original.lastIndexOf("\nxref\n0 ") + "\nxref\n".length();
+        int sectionHeaderEnd = original.indexOf('\n', xrefStart) + 1;
+        int entriesCount = Integer.parseInt(original.substring(xrefStart + 2, sectionHeaderEnd - 1));
+        original = original.substring(0, xrefStart) + "1 " + (entriesCount - 1) + "\n" + original.substring(sectionHeaderEnd + 20);
+
+        baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc2 = new PdfDocument(new PdfReader(new ByteArrayInputStream(original.getBytes("ISO-8859-1"))),
+                new PdfWriter(baos), new StampingProperties().useAppendMode());
+        assertFalse(pdfDoc2.getReader().hasRebuiltXref());
+        pdfDoc2.getPdfObject(extraObjNr).getIndirectReference().setFree();
+        pdfDoc2.close();
+        byte[] result = baos.toByteArray();
+
+        String update = new String(result, original.length(), result.length - original.length(), "ISO-8859-1");
+        // the head of the free references list now points to the freed object
+        assertTrue(update.contains("\nxref\n0 "));
+        assertTrue(update.contains(String.format("%010d 65535 f", extraObjNr)));
+
+        PdfDocument pdfDoc3 = new PdfDocument(new PdfReader(new ByteArrayInputStream(result)));
+        assertFalse(pdfDoc3.getReader().hasRebuiltXref());
+        assertTrue(pdfDoc3.getPdfObject(extraObjNr) == null || pdfDoc3.getXref().get(extraObjNr).isFree());
+        pdfDoc3.close();
+    }
+
     
     static void verifyPdfPagesCount(PdfObject root) {
         if (root.getType() == PdfObject.INDIRECT_REFERENCE)
@@ -0,0 +1,137 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+@Category(IntegrationTest.class)
+public class PdfStreamStorageTest extends ExtendedITextTest {
+
+    private static final int PAGES_COUNT = 3;
+    private static final int DATA_STREAM_LENGTH = 100000;
+
+    @Test
+    public void tempFileStreamStorageTest() throws IOException {
+        checkStreamStorage(new WriterProperties().setStreamStorageFactory(new TempFileStreamStorageFactory(1000)));
+    }
+
+    @Test
+    public void directBufferStreamStorageTest() throws IOException {
+        DirectBufferStreamStorageFactory factory = new DirectBufferStreamStorageFactory(4096, 1000);
+        checkStreamStorage(new WriterProperties().setStreamStorageFactory(factory));
+        Assert.assertTrue(factory.getPool().getPooledBufferCount() > 0);
+    }
+
+    @Test
+    public void directBufferStreamStorageParallelCompressionTest() throws IOException {
+        checkStreamStorage(new WriterProperties().setStreamStorageFactory(new DirectBufferStreamStorageFactory())
+                .useParallelCompression(2).setFullCompressionMode(true));
+    }
+
+    @Test
+    public void tempFileStreamStorageEncryptionTest() throws IOException {
+        checkStreamStorage(new WriterProperties().setStreamStorageFactory(new TempFileStreamStorageFactory(100))
+                .setStandardEncryption(null, "owner".getBytes(), EncryptionConstants.ALLOW_PRINTING,
+                        EncryptionConstants.ENCRYPTION_AES_128));
+    }
+
+    @Test
+    public void streamContentIsMovedToStorageTest() {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(),
+                new WriterProperties().setStreamStorageFactory(new TempFileStreamStorageFactory(10))));
+        PdfStream stream = new PdfStream(new byte[] {1, 2, 3});
+        Assert.assertEquals(ByteArrayOutputStream.class, stream.getOutputStream().getOutputStream().getClass());
+        stream.makeIndirect(pdfDocument);
+        Assert.assertEquals(com.itextpdf.io.source.TempFileOutputStream.class,
+                stream.getOutputStream().getOutputStream().getClass());
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, stream.getBytes());
+        pdfDocument.addNewPage();
+        pdfDocument.close();
+    }
+
+    private static void checkStreamStorage(WriterProperties properties) throws IOException {
+        byte[] document = createDocument(properties);
+        byte[] expected = createDocument(new WriterProperties());
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setPassword("owner".getBytes())));
+        PdfDocument expectedDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(expected)));
+        Assert.assertEquals(PAGES_COUNT, pdfDocument.getNumberOfPages());
+        for (int i = 1; i <= PAGES_COUNT; i++) {
+            Assert.assertArrayEquals(expectedDocument.getPage(i).getContentBytes(), pdfDocument.getPage(i).getContentBytes());
+            byte[] data = pdfDocument.getPage(i).getPdfObject().getAsStream(PdfName.Data).getBytes();
+            Assert.assertEquals(DATA_STREAM_LENGTH + 3, data.length);
+            Assert.assertEquals(3, data[data.length - 1]);
+        }
+        pdfDocument.close();
+        expectedDocument.close();
+    }
+
+    private static byte[] createDocument(WriterProperties properties) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, properties));
+        for (int i = 0; i < PAGES_COUNT; i++) {
+            PdfPage page = pdfDocument.addNewPage();
+            PdfCanvas canvas = new PdfCanvas(page);
+            for (int j = 0; j < 5000; j++) {
+                canvas.moveTo(j, i).lineTo(j + 1, j * 2).stroke();
+            }
+            PdfStream data = new PdfStream(new byte[DATA_STREAM_LENGTH]);
+            data.makeIndirect(pdfDocument);
+            data.setData(new byte[] {1, 2, 3}, true);
+            page.getPdfObject().put(PdfName.Data, data);
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+}
@@ -45,6 +45,7 @@ package com.itextpdf.kernel.pdf;
 import com.itextpdf.io.source.ByteUtils;
 import com.itextpdf.io.util.DateTimeUtil;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
@@ -53,6 +54,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -626,4 +628,135 @@ public class PdfWriterTest extends ExtendedITextTest {
         Assert.assertArrayEquals("Stream by InputStream", streamContent.getBytes(), pdfStream.getBytes());
         document.close();
     }
+
+    @Test
+    public void parallelCompressionProducesIdenticalOutput() throws IOException {
+        Assert.assertArrayEquals(createDocumentWithManyStreams(new WriterProperties()),
+                createDocumentWithManyStreams(new WriterProperties().useParallelCompression(4)));
+    }
+
+    @Test
+    public void parallelCompressionWithFullCompressionProducesIdenticalOutput() throws IOException {
+        Assert.assertArrayEquals(createDocumentWithManyStreams(new WriterProperties().setFullCompressionMode(true)),
+                createDocumentWithManyStreams(new WriterProperties().setFullCompressionMode(true).useParallelCompression(4)));
+    }
+
+    private static byte[] createDocumentWithManyStreams(WriterProperties properties) throws IOException {
+        properties.setInitialDocumentId(new PdfString("initial id")).setModifiedDocumentId(new PdfString("modified id"));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, properties));
+        pdfDoc.getDocumentInfo().getPdfObject().put(PdfName.CreationDate, new PdfString("D:20190101000000+00'00'"));
+        pdfDoc.getDocumentInfo().getPdfObject().put(PdfName.ModDate, new PdfString("D:20190101000000+00'00'"));
+        for (int i = 0; i < 300; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            PdfCanvas canvas = new PdfCanvas(page);
+            for (int j = 0; j < 200; j++) {
+                canvas.moveTo(i + j, j).lineTo(j * 1.5, i + j / 3.0).stroke();
+            }
+            PdfDictionary annotLike = new PdfDictionary();
+            annotLike.put(PdfName.Contents, new PdfString("page " + i));
+            page.getPdfObject().put(new PdfName("Extra"), annotLike.makeIndirect(pdfDoc));
+            if (i % 3 == 0) {
+                page.flush();
+            }
+        }
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void digestSmartModeReusesSameObjectsAsSmartModeTest() throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream smart = new ByteArrayOutputStream();
+        ByteArrayOutputStream digest = new ByteArrayOutputStream();
+        PdfWriter plainWriter = copyPagesOfSimilarDocuments(plain, new WriterProperties());
+        PdfWriter smartWriter = copyPagesOfSimilarDocuments(smart, new WriterProperties().useSmartMode());
+        PdfWriter digestWriter = copyPagesOfSimilarDocuments(digest, new WriterProperties().useDigestSmartMode(0));
+
+        Assert.assertTrue(smart.size() < plain.size());
+        Assert.assertArrayEquals(smart.toByteArray(), digest.toByteArray());
+        Assert.assertEquals(0, plainWriter.getSmartModeStatistics().getLookups());
+
+        SmartModeStatistics smartStatistics = smartWriter.getSmartModeStatistics();
+        SmartModeStatistics digestStatistics = digestWriter.getSmartModeStatistics();
+        Assert.assertTrue(digestStatistics.getHits() > 0);
+        Assert.assertEquals(smartStatistics.getLookups(), digestStatistics.getLookups());
+        Assert.assertEquals(smartStatistics.getHits(), digestStatistics.getHits());
+        Assert.assertEquals(smartStatistics.getCachedObjects(), digestStatistics.getCachedObjects());
+        Assert.assertTrue(digestStatistics.getHitRate() > 0 && digestStatistics.getHitRate() < 1);
+        // two of the three documents reuse image and font streams of the first one
+        Assert.assertTrue(digestStatistics.getBytesSaved() > 2 * 30000);
+        Assert.assertTrue(digestStatistics.getBytesSaved() < plain.size() - digest.size() + 2 * 30000);
+        Assert.assertEquals(0, digestStatistics.getEvictedObjects());
+    }
+
+    @Test
+    public void digestSmartModeCacheSizeTest() throws IOException {
+        PdfWriter writer = copyPagesOfSimilarDocuments(new ByteArrayOutputStream(),
+                new WriterProperties().useDigestSmartMode(1));
+
+        SmartModeStatistics statistics = writer.getSmartModeStatistics();
+        Assert.assertEquals(1, statistics.getCachedObjects());
+        Assert.assertTrue(statistics.getEvictedObjects() > 0);
+        Assert.assertEquals(statistics.getLookups() - statistics.getHits() - 1, statistics.getEvictedObjects());
+    }
+
+    @Test
+    public void digestSmartModeCachesAreClearedOnFlushTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(),
+                new WriterProperties().useDigestSmartMode(0)));
+        PdfDocument srcDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createDocumentWithSharedResources(0))));
+        srcDoc.copyPagesTo(1, srcDoc.getNumberOfPages(), pdfDoc);
+        Assert.assertFalse(srcDoc.serializedObjectsDigestsCache.isEmpty());
+
+        pdfDoc.flushCopiedObjects(srcDoc);
+        Assert.assertTrue(srcDoc.serializedObjectsDigestsCache.isEmpty());
+        srcDoc.close();
+        pdfDoc.close();
+    }
+
+    private static PdfWriter copyPagesOfSimilarDocuments(ByteArrayOutputStream baos, WriterProperties properties)
+            throws IOException {
+        properties.setInitialDocumentId(new PdfString("initial id")).setModifiedDocumentId(new PdfString("modified id"));
+        PdfWriter writer = new PdfWriter(baos, properties);
+        PdfDocument pdfDoc = new PdfDocument(writer);
+        pdfDoc.getDocumentInfo().getPdfObject().put(PdfName.CreationDate, new PdfString("D:20190101000000+00'00'"));
+        pdfDoc.getDocumentInfo().getPdfObject().put(PdfName.ModDate, new PdfString("D:20190101000000+00'00'"));
+        for (int i = 0; i < 3; i++) {
+            PdfDocument srcDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createDocumentWithSharedResources(i))));
+            srcDoc.copyPagesTo(1, srcDoc.getNumberOfPages(), pdfDoc);
+            srcDoc.close();
+        }
+        pdfDoc.close();
+        return writer;
+    }
+
+    private static byte[] createDocumentWithSharedResources(int documentNumber) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        byte[] imageData = new byte[30000];
+        for (int i = 0; i < imageData.length; i++) {
+            imageData[i] = (byte) (i % 251);
+        }
+        PdfStream image = (PdfStream) new PdfStream(imageData).makeIndirect(pdfDoc);
+        image.put(PdfName.Subtype, PdfName.Image);
+        PdfStream fontFile = (PdfStream) new PdfStream(imageData, CompressionConstants.NO_COMPRESSION).makeIndirect(pdfDoc);
+        PdfDictionary fontDescriptor = (PdfDictionary) new PdfDictionary().makeIndirect(pdfDoc);
+        fontDescriptor.put(PdfName.FontFile2, fontFile);
+        PdfDictionary font = (PdfDictionary) new PdfDictionary().makeIndirect(pdfDoc);
+        font.put(PdfName.Type, PdfName.Font);
+        font.put(PdfName.FontDescriptor, fontDescriptor);
+        for (int i = 0; i < 4; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            PdfResources resources = page.getResources();
+            resources.getPdfObject().put(PdfName.XObject, new PdfDictionary());
+            resources.getPdfObject().getAsDictionary(PdfName.XObject).put(new PdfName("Im1"), image);
+            resources.getPdfObject().put(PdfName.Font, new PdfDictionary());
+            resources.getPdfObject().getAsDictionary(PdfName.Font).put(new PdfName("F1"), font);
+            page.getFirstContentStream().setData(ByteUtils.getIsoBytes("q /Im1 Do Q BT /F1 12 Tf (document "
+                    + documentNumber + " page " + i + ") Tj ET"));
+        }
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
 }
@@ -0,0 +1,92 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.util.IdelOutputStream;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+
+/**
+ * Compares the footprint of the cross-reference table with and without {@link WriterProperties#useCompactXrefTable()}
+ * on the same generated document with a lot of flushed objects. The footprint is measured as the heap retained
+ * by the open document once all the objects are flushed: by default the table keeps an indirect reference instance
+ * per flushed object, the compact table keeps only the offsets and generations of the flushed objects.
+ */
+@Category(PerformanceTest.class)
+public class PdfXrefTableFootprintTest extends ExtendedITextTest {
+
+    private static final int OBJECTS_COUNT = 1000000;
+
+    @Test
+    public void compactXrefTableFootprintTest() throws IOException {
+        long defaultRetained = measureRetainedMemory(new WriterProperties());
+        long compactRetained = measureRetainedMemory(new WriterProperties().useCompactXrefTable());
+        Assert.assertTrue("Retained by default table: " + defaultRetained + " bytes, by compact one: " + compactRetained,
+                compactRetained < defaultRetained / 2);
+    }
+
+    private static long measureRetainedMemory(WriterProperties properties) throws IOException {
+        long before = usedMemory();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new IdelOutputStream(), properties));
+        pdfDocument.addNewPage();
+        for (int i = 0; i < OBJECTS_COUNT; i++) {
+            new PdfDictionary().makeIndirect(pdfDocument).flush();
+        }
+        long retained = usedMemory() - before;
+        pdfDocument.close();
+        return retained;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
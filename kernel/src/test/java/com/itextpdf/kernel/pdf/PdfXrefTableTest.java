@@ -47,9 +47,11 @@
  */
 package com.itextpdf.kernel.pdf;
 
+import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 import org.junit.Assert;
@@ -167,4 +169,105 @@ public class PdfXrefTableTest extends ExtendedITextTest {
         Assert.assertEquals(1, freeRef2.genNr);
         pdfDocument.close();
     }
+
+    @Test
+    public void compactXrefTableProducesIdenticalOutputTest() throws IOException {
+        Assert.assertArrayEquals(createDocumentWithManyObjects(new WriterProperties()),
+                createDocumentWithManyObjects(new WriterProperties().useCompactXrefTable()));
+    }
+
+    @Test
+    public void compactXrefTableWithFullCompressionProducesIdenticalOutputTest() throws IOException {
+        Assert.assertArrayEquals(createDocumentWithManyObjects(new WriterProperties().setFullCompressionMode(true)),
+                createDocumentWithManyObjects(new WriterProperties().setFullCompressionMode(true).useCompactXrefTable()));
+    }
+
+    @Test
+    public void compactXrefTableWithParallelCompressionProducesIdenticalOutputTest() throws IOException {
+        Assert.assertArrayEquals(createDocumentWithManyObjects(new WriterProperties()),
+                createDocumentWithManyObjects(new WriterProperties().useParallelCompression(2).useCompactXrefTable()));
+    }
+
+    @Test
+    public void compactXrefTableInAppendModeProducesIdenticalOutputTest() throws IOException {
+        byte[] source = createDocumentWithManyObjects(new WriterProperties());
+        Assert.assertArrayEquals(appendToDocument(source, new WriterProperties()),
+                appendToDocument(source, new WriterProperties().useCompactXrefTable()));
+    }
+
+    @Test
+    public void compactXrefTableDoesNotKeepFlushedReferencesTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(),
+                new WriterProperties().useCompactXrefTable()));
+        PdfDictionary dictionary = new PdfDictionary();
+        dictionary.makeIndirect(pdfDocument);
+        PdfIndirectReference reference = dictionary.getIndirectReference();
+        PdfXrefTable xref = pdfDocument.getXref();
+        Assert.assertSame(reference, xref.get(reference.getObjNumber()));
+
+        dictionary.flush();
+        Assert.assertFalse(xref.isLoaded(reference.getObjNumber()));
+        PdfIndirectReference flushedReference = xref.get(reference.getObjNumber());
+        Assert.assertNotSame(reference, flushedReference);
+        Assert.assertEquals(reference, flushedReference);
+        Assert.assertTrue(flushedReference.checkState(PdfObject.FLUSHED));
+        Assert.assertEquals(reference.getOffset(), flushedReference.getOffset());
+        Assert.assertNull(pdfDocument.getPdfObject(reference.getObjNumber()));
+
+        pdfDocument.addNewPage();
+        pdfDocument.close();
+    }
+
+    private static byte[] createDocumentWithManyObjects(WriterProperties properties) throws IOException {
+        properties.setInitialDocumentId(new PdfString("initial id")).setModifiedDocumentId(new PdfString("modified id"));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, properties));
+        setFixedDates(pdfDocument);
+        for (int i = 0; i < 200; i++) {
+            PdfPage page = pdfDocument.addNewPage();
+            PdfArray objects = new PdfArray();
+            for (int j = 0; j < 10; j++) {
+                PdfDictionary dictionary = new PdfDictionary();
+                dictionary.put(PdfName.Name, new PdfString("object " + i + " " + j));
+                dictionary.makeIndirect(pdfDocument);
+                objects.add(dictionary);
+                if (j % 3 == 0) {
+                    dictionary.flush();
+                } else if (j % 5 == 0) {
+                    objects.remove(objects.size() - 1);
+                    dictionary.getIndirectReference().setFree();
+                }
+            }
+            page.getPdfObject().put(new PdfName("Objects"), objects);
+            if (i % 2 == 0) {
+                page.flush();
+            }
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] appendToDocument(byte[] source, WriterProperties properties) throws IOException {
+        properties.setModifiedDocumentId(new PdfString("modified id"));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(source)),
+                new PdfWriter(baos, properties), new StampingProperties().useAppendMode());
+        setFixedDates(pdfDocument);
+        for (int i = 1; i <= 20; i++) {
+            PdfPage page = pdfDocument.getPage(i);
+            PdfDictionary dictionary = new PdfDictionary();
+            dictionary.put(PdfName.Name, new PdfString("appended " + i));
+            page.getPdfObject().put(new PdfName("Appended"), dictionary.makeIndirect(pdfDocument));
+            page.setModified();
+            dictionary.flush();
+            page.flush();
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static void setFixedDates(PdfDocument pdfDocument) {
+        pdfDocument.getDocumentInfo().getPdfObject().put(PdfName.CreationDate, new PdfString("D:20190101000000+00'00'"));
+        pdfDocument.getDocumentInfo().getPdfObject().put(PdfName.ModDate, new PdfString("D:20190101000000+00'00'"));
+    }
 }
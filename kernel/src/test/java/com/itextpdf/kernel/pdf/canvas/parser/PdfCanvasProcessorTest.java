@@ -43,11 +43,22 @@
 package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.colors.DeviceCmyk;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.IShape;
+import com.itextpdf.kernel.geom.Subpath;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfLiteral;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfResources;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.pdf.canvas.parser.data.ClippingPathInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
 import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
@@ -63,7 +74,11 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 @Category(IntegrationTest.class)
@@ -167,6 +182,121 @@ public class PdfCanvasProcessorTest extends ExtendedITextTest {
         Assert.assertEquals("Hello World!\nHello World!\nHello World!\nHello World! Hello World! Hello World!", resultantText);
     }
 
+    @Test
+    public void numericOperandsFastPathTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(createDocumentWithPathsAndText())));
+        PdfPage page = pdfDocument.getFirstPage();
+
+        RecordingEventListener listener = new RecordingEventListener();
+        new PdfCanvasProcessor(listener).processPageContent(page);
+
+        // overriding invokeOperator switches the processor to the operators invocation with PdfObject operands
+        RecordingEventListener legacyListener = new RecordingEventListener();
+        new PdfCanvasProcessor(legacyListener) {
+            @Override
+            protected void invokeOperator(PdfLiteral operator, List<PdfObject> operands) {
+                super.invokeOperator(operator, operands);
+            }
+        }.processPageContent(page);
+
+        Assert.assertFalse(listener.events.isEmpty());
+        Assert.assertEquals(legacyListener.events, listener.events);
+        pdfDocument.close();
+    }
+
+    @Test
+    public void customOperatorWithNumericOperandsTest() {
+        final List<String> invocations = new ArrayList<>();
+        PdfCanvasProcessor processor = new PdfCanvasProcessor(new NoOpEventListener());
+        final IContentOperator lineToOperator = processor.registerContentOperator("l", new IContentOperator() {
+            @Override
+            public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+                invocations.add(operands.toString());
+                Assert.assertTrue(operands.get(0) instanceof PdfNumber);
+            }
+        });
+        Assert.assertNotNull(lineToOperator);
+        processor.registerContentOperator("m", new IContentOperator() {
+            @Override
+            public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+                invocations.add(operands.toString());
+            }
+        });
+        processor.registerContentOperator("xx", new IContentOperator() {
+            @Override
+            public void invoke(PdfCanvasProcessor processor, PdfLiteral operator, List<PdfObject> operands) {
+                invocations.add(operands.toString());
+            }
+        });
+        processor.processContent("10 20.50 m -.5 +3 l 1 xx\n1 2 3 4 re".getBytes(), new PdfResources());
+
+        Assert.assertEquals(Arrays.asList("[10, 20.50, m]", "[-.5, +3, l]", "[1, xx]"), invocations);
+    }
+
+    private static byte[] createDocumentWithPathsAndText() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+        canvas.saveState()
+                .concatMatrix(1, 0, 0, 1, 12.5, -3.25)
+                .setLineWidth(2.5f).setLineCapStyle(1).setLineJoinStyle(2).setMiterLimit(4)
+                .setStrokeColor(ColorConstants.RED).setFillColor(new DeviceCmyk(0.1f, 0.2f, 0.3f, 0.4f))
+                .moveTo(10, 15).lineTo(100.125, 20).curveTo(120, 30, 140, 50, 160, 80)
+                .curveTo(170, 90, 180, 100).curveFromTo(190, 110, 200, 120).closePath()
+                .rectangle(50, 50, 30.75, 40).fillStroke()
+                .rectangle(0, 0, 300, 300).clip().newPath()
+                .setStrokeColorGray(0.5f).setFillColorGray(0.25f).setLineDash(3, 1)
+                .moveTo(-5, -7).lineTo(5, 5).stroke()
+                .restoreState();
+        canvas.beginText().setFontAndSize(PdfFontFactory.createFont(StandardFonts.HELVETICA), 12)
+                .setCharacterSpacing(0.5f).setWordSpacing(1.5f).setHorizontalScaling(90).setLeading(14)
+                .setTextRise(1).setTextRenderingMode(2)
+                .moveText(36, 700).showText("First line")
+                .newlineShowText("Second line")
+                .moveTextWithLeading(10, -20).showText("Third line")
+                .setTextMatrix(1, 0, 0.2f, 1, 36, 600).showText("Skewed")
+                .newlineText().showText("Last line")
+                .endText();
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static class RecordingEventListener implements IEventListener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void eventOccurred(IEventData data, EventType type) {
+            StringBuilder sb = new StringBuilder(type.toString());
+            if (data instanceof PathRenderInfo) {
+                PathRenderInfo renderInfo = (PathRenderInfo) data;
+                sb.append(' ').append(renderInfo.getOperation()).append(' ').append(renderInfo.getCtm())
+                        .append(' ').append(renderInfo.getLineWidth()).append(' ').append(renderInfo.getLineCapStyle())
+                        .append(' ').append(renderInfo.getLineJoinStyle()).append(' ').append(renderInfo.getMiterLimit())
+                        .append(' ').append(Arrays.toString(renderInfo.getStrokeColor().getColorValue()))
+                        .append(' ').append(Arrays.toString(renderInfo.getFillColor().getColorValue()));
+                for (Subpath subpath : renderInfo.getPath().getSubpaths()) {
+                    sb.append(" | ").append(subpath.getStartPoint()).append(subpath.isClosed());
+                    for (IShape segment : subpath.getSegments()) {
+                        sb.append(' ').append(segment.getBasePoints());
+                    }
+                }
+            } else if (data instanceof TextRenderInfo) {
+                TextRenderInfo renderInfo = (TextRenderInfo) data;
+                sb.append(' ').append(renderInfo.getText()).append(' ').append(renderInfo.getBaseline().getStartPoint())
+                        .append(' ').append(renderInfo.getAscentLine().getEndPoint()).append(' ').append(renderInfo.getRise())
+                        .append(' ').append(renderInfo.getTextRenderMode());
+            } else if (data instanceof ClippingPathInfo) {
+                sb.append(' ').append(((ClippingPathInfo) data).getClippingPath().getSubpaths().size());
+            }
+            events.add(sb.toString());
+        }
+
+        @Override
+        public Set<EventType> getSupportedEvents() {
+            return null;
+        }
+    }
+
     private static class NoOpEventListener implements IEventListener {
         @Override
         public void eventOccurred(IEventData data, EventType type) {
@@ -0,0 +1,226 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.ITextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.LocationTextExtractionStrategy;
+import com.itextpdf.kernel.pdf.canvas.parser.listener.SimpleTextExtractionStrategy;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Category(IntegrationTest.class)
+public class PdfDocumentTextExtractorTest extends ExtendedITextTest {
+
+    private static final String sourceFolder = "./src/test/resources/com/itextpdf/kernel/parser/";
+
+    private static final PdfDocumentTextExtractor.ITextExtractionStrategyFactory LOCATION_STRATEGY_FACTORY =
+            new PdfDocumentTextExtractor.ITextExtractionStrategyFactory() {
+                @Override
+                public ITextExtractionStrategy createStrategy(int pageNumber) {
+                    return new LocationTextExtractionStrategy();
+                }
+            };
+
+    @Test
+    public void parallelExtractionTest() throws IOException {
+        byte[] document = createDocument(150);
+        List<String> expected = extractSequentially(new PdfDocument(new PdfReader(new ByteArrayInputStream(document))));
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setConcurrentReading(true)));
+        PdfDocumentTextExtractor extractor = new PdfDocumentTextExtractor(pdfDoc, 4);
+        Assert.assertEquals(expected, toList(extractor.getTextFromPages(LOCATION_STRATEGY_FACTORY)));
+        // the same extractor may be used several times
+        Assert.assertEquals(expected.subList(9, 20), toList(extractor.getTextFromPages(10, 20, LOCATION_STRATEGY_FACTORY)));
+        extractor.close();
+        pdfDoc.close();
+    }
+
+    @Test
+    public void parallelExtractionOfExistingDocumentsTest() throws IOException {
+        String[] files = new String[] {"HighlightItemsTest/ISO-TC171-SC2_N0896_SC2WG5_Edinburgh_Agenda.pdf",
+                "HighlightItemsTest/HeaderFooter.pdf", "BidiTextExtractionTest/in01.pdf",
+                "GlyphTextEventListenerTest/Sample.pdf"};
+        for (String file : files) {
+            List<String> expected = extractSequentially(new PdfDocument(new PdfReader(sourceFolder + file)));
+            PdfDocument pdfDoc = new PdfDocument(new PdfReader(sourceFolder + file,
+                    new ReaderProperties().setConcurrentReading(true)));
+            PdfDocumentTextExtractor extractor = new PdfDocumentTextExtractor(pdfDoc, 4);
+            Assert.assertEquals(file, expected, toList(extractor.getTextFromPages(LOCATION_STRATEGY_FACTORY)));
+            extractor.close();
+            pdfDoc.close();
+        }
+    }
+
+    @Test
+    public void extractionWithExternalExecutorTest() throws IOException {
+        byte[] document = createDocument(30);
+        List<String> expected = extractSequentially(new PdfDocument(new PdfReader(new ByteArrayInputStream(document))));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setConcurrentReading(true)));
+        PdfDocumentTextExtractor extractor = new PdfDocumentTextExtractor(pdfDoc, executor, 3);
+        Assert.assertEquals(expected, toList(extractor.getTextFromPages(LOCATION_STRATEGY_FACTORY)));
+        extractor.close();
+        Assert.assertFalse(executor.isShutdown());
+        executor.shutdown();
+        pdfDoc.close();
+    }
+
+    @Test
+    public void sequentialExtractionWithoutConcurrentReadingTest() throws IOException {
+        byte[] document = createDocument(10);
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document)));
+        List<String> expected = extractSequentially(pdfDoc);
+
+        PdfDocumentTextExtractor extractor = new PdfDocumentTextExtractor(pdfDoc, 4);
+        final List<Integer> requestedPages = new ArrayList<>();
+        Iterator<String> iterator = extractor.getTextFromPages(new PdfDocumentTextExtractor.ITextExtractionStrategyFactory() {
+            @Override
+            public ITextExtractionStrategy createStrategy(int pageNumber) {
+                requestedPages.add(pageNumber);
+                return new LocationTextExtractionStrategy();
+            }
+        });
+        // the pages are processed lazily in the calling thread
+        Assert.assertTrue(requestedPages.isEmpty());
+        Assert.assertEquals(expected.get(0), iterator.next());
+        Assert.assertEquals(1, requestedPages.size());
+        Assert.assertEquals(expected.subList(1, 10), toList(iterator));
+        extractor.close();
+        pdfDoc.close();
+    }
+
+    @Test
+    public void extractionWithSimpleStrategyTest() throws IOException {
+        byte[] document = createDocument(20);
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(document),
+                new ReaderProperties().setConcurrentReading(true)));
+        PdfDocumentTextExtractor extractor = new PdfDocumentTextExtractor(pdfDoc, 4);
+        Iterator<String> iterator = extractor.getTextFromPages(new PdfDocumentTextExtractor.ITextExtractionStrategyFactory() {
+            @Override
+            public ITextExtractionStrategy createStrategy(int pageNumber) {
+                return new SimpleTextExtractionStrategy();
+            }
+        });
+        for (int i = 1; i <= 20; i++) {
+            Assert.assertTrue(iterator.next().contains("Page " + i + " line 0"));
+        }
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail("NoSuchElementException expected");
+        } catch (NoSuchElementException expected) {
+        }
+        extractor.close();
+        pdfDoc.close();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void pageOutOfBoundsTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(createDocument(2))));
+        new PdfDocumentTextExtractor(pdfDoc).getTextFromPages(1, 3, LOCATION_STRATEGY_FACTORY);
+    }
+
+    private static List<String> extractSequentially(PdfDocument pdfDoc) {
+        List<String> result = new ArrayList<>();
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            result.add(PdfTextExtractor.getTextFromPage(pdfDoc.getPage(i), new LocationTextExtractionStrategy()));
+        }
+        return result;
+    }
+
+    private static List<String> toList(Iterator<String> iterator) {
+        List<String> result = new ArrayList<>();
+        while (iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    private static byte[] createDocument(int pagesCount) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos, new WriterProperties().setFullCompressionMode(true)));
+        PdfFormXObject header = new PdfFormXObject(new Rectangle(500, 50));
+        new PdfCanvas(header, pdfDoc).beginText().setFontAndSize(PdfFontFactory.createFont(StandardFonts.TIMES_BOLD), 14)
+                .moveText(10, 10).showText("Shared header").endText().release();
+        for (int i = 1; i <= pagesCount; i++) {
+            PdfPage page = pdfDoc.addNewPage();
+            PdfCanvas canvas = new PdfCanvas(page);
+            canvas.addXObject(header, 36, 780);
+            for (int j = 0; j < 30; j++) {
+                canvas.beginText()
+                        .setFontAndSize(PdfFontFactory.createFont(j % 2 == 0 ? StandardFonts.HELVETICA : StandardFonts.COURIER), 10)
+                        .moveText(36, 750 - 20 * j).showText("Page " + i + " line " + j).endText();
+            }
+            canvas.release();
+        }
+        pdfDoc.close();
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.canvas.parser.util;
+
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Category(UnitTest.class)
+public class ContentOperationTest extends ExtendedITextTest {
+
+    @Test
+    public void operatorCodesTest() {
+        Assert.assertEquals(ContentOperation.UNKNOWN_OPERATOR, ContentOperation.getOperatorCode("xyz"));
+        Assert.assertEquals(ContentOperation.UNKNOWN_OPERATOR, ContentOperation.getOperatorCode("BDCX"));
+        Assert.assertNotEquals(ContentOperation.getOperatorCode("SCN"), ContentOperation.getOperatorCode("scn"));
+        Assert.assertNotEquals(ContentOperation.getOperatorCode("b"), ContentOperation.getOperatorCode("b*"));
+        for (String operator : new String[] {"b", "B*", "BDC", "cm", "Tj", "TJ", "T*", "'", "\"", "W*", "EI"}) {
+            int code = ContentOperation.getOperatorCode(operator);
+            Assert.assertTrue(operator, code >= 0 && code < ContentOperation.KNOWN_OPERATORS_COUNT);
+        }
+    }
+
+    @Test
+    public void parseNumberTest() {
+        String[] numbers = {"0", "-0", "1", "+1", "-1", "12.", ".5", "-.5", "+.5", "0.000001", "-123.456",
+                "3.14159265358979", "123456789012345", "1234567890123456789", "0.1234567890123456789",
+                "1.0000000000000000000000001", "0000000000000000000000123.25", "999999999999999.9", "-", ".", "+"};
+        for (String number : numbers) {
+            byte[] content = number.getBytes();
+            double expected;
+            try {
+                expected = Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                expected = Double.NaN;
+            }
+            Assert.assertEquals(number, Double.doubleToLongBits(expected),
+                    Double.doubleToLongBits(ContentOperation.parseNumber(content, 0, content.length)));
+        }
+    }
+
+    @Test
+    public void parseOperationsTest() throws IOException {
+        String content = "q 1 0 0 1 10.5 -3 cm /F1 12 Tf [(a) -250 (b)] TJ 2 J % comment\n"
+                + "/Span <</MCID 0>> BDC 0.5 0.25 0 rg 1 2 3 4 5 6 7 8 9 10 11 12 foo EMC Q";
+        List<List<String>> expected = new ArrayList<>();
+        PdfCanvasParser parser = createParser(content);
+        List<PdfObject> operands = new ArrayList<>();
+        while (parser.parse(operands).size() > 0) {
+            expected.add(toStrings(operands));
+        }
+
+        List<List<String>> actual = new ArrayList<>();
+        parser = createParser(content);
+        ContentOperation operation = new ContentOperation();
+        while (parser.parse(operation)) {
+            actual.add(toStrings(operation.getOperands(operands)));
+        }
+        Assert.assertEquals(expected, actual);
+
+        parser = createParser(content);
+        Assert.assertTrue(parser.parse(operation));
+        Assert.assertEquals("q", operation.getOperator());
+        Assert.assertEquals(0, operation.getOperandsCount());
+        Assert.assertTrue(parser.parse(operation));
+        Assert.assertEquals(ContentOperation.getOperatorCode("cm"), operation.getOperatorCode());
+        Assert.assertTrue(operation.hasNumericOperandsOnly());
+        Assert.assertEquals(10.5, operation.getNumber(4), 0);
+        Assert.assertEquals(-3, operation.getNumber(5), 0);
+        Assert.assertTrue(parser.parse(operation));
+        Assert.assertFalse(operation.hasNumericOperandsOnly());
+        Assert.assertFalse(operation.isNumber(0));
+        Assert.assertTrue(operation.isNumber(1));
+        Assert.assertTrue(Double.isNaN(operation.getNumber(0)));
+        Assert.assertEquals(12, operation.getNumber(1), 0);
+    }
+
+    @Test
+    public void danglingOperandsAreIgnoredTest() throws IOException {
+        PdfCanvasParser parser = createParser("1 2 m 3 4");
+        ContentOperation operation = new ContentOperation();
+        Assert.assertTrue(parser.parse(operation));
+        Assert.assertEquals("m", operation.getOperator());
+        Assert.assertFalse(parser.parse(operation));
+        Assert.assertEquals(0, operation.getOperandsCount());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void operandIndexOutOfBoundsTest() throws IOException {
+        PdfCanvasParser parser = createParser("1 2 m");
+        ContentOperation operation = new ContentOperation();
+        parser.parse(operation);
+        operation.getNumber(2);
+    }
+
+    private static PdfCanvasParser createParser(String content) {
+        PdfTokenizer tokeniser = new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(content.getBytes())));
+        return new PdfCanvasParser(tokeniser, new PdfResources());
+    }
+
+    private static List<String> toStrings(List<PdfObject> objects) {
+        List<String> result = new ArrayList<>();
+        for (PdfObject object : objects) {
+            result.add(object.getClass().getSimpleName() + ":" + object);
+        }
+        return result;
+    }
+}
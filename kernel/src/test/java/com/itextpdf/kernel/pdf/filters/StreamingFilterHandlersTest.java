@@ -0,0 +1,304 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.filters;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.ByteUtils;
+import com.itextpdf.io.source.RASInputStream;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+@Category(UnitTest.class)
+public class StreamingFilterHandlersTest extends ExtendedITextTest {
+
+    @Test
+    public void flateDecodeTest() throws IOException {
+        byte[] data = createData(100000);
+        PdfDictionary dictionary = createDictionary(PdfName.FlateDecode);
+        compareDecoding(deflate(data), dictionary, data);
+    }
+
+    @Test
+    public void flateDecodeWithPngPredictorTest() throws IOException {
+        int columns = 10;
+        int rows = 50;
+        Random random = new Random(7);
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        for (int i = 0; i < rows; i++) {
+            // cycle through None, Sub, Up, Average and Paeth filter types
+            encoded.write(i % 5);
+            byte[] row = new byte[columns * 3];
+            random.nextBytes(row);
+            encoded.write(row);
+        }
+        PdfDictionary dictionary = createDictionary(PdfName.FlateDecode);
+        PdfDictionary decodeParams = new PdfDictionary();
+        decodeParams.put(PdfName.Predictor, new PdfNumber(15));
+        decodeParams.put(PdfName.Columns, new PdfNumber(columns));
+        decodeParams.put(PdfName.Colors, new PdfNumber(3));
+        dictionary.put(PdfName.DecodeParms, decodeParams);
+
+        byte[] expected = FlateDecodeFilter.decodePredictor(encoded.toByteArray(), decodeParams);
+        compareDecoding(deflate(encoded.toByteArray()), dictionary, expected);
+    }
+
+    @Test
+    public void flateDecodeWithTiffPredictorTest() throws IOException {
+        byte[] data = createData(1200);
+        PdfDictionary dictionary = createDictionary(PdfName.FlateDecode);
+        PdfDictionary decodeParams = new PdfDictionary();
+        decodeParams.put(PdfName.Predictor, new PdfNumber(2));
+        decodeParams.put(PdfName.Columns, new PdfNumber(100));
+        decodeParams.put(PdfName.Colors, new PdfNumber(3));
+        dictionary.put(PdfName.DecodeParms, decodeParams);
+
+        // TIFF predictor is applied in place, so the data is copied
+        byte[] expected = FlateDecodeFilter.decodePredictor(data.clone(), decodeParams);
+        compareDecoding(deflate(data), dictionary, expected);
+    }
+
+    @Test
+    public void flateDecodeCorruptedDataTest() throws IOException {
+        byte[] data = createData(50000);
+        byte[] encoded = deflate(data);
+        byte[] corrupted = new byte[encoded.length / 2];
+        System.arraycopy(encoded, 0, corrupted, 0, corrupted.length);
+        byte[] decoded = readAll(PdfReader.decodeStream(new ByteArrayInputStream(corrupted),
+                createDictionary(PdfName.FlateDecode), FilterHandlers.getDefaultFilterHandlers()));
+        Assert.assertTrue(decoded.length > 0);
+        for (int i = 0; i < decoded.length; i++) {
+            Assert.assertEquals(data[i], decoded[i]);
+        }
+    }
+
+    @Test
+    public void flateDecodeCorruptedNotReplayableDataTest() throws IOException {
+        byte[] encoded = deflate(createData(50000));
+        byte[] corrupted = encoded.clone();
+        Arrays.fill(corrupted, corrupted.length / 2, corrupted.length / 2 + 16, (byte) 0xff);
+        byte[] expected = FlateDecodeFilter.flateDecode(corrupted, false);
+        // the stream can't be read again, so only the bytes inflated before the failed call are returned
+        byte[] decoded = readAll(PdfReader.decodeStream(new FilterInputStream(new ByteArrayInputStream(corrupted)) {},
+                createDictionary(PdfName.FlateDecode), FilterHandlers.getDefaultFilterHandlers()));
+        Assert.assertTrue(decoded.length > 0);
+        Assert.assertTrue(decoded.length <= expected.length);
+        Assert.assertArrayEquals(Arrays.copyOf(expected, decoded.length), decoded);
+    }
+
+    @Test
+    public void flateDecodeTruncatedDataMatchesByteArrayDecodingTest() throws IOException {
+        byte[] encoded = deflate(createData(50000));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+        compareCorruptedFlateDecoding(truncated);
+    }
+
+    @Test
+    public void flateDecodeCorruptedDataMatchesByteArrayDecodingTest() throws IOException {
+        byte[] encoded = deflate(createData(50000));
+        byte[] corrupted = encoded.clone();
+        // invalid codes in the middle of the compressed data
+        Arrays.fill(corrupted, corrupted.length / 2, corrupted.length / 2 + 16, (byte) 0xff);
+        Assert.assertNull(FlateDecodeFilter.flateDecode(corrupted, true));
+        compareCorruptedFlateDecoding(corrupted);
+    }
+
+    @Test
+    public void asciiHexDecodeTest() throws IOException {
+        byte[] encoded = ByteUtils.getIsoBytes("48 65 6C6c\n6F2c20776F726C64>");
+        compareDecoding(encoded, createDictionary(PdfName.ASCIIHexDecode), ByteUtils.getIsoBytes("Hello, world"));
+    }
+
+    @Test
+    public void asciiHexDecodeOddLengthTest() throws IOException {
+        byte[] encoded = ByteUtils.getIsoBytes("414>");
+        compareDecoding(encoded, createDictionary(PdfName.ASCIIHexDecode), new byte[] {0x41, 0x40});
+    }
+
+    @Test
+    public void ascii85DecodeTest() throws IOException {
+        byte[] encoded = ByteUtils.getIsoBytes("87cURD]j7BEbo80z~>");
+        compareDecoding(encoded, createDictionary(PdfName.ASCII85Decode),
+                ByteUtils.getIsoBytes("Hello world!\u0000\u0000\u0000\u0000"));
+    }
+
+    @Test
+    public void runLengthDecodeTest() throws IOException {
+        byte[] encoded = new byte[] {2, 'a', 'b', 'c', (byte) 253, 'x', 0, 'z', (byte) 128};
+        compareDecoding(encoded, createDictionary(PdfName.RunLengthDecode), ByteUtils.getIsoBytes("abcxxxxz"));
+    }
+
+    @Test
+    public void lzwDecodeTest() throws IOException {
+        // The example from ISO 32000-1, 7.4.4.2
+        byte[] encoded = new byte[] {(byte) 0x80, 0x0B, 0x60, 0x50, 0x22, 0x0C, 0x0C, (byte) 0x85, 0x01};
+        compareDecoding(encoded, createDictionary(PdfName.LZWDecode), ByteUtils.getIsoBytes("-----A---B"));
+    }
+
+    @Test
+    public void filtersChainTest() throws IOException {
+        byte[] data = createData(5000);
+        byte[] deflated = deflate(data);
+        ByteArrayOutputStream hex = new ByteArrayOutputStream();
+        for (byte b : deflated) {
+            hex.write(ByteUtils.getIsoBytes(String.format("%02X", b & 0xff)));
+        }
+        hex.write('>');
+        PdfDictionary dictionary = new PdfDictionary();
+        PdfArray filters = new PdfArray();
+        filters.add(PdfName.ASCIIHexDecode);
+        filters.add(PdfName.FlateDecode);
+        dictionary.put(PdfName.Filter, filters);
+        compareDecoding(hex.toByteArray(), dictionary, data);
+    }
+
+    @Test
+    public void notStreamingFilterFallbackTest() throws IOException {
+        Map<PdfName, IFilterHandler> handlers = new HashMap<>(FilterHandlers.getDefaultFilterHandlers());
+        handlers.put(PdfName.ASCIIHexDecode, new IFilterHandler() {
+            @Override
+            public byte[] decode(byte[] b, PdfName filterName, PdfObject decodeParams, PdfDictionary streamDictionary) {
+                return ASCIIHexDecodeFilter.ASCIIHexDecode(b);
+            }
+        });
+        byte[] encoded = ByteUtils.getIsoBytes("48656C6C6F>");
+        byte[] decoded = readAll(PdfReader.decodeStream(new ByteArrayInputStream(encoded),
+                createDictionary(PdfName.ASCIIHexDecode), handlers));
+        Assert.assertArrayEquals(ByteUtils.getIsoBytes("Hello"), decoded);
+    }
+
+    private static void compareDecoding(byte[] encoded, PdfDictionary dictionary, byte[] expected) throws IOException {
+        byte[] decodedBytes = PdfReader.decodeBytes(encoded, dictionary);
+        Assert.assertArrayEquals(expected, decodedBytes);
+
+        byte[] decodedStream = readAll(PdfReader.decodeStream(new ByteArrayInputStream(encoded), dictionary,
+                FilterHandlers.getDefaultFilterHandlers()));
+        Assert.assertArrayEquals(decodedBytes, decodedStream);
+
+        // read byte by byte to check single byte reads
+        InputStream is = PdfReader.decodeStream(new ByteArrayInputStream(encoded), dictionary,
+                FilterHandlers.getDefaultFilterHandlers());
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        int b;
+        while ((b = is.read()) != -1) {
+            baos.write(b);
+        }
+        is.close();
+        Assert.assertArrayEquals(decodedBytes, baos.toByteArray());
+    }
+
+    private static void compareCorruptedFlateDecoding(byte[] corrupted) throws IOException {
+        byte[] expected = FlateDecodeFilter.flateDecode(corrupted, false);
+        Assert.assertTrue(expected.length > 0);
+        // a single big read, so that the corruption is detected in the middle of the read data
+        InputStream is = PdfReader.decodeStream(new ByteArrayInputStream(corrupted),
+                createDictionary(PdfName.FlateDecode), FilterHandlers.getDefaultFilterHandlers());
+        byte[] buffer = new byte[expected.length * 2];
+        int length = 0;
+        int n;
+        while ((n = is.read(buffer, length, buffer.length - length)) > 0) {
+            length += n;
+        }
+        is.close();
+        Assert.assertArrayEquals(expected, Arrays.copyOf(buffer, length));
+
+        Assert.assertArrayEquals(expected, readAll(PdfReader.decodeStream(new ByteArrayInputStream(corrupted),
+                createDictionary(PdfName.FlateDecode), FilterHandlers.getDefaultFilterHandlers())));
+        Assert.assertArrayEquals(expected, readAll(PdfReader.decodeStream(
+                new RASInputStream(new RandomAccessSourceFactory().createSource(corrupted), 1024),
+                createDictionary(PdfName.FlateDecode), FilterHandlers.getDefaultFilterHandlers())));
+    }
+
+    private static PdfDictionary createDictionary(PdfName filter) {
+        PdfDictionary dictionary = new PdfDictionary();
+        dictionary.put(PdfName.Filter, filter);
+        return dictionary;
+    }
+
+    private static byte[] createData(int length) {
+        byte[] data = new byte[length];
+        Random random = new Random(42);
+        for (int i = 0; i < length; i++) {
+            // not random enough to be incompressible
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(baos, new Deflater(Deflater.BEST_COMPRESSION));
+        zip.write(data);
+        zip.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        try {
+            return StreamUtil.inputStreamToArray(is);
+        } finally {
+            is.close();
+        }
+    }
+}
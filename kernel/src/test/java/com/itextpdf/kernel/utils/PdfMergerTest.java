@@ -43,18 +43,31 @@
 package com.itextpdf.kernel.utils;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.junit.Assert;
@@ -293,4 +306,219 @@ public class PdfMergerTest extends ExtendedITextTest {
             Assert.fail(errorMessage);
         }
     }
+
+    @Test
+    public void mergeDocumentsStreamingTest() throws IOException, InterruptedException {
+        String resultFile = destinationFolder + "mergeDocumentsStreamingTest.pdf";
+        List<PdfReader> sources = Arrays.asList(new PdfReader(sourceFolder + "courierTest.pdf"),
+                new PdfReader(sourceFolder + "helveticaTest.pdf"), new PdfReader(sourceFolder + "timesRomanTest.pdf"));
+
+        new PdfMerger(new PdfDocument(new PdfWriter(resultFile))).merge(sources.iterator()).close();
+
+        CompareTool compareTool = new CompareTool();
+        String errorMessage = compareTool.compareByContent(resultFile, sourceFolder + "cmp_mergedResult01.pdf", destinationFolder, "diff_");
+        if (errorMessage != null) {
+            Assert.fail(errorMessage);
+        }
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.NOT_TAGGED_PAGES_IN_TAGGED_DOCUMENT, count = 2)
+    })
+    public void mergeTaggedDocumentsStreamingTest() throws IOException, InterruptedException, ParserConfigurationException, SAXException {
+        String[] filenames = {sourceFolder + "tableWithEmptyTd.pdf", sourceFolder + "pdf_open_parameters.pdf",
+                sourceFolder + "doc1.pdf"};
+        String cmpFile = destinationFolder + "cmp_mergeTaggedDocumentsStreamingTest.pdf";
+        String resultFile = destinationFolder + "mergeTaggedDocumentsStreamingTest.pdf";
+
+        PdfDocument cmpDocument = new PdfDocument(new PdfWriter(cmpFile));
+        PdfMerger merger = new PdfMerger(cmpDocument).setCloseSourceDocuments(true);
+        for (String filename : filenames) {
+            PdfDocument sourceDoc = new PdfDocument(new PdfReader(filename));
+            int firstPage = cmpDocument.getNumberOfPages() + 1;
+            merger.merge(sourceDoc, 1, sourceDoc.getNumberOfPages());
+            // the streaming merge flushes the merged pages, which affects the numbering of the structure parents
+            for (int pageNum = firstPage; pageNum <= cmpDocument.getNumberOfPages(); pageNum++) {
+                cmpDocument.getPage(pageNum).flush();
+            }
+        }
+        merger.close();
+
+        List<PdfReader> sources = new ArrayList<>();
+        for (String filename : filenames) {
+            sources.add(new PdfReader(filename));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            new PdfMerger(new PdfDocument(new PdfWriter(resultFile))).merge(sources.iterator(), executor, 1).close();
+        } finally {
+            executor.shutdown();
+        }
+
+        CompareTool compareTool = new CompareTool();
+        String errorMessage = "";
+        String contentErrorMessage = compareTool.compareByContent(resultFile, cmpFile, destinationFolder, "diff_");
+        String tagStructErrorMessage = compareTool.compareTagStructures(resultFile, cmpFile);
+        errorMessage += tagStructErrorMessage == null ? "" : tagStructErrorMessage + "\n";
+        errorMessage += contentErrorMessage == null ? "" : contentErrorMessage;
+        if (!errorMessage.isEmpty()) {
+            Assert.fail(errorMessage);
+        }
+    }
+
+    @Test
+    public void mergeManyDocumentsStreamingTest() throws IOException {
+        final int documentsCount = 100;
+        final int prefetchedDocuments = 3;
+        final byte[][] documents = new byte[documentsCount][];
+        for (int i = 0; i < documentsCount; i++) {
+            documents[i] = createDocument("Statement " + i, i % 3 + 1);
+        }
+        final CountingReadersIterator sources = new CountingReadersIterator(documents);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            new PdfMerger(new PdfDocument(new PdfWriter(baos))).merge(sources, executor, prefetchedDocuments).close();
+        } finally {
+            executor.shutdown();
+        }
+        // the document being merged and the prepared ones
+        Assert.assertTrue(sources.maxOpenReaders <= prefetchedDocuments + 1);
+        Assert.assertEquals(0, sources.openReaders);
+
+        PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        int pageNum = 1;
+        for (int i = 0; i < documentsCount; i++) {
+            for (int j = 1; j <= i % 3 + 1; j++) {
+                Assert.assertEquals("Statement " + i + " page " + j, PdfTextExtractor.getTextFromPage(result.getPage(pageNum++)));
+            }
+        }
+        Assert.assertEquals(pageNum - 1, result.getNumberOfPages());
+        result.close();
+    }
+
+    @Test
+    public void mergeDocumentsStreamingReleasesSourcesTest() throws IOException, InterruptedException {
+        final int documentsCount = 20;
+        byte[][] documents = new byte[documentsCount][];
+        for (int i = 0; i < documentsCount; i++) {
+            documents[i] = createDocument("Statement " + i, 2);
+        }
+        CountingReadersIterator sources = new CountingReadersIterator(documents);
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new PdfMerger(pdfDocument).merge(sources, executor, 2);
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(2 * documentsCount, pdfDocument.getNumberOfPages());
+
+        // the merged document is still open, but it shall not keep the closed sources
+        for (int i = 0; i < 10 && sources.countReachableReaders() > 0; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(0, sources.countReachableReaders());
+        // only the page tree, the catalog and the info dictionary are left in memory, not the copied resources
+        int notFlushedObjects = 0;
+        for (int i = 1; i < pdfDocument.getNumberOfPdfObjects(); i++) {
+            PdfObject object = pdfDocument.getPdfObject(i);
+            if (object != null && !object.isFlushed()) {
+                notFlushedObjects++;
+            }
+        }
+        Assert.assertTrue(notFlushedObjects < documentsCount);
+        pdfDocument.close();
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR)
+    })
+    public void mergeBrokenDocumentStreamingTest() throws IOException {
+        byte[][] documents = {createDocument("First", 1), "%PDF-1.7\nnot a pdf".getBytes(), createDocument("Third", 1),
+                createDocument("Fourth", 1)};
+        CountingReadersIterator sources = new CountingReadersIterator(documents);
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new PdfMerger(pdfDocument).merge(sources, executor, 2);
+            Assert.fail("PdfException expected");
+        } catch (PdfException e) {
+            Assert.assertEquals("Cannot merge source document 2.", e.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(1, pdfDocument.getNumberOfPages());
+        Assert.assertEquals(0, sources.openReaders);
+        pdfDocument.close();
+    }
+
+    private static byte[] createDocument(String text, int pagesCount) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        for (int i = 1; i <= pagesCount; i++) {
+            new PdfCanvas(pdfDocument.addNewPage()).beginText()
+                    .setFontAndSize(PdfFontFactory.createFont(StandardFonts.HELVETICA), 12).moveText(36, 700)
+                    .showText(text + " page " + i).endText();
+        }
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    private static class CountingReadersIterator implements Iterator<PdfReader> {
+        private final byte[][] documents;
+        private int nextDocument;
+        private int openReaders;
+        private int maxOpenReaders;
+        private final List<WeakReference<PdfReader>> createdReaders = new ArrayList<>();
+
+        CountingReadersIterator(byte[][] documents) {
+            this.documents = documents;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextDocument < documents.length;
+        }
+
+        @Override
+        public PdfReader next() {
+            try {
+                PdfReader reader = new PdfReader(new ByteArrayInputStream(documents[nextDocument++])) {
+                    @Override
+                    public void close() throws IOException {
+                        synchronized (CountingReadersIterator.this) {
+                            openReaders--;
+                        }
+                        super.close();
+                    }
+                };
+                synchronized (this) {
+                    maxOpenReaders = Math.max(maxOpenReaders, ++openReaders);
+                    createdReaders.add(new WeakReference<PdfReader>(reader));
+                }
+                return reader;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        synchronized int countReachableReaders() {
+            int count = 0;
+            for (WeakReference<PdfReader> reader : createdReaders) {
+                if (reader.get() != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
 }
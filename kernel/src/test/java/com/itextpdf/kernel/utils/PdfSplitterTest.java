@@ -55,11 +55,18 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.experimental.categories.Category;
 
 @Category(IntegrationTest.class)
@@ -68,6 +75,9 @@ public class PdfSplitterTest extends ExtendedITextTest{
     public static final String sourceFolder = "./src/test/resources/com/itextpdf/kernel/utils/PdfSplitterTest/";
     public static final String destinationFolder = "./target/test/com/itextpdf/kernel/utils/PdfSplitterTest/";
 
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
     @BeforeClass
     public static void beforeClass() {
         createOrClearDestinationFolder(destinationFolder);
@@ -257,4 +267,151 @@ public class PdfSplitterTest extends ExtendedITextTest{
                                                                  sourceFolder + "cmp/" + "cmp_splitBySize_part" + i + ".pdf", destinationFolder, "diff_"));
         }
     }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.SOURCE_DOCUMENT_HAS_ACROFORM_DICTIONARY,count = 3)
+    })
+    public void splitDocumentWithConcurrentWritingTest() throws IOException, InterruptedException {
+        String inputFileName =  sourceFolder + "iphone_user_guide.pdf";
+        PdfDocument inputPdfDoc = new PdfDocument(new PdfReader(inputFileName));
+
+        PdfSplitter splitter = new PdfSplitter(inputPdfDoc) {
+            int partNumber = 1;
+
+            @Override
+            protected PdfWriter getNextPdfWriter(PageRange documentPageRange) {
+                try {
+                    return new PdfWriter(destinationFolder + "splitDocumentConcurrently_" + String.valueOf(partNumber++) + ".pdf");
+                } catch (FileNotFoundException e) {
+                    throw new RuntimeException();
+                }
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        final List<PageRange> readyRanges = Collections.synchronizedList(new ArrayList<PageRange>());
+        try {
+            splitter.setConcurrentWriting(executor, 2);
+            splitter.splitByPageCount(60, new PdfSplitter.IDocumentReadyListener() {
+                @Override
+                public void documentReady(PdfDocument pdfDocument, PageRange pageRange) {
+                    readyRanges.add(pageRange);
+                    if (new PageRange("61-120").equals(pageRange)) {
+                        pdfDocument.getDocumentInfo().setAuthor("Modified Author");
+                    }
+                    // the document is closed by the splitter unless the listener closes it
+                    if (new PageRange("1-60").equals(pageRange)) {
+                        pdfDocument.close();
+                    }
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+        inputPdfDoc.close();
+
+        Assert.assertEquals(3, readyRanges.size());
+        for (int i = 1; i <= 3; i++) {
+            Assert.assertNull(new CompareTool().compareByContent(destinationFolder + "splitDocumentConcurrently_" + String.valueOf(i) + ".pdf",
+                    sourceFolder + "cmp/" + "cmp_splitDocument2_" + String.valueOf(i) + ".pdf", destinationFolder, "diff_"));
+        }
+    }
+
+    @Test
+    public void splitBySizeIsNotAffectedByConcurrentWritingTest() throws IOException {
+        String inputFileName = sourceFolder + "splitBySize.pdf";
+        PdfDocument inputPdfDoc = new PdfDocument(new PdfReader(inputFileName));
+        PdfSplitter splitter = new PdfSplitter(inputPdfDoc);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            splitter.setConcurrentWriting(executor, 1);
+            List<PdfDocument> documents = splitter.splitBySize(100000);
+            List<PdfDocument> documentsWithSmallerSize = splitter.splitBySize(50000);
+            Assert.assertEquals(4, documents.size());
+            Assert.assertTrue(documentsWithSmallerSize.size() > documents.size());
+            int pagesCount = 0;
+            for (PdfDocument document : documents) {
+                Assert.assertFalse(document.isClosed());
+                pagesCount += document.getNumberOfPages();
+                document.close();
+            }
+            Assert.assertEquals(inputPdfDoc.getNumberOfPages(), pagesCount);
+            for (PdfDocument document : documentsWithSmallerSize) {
+                document.close();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        inputPdfDoc.close();
+    }
+
+    @Test
+    public void splitBySizeAfterPagesAreChangedTest() throws IOException {
+        String inputFileName = sourceFolder + "splitBySize.pdf";
+        PdfDocument inputPdfDoc = new PdfDocument(new PdfReader(inputFileName));
+        PdfSplitter splitter = new PdfSplitter(inputPdfDoc);
+        closeDocuments(splitter.splitBySize(100000));
+
+        // the page numbers of the remaining pages are shifted
+        for (int i = 0; i < 3; i++) {
+            inputPdfDoc.removePage(1);
+        }
+
+        List<Integer> pagesCounts = closeDocuments(splitter.splitBySize(100000));
+        Assert.assertEquals(closeDocuments(new PdfSplitter(inputPdfDoc).splitBySize(100000)), pagesCounts);
+        int pagesCount = 0;
+        for (int documentPagesCount : pagesCounts) {
+            pagesCount += documentPagesCount;
+        }
+        Assert.assertEquals(inputPdfDoc.getNumberOfPages(), pagesCount);
+        inputPdfDoc.close();
+    }
+
+    @Test
+    public void failedConcurrentWritingDoesNotLeaveWritingDocumentsTest() throws IOException, InterruptedException {
+        junitExpectedException.expect(IllegalStateException.class);
+        junitExpectedException.expectMessage("Writing has failed");
+
+        String inputFileName = sourceFolder + "splitBySize.pdf";
+        PdfDocument inputPdfDoc = new PdfDocument(new PdfReader(inputFileName));
+        PdfSplitter splitter = new PdfSplitter(inputPdfDoc);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final AtomicInteger writtenDocuments = new AtomicInteger();
+        int writtenDocumentsOnFailure = -1;
+        try {
+            splitter.setConcurrentWriting(executor, 3);
+            splitter.splitByPageCount(1, new PdfSplitter.IDocumentReadyListener() {
+                @Override
+                public void documentReady(PdfDocument pdfDocument, PageRange pageRange) {
+                    if (pageRange.isPageInRange(1)) {
+                        throw new IllegalStateException("Writing has failed");
+                    }
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    writtenDocuments.incrementAndGet();
+                }
+            });
+        } finally {
+            writtenDocumentsOnFailure = writtenDocuments.get();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+            // nothing is written once the splitting has thrown, and the documents after the pending ones are not
+            // even copied
+            Assert.assertEquals(writtenDocumentsOnFailure, writtenDocuments.get());
+            Assert.assertTrue(writtenDocumentsOnFailure < inputPdfDoc.getNumberOfPages() - 1);
+            inputPdfDoc.close();
+        }
+    }
+
+    private static List<Integer> closeDocuments(List<PdfDocument> documents) {
+        List<Integer> pagesCounts = new ArrayList<>(documents.size());
+        for (PdfDocument document : documents) {
+            pagesCounts.add(document.getNumberOfPages());
+            document.close();
+        }
+        return pagesCounts;
+    }
 }
@@ -47,6 +47,7 @@ import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.layout.element.AbstractElement;
 import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.IBlockElement;
 import com.itextpdf.layout.element.IElement;
@@ -56,6 +57,8 @@ import com.itextpdf.layout.renderer.DocumentRenderer;
 import com.itextpdf.layout.renderer.IRenderer;
 import com.itextpdf.layout.renderer.RootRenderer;
 
+import java.util.Collection;
+
 /**
  * Document is the default root element when creating a self-sufficient PDF. It
  * mainly operates high-level operations e.g. setting page size and rotation,
@@ -198,24 +201,40 @@ public class Document extends RootElement<Document> {
      * resource-intensive for large documents.
      * <p>
      * Do not use when you have set {@link #immediateFlush} to <code>true</code>.
+     *
+     * @see #relayout(Collection)
      */
     public void relayout() {
-        if (immediateFlush) {
-            throw new IllegalStateException("Operation not supported with immediate flush");
-        }
-
-        IRenderer nextRelayoutRenderer = rootRenderer != null ? rootRenderer.getNextRenderer() : null;
-        if (nextRelayoutRenderer == null || !(nextRelayoutRenderer instanceof RootRenderer)) {
-            nextRelayoutRenderer = new DocumentRenderer(this, immediateFlush);
-        }
-
-        while (pdfDocument.getNumberOfPages() > 0) {
-            pdfDocument.removePage(pdfDocument.getNumberOfPages());
+        prepareRelayout();
+        for (IElement element : childElements) {
+            createAndAddRendererSubTree(element);
         }
+    }
 
-        rootRenderer = (RootRenderer) nextRelayoutRenderer;
+    /**
+     * Performs a recalculation of the document flow, assuming that only the specified
+     * elements have changed since the previous layout. The pages are recreated, but the
+     * layout of every other child element is reused as long as the element starts in exactly
+     * the same area as during the previous pass, so effectively the content is laid out again
+     * starting from the first affected page only. This is useful for the two-pass generation,
+     * e.g. when the total number of pages has to be rendered in a header or footer.
+     * <p>
+     * A child element is considered changed if either it or any of its descendants is
+     * present in the passed collection. Note that all the elements which have been modified,
+     * including modifications made via their renderers, must be specified, otherwise the
+     * outdated layout of these elements might be reused.
+     * <p>
+     * Do not use when you have set {@link #immediateFlush} to <code>true</code>.
+     *
+     * @param changedElements the elements which have been changed since the previous layout
+     */
+    public void relayout(Collection<? extends IElement> changedElements) {
+        RootRenderer previousRenderer = prepareRelayout();
         for (IElement element : childElements) {
-            createAndAddRendererSubTree(element);
+            if (previousRenderer == null || isElementChanged(element, changedElements)
+                    || !rootRenderer.addChildFromPreviousLayout(element, previousRenderer)) {
+                createAndAddRendererSubTree(element);
+            }
         }
     }
 
@@ -359,4 +378,37 @@ public class Document extends RootElement<Document> {
             throw new PdfException(PdfException.DocumentClosedItIsImpossibleToExecuteAction);
         }
     }
+
+    private RootRenderer prepareRelayout() {
+        if (immediateFlush) {
+            throw new IllegalStateException("Operation not supported with immediate flush");
+        }
+
+        RootRenderer previousRenderer = rootRenderer;
+        IRenderer nextRelayoutRenderer = rootRenderer != null ? rootRenderer.getNextRenderer() : null;
+        if (nextRelayoutRenderer == null || !(nextRelayoutRenderer instanceof RootRenderer)) {
+            nextRelayoutRenderer = new DocumentRenderer(this, immediateFlush);
+        }
+
+        while (pdfDocument.getNumberOfPages() > 0) {
+            pdfDocument.removePage(pdfDocument.getNumberOfPages());
+        }
+
+        rootRenderer = (RootRenderer) nextRelayoutRenderer;
+        return previousRenderer;
+    }
+
+    private static boolean isElementChanged(IElement element, Collection<? extends IElement> changedElements) {
+        if (changedElements.contains(element)) {
+            return true;
+        }
+        if (element instanceof AbstractElement) {
+            for (IElement child : ((AbstractElement<?>) element).getChildren()) {
+                if (isElementChanged(child, changedElements)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
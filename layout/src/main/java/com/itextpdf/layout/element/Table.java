@@ -89,6 +89,8 @@ public class Table extends BlockElement<Table> implements ILargeElement {
     private Document document;
     private Cell[] lastAddedRow;
     private Div caption;
+    private int autoFlushRowCount;
+    private int rowsCompletedSinceFlush;
 
     /**
      * Constructs a {@code Table} with the preferable column widths.
@@ -515,6 +517,33 @@ public class Table extends BlockElement<Table> implements ILargeElement {
         return this;
     }
 
+    /**
+     * Gets the number of completed rows after which a large table flushes its content automatically.
+     *
+     * @return the number of rows, or 0 if automatic flushing is disabled
+     * @see #setAutoFlushRowCount(int)
+     */
+    public int getAutoFlushRowCount() {
+        return autoFlushRowCount;
+    }
+
+    /**
+     * Makes a large table {@link #flush() flush} its content automatically each time the given number of rows
+     * is completed, once the table has been added to a {@link Document}. The rows are then laid out and drawn
+     * as they arrive, so neither the memory held by the table nor the cost of adding a row depends on the
+     * total table length. Has no effect on tables which are not large.
+     *
+     * @param autoFlushRowCount the number of rows, 0 disables automatic flushing
+     * @return this element
+     */
+    public Table setAutoFlushRowCount(int autoFlushRowCount) {
+        if (autoFlushRowCount < 0) {
+            throw new IllegalArgumentException("The number of rows to flush automatically can not be negative.");
+        }
+        this.autoFlushRowCount = autoFlushRowCount;
+        return this;
+    }
+
      /** Sets the table's caption.
       *
       * If there is no {@link Property#CAPTION_SIDE} set (note that it's an inheritable property),
@@ -619,6 +648,10 @@ public class Table extends BlockElement<Table> implements ILargeElement {
             }
         }
         currentColumn += cell.getColspan();
+        if (currentColumn >= columnWidths.length && autoFlushRowCount > 0 && !isComplete && document != null
+                && ++rowsCompletedSinceFlush >= autoFlushRowCount) {
+            flush();
+        }
         return this;
     }
 
@@ -757,6 +790,7 @@ public class Table extends BlockElement<Table> implements ILargeElement {
      */
     @Override
     public void flush() {
+        rowsCompletedSinceFlush = 0;
         Cell[] row = null;
         int rowNum = rows.size();
         if (!rows.isEmpty()) {
@@ -779,18 +813,18 @@ public class Table extends BlockElement<Table> implements ILargeElement {
         int firstRow = lastAddedRowGroups.get(0).startRow;
         int lastRow = lastAddedRowGroups.get(lastAddedRowGroups.size() - 1).finishRow;
 
-        List<IElement> toRemove = new ArrayList<>();
+        // the cells are kept in a single pass, so that flushing costs no more than the flushed rows themselves
+        List<IElement> remainingCells = new ArrayList<>(childElements.size());
         for (IElement cell : childElements) {
-            if (((Cell) cell).getRow() >= firstRow && ((Cell) cell).getRow() <= lastRow) {
-                toRemove.add(cell);
+            if (((Cell) cell).getRow() < firstRow || ((Cell) cell).getRow() > lastRow) {
+                remainingCells.add(cell);
             }
         }
-        childElements.removeAll(toRemove);
+        childElements.clear();
+        childElements.addAll(remainingCells);
 
-        for (int i = 0; i < lastRow - firstRow; i++) {
-            rows.remove(firstRow - rowWindowStart);
-        }
-        lastAddedRow = rows.remove(firstRow - rowWindowStart);
+        lastAddedRow = rows.get(lastRow - rowWindowStart);
+        rows.subList(firstRow - rowWindowStart, lastRow - rowWindowStart + 1).clear();
         rowWindowStart = lastAddedRowGroups.get(lastAddedRowGroups.size() - 1).getFinishRow() + 1;
 
         lastAddedRowGroups = null;
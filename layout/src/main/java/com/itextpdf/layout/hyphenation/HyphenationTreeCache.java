@@ -39,7 +39,7 @@ public class HyphenationTreeCache {
      * @param country the country (may be null or "none")
      * @return the HyhenationTree instance or null if it's not in the cache
      */
-    public HyphenationTree getHyphenationTree(String lang, String country) {
+    public synchronized HyphenationTree getHyphenationTree(String lang, String country) {
         String key = constructLlccKey(lang, country);
 
         if (key == null) {
@@ -94,7 +94,7 @@ public class HyphenationTreeCache {
      * @param key the key (ex. "de_CH" or "en")
      * @param hTree the hyphenation tree
      */
-    public void cache(String key, HyphenationTree hTree) {
+    public synchronized void cache(String key, HyphenationTree hTree) {
         hyphenTrees.put(key, hTree);
     }
 
@@ -104,7 +104,7 @@ public class HyphenationTreeCache {
      * available.
      * @param key the key (ex. "de_CH" or "en")
      */
-    public void noteMissing(String key) {
+    public synchronized void noteMissing(String key) {
         if (missingHyphenationTrees == null) {
             missingHyphenationTrees = new HashSet<>();
         }
@@ -118,7 +118,7 @@ public class HyphenationTreeCache {
      * @param key the key (ex. "de_CH" or "en")
      * @return true if the hyphenation tree is unavailable
      */
-    public boolean isMissing(String key) {
+    public synchronized boolean isMissing(String key) {
         return (missingHyphenationTrees != null && missingHyphenationTrees.contains(key));
     }
 }
@@ -100,6 +100,15 @@ public class LayoutArea {
         this.bBox = bbox;
     }
 
+    /**
+     * Sets the number of page on which the area is located.
+     *
+     * @param pageNumber page number
+     */
+    public void setPageNumber(int pageNumber) {
+        this.pageNumber = pageNumber;
+    }
+
     /**
      * {@inheritDoc}
      */
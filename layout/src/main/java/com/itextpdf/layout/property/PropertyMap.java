@@ -0,0 +1,472 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact map of the properties of the layout elements and renderers, keyed by the {@link Property} constants.
+ * <br>
+ * Most of the elements and renderers have only a few own properties or none at all, while there are lots of them
+ * in a big document, e.g. a table with many cells. Unlike {@link java.util.HashMap}, this map doesn't allocate
+ * an entry object per property: the keys and the values are kept in two arrays using open addressing, and the arrays
+ * are not allocated until the first property is set. The {@code int} counterparts of the lookup methods allow to
+ * avoid boxing of the keys.
+ * <br>
+ * {@code null} values are allowed, {@code null} keys are not. The iteration order is not specified.
+ * The map is not thread-safe.
+ */
+public class PropertyMap extends AbstractMap<Integer, Object> {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    // placeholders for the null values and for the removed entries, an empty slot has null value
+    private static final Object NULL_VALUE = new Object();
+    private static final Object REMOVED = new Object();
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    // the number of the occupied slots, including the ones of the removed entries
+    private int usedSlots;
+    private int modCount;
+
+    /**
+     * Creates an empty map.
+     */
+    public PropertyMap() {
+    }
+
+    /**
+     * Creates a map with the same properties as the specified one.
+     *
+     * @param properties the properties to be copied
+     */
+    public PropertyMap(Map<Integer, Object> properties) {
+        putAll(properties);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the value of the property.
+     *
+     * @param property the {@link Property} constant
+     * @return the value, or null if the property is not set or is set to null
+     */
+    public Object get(int property) {
+        int index = indexOf(property);
+        return index >= 0 ? unmask(values[index]) : null;
+    }
+
+    /**
+     * Checks if the property is set, possibly to null.
+     *
+     * @param property the {@link Property} constant
+     * @return true if the property is set
+     */
+    public boolean containsKey(int property) {
+        return indexOf(property) >= 0;
+    }
+
+    /**
+     * Sets the value of the property.
+     *
+     * @param property the {@link Property} constant
+     * @param value    the value, may be null
+     * @return the previous value, or null if the property was not set
+     */
+    public Object put(int property, Object value) {
+        int index = indexOf(property);
+        if (index >= 0) {
+            Object previous = unmask(values[index]);
+            values[index] = mask(value);
+            return previous;
+        }
+        ensureCapacity();
+        int mask = values.length - 1;
+        for (index = hash(property) & mask; ; index = (index + 1) & mask) {
+            Object current = values[index];
+            if (current == null || current == REMOVED) {
+                if (current == null) {
+                    usedSlots++;
+                }
+                keys[index] = property;
+                values[index] = mask(value);
+                size++;
+                modCount++;
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Removes the property.
+     *
+     * @param property the {@link Property} constant
+     * @return the previous value, or null if the property was not set
+     */
+    public Object remove(int property) {
+        int index = indexOf(property);
+        if (index < 0) {
+            return null;
+        }
+        Object previous = unmask(values[index]);
+        removeAt(index);
+        return previous;
+    }
+
+    /**
+     * Gets the value of the property from the given map. If the map is a {@link PropertyMap}, its {@code int}
+     * counterpart of the lookup method is used, so that the key is not boxed.
+     *
+     * @param properties the map of the properties
+     * @param property   the {@link Property} constant
+     * @return the value, or null if the property is not set or is set to null
+     */
+    public static Object getProperty(Map<Integer, Object> properties, int property) {
+        return properties instanceof PropertyMap ? ((PropertyMap) properties).get(property) : properties.get(property);
+    }
+
+    /**
+     * Checks if the property is set in the given map, see {@link #getProperty(Map, int)}.
+     *
+     * @param properties the map of the properties
+     * @param property   the {@link Property} constant
+     * @return true if the property is set
+     */
+    public static boolean containsProperty(Map<Integer, Object> properties, int property) {
+        return properties instanceof PropertyMap ? ((PropertyMap) properties).containsKey(property)
+                : properties.containsKey(property);
+    }
+
+    /**
+     * Sets the value of the property in the given map, see {@link #getProperty(Map, int)}.
+     *
+     * @param properties the map of the properties
+     * @param property   the {@link Property} constant
+     * @param value      the value, may be null
+     */
+    public static void putProperty(Map<Integer, Object> properties, int property, Object value) {
+        if (properties instanceof PropertyMap) {
+            ((PropertyMap) properties).put(property, value);
+        } else {
+            properties.put(property, value);
+        }
+    }
+
+    /**
+     * Removes the property from the given map, see {@link #getProperty(Map, int)}.
+     *
+     * @param properties the map of the properties
+     * @param property   the {@link Property} constant
+     */
+    public static void removeProperty(Map<Integer, Object> properties, int property) {
+        if (properties instanceof PropertyMap) {
+            ((PropertyMap) properties).remove(property);
+        } else {
+            properties.remove(property);
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    @Override
+    public Object put(Integer key, Object value) {
+        return put((int) key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return key instanceof Integer ? remove((int) (Integer) key) : null;
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ?> map) {
+        if (map instanceof PropertyMap) {
+            PropertyMap other = (PropertyMap) map;
+            if (other.values != null) {
+                for (int i = 0; i < other.values.length; i++) {
+                    Object value = other.values[i];
+                    if (value != null && value != REMOVED) {
+                        put(other.keys[i], unmask(value));
+                    }
+                }
+            }
+        } else {
+            super.putAll(map);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (values != null) {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+        usedSlots = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, Object>> entrySet() {
+        return new EntrySet();
+    }
+
+    private int indexOf(int property) {
+        if (values == null) {
+            return -1;
+        }
+        int mask = values.length - 1;
+        // there is always an empty slot, so the loop is finite
+        for (int index = hash(property) & mask; ; index = (index + 1) & mask) {
+            Object value = values[index];
+            if (value == null) {
+                return -1;
+            }
+            if (keys[index] == property && value != REMOVED) {
+                return index;
+            }
+        }
+    }
+
+    private void removeAt(int index) {
+        values[index] = REMOVED;
+        size--;
+        modCount++;
+        if (size == 0) {
+            Arrays.fill(values, null);
+            usedSlots = 0;
+        }
+    }
+
+    private void ensureCapacity() {
+        if (values == null) {
+            keys = new int[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+        } else if ((usedSlots + 1) * 4 > values.length * 3) {
+            // the removed entries are dropped on rehashing, so the map grows only if it's actually full
+            rehash((size + 1) * 4 > values.length * 3 ? values.length * 2 : values.length);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        usedSlots = size;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            Object value = oldValues[i];
+            if (value != null && value != REMOVED) {
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = value;
+            }
+        }
+    }
+
+    private static int hash(int property) {
+        int hash = property * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static Object mask(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    private static Object unmask(Object value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<Integer, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<Integer, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PropertyMap.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<Integer, Object>> {
+
+        private final Object[] iteratedValues = values;
+        private int expectedModCount = modCount;
+        private int nextIndex = -1;
+        private int lastIndex = -1;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iteratedValues != null && nextIndex < iteratedValues.length;
+        }
+
+        @Override
+        public Map.Entry<Integer, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            checkModification();
+            lastIndex = nextIndex;
+            advance();
+            return new Entry(lastIndex);
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            checkModification();
+            removeAt(lastIndex);
+            lastIndex = -1;
+            expectedModCount = modCount;
+        }
+
+        private void advance() {
+            if (iteratedValues == null) {
+                return;
+            }
+            do {
+                nextIndex++;
+            } while (nextIndex < iteratedValues.length
+                    && (iteratedValues[nextIndex] == null || iteratedValues[nextIndex] == REMOVED));
+        }
+
+        private void checkModification() {
+            if (modCount != expectedModCount || values != iteratedValues) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private class Entry implements Map.Entry<Integer, Object> {
+
+        private final int index;
+        private final int key;
+
+        Entry(int index) {
+            this.index = index;
+            this.key = keys[index];
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return unmask(values[index]);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object previous = getValue();
+            values[index] = mask(value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            Object value = getValue();
+            return Integer.valueOf(key).equals(other.getKey())
+                    && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
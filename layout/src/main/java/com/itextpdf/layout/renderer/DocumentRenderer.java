@@ -168,7 +168,7 @@ public class DocumentRenderer extends RootRenderer {
         return lastPageSize;
     }
 
-    private Rectangle getCurrentPageEffectiveArea(PageSize pageSize) {
+    Rectangle getCurrentPageEffectiveArea(PageSize pageSize) {
         float leftMargin = (float) getPropertyAsFloat(Property.MARGIN_LEFT);
         float bottomMargin = (float) getPropertyAsFloat(Property.MARGIN_BOTTOM);
         float topMargin = (float) getPropertyAsFloat(Property.MARGIN_TOP);
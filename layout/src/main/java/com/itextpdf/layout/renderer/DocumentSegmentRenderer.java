@@ -0,0 +1,110 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.layout.RootLayoutArea;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lays out a part of the document which starts on a new page, without creating any pages in the document.
+ * The pages are numbered starting from 1, the content is then placed in the document by
+ * {@link RootRenderer#addLaidOutContent(RootRenderer, LayoutArea, List)}.
+ */
+class DocumentSegmentRenderer extends DocumentRenderer {
+
+    private final PageSize firstPageSize;
+    private final List<AreaBreak> areaBreaks = new ArrayList<>();
+    private LayoutArea firstArea;
+
+    DocumentSegmentRenderer(Document document, PageSize firstPageSize) {
+        super(document, false);
+        this.firstPageSize = firstPageSize;
+    }
+
+    /**
+     * Gets the area of the first page of the segment.
+     *
+     * @return the first area, or null if nothing has been laid out
+     */
+    LayoutArea getFirstArea() {
+        return firstArea;
+    }
+
+    /**
+     * Gets the area breaks which have caused the transitions between the pages of the segment.
+     *
+     * @return the list containing an item per each page transition, null items stand for the overflow
+     */
+    List<AreaBreak> getAreaBreaks() {
+        return areaBreaks;
+    }
+
+    @Override
+    protected LayoutArea updateCurrentArea(LayoutResult overflowResult) {
+        PageSize pageSize = firstPageSize;
+        if (currentPageNumber > 0) {
+            AreaBreak areaBreak = overflowResult != null ? overflowResult.getAreaBreak() : null;
+            areaBreaks.add(areaBreak);
+            pageSize = areaBreak != null && areaBreak.getPageSize() != null ? areaBreak.getPageSize() : document.getPdfDocument().getDefaultPageSize();
+        }
+        currentPageNumber++;
+        currentArea = new RootLayoutArea(currentPageNumber, getCurrentPageEffectiveArea(pageSize));
+        if (firstArea == null) {
+            firstArea = currentArea.clone();
+        }
+        return currentArea;
+    }
+
+    @Override
+    protected void flushSingleRenderer(IRenderer resultRenderer) {
+        throw new IllegalStateException("Segment content cannot be flushed before it is placed in the document");
+    }
+}
@@ -0,0 +1,299 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.layout.property.FontKerning;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A cache of the glyph lines that {@link TextRenderer} obtains from strings of a single font, both right after
+ * the conversion with {@link PdfFont#createGlyphLine(String)} and after OpenType features have been applied to them.
+ * Repeated strings, like table column values or labels, are thus converted and shaped only once per font.
+ * <p>
+ * Each font has its own cache, see {@link #getInstance(PdfFont)}, which keeps at most {@link #getMaxSize()}
+ * recently used strings and counts its own hits and misses. The caches of different fonts are not locked
+ * against each other. The fonts themselves are referenced weakly, so the caches do not prevent fonts
+ * of closed documents from being collected.
+ */
+public final class GlyphLineCache {
+
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final Map<PdfFont, GlyphLineCache> fontCaches = new WeakHashMap<>();
+
+    private final Map<String, GlyphLine> converted = new LruMap<>();
+    private final Map<ShapingKey, ShapedGlyphLine> shaped = new LruMap<>();
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private long hitCount;
+    private long missCount;
+
+    private GlyphLineCache() {
+    }
+
+    /**
+     * Gets the cache of the glyph lines of the font, creating it if it does not exist yet.
+     *
+     * @param font the font
+     * @return the cache of the font
+     */
+    public static GlyphLineCache getInstance(PdfFont font) {
+        synchronized (fontCaches) {
+            GlyphLineCache cache = fontCaches.get(font);
+            if (cache == null) {
+                cache = new GlyphLineCache();
+                fontCaches.put(font, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Gets the maximal number of strings of each kind (converted and shaped) cached for the font.
+     *
+     * @return the maximal number of strings
+     */
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximal number of strings of each kind (converted and shaped) cached for the font.
+     * The least recently used strings are evicted first. 0 disables the cache.
+     *
+     * @param maxSize the maximal number of strings
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The size of the glyph line cache can not be negative.");
+        }
+        this.maxSize = maxSize;
+        clear();
+    }
+
+    /**
+     * Gets the number of lookups which have been served from the cache since the last statistics reset.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups which have not been served from the cache since the last statistics reset.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the share of the lookups which have been served from the cache since the last statistics reset.
+     *
+     * @return the hit rate between 0 and 1, or 0 if there were no lookups
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Resets the hit and miss counters.
+     */
+    public synchronized void resetStatistics() {
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    /**
+     * Removes all the cached glyph lines.
+     */
+    public synchronized void clear() {
+        converted.clear();
+        shaped.clear();
+    }
+
+    /**
+     * Converts the string into glyphs of the font, reusing the result of the previous conversion if it's cached.
+     * The returned line can be freely modified by the caller.
+     */
+    static GlyphLine getGlyphLine(PdfFont font, String text) {
+        GlyphLineCache cache = getInstance(font);
+        GlyphLine cached = null;
+        synchronized (cache) {
+            if (cache.maxSize != 0) {
+                cached = cache.converted.get(text);
+                cache.countLookup(cached != null);
+            }
+        }
+        if (cached != null) {
+            return cached.copy(cached.start, cached.end);
+        }
+        GlyphLine glyphLine = font.createGlyphLine(text);
+        synchronized (cache) {
+            if (cache.maxSize != 0) {
+                cache.converted.put(text, glyphLine.copy(glyphLine.start, glyphLine.end));
+            }
+        }
+        return glyphLine;
+    }
+
+    /**
+     * Gets a copy of the line which has been produced from the string by applying the OpenType features
+     * identified by the other parameters, or {@code null} if it's not cached.
+     */
+    static ShapedGlyphLine getShapedGlyphLine(PdfFont font, String text, Character.UnicodeScript script,
+                                              Object typographyConfig, FontKerning fontKerning) {
+        GlyphLineCache cache = getInstance(font);
+        ShapedGlyphLine cached = null;
+        synchronized (cache) {
+            if (cache.maxSize != 0) {
+                cached = cache.shaped.get(new ShapingKey(text, script, typographyConfig, fontKerning));
+                cache.countLookup(cached != null);
+            }
+        }
+        return cached == null ? null : cached.copy();
+    }
+
+    static void putShapedGlyphLine(PdfFont font, String text, Character.UnicodeScript script,
+                                   Object typographyConfig, FontKerning fontKerning, ShapedGlyphLine shapedGlyphLine) {
+        GlyphLineCache cache = getInstance(font);
+        ShapedGlyphLine copy = shapedGlyphLine.copy();
+        synchronized (cache) {
+            if (cache.maxSize != 0) {
+                cache.shaped.put(new ShapingKey(text, script, typographyConfig, fontKerning), copy);
+            }
+        }
+    }
+
+    private void countLookup(boolean hit) {
+        if (hit) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+    }
+
+    /**
+     * A glyph line with OpenType features applied, together with the direction detected while applying them.
+     */
+    static final class ShapedGlyphLine {
+        final GlyphLine glyphLine;
+        final boolean bidiScriptDetected;
+
+        ShapedGlyphLine(GlyphLine glyphLine, boolean bidiScriptDetected) {
+            this.glyphLine = glyphLine;
+            this.bidiScriptDetected = bidiScriptDetected;
+        }
+
+        ShapedGlyphLine copy() {
+            GlyphLine copy = glyphLine.copy(glyphLine.start, glyphLine.end);
+            // the anchors of the positioned glyphs are updated in place on bidi reordering, so these are not shared
+            for (int i = copy.start; i < copy.end; i++) {
+                Glyph glyph = copy.get(i);
+                if (glyph.hasPlacement()) {
+                    copy.set(i, new Glyph(glyph));
+                }
+            }
+            return new ShapedGlyphLine(copy, bidiScriptDetected);
+        }
+    }
+
+    private final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = -3526853357478307541L;
+
+        LruMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static final class ShapingKey {
+        private final String text;
+        private final Character.UnicodeScript script;
+        private final Object typographyConfig;
+        private final FontKerning fontKerning;
+
+        ShapingKey(String text, Character.UnicodeScript script, Object typographyConfig, FontKerning fontKerning) {
+            this.text = text;
+            this.script = script;
+            this.typographyConfig = typographyConfig;
+            this.fontKerning = fontKerning;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ShapingKey that = (ShapingKey) o;
+            return text.equals(that.text) && script == that.script && fontKerning == that.fontKerning
+                    && (typographyConfig == null ? that.typographyConfig == null : typographyConfig.equals(that.typographyConfig));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text.hashCode();
+            result = 31 * result + (script != null ? script.hashCode() : 0);
+            result = 31 * result + (typographyConfig != null ? typographyConfig.hashCode() : 0);
+            result = 31 * result + (fontKerning != null ? fontKerning.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.IElement;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.property.AreaBreakType;
+import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.tagging.LayoutTaggingHelper;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link DocumentRenderer} which lays out independent parts of the document concurrently.
+ * <p>
+ * The document flow is split into segments by the top-level {@link AreaBreak area breaks}: every segment
+ * starts on a new page, so its layout does not depend on the preceding content. The segments are laid out on
+ * separate threads as soon as they are complete, i.e. as soon as the next top-level area break is added, and then
+ * placed in the document in the original order. The pages are still created, and page event handlers are still
+ * triggered, on the thread which adds the elements. The content which precedes the first top-level area break
+ * is laid out as usual.
+ * <p>
+ * The result is the same as the one of the sequential layout. Whenever a segment turns out to be affected by
+ * the preceding content, e.g. when floating elements or elements with {@link Property#KEEP_WITH_NEXT} are left
+ * at the end of it, the segment is laid out again sequentially. Tagged documents are always laid out sequentially.
+ * <p>
+ * Note that elements of different segments are laid out simultaneously, so they must not share any state which is
+ * modified during layout, e.g. custom renderers, and that in case {@link #immediateFlush} is false the
+ * pages are only created, and child renderers only become available, once the segments have been placed,
+ * which is ensured by {@link #waitForLayout()}.
+ */
+public class ParallelDocumentRenderer extends DocumentRenderer {
+
+    private final int threadsCount;
+    private ThreadPoolExecutor executor;
+    private final LinkedList<Segment> pendingSegments = new LinkedList<>();
+    private Segment openSegment;
+    private boolean sequentialLayout = false;
+
+    /**
+     * Creates a ParallelDocumentRenderer. Sets {@link #immediateFlush} to true.
+     *
+     * @param document     the {@link Document} on which this Renderer will calculate
+     *                     and execute element placements
+     * @param threadsCount the number of threads laying out the segments of the document
+     */
+    public ParallelDocumentRenderer(Document document, int threadsCount) {
+        this(document, true, threadsCount);
+    }
+
+    /**
+     * Creates a ParallelDocumentRenderer whose elements need not be flushed
+     * immediately.
+     *
+     * @param document       the {@link Document} on which this Renderer will calculate
+     *                       and execute element placements
+     * @param immediateFlush whether or not to flush contents as soon as possible
+     * @param threadsCount   the number of threads laying out the segments of the document
+     */
+    public ParallelDocumentRenderer(Document document, boolean immediateFlush, int threadsCount) {
+        super(document, immediateFlush);
+        this.threadsCount = Math.max(threadsCount, 1);
+    }
+
+    @Override
+    public void addChild(IRenderer renderer) {
+        if (sequentialLayout || this.<LayoutTaggingHelper>getProperty(Property.TAGGING_HELPER) != null) {
+            super.addChild(renderer);
+        } else if (isSegmentBoundary(renderer)) {
+            submitOpenSegment();
+            openSegment = new Segment((AreaBreakRenderer) renderer);
+            placeLaidOutSegments(false);
+        } else if (openSegment != null) {
+            openSegment.renderers.add(renderer);
+        } else {
+            addChildSequentially(renderer);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addChildFromPreviousLayout(IElement element, RootRenderer previousRenderer) {
+        // The element would be placed before the content of the open segment otherwise
+        return openSegment == null && super.addChildFromPreviousLayout(element, previousRenderer);
+    }
+
+    /**
+     * Waits until all the content added so far is laid out and placed in the document, e.g. in order to
+     * find out the number of pages of the document.
+     */
+    public void waitForLayout() {
+        finishSegmentsLayout(false);
+    }
+
+    /**
+     * Waits until all the segments are laid out and placed in the document, then draws (flushes) the content.
+     */
+    @Override
+    public void flush() {
+        finishSegmentsLayout(false);
+        super.flush();
+    }
+
+    /**
+     * Waits until all the segments are laid out and placed in the document, then closes the renderer.
+     */
+    @Override
+    public void close() {
+        finishSegmentsLayout(true);
+        if (executor != null) {
+            executor.shutdown();
+        }
+        super.close();
+    }
+
+    @Override
+    public LayoutArea getCurrentArea() {
+        finishSegmentsLayout(false);
+        return super.getCurrentArea();
+    }
+
+    @Override
+    public IRenderer getNextRenderer() {
+        // The content is about to be laid out anew, there is no sense in finishing the current layout
+        for (Segment segment : pendingSegments) {
+            segment.layout.cancel(false);
+        }
+        return new ParallelDocumentRenderer(document, immediateFlush, threadsCount);
+    }
+
+    private static boolean isSegmentBoundary(IRenderer renderer) {
+        return renderer instanceof AreaBreakRenderer
+                && ((AreaBreakRenderer) renderer).areaBreak.getType() != AreaBreakType.LAST_PAGE;
+    }
+
+    private void addChildSequentially(IRenderer renderer) {
+        sequentialLayout = true;
+        super.addChild(renderer);
+        sequentialLayout = false;
+    }
+
+    private void submitOpenSegment() {
+        if (openSegment == null) {
+            return;
+        }
+        final Segment segment = openSegment;
+        openSegment = null;
+
+        // Initialize the lazily created document defaults before they are accessed concurrently
+        getProperty(Property.FONT);
+        getProperty(Property.FONT_PROVIDER);
+        getProperty(Property.SPLIT_CHARACTERS);
+
+        AreaBreak areaBreak = segment.areaBreakRenderer.areaBreak;
+        final PageSize firstPageSize = areaBreak.getPageSize() != null ? areaBreak.getPageSize() : document.getPdfDocument().getDefaultPageSize();
+        segment.layout = getExecutor().submit(new Callable<DocumentSegmentRenderer>() {
+            @Override
+            public DocumentSegmentRenderer call() {
+                DocumentSegmentRenderer segmentRenderer = new DocumentSegmentRenderer(document, firstPageSize);
+                for (IRenderer renderer : segment.renderers) {
+                    segmentRenderer.addChild(renderer);
+                }
+                return segmentRenderer;
+            }
+        });
+        pendingSegments.add(segment);
+    }
+
+    private void finishSegmentsLayout(boolean layoutOpenSegmentConcurrently) {
+        if (layoutOpenSegmentConcurrently) {
+            submitOpenSegment();
+        }
+        placeLaidOutSegments(true);
+        if (openSegment != null) {
+            // The content added afterwards continues the open segment, so it is laid out exactly as usual
+            Segment segment = openSegment;
+            openSegment = null;
+            addChildSequentially(segment.areaBreakRenderer);
+            for (IRenderer renderer : segment.renderers) {
+                addChildSequentially(renderer);
+            }
+        }
+    }
+
+    private void placeLaidOutSegments(boolean waitForAll) {
+        // Limit the number of segments kept in memory if the layout is slower than adding the elements
+        while (!pendingSegments.isEmpty() && (waitForAll || pendingSegments.size() > 2 * threadsCount
+                || pendingSegments.getFirst().layout.isDone())) {
+            placeSegment(pendingSegments.removeFirst());
+        }
+    }
+
+    private void placeSegment(Segment segment) {
+        DocumentSegmentRenderer segmentRenderer = getSegmentLayout(segment);
+        addChildSequentially(segment.areaBreakRenderer);
+        boolean placed = document.getPdfDocument().getNumberOfPages() <= currentPageNumber
+                && segmentRenderer.getFirstArea() != null
+                && addLaidOutContent(segmentRenderer, segmentRenderer.getFirstArea(), segmentRenderer.getAreaBreaks());
+        if (!placed) {
+            for (IRenderer renderer : segment.renderers) {
+                addChildSequentially(renderer);
+            }
+        }
+    }
+
+    private DocumentSegmentRenderer getSegmentLayout(Segment segment) {
+        try {
+            return segment.layout.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(PdfException.ParallelLayoutWasInterrupted, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PdfException(PdfException.ParallelLayoutWasInterrupted, cause);
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(threadsCount, threadsCount, 1, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+                    // Do not prevent the application from exiting if the renderer is abandoned, e.g. on relayout
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    private static final class Segment {
+        private final AreaBreakRenderer areaBreakRenderer;
+        private final List<IRenderer> renderers = new ArrayList<>();
+        private Future<DocumentSegmentRenderer> layout;
+
+        Segment(AreaBreakRenderer areaBreakRenderer) {
+            this.areaBreakRenderer = areaBreakRenderer;
+        }
+    }
+}
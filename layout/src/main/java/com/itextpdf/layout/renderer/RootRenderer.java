@@ -46,6 +46,9 @@ package com.itextpdf.layout.renderer;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.util.MessageFormatUtil;
 import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.layout.IPropertyContainer;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.IElement;
 import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.layout.LayoutContext;
 import com.itextpdf.layout.layout.LayoutPosition;
@@ -61,7 +64,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class RootRenderer extends AbstractRenderer {
 
@@ -76,221 +84,377 @@ public abstract class RootRenderer extends AbstractRenderer {
     private List<Rectangle> floatRendererAreas;
     private List<IRenderer> waitingNextPageRenderers = new ArrayList<>();
     private boolean floatOverflowedCompletely = false;
+    private Map<IPropertyContainer, CachedChildLayout> layoutCache = new HashMap<>();
+    private int addChildDepth = 0;
+    private int areaUpdatesCount = 0;
+    private int areaBreakUpdatesCount = 0;
 
     public void addChild(IRenderer renderer) {
         LayoutTaggingHelper taggingHelper = this.<LayoutTaggingHelper>getProperty(Property.TAGGING_HELPER);
         if (taggingHelper != null) {
             LayoutTaggingHelper.addTreeHints(taggingHelper, renderer);
         }
+        IPropertyContainer modelElement = renderer.getModelElement();
+        addChildDepth++;
+        try {
+            // Some positioned renderers might have been fetched from non-positioned child and added to this renderer,
+            // so we use this generic mechanism of determining which renderers have been just added.
+            int numberOfChildRenderers = childRenderers.size();
+            int numberOfPositionedChildRenderers = positionedRenderers.size();
+            super.addChild(renderer);
+            List<IRenderer> addedRenderers = new ArrayList<>(1);
+            List<IRenderer> addedPositionedRenderers = new ArrayList<>(1);
+            while (childRenderers.size() > numberOfChildRenderers) {
+                addedRenderers.add(childRenderers.get(numberOfChildRenderers));
+                childRenderers.remove(numberOfChildRenderers);
+            }
+            while (positionedRenderers.size() > numberOfPositionedChildRenderers) {
+                addedPositionedRenderers.add(positionedRenderers.get(numberOfPositionedChildRenderers));
+                positionedRenderers.remove(numberOfPositionedChildRenderers);
+            }
 
-        // Some positioned renderers might have been fetched from non-positioned child and added to this renderer,
-        // so we use this generic mechanism of determining which renderers have been just added.
-        int numberOfChildRenderers = childRenderers.size();
-        int numberOfPositionedChildRenderers = positionedRenderers.size();
-        super.addChild(renderer);
-        List<IRenderer> addedRenderers = new ArrayList<>(1);
-        List<IRenderer> addedPositionedRenderers = new ArrayList<>(1);
-        while (childRenderers.size() > numberOfChildRenderers) {
-            addedRenderers.add(childRenderers.get(numberOfChildRenderers));
-            childRenderers.remove(numberOfChildRenderers);
-        }
-        while (positionedRenderers.size() > numberOfPositionedChildRenderers) {
-            addedPositionedRenderers.add(positionedRenderers.get(numberOfPositionedChildRenderers));
-            positionedRenderers.remove(numberOfPositionedChildRenderers);
-        }
-
-        boolean marginsCollapsingEnabled = Boolean.TRUE.equals(getPropertyAsBoolean(Property.COLLAPSING_MARGINS));
-        if (currentArea == null) {
-            updateCurrentAndInitialArea(null);
-            if (marginsCollapsingEnabled) {
-                marginsCollapseHandler = new MarginsCollapseHandler(this, null);
+            boolean marginsCollapsingEnabled = Boolean.TRUE.equals(getPropertyAsBoolean(Property.COLLAPSING_MARGINS));
+            if (currentArea == null) {
+                updateCurrentAndInitialArea(null);
+                if (marginsCollapsingEnabled) {
+                    marginsCollapseHandler = new MarginsCollapseHandler(this, null);
+                }
             }
-        }
 
-        // Static layout
-        for (int i = 0; currentArea != null && i < addedRenderers.size(); i++) {
-            renderer = addedRenderers.get(i);
-            boolean rendererIsFloat = FloatingHelper.isRendererFloating(renderer);
-            boolean clearanceOverflowsToNextPage = FloatingHelper.isClearanceApplied(waitingNextPageRenderers, renderer.<ClearPropertyValue>getProperty(Property.CLEAR));
-            if (rendererIsFloat && (floatOverflowedCompletely || clearanceOverflowsToNextPage)) {
-                waitingNextPageRenderers.add(renderer);
-                floatOverflowedCompletely = true;
-                continue;
+            // The layout of a top-level child is remembered only if it neither depends on nor affects
+            // the layout of its siblings, so that it can be reused by a relayout renderer.
+            CachedChildLayout cachedLayout = null;
+            if (addChildDepth == 1 && modelElement != null && taggingHelper == null && !marginsCollapsingEnabled && isChildLayoutCacheable()) {
+                cachedLayout = new CachedChildLayout(currentArea, initialCurrentArea);
             }
+            int childRenderersCountBeforeLayout = childRenderers.size();
+            int positionedRenderersCountBeforeLayout = positionedRenderers.size();
+            int areaUpdatesCountBeforeLayout = areaUpdatesCount;
+            int areaBreakUpdatesCountBeforeLayout = areaBreakUpdatesCount;
+
+            // Static layout
+            for (int i = 0; currentArea != null && i < addedRenderers.size(); i++) {
+                renderer = addedRenderers.get(i);
+                boolean rendererIsFloat = FloatingHelper.isRendererFloating(renderer);
+                boolean clearanceOverflowsToNextPage = FloatingHelper.isClearanceApplied(waitingNextPageRenderers, renderer.<ClearPropertyValue>getProperty(Property.CLEAR));
+                if (rendererIsFloat && (floatOverflowedCompletely || clearanceOverflowsToNextPage)) {
+                    waitingNextPageRenderers.add(renderer);
+                    floatOverflowedCompletely = true;
+                    continue;
+                }
 
-            processWaitingKeepWithNextElement(renderer);
+                processWaitingKeepWithNextElement(renderer);
 
-            List<IRenderer> resultRenderers = new ArrayList<>();
-            LayoutResult result = null;
+                List<IRenderer> resultRenderers = new ArrayList<>();
+                LayoutResult result = null;
 
-            RootLayoutArea storedArea = null;
-            RootLayoutArea nextStoredArea = null;
-            MarginsCollapseInfo childMarginsInfo = null;
-            if (marginsCollapsingEnabled && currentArea != null && renderer != null) {
-                childMarginsInfo = marginsCollapseHandler.startChildMarginsHandling(renderer, currentArea.getBBox());
-            }
-            while (clearanceOverflowsToNextPage || currentArea != null && renderer != null
-                        && (result = renderer.setParent(this)
-                            .layout(new LayoutContext(currentArea.clone(), childMarginsInfo, floatRendererAreas))).getStatus() != LayoutResult.FULL) {
-                boolean currentAreaNeedsToBeUpdated = false;
-                if (clearanceOverflowsToNextPage) {
-                    result = new LayoutResult(LayoutResult.NOTHING, null, null, renderer);
-                    currentAreaNeedsToBeUpdated = true;
+                RootLayoutArea storedArea = null;
+                RootLayoutArea nextStoredArea = null;
+                MarginsCollapseInfo childMarginsInfo = null;
+                if (marginsCollapsingEnabled && currentArea != null && renderer != null) {
+                    childMarginsInfo = marginsCollapseHandler.startChildMarginsHandling(renderer, currentArea.getBBox());
                 }
-                if (result.getStatus() == LayoutResult.PARTIAL) {
-                    if (rendererIsFloat) {
-                        waitingNextPageRenderers.add(result.getOverflowRenderer());
-                        break;
-                    } else {
-                        processRenderer(result.getSplitRenderer(), resultRenderers);
-                        if (nextStoredArea != null) {
-                            currentArea = nextStoredArea;
-                            currentPageNumber = nextStoredArea.getPageNumber();
-                            nextStoredArea = null;
-                        } else {
-                            currentAreaNeedsToBeUpdated = true;
-                        }
+                while (clearanceOverflowsToNextPage || currentArea != null && renderer != null
+                            && (result = renderer.setParent(this)
+                                .layout(new LayoutContext(currentArea.clone(), childMarginsInfo, floatRendererAreas))).getStatus() != LayoutResult.FULL) {
+                    boolean currentAreaNeedsToBeUpdated = false;
+                    if (clearanceOverflowsToNextPage) {
+                        result = new LayoutResult(LayoutResult.NOTHING, null, null, renderer);
+                        currentAreaNeedsToBeUpdated = true;
                     }
-                } else if (result.getStatus() == LayoutResult.NOTHING && !clearanceOverflowsToNextPage) {
-                    if (result.getOverflowRenderer() instanceof ImageRenderer) {
-                        float imgHeight = ((ImageRenderer) result.getOverflowRenderer()).getOccupiedArea().getBBox().getHeight();
-                        if (!floatRendererAreas.isEmpty()
-                                || currentArea.getBBox().getHeight() < imgHeight && !currentArea.isEmptyArea()) {
-                            if (rendererIsFloat) {
-                                waitingNextPageRenderers.add(result.getOverflowRenderer());
-                                floatOverflowedCompletely = true;
-                                break;
-                            }
-                            currentAreaNeedsToBeUpdated = true;
+                    if (result.getStatus() == LayoutResult.PARTIAL) {
+                        if (rendererIsFloat) {
+                            waitingNextPageRenderers.add(result.getOverflowRenderer());
+                            break;
                         } else {
-                            ((ImageRenderer) result.getOverflowRenderer()).autoScale(currentArea);
-                            result.getOverflowRenderer().setProperty(Property.FORCED_PLACEMENT, true);
-                            Logger logger = LoggerFactory.getLogger(RootRenderer.class);
-                            logger.warn(MessageFormatUtil.format(LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA, ""));
-                        }
-                    } else {
-                        if (currentArea.isEmptyArea() && result.getAreaBreak() == null) {
-                            if (Boolean.TRUE.equals(result.getOverflowRenderer().getModelElement().<Boolean>getProperty(Property.KEEP_TOGETHER))) {
-                                result.getOverflowRenderer().getModelElement().setProperty(Property.KEEP_TOGETHER, false);
-                                Logger logger = LoggerFactory.getLogger(RootRenderer.class);
-                                logger.warn(MessageFormatUtil.format(LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA, "KeepTogether property will be ignored."));
-                                if (storedArea != null) {
-                                    nextStoredArea = currentArea;
-                                    currentArea = storedArea;
-                                    currentPageNumber = storedArea.getPageNumber();
-                                }
-                                storedArea = currentArea;
-                            } else if (null != result.getCauseOfNothing() && Boolean.TRUE.equals(result.getCauseOfNothing().<Boolean>getProperty(Property.KEEP_TOGETHER))) {
-                                // set KEEP_TOGETHER false on the deepest parent (maybe the element itself) to have KEEP_TOGETHER == true
-                                IRenderer theDeepestKeptTogether = result.getCauseOfNothing();
-                                IRenderer parent;
-                                while (null == theDeepestKeptTogether.getModelElement() || null == theDeepestKeptTogether.getModelElement().<Boolean>getOwnProperty(Property.KEEP_TOGETHER)) {
-                                    parent = ((AbstractRenderer) theDeepestKeptTogether).parent;
-                                    if (parent == null) {
-                                        break;
-                                    }
-                                    theDeepestKeptTogether = parent;
-                                }
-                                theDeepestKeptTogether.getModelElement().setProperty(Property.KEEP_TOGETHER, false);
-                                Logger logger = LoggerFactory.getLogger(RootRenderer.class);
-                                logger.warn(MessageFormatUtil.format(LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA, "KeepTogether property of inner element will be ignored."));
-                            } else if (!Boolean.TRUE.equals(renderer.<Boolean>getProperty(Property.FORCED_PLACEMENT))) {
-                                result.getOverflowRenderer().setProperty(Property.FORCED_PLACEMENT, true);
-                                Logger logger = LoggerFactory.getLogger(RootRenderer.class);
-                                logger.warn(MessageFormatUtil.format(LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA, ""));
-                            } else {
-                                // FORCED_PLACEMENT was already set to the renderer and
-                                // LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA message was logged.
-                                // This else-clause should never be hit, otherwise there is a bug in FORCED_PLACEMENT implementation.
-                                assert false;
-
-                                // Still handling this case in order to avoid nasty infinite loops.
-                                break;
-                            }
-                        } else {
-                            storedArea = currentArea;
+                            processRenderer(result.getSplitRenderer(), resultRenderers);
                             if (nextStoredArea != null) {
                                 currentArea = nextStoredArea;
                                 currentPageNumber = nextStoredArea.getPageNumber();
                                 nextStoredArea = null;
                             } else {
+                                currentAreaNeedsToBeUpdated = true;
+                            }
+                        }
+                    } else if (result.getStatus() == LayoutResult.NOTHING && !clearanceOverflowsToNextPage) {
+                        if (result.getOverflowRenderer() instanceof ImageRenderer) {
+                            float imgHeight = ((ImageRenderer) result.getOverflowRenderer()).getOccupiedArea().getBBox().getHeight();
+                            if (!floatRendererAreas.isEmpty()
+                                    || currentArea.getBBox().getHeight() < imgHeight && !currentArea.isEmptyArea()) {
                                 if (rendererIsFloat) {
                                     waitingNextPageRenderers.add(result.getOverflowRenderer());
                                     floatOverflowedCompletely = true;
                                     break;
                                 }
                                 currentAreaNeedsToBeUpdated = true;
+                            } else {
+                                ((ImageRenderer) result.getOverflowRenderer()).autoScale(currentArea);
+                                result.getOverflowRenderer().setProperty(Property.FORCED_PLACEMENT, true);
+                                Logger logger = LoggerFactory.getLogger(RootRenderer.class);
+                                logger.warn(MessageFormatUtil.format(LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA, ""));
+                            }
+                        } else {
+                            if (currentArea.isEmptyArea() && result.getAreaBreak() == null) {
+                                if (Boolean.TRUE.equals(result.getOverflowRenderer().getModelElement().<Boolean>getProperty(Property.KEEP_TOGETHER))) {
+                                    result.getOverflowRenderer().getModelElement().setProperty(Property.KEEP_TOGETHER, false);
+                                    Logger logger = LoggerFactory.getLogger(RootRenderer.class);
+                                    logger.warn(MessageFormatUtil.format(LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA, "KeepTogether property will be ignored."));
+                                    if (storedArea != null) {
+                                        nextStoredArea = currentArea;
+                                        currentArea = storedArea;
+                                        currentPageNumber = storedArea.getPageNumber();
+                                    }
+                                    storedArea = currentArea;
+                                } else if (null != result.getCauseOfNothing() && Boolean.TRUE.equals(result.getCauseOfNothing().<Boolean>getProperty(Property.KEEP_TOGETHER))) {
+                                    // set KEEP_TOGETHER false on the deepest parent (maybe the element itself) to have KEEP_TOGETHER == true
+                                    IRenderer theDeepestKeptTogether = result.getCauseOfNothing();
+                                    IRenderer parent;
+                                    while (null == theDeepestKeptTogether.getModelElement() || null == theDeepestKeptTogether.getModelElement().<Boolean>getOwnProperty(Property.KEEP_TOGETHER)) {
+                                        parent = ((AbstractRenderer) theDeepestKeptTogether).parent;
+                                        if (parent == null) {
+                                            break;
+                                        }
+                                        theDeepestKeptTogether = parent;
+                                    }
+                                    theDeepestKeptTogether.getModelElement().setProperty(Property.KEEP_TOGETHER, false);
+                                    Logger logger = LoggerFactory.getLogger(RootRenderer.class);
+                                    logger.warn(MessageFormatUtil.format(LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA, "KeepTogether property of inner element will be ignored."));
+                                } else if (!Boolean.TRUE.equals(renderer.<Boolean>getProperty(Property.FORCED_PLACEMENT))) {
+                                    result.getOverflowRenderer().setProperty(Property.FORCED_PLACEMENT, true);
+                                    Logger logger = LoggerFactory.getLogger(RootRenderer.class);
+                                    logger.warn(MessageFormatUtil.format(LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA, ""));
+                                } else {
+                                    // FORCED_PLACEMENT was already set to the renderer and
+                                    // LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA message was logged.
+                                    // This else-clause should never be hit, otherwise there is a bug in FORCED_PLACEMENT implementation.
+                                    assert false;
+
+                                    // Still handling this case in order to avoid nasty infinite loops.
+                                    break;
+                                }
+                            } else {
+                                storedArea = currentArea;
+                                if (nextStoredArea != null) {
+                                    currentArea = nextStoredArea;
+                                    currentPageNumber = nextStoredArea.getPageNumber();
+                                    nextStoredArea = null;
+                                } else {
+                                    if (rendererIsFloat) {
+                                        waitingNextPageRenderers.add(result.getOverflowRenderer());
+                                        floatOverflowedCompletely = true;
+                                        break;
+                                    }
+                                    currentAreaNeedsToBeUpdated = true;
+                                }
                             }
                         }
                     }
-                }
 
-                renderer = result.getOverflowRenderer();
+                    renderer = result.getOverflowRenderer();
+
+                    if (marginsCollapsingEnabled) {
+                        marginsCollapseHandler.endChildMarginsHandling(currentArea.getBBox());
+                    }
+                    if (currentAreaNeedsToBeUpdated) {
+                        updateCurrentAndInitialArea(result);
+                    }
+                    if (marginsCollapsingEnabled) {
+                        marginsCollapseHandler = new MarginsCollapseHandler(this, null);
+                        childMarginsInfo = marginsCollapseHandler.startChildMarginsHandling(renderer, currentArea.getBBox());
+                    }
 
+                    clearanceOverflowsToNextPage = clearanceOverflowsToNextPage
+                            && FloatingHelper.isClearanceApplied(waitingNextPageRenderers, renderer.<ClearPropertyValue>getProperty(Property.CLEAR));
+                }
                 if (marginsCollapsingEnabled) {
                     marginsCollapseHandler.endChildMarginsHandling(currentArea.getBBox());
                 }
-                if (currentAreaNeedsToBeUpdated) {
-                    updateCurrentAndInitialArea(result);
-                }
-                if (marginsCollapsingEnabled) {
-                    marginsCollapseHandler = new MarginsCollapseHandler(this, null);
-                    childMarginsInfo = marginsCollapseHandler.startChildMarginsHandling(renderer, currentArea.getBBox());
+
+                if (null != result && null != result.getSplitRenderer()) {
+                    renderer = result.getSplitRenderer();
                 }
 
-                clearanceOverflowsToNextPage = clearanceOverflowsToNextPage
-                        && FloatingHelper.isClearanceApplied(waitingNextPageRenderers, renderer.<ClearPropertyValue>getProperty(Property.CLEAR));
-            }
-            if (marginsCollapsingEnabled) {
-                marginsCollapseHandler.endChildMarginsHandling(currentArea.getBBox());
+                // Keep renderer until next element is added for future keep with next adjustments
+                if (renderer != null && result != null) {
+                    if (Boolean.TRUE.equals(renderer.<Boolean>getProperty(Property.KEEP_WITH_NEXT))) {
+                        if (Boolean.TRUE.equals(renderer.<Boolean>getProperty(Property.FORCED_PLACEMENT))) {
+                            Logger logger = LoggerFactory.getLogger(RootRenderer.class);
+                            logger.warn(LogMessageConstant.ELEMENT_WAS_FORCE_PLACED_KEEP_WITH_NEXT_WILL_BE_IGNORED);
+                            shrinkCurrentAreaAndProcessRenderer(renderer, resultRenderers, result);
+                        } else {
+                            keepWithNextHangingRenderer = renderer;
+                            keepWithNextHangingRendererLayoutResult = result;
+                        }
+                    } else if (result.getStatus() != LayoutResult.NOTHING) {
+                        shrinkCurrentAreaAndProcessRenderer(renderer, resultRenderers, result);
+                    }
+                }
             }
 
-            if (null != result && null != result.getSplitRenderer()) {
-                renderer = result.getSplitRenderer();
+            for (int i = 0; i < addedPositionedRenderers.size(); i++) {
+                positionedRenderers.add(addedPositionedRenderers.get(i));
+                renderer = positionedRenderers.get(positionedRenderers.size() - 1);
+                Integer positionedPageNumber = renderer.<Integer>getProperty(Property.PAGE_NUMBER);
+                if (positionedPageNumber == null)
+                    positionedPageNumber = currentPageNumber;
+
+                LayoutArea layoutArea;
+                // For position=absolute, if none of the top, bottom, left, right properties are provided,
+                // the content should be displayed in the flow of the current content, not overlapping it.
+                // The behavior is just if it would be statically positioned except it does not affect other elements
+                if (Integer.valueOf(LayoutPosition.ABSOLUTE).equals(renderer.<Integer>getProperty(Property.POSITION)) && AbstractRenderer.noAbsolutePositionInfo(renderer)) {
+                    layoutArea = new LayoutArea((int) positionedPageNumber, currentArea.getBBox().clone());
+                } else {
+                    layoutArea = new LayoutArea((int) positionedPageNumber, initialCurrentArea.getBBox().clone());
+                }
+                Rectangle fullBbox = layoutArea.getBBox().clone();
+                preparePositionedRendererAndAreaForLayout(renderer, fullBbox, layoutArea.getBBox());
+                renderer.layout(new PositionedLayoutContext(new LayoutArea(layoutArea.getPageNumber(), fullBbox), layoutArea));
+
+                if (immediateFlush) {
+                    flushSingleRenderer(renderer);
+                    positionedRenderers.remove(positionedRenderers.size() - 1);
+                }
             }
 
-            // Keep renderer until next element is added for future keep with next adjustments
-            if (renderer != null && result != null) {
-                if (Boolean.TRUE.equals(renderer.<Boolean>getProperty(Property.KEEP_WITH_NEXT))) {
-                    if (Boolean.TRUE.equals(renderer.<Boolean>getProperty(Property.FORCED_PLACEMENT))) {
-                        Logger logger = LoggerFactory.getLogger(RootRenderer.class);
-                        logger.warn(LogMessageConstant.ELEMENT_WAS_FORCE_PLACED_KEEP_WITH_NEXT_WILL_BE_IGNORED);
-                        shrinkCurrentAreaAndProcessRenderer(renderer, resultRenderers, result);
-                    } else {
-                        keepWithNextHangingRenderer = renderer;
-                        keepWithNextHangingRendererLayoutResult = result;
-                    }
-                } else if (result.getStatus() != LayoutResult.NOTHING) {
-                    shrinkCurrentAreaAndProcessRenderer(renderer, resultRenderers, result);
+            if (cachedLayout != null) {
+                if (isChildLayoutCacheable() && areaBreakUpdatesCount == areaBreakUpdatesCountBeforeLayout) {
+                    cachedLayout.setResult(childRenderers.subList(childRenderersCountBeforeLayout, childRenderers.size()),
+                            positionedRenderers.subList(positionedRenderersCountBeforeLayout, positionedRenderers.size()),
+                            areaUpdatesCount - areaUpdatesCountBeforeLayout, currentArea, initialCurrentArea);
+                    layoutCache.put(modelElement, cachedLayout);
+                } else {
+                    layoutCache.remove(modelElement);
                 }
             }
+        } finally {
+            addChildDepth--;
         }
+    }
 
-        for (int i = 0; i < addedPositionedRenderers.size(); i++) {
-            positionedRenderers.add(addedPositionedRenderers.get(i));
-            renderer = positionedRenderers.get(positionedRenderers.size() - 1);
-            Integer positionedPageNumber = renderer.<Integer>getProperty(Property.PAGE_NUMBER);
-            if (positionedPageNumber == null)
-                positionedPageNumber = currentPageNumber;
+    /**
+     * Places the content which has been produced for the given element during the layout performed by another
+     * root renderer, without laying the element out again. This is used on relayout to skip the elements
+     * which have not changed since the previous layout pass.
+     * <p>
+     * The previous layout is only reused if the element starts in exactly the same area (the same page,
+     * position and size) as during the previous pass, and if neither floating elements nor
+     * {@link Property#KEEP_WITH_NEXT} links to the neighbouring elements could have affected it.
+     * The pages the element spans are still created in the same order, so that page event handlers are triggered
+     * as during the usual layout.
+     *
+     * @param element          the element to be placed, it must not have been changed since the previous pass
+     * @param previousRenderer the root renderer which has laid out the element previously
+     * @return true if the previous layout has been reused, false if the element needs to be laid out as usual
+     */
+    public boolean addChildFromPreviousLayout(IElement element, RootRenderer previousRenderer) {
+        CachedChildLayout cachedLayout = previousRenderer.layoutCache != null ? previousRenderer.layoutCache.get(element) : null;
+        if (cachedLayout == null || layoutCache == null || immediateFlush
+                || this.<LayoutTaggingHelper>getProperty(Property.TAGGING_HELPER) != null
+                || Boolean.TRUE.equals(getPropertyAsBoolean(Property.COLLAPSING_MARGINS))) {
+            return false;
+        }
+        if (currentArea == null) {
+            updateCurrentAndInitialArea(null);
+        }
+        if (!isChildLayoutCacheable() || !cachedLayout.isApplicableTo(currentArea, initialCurrentArea)) {
+            return false;
+        }
 
-            LayoutArea layoutArea;
-            // For position=absolute, if none of the top, bottom, left, right properties are provided,
-            // the content should be displayed in the flow of the current content, not overlapping it.
-            // The behavior is just if it would be statically positioned except it does not affect other elements
-            if (Integer.valueOf(LayoutPosition.ABSOLUTE).equals(renderer.<Integer>getProperty(Property.POSITION)) && AbstractRenderer.noAbsolutePositionInfo(renderer)) {
-                layoutArea = new LayoutArea((int) positionedPageNumber, currentArea.getBBox().clone());
-            } else {
-                layoutArea = new LayoutArea((int) positionedPageNumber, initialCurrentArea.getBBox().clone());
+        for (int i = 0; i < cachedLayout.areaUpdatesCount; i++) {
+            updateCurrentAndInitialArea(null);
+        }
+        currentArea = (RootLayoutArea) cachedLayout.resultArea.clone();
+        currentPageNumber = currentArea.getPageNumber();
+        initialCurrentArea = cachedLayout.resultInitialArea.clone();
+        for (IRenderer childRenderer : cachedLayout.childRenderers) {
+            childRenderers.add(childRenderer.setParent(this));
+        }
+        for (IRenderer positionedRenderer : cachedLayout.positionedRenderers) {
+            positionedRenderers.add(positionedRenderer.setParent(this));
+        }
+        layoutCache.put(element, cachedLayout);
+        return true;
+    }
+
+    /**
+     * Places the content which has been laid out by another root renderer starting from a new page, as if it were
+     * laid out by this renderer starting from its current area. The pages are created in the same way as during
+     * the usual layout and the page numbers of the laid out renderers are adjusted accordingly.
+     * <p>
+     * The content can only be placed if this renderer is at the very beginning of a page which has the same
+     * effective area as the first page of the laid out content and if the laid out content has no elements left
+     * which would affect the layout of the following content.
+     *
+     * @param laidOutRenderer the root renderer which has laid out the content starting from page 1
+     * @param firstArea       the area of the first page the content has been laid out on
+     * @param areaBreaks      the area breaks which have caused the transitions between the pages of the content,
+     *                        a null item corresponds to a transition caused by overflow
+     * @return true if the content has been placed, false if it has to be laid out again by this renderer
+     */
+    boolean addLaidOutContent(RootRenderer laidOutRenderer, LayoutArea firstArea, List<AreaBreak> areaBreaks) {
+        if (currentArea == null || laidOutRenderer.currentArea == null || immediateFlush && !laidOutRenderer.positionedRenderers.isEmpty()
+                || this.<LayoutTaggingHelper>getProperty(Property.TAGGING_HELPER) != null
+                || keepWithNextHangingRenderer != null || !waitingNextPageRenderers.isEmpty() || floatOverflowedCompletely
+                || !floatRendererAreas.isEmpty() || !currentArea.isEmptyArea()
+                || !currentArea.getBBox().equalsWithEpsilon(initialCurrentArea.getBBox())
+                || !currentArea.getBBox().equalsWithEpsilon(firstArea.getBBox())
+                || laidOutRenderer.keepWithNextHangingRenderer != null || !laidOutRenderer.waitingNextPageRenderers.isEmpty()
+                || laidOutRenderer.floatOverflowedCompletely) {
+            return false;
+        }
+        int pagesCount = areaBreaks.size() + 1;
+        List<List<IRenderer>> childRenderersByPage = new ArrayList<>(pagesCount);
+        for (int i = 0; i < pagesCount; i++) {
+            childRenderersByPage.add(new ArrayList<IRenderer>());
+        }
+        for (IRenderer childRenderer : laidOutRenderer.childRenderers) {
+            int pageNumber = childRenderer.getOccupiedArea().getPageNumber();
+            if (pageNumber < 1 || pageNumber > pagesCount) {
+                return false;
             }
-            Rectangle fullBbox = layoutArea.getBBox().clone();
-            preparePositionedRendererAndAreaForLayout(renderer, fullBbox, layoutArea.getBBox());
-            renderer.layout(new PositionedLayoutContext(new LayoutArea(layoutArea.getPageNumber(), fullBbox), layoutArea));
+            childRenderersByPage.get(pageNumber - 1).add(childRenderer);
+        }
+        for (IRenderer positionedRenderer : laidOutRenderer.positionedRenderers) {
+            if (positionedRenderer.hasProperty(Property.PAGE_NUMBER)) {
+                return false;
+            }
+        }
 
-            if (immediateFlush) {
-                flushSingleRenderer(renderer);
-                positionedRenderers.remove(positionedRenderers.size() - 1);
+        int pageNumberOffset = currentPageNumber - 1;
+        Set<Object> shiftedObjects = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (IRenderer childRenderer : laidOutRenderer.childRenderers) {
+            shiftPageNumbers(childRenderer, pageNumberOffset, shiftedObjects);
+        }
+        for (IRenderer positionedRenderer : laidOutRenderer.positionedRenderers) {
+            shiftPageNumbers(positionedRenderer, pageNumberOffset, shiftedObjects);
+        }
+
+        for (int i = 0; i < pagesCount; i++) {
+            if (i > 0) {
+                AreaBreak areaBreak = areaBreaks.get(i - 1);
+                updateCurrentAndInitialArea(areaBreak == null ? null : new LayoutResult(LayoutResult.NOTHING, null, null, null).setAreaBreak(areaBreak));
+            }
+            for (IRenderer childRenderer : childRenderersByPage.get(i)) {
+                childRenderer.setParent(this);
+                if (immediateFlush) {
+                    flushSingleRenderer(childRenderer);
+                } else {
+                    childRenderers.add(childRenderer);
+                }
             }
         }
+        for (IRenderer positionedRenderer : laidOutRenderer.positionedRenderers) {
+            positionedRenderers.add(positionedRenderer.setParent(this));
+        }
+
+        currentArea = (RootLayoutArea) laidOutRenderer.currentArea.clone();
+        currentArea.setPageNumber(currentPageNumber);
+        floatRendererAreas = new ArrayList<>(laidOutRenderer.floatRendererAreas);
+        if (Boolean.TRUE.equals(getPropertyAsBoolean(Property.COLLAPSING_MARGINS))) {
+            marginsCollapseHandler = new MarginsCollapseHandler(this, null);
+        }
+        return true;
     }
 
     /**
@@ -315,6 +479,7 @@ public abstract class RootRenderer extends AbstractRenderer {
      * and when no consequent element has been added. This method addresses such situations.
      */
     public void close() {
+        layoutCache = null;
         addAllWaitingNextPageRenderers();
         if (keepWithNextHangingRenderer != null) {
             keepWithNextHangingRenderer.setProperty(Property.KEEP_WITH_NEXT, false);
@@ -458,7 +623,41 @@ public abstract class RootRenderer extends AbstractRenderer {
         }
     }
 
+    private static void shiftPageNumbers(IRenderer renderer, int pageNumberOffset, Set<Object> shiftedObjects) {
+        // Renderers and their areas might be shared, e.g. table headers are shared by all the table parts
+        if (!(renderer instanceof AbstractRenderer) || !shiftedObjects.add(renderer)) {
+            return;
+        }
+        AbstractRenderer abstractRenderer = (AbstractRenderer) renderer;
+        if (abstractRenderer.occupiedArea != null && shiftedObjects.add(abstractRenderer.occupiedArea)) {
+            abstractRenderer.occupiedArea.setPageNumber(abstractRenderer.occupiedArea.getPageNumber() + pageNumberOffset);
+        }
+        for (IRenderer childRenderer : abstractRenderer.childRenderers) {
+            shiftPageNumbers(childRenderer, pageNumberOffset, shiftedObjects);
+        }
+        for (IRenderer positionedRenderer : abstractRenderer.positionedRenderers) {
+            shiftPageNumbers(positionedRenderer, pageNumberOffset, shiftedObjects);
+        }
+        if (renderer instanceof TableRenderer) {
+            TableRenderer tableRenderer = (TableRenderer) renderer;
+            shiftPageNumbers(tableRenderer.headerRenderer, pageNumberOffset, shiftedObjects);
+            shiftPageNumbers(tableRenderer.footerRenderer, pageNumberOffset, shiftedObjects);
+            shiftPageNumbers(tableRenderer.captionRenderer, pageNumberOffset, shiftedObjects);
+        } else if (renderer instanceof ListItemRenderer) {
+            shiftPageNumbers(((ListItemRenderer) renderer).symbolRenderer, pageNumberOffset, shiftedObjects);
+        }
+    }
+
+    private boolean isChildLayoutCacheable() {
+        return !immediateFlush && layoutCache != null && currentArea != null && keepWithNextHangingRenderer == null
+                && waitingNextPageRenderers.isEmpty() && !floatOverflowedCompletely && floatRendererAreas.isEmpty();
+    }
+
     private void updateCurrentAndInitialArea(LayoutResult overflowResult) {
+        areaUpdatesCount++;
+        if (overflowResult != null && overflowResult.getAreaBreak() != null) {
+            areaBreakUpdatesCount++;
+        }
         floatRendererAreas = new ArrayList<>();
         updateCurrentArea(overflowResult);
         initialCurrentArea = currentArea == null ? null : currentArea.clone();
@@ -484,4 +683,47 @@ public abstract class RootRenderer extends AbstractRenderer {
             addChild(renderer);
         }
     }
+
+    private static final class CachedChildLayout {
+        private final LayoutArea startArea;
+        private final LayoutArea startInitialArea;
+        private final boolean startAreaIsEmpty;
+        private List<IRenderer> childRenderers;
+        private List<IRenderer> positionedRenderers;
+        private int areaUpdatesCount;
+        private LayoutArea resultArea;
+        private LayoutArea resultInitialArea;
+
+        CachedChildLayout(RootLayoutArea startArea, LayoutArea startInitialArea) {
+            this.startArea = startArea.clone();
+            this.startInitialArea = startInitialArea.clone();
+            this.startAreaIsEmpty = startArea.isEmptyArea();
+        }
+
+        void setResult(List<IRenderer> childRenderers, List<IRenderer> positionedRenderers, int areaUpdatesCount,
+                       RootLayoutArea resultArea, LayoutArea resultInitialArea) {
+            this.childRenderers = new ArrayList<>(childRenderers);
+            this.positionedRenderers = new ArrayList<>(positionedRenderers);
+            this.areaUpdatesCount = areaUpdatesCount;
+            this.resultArea = resultArea.clone();
+            this.resultInitialArea = resultInitialArea.clone();
+        }
+
+        boolean isApplicableTo(RootLayoutArea area, LayoutArea initialArea) {
+            if (!startArea.equals(area) || startAreaIsEmpty != area.isEmptyArea() || !startInitialArea.equals(initialArea)) {
+                return false;
+            }
+            for (IRenderer renderer : childRenderers) {
+                if (renderer.isFlushed()) {
+                    return false;
+                }
+            }
+            for (IRenderer renderer : positionedRenderers) {
+                if (renderer.isFlushed()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -566,11 +566,26 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
     }
 
     public void applyOtf() {
+        // the text is shaped as a whole only if it is converted right now, so the cached shaping can be reused then
+        String convertedText = strToBeConverted;
         updateFontAndText();
         Character.UnicodeScript script = this.<Character.UnicodeScript>getProperty(Property.FONT_SCRIPT);
         if (!otfFeaturesApplied && TypographyUtils.isTypographyModuleInitialized() && text.start < text.end) {
+            Object typographyConfig = this.<Object>getProperty(Property.TYPOGRAPHY_CONFIG);
+            FontKerning fontKerning = (FontKerning) this.<FontKerning>getProperty(Property.FONT_KERNING, FontKerning.NO);
+            if (convertedText != null) {
+                GlyphLineCache.ShapedGlyphLine shapedText = GlyphLineCache.getShapedGlyphLine(font, convertedText, script, typographyConfig, fontKerning);
+                if (shapedText != null) {
+                    text = shapedText.glyphLine;
+                    if (shapedText.bidiScriptDetected && parent instanceof LineRenderer) {
+                        setProperty(Property.BASE_DIRECTION, BaseDirection.DEFAULT_BIDI);
+                    }
+                    otfFeaturesApplied = true;
+                    return;
+                }
+            }
+            boolean bidiScriptDetected = false;
             if (hasOtfFont()) {
-                Object typographyConfig = this.<Object>getProperty(Property.TYPOGRAPHY_CONFIG);
                 Collection<Character.UnicodeScript> supportedScripts = null;
         	    if (typographyConfig != null) {
     	            supportedScripts = TypographyUtils.getSupportedScripts(typographyConfig);
@@ -618,13 +633,16 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                     text.start = shapingRangeStart;
                     text.end = scriptsRange.rangeEnd;
 
-                    if ((scriptsRange.script == Character.UnicodeScript.ARABIC || scriptsRange.script == Character.UnicodeScript.HEBREW) && parent instanceof LineRenderer) {
-                        // It's safe to set here BASE_DIRECTION to TextRenderer without additional checks, because
-                        // by convention this property makes sense only if it's applied to LineRenderer or it's
-                        // parents (Paragraph or above).
-                        // Only if it's not found there first, LineRenderer tries to fetch autodetected BaseDirection
-                        // from text renderers (see LineRenderer#applyOtf).
-                        setProperty(Property.BASE_DIRECTION, BaseDirection.DEFAULT_BIDI);
+                    if (scriptsRange.script == Character.UnicodeScript.ARABIC || scriptsRange.script == Character.UnicodeScript.HEBREW) {
+                        bidiScriptDetected = true;
+                        if (parent instanceof LineRenderer) {
+                            // It's safe to set here BASE_DIRECTION to TextRenderer without additional checks, because
+                            // by convention this property makes sense only if it's applied to LineRenderer or it's
+                            // parents (Paragraph or above).
+                            // Only if it's not found there first, LineRenderer tries to fetch autodetected BaseDirection
+                            // from text renderers (see LineRenderer#applyOtf).
+                            setProperty(Property.BASE_DIRECTION, BaseDirection.DEFAULT_BIDI);
+                        }
                     }
                     TypographyUtils.applyOtfScript(font.getFontProgram(), text, scriptsRange.script, typographyConfig);
 
@@ -635,11 +653,14 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                 text.end = origTextEnd + delta;
             }
 
-            FontKerning fontKerning = (FontKerning) this.<FontKerning>getProperty(Property.FONT_KERNING, FontKerning.NO);
             if (fontKerning == FontKerning.YES) {
                 TypographyUtils.applyKerning(font.getFontProgram(), text);
             }
 
+            if (convertedText != null) {
+                GlyphLineCache.putShapedGlyphLine(font, convertedText, script, typographyConfig, fontKerning,
+                        new GlyphLineCache.ShapedGlyphLine(text, bidiScriptDetected));
+            }
             otfFeaturesApplied = true;
         }
     }
@@ -1079,7 +1100,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
     }
 
     private GlyphLine convertToGlyphLine(String text) {
-        return font.createGlyphLine(text);
+        return GlyphLineCache.getGlyphLine(font, text);
     }
 
     private boolean hasOtfFont() {
@@ -70,9 +70,12 @@ import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 @Category(IntegrationTest.class)
@@ -81,6 +84,9 @@ public class LargeElementTest extends ExtendedITextTest {
     public static final String sourceFolder = "./src/test/resources/com/itextpdf/layout/LargeElementTest/";
     public static final String destinationFolder = "./target/test/com/itextpdf/layout/LargeElementTest/";
 
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
     @BeforeClass
     public static void beforeClass() {
         createDestinationFolder(destinationFolder);
@@ -1087,4 +1093,75 @@ public class LargeElementTest extends ExtendedITextTest {
 
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
     }
+
+    @Test
+    @LogMessages(messages = {@LogMessage(messageTemplate = LogMessageConstant.LAST_ROW_IS_NOT_COMPLETE, count = 2)})
+    public void largeTableAutoFlushTest() throws IOException, InterruptedException {
+        String testName = "largeTableAutoFlushTest.pdf";
+        String outFileName = destinationFolder + testName;
+        String cmpFileName = destinationFolder + "cmp_" + testName;
+
+        createLargeTableDocument(outFileName, true);
+        createLargeTableDocument(cmpFileName, false);
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
+    }
+
+    @Test
+    public void largeTableAutoFlushKeepsFewRowsTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        Document doc = new Document(pdfDoc);
+
+        Table table = new Table(UnitValue.createPercentArray(3), true).setAutoFlushRowCount(5);
+        doc.add(table);
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j < 3; j++) {
+                table.addCell(new Cell().add(new Paragraph(MessageFormatUtil.format("Cell {0}, {1}", i + 1, j + 1))));
+            }
+            Assert.assertTrue(table.getChildren().size() < 5 * 3);
+        }
+        Assert.assertTrue(pdfDoc.getNumberOfPages() > 1);
+        table.complete();
+
+        doc.close();
+    }
+
+    @Test
+    public void largeTableAutoFlushNegativeRowCountTest() {
+        junitExpectedException.expect(IllegalArgumentException.class);
+        new Table(UnitValue.createPercentArray(3), true).setAutoFlushRowCount(-1);
+    }
+
+    private static void createLargeTableDocument(String fileName, boolean autoFlush) throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(fileName));
+        Document doc = new Document(pdfDoc);
+
+        Table table = new Table(UnitValue.createPercentArray(4), true);
+        if (autoFlush) {
+            table.setAutoFlushRowCount(10);
+        }
+        for (int i = 0; i < 4; i++) {
+            table.addHeaderCell(new Cell().add(new Paragraph("Header " + i)));
+            table.addFooterCell(new Cell().add(new Paragraph("Footer " + i)));
+        }
+        doc.add(table);
+        for (int i = 0; i < 200; i++) {
+            if (i % 25 == 0) {
+                table.addCell(new Cell(3, 1).add(new Paragraph(MessageFormatUtil.format("Cell {0} with rowspan", i + 1)))
+                        .setBackgroundColor(ColorConstants.YELLOW));
+            } else if (i % 25 > 2) {
+                table.addCell(new Cell().add(new Paragraph(MessageFormatUtil.format("Cell {0}, 1", i + 1))));
+            }
+            for (int j = 1; j < 4; j++) {
+                table.addCell(new Cell().add(new Paragraph(MessageFormatUtil.format("Cell {0}, {1}", i + 1, j + 1))));
+            }
+            if (!autoFlush && i % 10 == 9) {
+                table.flush();
+            }
+        }
+        table.complete();
+        doc.add(new Paragraph("Text after the table"));
+
+        doc.close();
+    }
 }
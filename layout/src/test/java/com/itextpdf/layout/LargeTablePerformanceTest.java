@@ -0,0 +1,110 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout;
+
+import com.itextpdf.io.util.IdelOutputStream;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.property.UnitValue;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Generates a million-row large table which flushes its rows automatically and measures the bytes allocated
+ * for each block of rows with the thread allocation counter of the JVM. Checks that the allocation per block
+ * doesn't grow with the table length, and that the table never keeps more rows than the auto flush row count.
+ */
+@Category(PerformanceTest.class)
+public class LargeTablePerformanceTest extends ExtendedITextTest {
+
+    private static final int ROWS_COUNT = 1000000;
+    private static final int ROWS_PER_BLOCK = 100000;
+    private static final int COLUMNS_COUNT = 3;
+    private static final int AUTO_FLUSH_ROW_COUNT = 100;
+
+    @Test
+    public void millionRowsAutoFlushTableTest() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new IdelOutputStream()));
+        Document doc = new Document(pdfDoc);
+
+        Table table = new Table(UnitValue.createPercentArray(COLUMNS_COUNT), true).setAutoFlushRowCount(AUTO_FLUSH_ROW_COUNT);
+        doc.add(table);
+        long[] blockBytes = new long[ROWS_COUNT / ROWS_PER_BLOCK];
+        long blockStart = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ROWS_COUNT; i++) {
+            table.addCell("Row " + i);
+            table.addCell("Value " + i * 7);
+            table.addCell("Comment for row " + i);
+            Assert.assertTrue(table.getChildren().size() < AUTO_FLUSH_ROW_COUNT * COLUMNS_COUNT);
+            if ((i + 1) % ROWS_PER_BLOCK == 0) {
+                long allocated = allocationBean.getThreadAllocatedBytes(threadId);
+                blockBytes[i / ROWS_PER_BLOCK] = allocated - blockStart;
+                blockStart = allocated;
+            }
+        }
+        Assert.assertTrue(pdfDoc.getNumberOfPages() > 1);
+        table.complete();
+        doc.close();
+
+        // the first block includes the warm-up, so the following ones are compared with the second one
+        for (int i = 2; i < blockBytes.length; i++) {
+            Assert.assertTrue("Allocation per row grows with the table length", blockBytes[i] < blockBytes[1] * 3 / 2);
+        }
+    }
+}
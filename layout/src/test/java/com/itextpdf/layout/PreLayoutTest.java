@@ -65,6 +65,7 @@ import org.junit.experimental.categories.Category;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Category(IntegrationTest.class)
@@ -183,6 +184,80 @@ public class PreLayoutTest extends ExtendedITextTest{
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
     }
 
+    @Test
+    public void incrementalRelayoutTest() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "incrementalRelayoutTest.pdf";
+        String cmpFileName = destinationFolder + "incrementalRelayoutTest_fullRelayout.pdf";
+        String headerText = "Total pages: {total}";
+
+        List<IRenderer> renderersBeforeRelayout = new ArrayList<>();
+        List<IRenderer> renderersAfterRelayout = new ArrayList<>();
+        createTotalPagesDocument(cmpFileName, headerText, false, new ArrayList<IRenderer>(), new ArrayList<IRenderer>());
+        createTotalPagesDocument(outFileName, headerText, true, renderersBeforeRelayout, renderersAfterRelayout);
+
+        // Only the changed header and footer paragraphs are expected to be laid out again
+        Assert.assertEquals(renderersBeforeRelayout.size(), renderersAfterRelayout.size());
+        Assert.assertNotSame(renderersBeforeRelayout.get(0), renderersAfterRelayout.get(0));
+        for (int i = 1; i < renderersAfterRelayout.size() - 1; i++) {
+            Assert.assertSame(renderersBeforeRelayout.get(i), renderersAfterRelayout.get(i));
+        }
+        Assert.assertNotSame(renderersBeforeRelayout.get(renderersBeforeRelayout.size() - 1), renderersAfterRelayout.get(renderersAfterRelayout.size() - 1));
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    @Test
+    public void incrementalRelayoutChangedHeightTest() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "incrementalRelayoutChangedHeightTest.pdf";
+        String cmpFileName = destinationFolder + "incrementalRelayoutChangedHeightTest_fullRelayout.pdf";
+        StringBuilder headerText = new StringBuilder("Total pages: {total}.");
+        for (int i = 0; i < 20; i++) {
+            headerText.append(" The header becomes longer after the relayout.");
+        }
+
+        List<IRenderer> renderersBeforeRelayout = new ArrayList<>();
+        List<IRenderer> renderersAfterRelayout = new ArrayList<>();
+        createTotalPagesDocument(cmpFileName, headerText.toString(), false, new ArrayList<IRenderer>(), new ArrayList<IRenderer>());
+        createTotalPagesDocument(outFileName, headerText.toString(), true, renderersBeforeRelayout, renderersAfterRelayout);
+
+        // The header has moved the subsequent content down, so it has to be laid out again
+        for (int i = 0; i < 10; i++) {
+            Assert.assertFalse(renderersBeforeRelayout.contains(renderersAfterRelayout.get(i)));
+        }
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    private static void createTotalPagesDocument(String outFileName, String headerTemplate, boolean incrementalRelayout,
+                                                 List<IRenderer> renderersBeforeRelayout, List<IRenderer> renderersAfterRelayout) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFileName));
+        Document document = new Document(pdfDocument, PageSize.A4, false);
+        document.setProperty(Property.FONT, PdfFontFactory.createFont(StandardFonts.HELVETICA));
+
+        Text header = new Text("Total pages: {total}");
+        document.add(new Paragraph(header));
+        for (int i = 0; i < 150; i++) {
+            document.add(new Paragraph("This is just junk text #" + i));
+        }
+        Text footer = new Text("This document has {total} pages");
+        document.add(new Paragraph(footer));
+
+        renderersBeforeRelayout.addAll(document.getRenderer().getChildRenderers());
+
+        String totalPages = String.valueOf(pdfDocument.getNumberOfPages());
+        header.setText(headerTemplate.replace("{total}", totalPages));
+        footer.setText("This document has " + totalPages + " pages");
+        if (incrementalRelayout) {
+            document.relayout(Arrays.asList(header, footer));
+        } else {
+            document.relayout();
+        }
+
+        renderersAfterRelayout.addAll(document.getRenderer().getChildRenderers());
+
+        document.close();
+    }
+
     static class TwoColumnParagraphRenderer extends ParagraphRenderer {
 
         int oneColumnPage = -1;
@@ -0,0 +1,153 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import com.itextpdf.io.util.IdelOutputStream;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.ElementPropertyContainer;
+import com.itextpdf.layout.borders.SolidBorder;
+import com.itextpdf.layout.element.AbstractElement;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.IElement;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.layout.LayoutContext;
+import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.renderer.AbstractRenderer;
+import com.itextpdf.layout.renderer.IRenderer;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the heap retained by the element tree and the laid out renderer tree of a big table when the properties
+ * are stored in {@link PropertyMap} instances, as they are now, and in {@link HashMap} instances, as they were before.
+ * The footprint is first measured on the trees as they are created by layout, then the storages of all the elements
+ * and renderers of the same trees are replaced with {@link HashMap} copies and the footprint is measured again.
+ */
+@Category(PerformanceTest.class)
+public class PropertyMapPerformanceTest extends ExtendedITextTest {
+
+    private static final int ROWS_COUNT = 10000;
+    private static final int COLUMNS_COUNT = 4;
+
+    @Test
+    public void largeTablePropertiesFootprintTest() throws NoSuchFieldException, IllegalAccessException {
+        long before = usedMemory();
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new IdelOutputStream()));
+        pdfDocument.addNewPage();
+        Document document = new Document(pdfDocument);
+        Table table = new Table(COLUMNS_COUNT);
+        for (int i = 0; i < ROWS_COUNT * COLUMNS_COUNT; i++) {
+            table.addCell(new Cell().add(new Paragraph("Cell " + i).setFontSize(8).setFontColor(ColorConstants.BLUE))
+                    .setPadding(2).setBorder(new SolidBorder(0.5f)));
+        }
+        IRenderer tableRenderer = table.createRendererSubTree().setParent(document.getRenderer());
+        LayoutResult result = tableRenderer.layout(new LayoutContext(
+                new LayoutArea(1, new Rectangle(36, 36, 523, 1000000))));
+        Assert.assertEquals(LayoutResult.FULL, result.getStatus());
+
+        long propertyMapRetained = usedMemory() - before;
+
+        Field elementProperties = ElementPropertyContainer.class.getDeclaredField("properties");
+        elementProperties.setAccessible(true);
+        Field rendererProperties = AbstractRenderer.class.getDeclaredField("properties");
+        rendererProperties.setAccessible(true);
+        int elementsCount = replaceWithHashMaps(table, elementProperties);
+        int renderersCount = replaceWithHashMaps(tableRenderer, rendererProperties);
+
+        long hashMapRetained = usedMemory() - before;
+
+        Assert.assertTrue(elementsCount > ROWS_COUNT * COLUMNS_COUNT * 3);
+        Assert.assertTrue(renderersCount > ROWS_COUNT * COLUMNS_COUNT * 3);
+        Assert.assertTrue("Retained with property maps: " + propertyMapRetained + " bytes, with hash maps: "
+                + hashMapRetained, propertyMapRetained < hashMapRetained);
+        document.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int replaceWithHashMaps(IElement element, Field properties) throws IllegalAccessException {
+        properties.set(element, new HashMap<>((Map<Integer, Object>) properties.get(element)));
+        int count = 1;
+        if (element instanceof AbstractElement) {
+            for (IElement child : ((AbstractElement<?>) element).getChildren()) {
+                count += replaceWithHashMaps(child, properties);
+            }
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int replaceWithHashMaps(IRenderer renderer, Field properties) throws IllegalAccessException {
+        int count = 0;
+        if (renderer instanceof AbstractRenderer) {
+            properties.set(renderer, new HashMap<>((Map<Integer, Object>) properties.get(renderer)));
+            count++;
+        }
+        for (IRenderer child : renderer.getChildRenderers()) {
+            count += replaceWithHashMaps(child, properties);
+        }
+        return count;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,171 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+@Category(UnitTest.class)
+public class PropertyMapTest extends ExtendedITextTest {
+
+    @Test
+    public void putGetRemoveTest() {
+        PropertyMap map = new PropertyMap();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(Property.FONT_SIZE));
+        Assert.assertFalse(map.containsKey(Property.FONT_SIZE));
+
+        Assert.assertNull(map.put(Property.FONT_SIZE, UnitValue.createPointValue(12)));
+        Assert.assertEquals(UnitValue.createPointValue(12), map.put(Property.FONT_SIZE, UnitValue.createPointValue(14)));
+        Assert.assertEquals(UnitValue.createPointValue(14), map.get(Property.FONT_SIZE));
+        Assert.assertEquals(1, map.size());
+
+        Assert.assertEquals(UnitValue.createPointValue(14), map.remove(Property.FONT_SIZE));
+        Assert.assertFalse(map.containsKey(Property.FONT_SIZE));
+        Assert.assertNull(map.remove(Property.FONT_SIZE));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void nullValueTest() {
+        PropertyMap map = new PropertyMap();
+        map.put(Property.BORDER, null);
+        Assert.assertTrue(map.containsKey(Property.BORDER));
+        Assert.assertTrue(map.containsKey((Object) Property.BORDER));
+        Assert.assertNull(map.get(Property.BORDER));
+        Assert.assertEquals(1, map.size());
+        Assert.assertTrue(map.containsValue(null));
+    }
+
+    @Test
+    public void boxedKeysTest() {
+        Map<Integer, Object> map = new PropertyMap();
+        map.put(Property.MARGIN_TOP, "top");
+        Assert.assertEquals("top", map.get(Property.MARGIN_TOP));
+        Assert.assertNull(map.get("not a property"));
+        Assert.assertFalse(map.containsKey("not a property"));
+        Assert.assertNull(map.remove("not a property"));
+        Assert.assertEquals("top", map.remove(Property.MARGIN_TOP));
+    }
+
+    @Test
+    public void consistencyWithHashMapTest() {
+        Random random = new Random(42);
+        PropertyMap map = new PropertyMap();
+        Map<Integer, Object> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(200) - 20;
+            switch (random.nextInt(3)) {
+                case 0:
+                    Assert.assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    Object value = random.nextInt(10) == 0 ? null : (Object) i;
+                    Assert.assertEquals(expected.put(key, value), map.put(key, value));
+                    break;
+            }
+            Assert.assertEquals(expected.size(), map.size());
+            Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        Assert.assertEquals(expected, new PropertyMap(map));
+        Assert.assertEquals(expected, new PropertyMap(expected));
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        PropertyMap map = new PropertyMap();
+        for (int i = 1; i <= 20; i++) {
+            map.put(i, (Object) i);
+        }
+        Iterator<Map.Entry<Integer, Object>> iterator = map.entrySet().iterator();
+        int iterated = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Object> entry = iterator.next();
+            iterated++;
+            if (entry.getKey() % 2 == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(-entry.getKey());
+            }
+        }
+        Assert.assertEquals(20, iterated);
+        Assert.assertEquals(10, map.size());
+        for (int i = 1; i <= 20; i++) {
+            Assert.assertEquals(i % 2 == 0 ? null : (Object) (-i), map.get(i));
+        }
+        map.keySet().clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void staticAccessorsTest() {
+        checkStaticAccessors(new PropertyMap());
+        checkStaticAccessors(new HashMap<Integer, Object>());
+    }
+
+    private static void checkStaticAccessors(Map<Integer, Object> map) {
+        Assert.assertFalse(PropertyMap.containsProperty(map, Property.FONT_SIZE));
+        PropertyMap.putProperty(map, Property.FONT_SIZE, UnitValue.createPointValue(12));
+        PropertyMap.putProperty(map, Property.BORDER, null);
+        Assert.assertEquals(UnitValue.createPointValue(12), PropertyMap.getProperty(map, Property.FONT_SIZE));
+        Assert.assertTrue(PropertyMap.containsProperty(map, Property.BORDER));
+        Assert.assertNull(PropertyMap.getProperty(map, Property.BORDER));
+
+        PropertyMap.removeProperty(map, Property.FONT_SIZE);
+        Assert.assertFalse(PropertyMap.containsProperty(map, Property.FONT_SIZE));
+        Assert.assertEquals(1, map.size());
+    }
+}
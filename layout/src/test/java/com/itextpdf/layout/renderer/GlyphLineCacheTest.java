@@ -0,0 +1,202 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Text;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.layout.LayoutContext;
+import com.itextpdf.layout.property.FontKerning;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+@Category(UnitTest.class)
+public class GlyphLineCacheTest extends ExtendedITextTest {
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @Test
+    public void cachedGlyphLineTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont();
+        GlyphLine first = GlyphLineCache.getGlyphLine(font, "Hello World");
+        GlyphLine second = GlyphLineCache.getGlyphLine(font, "Hello World");
+
+        GlyphLineCache cache = GlyphLineCache.getInstance(font);
+        Assert.assertEquals(font.createGlyphLine("Hello World"), first);
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(0.5, cache.getHitRate(), 1e-9);
+
+        cache.resetStatistics();
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void cachedGlyphLineIsCopiedTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont();
+        GlyphLine first = GlyphLineCache.getGlyphLine(font, "Hello");
+        first.add(font.getGlyph('!'));
+        GlyphLine second = GlyphLineCache.getGlyphLine(font, "Hello");
+        second.set(0, font.getGlyph('J'));
+
+        Assert.assertEquals(font.createGlyphLine("Hello"), GlyphLineCache.getGlyphLine(font, "Hello"));
+    }
+
+    @Test
+    public void fontsAreCachedSeparatelyTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont();
+        PdfFont otherFont = PdfFontFactory.createFont();
+        GlyphLineCache.getGlyphLine(font, "Hello");
+        GlyphLineCache.getGlyphLine(otherFont, "Hello");
+
+        Assert.assertNotSame(GlyphLineCache.getInstance(font), GlyphLineCache.getInstance(otherFont));
+        Assert.assertEquals(0, GlyphLineCache.getInstance(font).getHitCount());
+        Assert.assertEquals(1, GlyphLineCache.getInstance(font).getMissCount());
+        Assert.assertEquals(0, GlyphLineCache.getInstance(otherFont).getHitCount());
+        Assert.assertEquals(1, GlyphLineCache.getInstance(otherFont).getMissCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedLineIsEvictedTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont();
+        GlyphLineCache cache = GlyphLineCache.getInstance(font);
+        cache.setMaxSize(2);
+        GlyphLineCache.getGlyphLine(font, "first");
+        GlyphLineCache.getGlyphLine(font, "second");
+        GlyphLineCache.getGlyphLine(font, "first");
+        GlyphLineCache.getGlyphLine(font, "third");
+        cache.resetStatistics();
+
+        GlyphLineCache.getGlyphLine(font, "first");
+        GlyphLineCache.getGlyphLine(font, "third");
+        Assert.assertEquals(2, cache.getHitCount());
+        GlyphLineCache.getGlyphLine(font, "second");
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void disabledCacheTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont();
+        GlyphLineCache cache = GlyphLineCache.getInstance(font);
+        cache.setMaxSize(0);
+        GlyphLine first = GlyphLineCache.getGlyphLine(font, "Hello");
+        GlyphLine second = GlyphLineCache.getGlyphLine(font, "Hello");
+
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void negativeMaxSizeTest() throws IOException {
+        junitExpectedException.expect(IllegalArgumentException.class);
+        junitExpectedException.expectMessage("The size of the glyph line cache can not be negative.");
+
+        GlyphLineCache cache = GlyphLineCache.getInstance(PdfFontFactory.createFont());
+        cache.setMaxSize(-1);
+    }
+
+    @Test
+    public void kernedLineIsCachedSeparatelyTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont();
+        // the kerning is applied by the typography module, so it is imitated here by changing the advance
+        GlyphLine kernedLine = font.createGlyphLine("AV");
+        Glyph kernedGlyph = new Glyph(kernedLine.get(kernedLine.start));
+        kernedGlyph.setXAdvance((short) -80);
+        kernedLine.set(kernedLine.start, kernedGlyph);
+        GlyphLineCache.putShapedGlyphLine(font, "AV", null, null, FontKerning.YES,
+                new GlyphLineCache.ShapedGlyphLine(kernedLine, false));
+
+        Assert.assertNull(GlyphLineCache.getShapedGlyphLine(font, "AV", null, null, FontKerning.NO));
+        GlyphLineCache.ShapedGlyphLine cached = GlyphLineCache.getShapedGlyphLine(font, "AV", null, null, FontKerning.YES);
+        Assert.assertNotNull(cached);
+        Assert.assertEquals(-80, cached.glyphLine.get(cached.glyphLine.start).getXAdvance());
+        Assert.assertEquals(kernedLine.end - kernedLine.start, cached.glyphLine.end - cached.glyphLine.start);
+        Assert.assertFalse(cached.bidiScriptDetected);
+
+        GlyphLineCache cache = GlyphLineCache.getInstance(font);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void repeatedTextIsConvertedOnceTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        Document doc = new Document(pdfDoc);
+        PdfFont font = PdfFontFactory.createFont();
+        LayoutContext layoutContext = new LayoutContext(new LayoutArea(1, new Rectangle(100, 100, 100, 100)));
+
+        float[] widths = new float[3];
+        for (int i = 0; i < widths.length; i++) {
+            TextRenderer renderer = (TextRenderer) new TextRenderer(new Text("repeated text").setFont(font)).setParent(doc.getRenderer());
+            widths[i] = renderer.layout(layoutContext).getOccupiedArea().getBBox().getWidth();
+        }
+
+        GlyphLineCache cache = GlyphLineCache.getInstance(font);
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(widths[0], widths[1], 1e-4);
+        Assert.assertEquals(widths[0], widths[2], 1e-4);
+        doc.close();
+    }
+}
@@ -0,0 +1,267 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2019 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.kernel.events.Event;
+import com.itextpdf.kernel.events.IEventHandler;
+import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.action.PdfAction;
+import com.itextpdf.kernel.utils.CompareTool;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.Link;
+import com.itextpdf.layout.element.List;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.layout.LayoutContext;
+import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.property.FloatPropertyValue;
+import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.UnitValue;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.LogMessage;
+import com.itextpdf.test.annotations.LogMessages;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+@Category(IntegrationTest.class)
+public class ParallelDocumentRendererTest extends ExtendedITextTest {
+
+    public static final String sourceFolder = "./src/test/resources/com/itextpdf/layout/ParallelDocumentRendererTest/";
+    public static final String destinationFolder = "./target/test/com/itextpdf/layout/ParallelDocumentRendererTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void parallelLayoutTest() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "parallelLayoutTest.pdf";
+        String cmpFileName = destinationFolder + "parallelLayoutTest_sequential.pdf";
+
+        java.util.List<Integer> sequentialPageEvents = createCatalog(cmpFileName, 1, true, false);
+        java.util.List<Integer> parallelPageEvents = createCatalog(outFileName, 4, true, false);
+
+        Assert.assertEquals(sequentialPageEvents, parallelPageEvents);
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    @Test
+    public void parallelLayoutWithoutImmediateFlushTest() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "parallelLayoutWithoutImmediateFlushTest.pdf";
+        String cmpFileName = destinationFolder + "parallelLayoutWithoutImmediateFlushTest_sequential.pdf";
+
+        java.util.List<Integer> sequentialPageEvents = createCatalog(cmpFileName, 1, false, false);
+        java.util.List<Integer> parallelPageEvents = createCatalog(outFileName, 4, false, false);
+
+        Assert.assertEquals(sequentialPageEvents, parallelPageEvents);
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    @Test
+    @LogMessages(messages = {@LogMessage(messageTemplate = LogMessageConstant.RENDERER_WAS_NOT_ABLE_TO_PROCESS_KEEP_WITH_NEXT, count = 13)})
+    public void sequentialLayoutDependentSegmentsTest() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "sequentialLayoutDependentSegmentsTest.pdf";
+        String cmpFileName = sourceFolder + "cmp_parallelLayoutDependentSegmentsTest.pdf";
+
+        createCatalog(outFileName, 1, true, true);
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    @Test
+    @LogMessages(messages = {@LogMessage(messageTemplate = LogMessageConstant.RENDERER_WAS_NOT_ABLE_TO_PROCESS_KEEP_WITH_NEXT, count = 13)})
+    public void parallelLayoutDependentSegmentsTest() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "parallelLayoutDependentSegmentsTest.pdf";
+        String cmpFileName = sourceFolder + "cmp_parallelLayoutDependentSegmentsTest.pdf";
+
+        createCatalog(outFileName, 4, true, true);
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    @Test
+    public void parallelRelayoutTest() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "parallelRelayoutTest.pdf";
+        String cmpFileName = destinationFolder + "parallelRelayoutTest_sequential.pdf";
+
+        for (int threadsCount : new int[] {1, 4}) {
+            PdfDocument pdfDocument = new PdfDocument(new PdfWriter(threadsCount == 1 ? cmpFileName : outFileName));
+            Document document = new Document(pdfDocument, PageSize.A4, false);
+            if (threadsCount > 1) {
+                document.setRenderer(new ParallelDocumentRenderer(document, false, threadsCount));
+            }
+            addCatalogContent(document, false);
+            if (threadsCount > 1) {
+                ((ParallelDocumentRenderer) document.getRenderer()).waitForLayout();
+            }
+            Paragraph pagesCount = new Paragraph("Total pages: " + pdfDocument.getNumberOfPages());
+            document.add(pagesCount);
+            document.relayout();
+            document.close();
+        }
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    @Test
+    public void segmentsAreLaidOutOnSeparateThreadsTest() throws IOException {
+        String outFileName = destinationFolder + "segmentsAreLaidOutOnSeparateThreadsTest.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFileName));
+        Document document = new Document(pdfDocument);
+        document.setRenderer(new ParallelDocumentRenderer(document, 2));
+
+        Set<Thread> layoutThreads = Collections.synchronizedSet(new HashSet<Thread>());
+        for (int i = 0; i < 10; i++) {
+            document.add(new AreaBreak());
+            Paragraph paragraph = new Paragraph("Segment #" + i);
+            paragraph.setNextRenderer(new ThreadRecordingParagraphRenderer(paragraph, layoutThreads));
+            document.add(paragraph);
+        }
+        ((ParallelDocumentRenderer) document.getRenderer()).waitForLayout();
+        Assert.assertEquals(11, pdfDocument.getNumberOfPages());
+        document.close();
+
+        // The last segment is laid out on the current thread, since it is not complete until the layout is finished
+        layoutThreads.remove(Thread.currentThread());
+        Assert.assertFalse(layoutThreads.isEmpty());
+    }
+
+    private static java.util.List<Integer> createCatalog(String outFileName, int threadsCount, boolean immediateFlush,
+                                                         boolean dependentSegments) throws IOException {
+        final PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFileName));
+        final java.util.List<Integer> startedPages = new ArrayList<>();
+        pdfDocument.addEventHandler(PdfDocumentEvent.START_PAGE, new IEventHandler() {
+            @Override
+            public void handleEvent(Event event) {
+                startedPages.add(pdfDocument.getPageNumber(((PdfDocumentEvent) event).getPage()));
+            }
+        });
+
+        Document document = new Document(pdfDocument, PageSize.A4, immediateFlush);
+        if (threadsCount > 1) {
+            document.setRenderer(new ParallelDocumentRenderer(document, immediateFlush, threadsCount));
+        }
+        addCatalogContent(document, dependentSegments);
+        document.close();
+        return startedPages;
+    }
+
+    private static void addCatalogContent(Document document, boolean dependentSegments) {
+        document.add(new Paragraph("Catalog").setFontSize(30));
+        for (int i = 0; i < 40; i++) {
+            if (i % 10 == 5) {
+                document.add(new AreaBreak(PageSize.A5.rotate()));
+            } else {
+                document.add(new AreaBreak());
+            }
+
+            Div item = new Div();
+            item.add(new Paragraph("Item #" + i).setFontSize(20));
+            item.add(new Paragraph().add(new Link("Item link", PdfAction.createURI("http://example.com/" + i))));
+            Table table = new Table(UnitValue.createPercentArray(3)).useAllAvailableWidth();
+            table.addHeaderCell("Property").addHeaderCell("Value").addHeaderCell("Comment");
+            for (int row = 0; row < 5 + i * 3 % 70; row++) {
+                table.addCell("Property " + row);
+                table.addCell(new Cell().add(new Paragraph("Value " + row * i)));
+                table.addCell("Some comment about the property " + row + " of the item " + i);
+            }
+            item.add(table);
+            List list = new List();
+            for (int j = 0; j < 3 + i % 4; j++) {
+                list.add("Feature " + j);
+            }
+            item.add(list);
+            document.add(item);
+
+            if (dependentSegments && i % 3 == 0) {
+                // Such content affects the next segment, so the segment is laid out sequentially
+                Paragraph keptWithNext = new Paragraph("Kept with the next segment");
+                keptWithNext.setKeepWithNext(true);
+                document.add(keptWithNext);
+            } else if (dependentSegments && i % 3 == 1) {
+                Div floatingDiv = new Div().setHeight(900).setWidth(100);
+                floatingDiv.setProperty(Property.FLOAT, FloatPropertyValue.LEFT);
+                floatingDiv.add(new Paragraph("Floating"));
+                document.add(floatingDiv);
+            }
+        }
+    }
+
+    private static class ThreadRecordingParagraphRenderer extends ParagraphRenderer {
+        private final Set<Thread> layoutThreads;
+
+        ThreadRecordingParagraphRenderer(Paragraph modelElement, Set<Thread> layoutThreads) {
+            super(modelElement);
+            this.layoutThreads = layoutThreads;
+        }
+
+        @Override
+        public LayoutResult layout(LayoutContext layoutContext) {
+            layoutThreads.add(Thread.currentThread());
+            return super.layout(layoutContext);
+        }
+
+        @Override
+        public IRenderer getNextRenderer() {
+            return new ThreadRecordingParagraphRenderer((Paragraph) modelElement, layoutThreads);
+        }
+    }
+}